@@ -1,13 +1,77 @@
 package com.portfolio.rebalancer.config;
 
+import com.portfolio.rebalancer.service.HttpClientMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class GatewayClientConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(GatewayClientConfig.class);
+
+    /**
+     * Threads that complete the shared HTTP client's exchanges; callers block on them.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService interServiceHttpExecutor(@Value("${app.http-client.threads}") int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "http-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * One pooled client for all inter-service calls, so connections to the gateway and the
+     * auth-service are kept alive and reused rather than opened per request. With version HTTP_2,
+     * HTTP/2 is negotiated where the server supports it, falling back to HTTP/1.1 connections.
+     */
+    @Bean
+    public HttpClient interServiceHttpClient(ExecutorService interServiceHttpExecutor,
+                                             @Value("${app.http-client.version}") HttpClient.Version version,
+                                             @Value("${app.http-client.connect-timeout-ms}") long connectTimeoutMs,
+                                             @Value("${app.http-client.pool-size}") int poolSize,
+                                             @Value("${app.http-client.keep-alive-seconds}") long keepAliveSeconds) {
+        // The JDK client only reads its pool settings from system properties, once, when the first
+        // client is created. The start scripts pass them as -D flags, which win; setting them here
+        // covers launches without the flags, as long as no other JDK client was created before
+        String effectivePoolSize = setIfAbsent(HttpClientMetrics.POOL_SIZE_PROPERTY, String.valueOf(poolSize));
+        String effectiveKeepAlive = setIfAbsent(HttpClientMetrics.KEEP_ALIVE_PROPERTY, String.valueOf(keepAliveSeconds));
+        log.info("Inter-service HTTP client: {}, {}={}, {}={}s", version,
+                HttpClientMetrics.POOL_SIZE_PROPERTY, effectivePoolSize,
+                HttpClientMetrics.KEEP_ALIVE_PROPERTY, effectiveKeepAlive);
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(interServiceHttpExecutor)
+                .build();
+    }
+
+    /**
+     * Applied to every {@link RestClient.Builder}, so the gateway and token clients share the
+     * transport and its metrics.
+     */
+    @Bean
+    public RestClientCustomizer interServiceTransport(HttpClient interServiceHttpClient, HttpClientMetrics metrics,
+                                                      @Value("${app.http-client.read-timeout-ms}") long readTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(interServiceHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder -> builder
+                .requestFactory(requestFactory)
+                .requestInterceptor(metrics);
+    }
+
     @Bean
     public RestClient gatewayRestClient(RestClient.Builder builder,
                                          @Value("${app.gateway.url}") String gatewayUrl) {
@@ -15,4 +79,17 @@ public class GatewayClientConfig {
                 .baseUrl(gatewayUrl)
                 .build();
     }
+
+    /** Set the system property unless it is already set, and return the value in effect. */
+    private static String setIfAbsent(String property, String value) {
+        String current = System.getProperty(property);
+        if (current == null) {
+            System.setProperty(property, value);
+            return value;
+        }
+        if (!current.equals(value)) {
+            log.warn("System property {}={} overrides the configured value {}", property, current, value);
+        }
+        return current;
+    }
 }
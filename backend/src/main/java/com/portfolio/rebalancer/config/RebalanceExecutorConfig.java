@@ -0,0 +1,19 @@
+package com.portfolio.rebalancer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class RebalanceExecutorConfig {
+
+    /**
+     * Dedicated pool for CPU-bound rebalance work so bulk requests never run on the common pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool rebalancePool(@Value("${app.rebalance.parallelism}") int parallelism) {
+        return new ForkJoinPool(parallelism);
+    }
+}
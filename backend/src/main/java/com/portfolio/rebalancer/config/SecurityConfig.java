@@ -35,6 +35,9 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/ws/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
+                // Process-wide operational stats, not scoped to the caller
+                .requestMatchers("/api/quotes/cache-stats", "/api/quotes/http-client-stats",
+                        "/api/portfolios/rebalance/cache-stats").hasRole("ADMIN")
                 .requestMatchers("/api/quotes/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
                 .anyRequest().authenticated()
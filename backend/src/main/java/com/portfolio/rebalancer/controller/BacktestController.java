@@ -0,0 +1,32 @@
+package com.portfolio.rebalancer.controller;
+
+import com.portfolio.rebalancer.dto.response.BacktestResponse;
+import com.portfolio.rebalancer.service.BacktestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/portfolios/{portfolioId}/backtest")
+@Tag(name = "Backtest", description = "Backtest drift-threshold rebalancing over price history")
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    public BacktestController(BacktestService backtestService) {
+        this.backtestService = backtestService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Compare turnover and tracking error across drift thresholds")
+    public ResponseEntity<BacktestResponse> runBacktest(
+            @PathVariable Long portfolioId,
+            @RequestParam(defaultValue = "1y") String range,
+            @RequestParam(required = false) List<BigDecimal> thresholds) {
+        return ResponseEntity.ok(backtestService.runBacktest(portfolioId, range, thresholds));
+    }
+}
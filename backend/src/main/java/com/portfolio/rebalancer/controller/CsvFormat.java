@@ -0,0 +1,31 @@
+package com.portfolio.rebalancer.controller;
+
+import java.math.BigDecimal;
+
+/**
+ * Field formatting for the CSV responses.
+ */
+final class CsvFormat {
+
+    private CsvFormat() {
+    }
+
+    /** Quotes the value when it contains a separator, quote or line break; null is empty. */
+    static String text(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /** Plain notation, without exponent; null is empty. */
+    static String number(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    /** {@code toString} of the value; null is empty. */
+    static String value(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
@@ -0,0 +1,50 @@
+package com.portfolio.rebalancer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.rebalancer.dto.response.DriftSimulationResponse;
+import com.portfolio.rebalancer.service.DriftSimulationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/portfolios/drift/simulation")
+@Tag(name = "Drift Simulation", description = "Monte Carlo simulation of drift threshold breaches")
+public class DriftSimulationController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final DriftSimulationService driftSimulationService;
+    private final ObjectMapper objectMapper;
+
+    public DriftSimulationController(DriftSimulationService driftSimulationService, ObjectMapper objectMapper) {
+        this.driftSimulationService = driftSimulationService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    @Operation(summary = "Simulate drift threshold breaches of all portfolios, one JSON line per portfolio")
+    public ResponseEntity<StreamingResponseBody> simulateDrift(
+            @RequestParam(defaultValue = "6m") String range,
+            @RequestParam(defaultValue = "365") int horizonDays,
+            @RequestParam(defaultValue = "100000") int paths,
+            @RequestParam(required = false) Long seed) {
+        // Loading and validation happen here, on the request thread; only the simulations stream
+        Stream<DriftSimulationResponse> results = driftSimulationService.simulateDrift(range, horizonDays, paths, seed);
+        StreamingResponseBody body = out -> {
+            Iterator<DriftSimulationResponse> it = results.iterator();
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -1,7 +1,9 @@
 package com.portfolio.rebalancer.controller;
 
 import com.portfolio.rebalancer.dto.request.CreateHoldingRequest;
+import com.portfolio.rebalancer.dto.response.CostBasisResponse;
 import com.portfolio.rebalancer.dto.response.HoldingResponse;
+import com.portfolio.rebalancer.dto.response.PortfolioCostBasisResponse;
 import com.portfolio.rebalancer.service.HoldingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,6 +31,20 @@ public class HoldingController {
         return ResponseEntity.ok(holdingService.getHoldings(portfolioId));
     }
 
+    @GetMapping("/cost-basis")
+    @Operation(summary = "Compare every holding's cost and realized P/L under each cost-basis method")
+    public ResponseEntity<List<PortfolioCostBasisResponse>> comparePortfolioCostBasisMethods(
+            @PathVariable Long portfolioId) {
+        return ResponseEntity.ok(holdingService.comparePortfolioCostBasisMethods(portfolioId));
+    }
+
+    @GetMapping("/{holdingId}/cost-basis")
+    @Operation(summary = "Compare a holding's lots and realized P/L under each cost-basis method")
+    public ResponseEntity<List<CostBasisResponse>> compareCostBasisMethods(@PathVariable Long portfolioId,
+                                                                           @PathVariable Long holdingId) {
+        return ResponseEntity.ok(holdingService.compareCostBasisMethods(portfolioId, holdingId));
+    }
+
     @PostMapping
     @Operation(summary = "Add a holding to a portfolio")
     public ResponseEntity<HoldingResponse> addHolding(@PathVariable Long portfolioId,
@@ -3,6 +3,7 @@ package com.portfolio.rebalancer.controller;
 import com.portfolio.rebalancer.dto.request.CreatePortfolioRequest;
 import com.portfolio.rebalancer.dto.request.UpdateCashBalanceRequest;
 import com.portfolio.rebalancer.dto.response.PortfolioResponse;
+import com.portfolio.rebalancer.dto.response.PortfolioSummaryResponse;
 import com.portfolio.rebalancer.service.PortfolioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -30,6 +31,12 @@ public class PortfolioController {
         return ResponseEntity.ok(portfolioService.getAllPortfolios());
     }
 
+    @GetMapping("/summary")
+    @Operation(summary = "Get all portfolios for the current user with aggregate numbers per holding instead of trades and lots")
+    public ResponseEntity<List<PortfolioSummaryResponse>> getPortfolioSummaries() {
+        return ResponseEntity.ok(portfolioService.getPortfolioSummaries());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a portfolio by ID")
     public ResponseEntity<PortfolioResponse> getPortfolio(@PathVariable Long id) {
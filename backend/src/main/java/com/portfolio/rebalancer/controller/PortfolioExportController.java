@@ -0,0 +1,145 @@
+package com.portfolio.rebalancer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.rebalancer.dto.response.HoldingSummaryResponse;
+import com.portfolio.rebalancer.dto.response.HoldingValuationResponse;
+import com.portfolio.rebalancer.repository.LotExportRow;
+import com.portfolio.rebalancer.repository.TradeExportRow;
+import com.portfolio.rebalancer.service.PortfolioExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/portfolios/{portfolioId}/export")
+@Tag(name = "Portfolio Export", description = "Stream a portfolio's valued holdings, trades and open lots")
+public class PortfolioExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String HOLDINGS_HEADER = "holding_id,ticker_symbol,name,asset_class,currency,quantity,"
+            + "average_cost_basis,total_cost,realized_pnl,trade_count,last_trade_date,current_price,market_value,"
+            + "unrealized_pnl,stale_price";
+    // Import columns first, so an exported file can be imported into another portfolio; the importer
+    // reads lot_trade_id as a trade_id of the same file
+    private static final String TRADES_HEADER = "ticker_symbol,date,type,quantity,price,fee,lot_trade_id,"
+            + "trade_id,holding_id,created_at";
+    private static final String LOTS_HEADER = "holding_id,ticker_symbol,trade_id,purchase_date,original_quantity,"
+            + "remaining_quantity,cost_basis_per_share";
+
+    private final PortfolioExportService portfolioExportService;
+    private final ObjectMapper objectMapper;
+
+    public PortfolioExportController(PortfolioExportService portfolioExportService, ObjectMapper objectMapper) {
+        this.portfolioExportService = portfolioExportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/{records}")
+    @Operation(summary = "Stream a portfolio's holdings, trades or lots as NDJSON or CSV, one row per record")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable Long portfolioId,
+                                                        @PathVariable String records,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = switch (format) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new IllegalArgumentException("Invalid format: " + format + ". Allowed: ndjson, csv");
+        };
+        // Access is checked here, on the request thread; rows are read while writing
+        StreamingResponseBody body = switch (records) {
+            case "holdings" -> write(portfolioExportService.holdings(portfolioId), csv, HOLDINGS_HEADER,
+                    PortfolioExportController::holdingCsv);
+            case "trades" -> write(portfolioExportService.trades(portfolioId), csv, TRADES_HEADER,
+                    PortfolioExportController::tradeCsv);
+            case "lots" -> write(portfolioExportService.lots(portfolioId), csv, LOTS_HEADER,
+                    PortfolioExportController::lotCsv);
+            default -> throw new IllegalArgumentException("Invalid records: " + records + ". Allowed: holdings, trades, lots");
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"portfolio-" + portfolioId + "-"
+                        + records + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
+    private <T> StreamingResponseBody write(PortfolioExportService.RowSource<T> rows, boolean csv, String header,
+                                            Function<T, String> toCsv) {
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(header);
+                writer.write('\n');
+            }
+            try {
+                rows.forEach(row -> {
+                    try {
+                        writer.write(csv ? toCsv.apply(row) : objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private static String holdingCsv(HoldingValuationResponse valuation) {
+        HoldingSummaryResponse row = valuation.getHolding();
+        return String.join(",",
+                CsvFormat.value(row.getId()),
+                CsvFormat.text(row.getTickerSymbol()),
+                CsvFormat.text(row.getName()),
+                CsvFormat.value(row.getAssetClass()),
+                CsvFormat.text(row.getCurrency()),
+                CsvFormat.number(row.getQuantity()),
+                CsvFormat.number(row.getAverageCostBasis()),
+                CsvFormat.number(row.getTotalCost()),
+                CsvFormat.number(row.getRealizedPnL()),
+                CsvFormat.value(row.getTradeCount()),
+                CsvFormat.value(row.getLastTradeDate()),
+                CsvFormat.number(valuation.getCurrentPrice()),
+                CsvFormat.number(valuation.getMarketValue()),
+                CsvFormat.number(valuation.getUnrealizedPnL()),
+                CsvFormat.value(valuation.isStalePrice()));
+    }
+
+    private static String tradeCsv(TradeExportRow row) {
+        return String.join(",",
+                CsvFormat.text(row.getTickerSymbol()),
+                CsvFormat.value(row.getDate()),
+                CsvFormat.value(row.getType()),
+                CsvFormat.number(row.getQuantity()),
+                CsvFormat.number(row.getPrice()),
+                CsvFormat.number(row.getFee()),
+                CsvFormat.value(row.getLotTradeId()),
+                CsvFormat.value(row.getId()),
+                CsvFormat.value(row.getHoldingId()),
+                CsvFormat.value(row.getCreatedAt()));
+    }
+
+    private static String lotCsv(LotExportRow row) {
+        return String.join(",",
+                CsvFormat.value(row.getHoldingId()),
+                CsvFormat.text(row.getTickerSymbol()),
+                CsvFormat.value(row.getTradeId()),
+                CsvFormat.value(row.getPurchaseDate()),
+                CsvFormat.number(row.getOriginalQuantity()),
+                CsvFormat.number(row.getRemainingQuantity()),
+                CsvFormat.number(row.getCostBasisPerShare()));
+    }
+}
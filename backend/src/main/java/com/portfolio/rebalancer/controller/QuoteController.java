@@ -1,8 +1,11 @@
 package com.portfolio.rebalancer.controller;
 
+import com.portfolio.rebalancer.dto.response.CacheStatsResponse;
 import com.portfolio.rebalancer.dto.response.HistoricalDataPoint;
+import com.portfolio.rebalancer.dto.response.HttpClientStatsResponse;
 import com.portfolio.rebalancer.dto.response.QuoteResponse;
 import com.portfolio.rebalancer.dto.response.TickerSearchResult;
+import com.portfolio.rebalancer.service.HttpClientMetrics;
 import com.portfolio.rebalancer.service.MarketDataClient;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirements;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/quotes")
@@ -20,9 +24,11 @@ import java.util.List;
 public class QuoteController {
 
     private final MarketDataClient marketDataClient;
+    private final HttpClientMetrics httpClientMetrics;
 
-    public QuoteController(MarketDataClient marketDataClient) {
+    public QuoteController(MarketDataClient marketDataClient, HttpClientMetrics httpClientMetrics) {
         this.marketDataClient = marketDataClient;
+        this.httpClientMetrics = httpClientMetrics;
     }
 
     @GetMapping("/search")
@@ -31,10 +37,27 @@ public class QuoteController {
         return ResponseEntity.ok(marketDataClient.searchTickers(q));
     }
 
+    @GetMapping("/cache-stats")
+    @Operation(summary = "Get quote cache hit/miss statistics", description = "Requires the admin role.")
+    public ResponseEntity<CacheStatsResponse> getQuoteCacheStats() {
+        return ResponseEntity.ok(marketDataClient.getQuoteCacheStats());
+    }
+
+    @GetMapping("/http-client-stats")
+    @Operation(summary = "Get request statistics of the market data transport",
+            description = "Counts requests made through the shared inter-service HTTP client, not its "
+                    + "connection pool, which the JDK client does not expose. Over HTTP/1.1 active and "
+                    + "peak requests equal the connections in use; over HTTP/2 they count streams. Idle "
+                    + "pooled connections are not reported. connectionPoolSize and keepAliveSeconds are "
+                    + "the pool settings in effect. Requires the admin role.")
+    public ResponseEntity<HttpClientStatsResponse> getHttpClientStats() {
+        return ResponseEntity.ok(httpClientMetrics.getStats());
+    }
+
     @GetMapping("/{symbol}")
     @Operation(summary = "Get quote for a single symbol")
-    public ResponseEntity<QuoteResponse> getQuote(@PathVariable String symbol) {
-        return ResponseEntity.ok(marketDataClient.fetchQuote(symbol));
+    public CompletableFuture<ResponseEntity<QuoteResponse>> getQuote(@PathVariable String symbol) {
+        return marketDataClient.fetchQuoteAsync(symbol).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/{symbol}/history")
@@ -47,8 +70,8 @@ public class QuoteController {
 
     @GetMapping
     @Operation(summary = "Get quotes for multiple symbols (comma-separated)")
-    public ResponseEntity<List<QuoteResponse>> getQuotes(@RequestParam String symbols) {
+    public CompletableFuture<ResponseEntity<List<QuoteResponse>>> getQuotes(@RequestParam String symbols) {
         List<String> symbolList = Arrays.asList(symbols.split(","));
-        return ResponseEntity.ok(marketDataClient.fetchQuotes(symbolList));
+        return marketDataClient.fetchQuotesAsync(symbolList).thenApply(ResponseEntity::ok);
     }
 }
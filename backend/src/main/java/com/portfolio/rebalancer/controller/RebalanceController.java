@@ -1,35 +1,80 @@
 package com.portfolio.rebalancer.controller;
 
 import com.portfolio.rebalancer.dto.request.CashRebalanceRequest;
+import com.portfolio.rebalancer.dto.request.PriceShockRequest;
+import com.portfolio.rebalancer.dto.response.CacheStatsResponse;
+import com.portfolio.rebalancer.dto.response.DriftStatusResponse;
+import com.portfolio.rebalancer.dto.response.PriceShockResponse;
 import com.portfolio.rebalancer.dto.response.RebalanceResponse;
+import com.portfolio.rebalancer.service.DriftMonitorService;
+import com.portfolio.rebalancer.service.RebalanceCache;
 import com.portfolio.rebalancer.service.RebalanceService;
+import com.portfolio.rebalancer.service.TradeStrategy;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
-@RequestMapping("/api/portfolios/{portfolioId}/rebalance")
+@RequestMapping("/api/portfolios")
 @Tag(name = "Rebalance", description = "Calculate portfolio rebalancing recommendations")
 public class RebalanceController {
 
     private final RebalanceService rebalanceService;
+    private final DriftMonitorService driftMonitorService;
+    private final RebalanceCache rebalanceCache;
 
-    public RebalanceController(RebalanceService rebalanceService) {
+    public RebalanceController(RebalanceService rebalanceService, DriftMonitorService driftMonitorService,
+                               RebalanceCache rebalanceCache) {
         this.rebalanceService = rebalanceService;
+        this.driftMonitorService = driftMonitorService;
+        this.rebalanceCache = rebalanceCache;
+    }
+
+    @GetMapping("/rebalance/cache-stats")
+    @Operation(summary = "Get rebalance result cache hit/miss statistics", description = "Requires the admin role.")
+    public ResponseEntity<CacheStatsResponse> getRebalanceCacheStats() {
+        return ResponseEntity.ok(rebalanceCache.getStats());
+    }
+
+    @GetMapping("/drift")
+    @Operation(summary = "Get the monitored drift status of all portfolios")
+    public ResponseEntity<List<DriftStatusResponse>> getDriftStatus() {
+        return ResponseEntity.ok(driftMonitorService.getDriftStatus());
     }
 
-    @GetMapping
+    @GetMapping("/rebalance")
+    @Operation(summary = "Calculate rebalance recommendations for all portfolios")
+    public ResponseEntity<List<RebalanceResponse>> calculateRebalanceForAllPortfolios() {
+        return ResponseEntity.ok(rebalanceService.calculateRebalanceForAllPortfolios());
+    }
+
+    @GetMapping("/{portfolioId}/rebalance")
     @Operation(summary = "Calculate rebalance recommendations")
-    public ResponseEntity<RebalanceResponse> calculateRebalance(@PathVariable Long portfolioId) {
-        return ResponseEntity.ok(rebalanceService.calculateRebalance(portfolioId));
+    public ResponseEntity<RebalanceResponse> calculateRebalance(
+            @PathVariable Long portfolioId,
+            @RequestParam(defaultValue = "proportional") String strategy) {
+        return ResponseEntity.ok(rebalanceService.calculateRebalance(portfolioId,
+                TradeStrategy.fromParameter(strategy)));
     }
 
-    @PostMapping("/cash")
+    @PostMapping("/{portfolioId}/rebalance/cash")
     @Operation(summary = "Calculate rebalance with additional cash to invest")
     public ResponseEntity<RebalanceResponse> calculateCashRebalance(@PathVariable Long portfolioId,
                                                                     @Valid @RequestBody CashRebalanceRequest request) {
         return ResponseEntity.ok(rebalanceService.calculateCashRebalance(portfolioId, request.getAmount()));
     }
+
+    @PostMapping("/{portfolioId}/rebalance/what-if")
+    @Operation(summary = "Simulate allocations, drift and trades under price-shock scenarios")
+    public ResponseEntity<PriceShockResponse> simulatePriceShocks(
+            @PathVariable Long portfolioId,
+            @RequestParam(defaultValue = "proportional") String strategy,
+            @Valid @RequestBody PriceShockRequest request) {
+        return ResponseEntity.ok(rebalanceService.simulatePriceShocks(portfolioId, request.getScenarios(),
+                TradeStrategy.fromParameter(strategy)));
+    }
 }
@@ -0,0 +1,90 @@
+package com.portfolio.rebalancer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.rebalancer.dto.response.RealizedGainResponse;
+import com.portfolio.rebalancer.service.RealizedGainsReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Reports", description = "Account-wide reports")
+public class ReportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String CSV_HEADER = "portfolio_id,portfolio_name,holding_id,ticker_symbol,buy_trade_id,"
+            + "purchase_date,sell_trade_id,sell_date,quantity,cost_basis_per_share,sell_price_per_share,"
+            + "realized_gain,long_term,wash_sale";
+
+    private final RealizedGainsReportService realizedGainsReportService;
+    private final ObjectMapper objectMapper;
+
+    public ReportController(RealizedGainsReportService realizedGainsReportService, ObjectMapper objectMapper) {
+        this.realizedGainsReportService = realizedGainsReportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/realized-gains")
+    @Operation(summary = "Stream realized gains of all portfolios for a tax year, one row per lot disposition")
+    public ResponseEntity<StreamingResponseBody> realizedGains(
+            @RequestParam int year,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = switch (format) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new IllegalArgumentException("Invalid format: " + format + ". Allowed: ndjson, csv");
+        };
+        // Validation and the user lookup happen here, on the request thread; holdings are paged while writing
+        Stream<RealizedGainResponse> rows = realizedGainsReportService.realizedGains(year);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<RealizedGainResponse> it = rows.iterator();
+            while (it.hasNext()) {
+                RealizedGainResponse row = it.next();
+                writer.write(csv ? toCsv(row) : objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"realized-gains-" + year + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(body);
+    }
+
+    private static String toCsv(RealizedGainResponse row) {
+        return String.join(",",
+                String.valueOf(row.getPortfolioId()),
+                CsvFormat.text(row.getPortfolioName()),
+                String.valueOf(row.getHoldingId()),
+                CsvFormat.text(row.getTickerSymbol()),
+                String.valueOf(row.getBuyTradeId()),
+                row.getPurchaseDate() != null ? row.getPurchaseDate().toString() : "",
+                String.valueOf(row.getSellTradeId()),
+                row.getSellDate().toString(),
+                CsvFormat.number(row.getQuantity()),
+                CsvFormat.number(row.getCostBasisPerShare()),
+                CsvFormat.number(row.getSellPricePerShare()),
+                CsvFormat.number(row.getRealizedGain()),
+                String.valueOf(row.isLongTerm()),
+                String.valueOf(row.isWashSale()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.portfolio.rebalancer.controller;
 
 import com.portfolio.rebalancer.dto.request.CreateTradeRequest;
+import com.portfolio.rebalancer.dto.response.TradePageResponse;
 import com.portfolio.rebalancer.dto.response.TradeResponse;
 import com.portfolio.rebalancer.service.TradeService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +31,15 @@ public class TradeController {
         return ResponseEntity.ok(tradeService.getTrades(portfolioId, holdingId));
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get one page of a holding's trades, newest first; pass nextCursor to get the next page")
+    public ResponseEntity<TradePageResponse> getTradePage(@PathVariable Long portfolioId,
+                                                          @PathVariable Long holdingId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(tradeService.getTradePage(portfolioId, holdingId, cursor, size));
+    }
+
     @PostMapping
     @Operation(summary = "Add a trade to a holding")
     public ResponseEntity<TradeResponse> addTrade(@PathVariable Long portfolioId,
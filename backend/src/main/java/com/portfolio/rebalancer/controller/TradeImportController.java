@@ -0,0 +1,52 @@
+package com.portfolio.rebalancer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.rebalancer.dto.response.TradeImportEvent;
+import com.portfolio.rebalancer.service.TradeImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/portfolios/{portfolioId}/trades/import")
+@Tag(name = "Trade Import", description = "Bulk import of trades into a portfolio's holdings")
+public class TradeImportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final TradeImportService tradeImportService;
+    private final ObjectMapper objectMapper;
+
+    public TradeImportController(TradeImportService tradeImportService, ObjectMapper objectMapper) {
+        this.tradeImportService = tradeImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    @Operation(summary = "Import trades from a CSV or NDJSON body, streaming rejected rows and progress as JSON lines")
+    public ResponseEntity<StreamingResponseBody> importTrades(@PathVariable Long portfolioId,
+                                                              @RequestParam(defaultValue = "csv") String format,
+                                                              InputStream body) {
+        // Validation and the portfolio lookup happen here, on the request thread; rows are read while writing
+        Stream<TradeImportEvent> events = tradeImportService.importTrades(portfolioId, body, format);
+        StreamingResponseBody response = out -> {
+            // Closing finishes the import even when the client goes away mid-stream
+            try (Stream<TradeImportEvent> stream = events) {
+                Iterator<TradeImportEvent> it = stream.iterator();
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                    out.flush();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(response);
+    }
+}
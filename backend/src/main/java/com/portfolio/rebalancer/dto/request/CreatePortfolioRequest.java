@@ -1,5 +1,6 @@
 package com.portfolio.rebalancer.dto.request;
 
+import com.portfolio.rebalancer.entity.CostBasisMethod;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -27,6 +28,8 @@ public class CreatePortfolioRequest {
     @Size(max = 3)
     private String baseCurrency;
 
+    private CostBasisMethod costBasisMethod;
+
     public BigDecimal getDriftThreshold() { return driftThreshold; }
     public void setDriftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; }
 
@@ -35,4 +38,7 @@ public class CreatePortfolioRequest {
 
     public String getBaseCurrency() { return baseCurrency; }
     public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+
+    public CostBasisMethod getCostBasisMethod() { return costBasisMethod; }
+    public void setCostBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; }
 }
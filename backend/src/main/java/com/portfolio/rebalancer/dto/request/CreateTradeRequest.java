@@ -16,6 +16,7 @@ public class CreateTradeRequest {
     @NotNull @Positive
     private BigDecimal price;
     private BigDecimal fee;
+    private Long lotTradeId;
 
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
@@ -31,4 +32,7 @@ public class CreateTradeRequest {
 
     public BigDecimal getFee() { return fee; }
     public void setFee(BigDecimal fee) { this.fee = fee; }
+
+    public Long getLotTradeId() { return lotTradeId; }
+    public void setLotTradeId(Long lotTradeId) { this.lotTradeId = lotTradeId; }
 }
@@ -0,0 +1,39 @@
+package com.portfolio.rebalancer.dto.request;
+
+import com.portfolio.rebalancer.entity.AssetClass;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public class PriceShockRequest {
+
+    @NotEmpty
+    @Size(max = 10000)
+    @Valid
+    private List<Scenario> scenarios;
+
+    public List<Scenario> getScenarios() { return scenarios; }
+    public void setScenarios(List<Scenario> scenarios) { this.scenarios = scenarios; }
+
+    /**
+     * Price moves in percent, e.g. {@code -20} for a 20% drop. A ticker shock takes precedence
+     * over the shock of its asset class; unlisted holdings keep their current price.
+     */
+    public static class Scenario {
+        private String name;
+        private Map<AssetClass, BigDecimal> assetClassShocks;
+        private Map<String, BigDecimal> tickerShocks;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public Map<AssetClass, BigDecimal> getAssetClassShocks() { return assetClassShocks; }
+        public void setAssetClassShocks(Map<AssetClass, BigDecimal> assetClassShocks) { this.assetClassShocks = assetClassShocks; }
+
+        public Map<String, BigDecimal> getTickerShocks() { return tickerShocks; }
+        public void setTickerShocks(Map<String, BigDecimal> tickerShocks) { this.tickerShocks = tickerShocks; }
+    }
+}
@@ -0,0 +1,44 @@
+package com.portfolio.rebalancer.dto.request;
+
+import com.portfolio.rebalancer.entity.TradeType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One trade of a bulk import, naming its holding by ticker symbol.
+ */
+public class TradeImportRow {
+    /** Id of the trade in the export the row comes from; when set, lotTradeId is one of these ids. */
+    private Long id;
+    private String tickerSymbol;
+    private LocalDate date;
+    private TradeType type;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private BigDecimal fee;
+    private Long lotTradeId;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTickerSymbol() { return tickerSymbol; }
+    public void setTickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public TradeType getType() { return type; }
+    public void setType(TradeType type) { this.type = type; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public BigDecimal getFee() { return fee; }
+    public void setFee(BigDecimal fee) { this.fee = fee; }
+
+    public Long getLotTradeId() { return lotTradeId; }
+    public void setLotTradeId(Long lotTradeId) { this.lotTradeId = lotTradeId; }
+}
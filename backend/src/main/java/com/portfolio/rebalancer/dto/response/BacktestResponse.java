@@ -0,0 +1,129 @@
+package com.portfolio.rebalancer.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class BacktestResponse {
+    private Long portfolioId;
+    private String range;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int bars;
+    private BigDecimal driftThreshold;
+    private List<ThresholdResult> results;
+
+    public BacktestResponse() {
+    }
+
+    public BacktestResponse(Long portfolioId, String range, LocalDate startDate, LocalDate endDate, int bars,
+                            BigDecimal driftThreshold, List<ThresholdResult> results) {
+        this.portfolioId = portfolioId;
+        this.range = range;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.bars = bars;
+        this.driftThreshold = driftThreshold;
+        this.results = results;
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+
+    public String getRange() { return range; }
+    public void setRange(String range) { this.range = range; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public int getBars() { return bars; }
+    public void setBars(int bars) { this.bars = bars; }
+
+    public BigDecimal getDriftThreshold() { return driftThreshold; }
+    public void setDriftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; }
+
+    public List<ThresholdResult> getResults() { return results; }
+    public void setResults(List<ThresholdResult> results) { this.results = results; }
+
+    public static BacktestResponseBuilder builder() { return new BacktestResponseBuilder(); }
+
+    public static class BacktestResponseBuilder {
+        private Long portfolioId;
+        private String range;
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private int bars;
+        private BigDecimal driftThreshold;
+        private List<ThresholdResult> results;
+
+        public BacktestResponseBuilder portfolioId(Long portfolioId) { this.portfolioId = portfolioId; return this; }
+        public BacktestResponseBuilder range(String range) { this.range = range; return this; }
+        public BacktestResponseBuilder startDate(LocalDate startDate) { this.startDate = startDate; return this; }
+        public BacktestResponseBuilder endDate(LocalDate endDate) { this.endDate = endDate; return this; }
+        public BacktestResponseBuilder bars(int bars) { this.bars = bars; return this; }
+        public BacktestResponseBuilder driftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; return this; }
+        public BacktestResponseBuilder results(List<ThresholdResult> results) { this.results = results; return this; }
+
+        public BacktestResponse build() {
+            return new BacktestResponse(portfolioId, range, startDate, endDate, bars, driftThreshold, results);
+        }
+    }
+
+    public static class ThresholdResult {
+        private BigDecimal threshold;
+        private int rebalanceCount;
+        private BigDecimal turnoverPercentage;
+        private BigDecimal trackingErrorPercentage;
+        private BigDecimal finalValue;
+
+        public ThresholdResult() {
+        }
+
+        public ThresholdResult(BigDecimal threshold, int rebalanceCount, BigDecimal turnoverPercentage,
+                               BigDecimal trackingErrorPercentage, BigDecimal finalValue) {
+            this.threshold = threshold;
+            this.rebalanceCount = rebalanceCount;
+            this.turnoverPercentage = turnoverPercentage;
+            this.trackingErrorPercentage = trackingErrorPercentage;
+            this.finalValue = finalValue;
+        }
+
+        public BigDecimal getThreshold() { return threshold; }
+        public void setThreshold(BigDecimal threshold) { this.threshold = threshold; }
+
+        public int getRebalanceCount() { return rebalanceCount; }
+        public void setRebalanceCount(int rebalanceCount) { this.rebalanceCount = rebalanceCount; }
+
+        public BigDecimal getTurnoverPercentage() { return turnoverPercentage; }
+        public void setTurnoverPercentage(BigDecimal turnoverPercentage) { this.turnoverPercentage = turnoverPercentage; }
+
+        public BigDecimal getTrackingErrorPercentage() { return trackingErrorPercentage; }
+        public void setTrackingErrorPercentage(BigDecimal trackingErrorPercentage) { this.trackingErrorPercentage = trackingErrorPercentage; }
+
+        public BigDecimal getFinalValue() { return finalValue; }
+        public void setFinalValue(BigDecimal finalValue) { this.finalValue = finalValue; }
+
+        public static ThresholdResultBuilder builder() { return new ThresholdResultBuilder(); }
+
+        public static class ThresholdResultBuilder {
+            private BigDecimal threshold;
+            private int rebalanceCount;
+            private BigDecimal turnoverPercentage;
+            private BigDecimal trackingErrorPercentage;
+            private BigDecimal finalValue;
+
+            public ThresholdResultBuilder threshold(BigDecimal threshold) { this.threshold = threshold; return this; }
+            public ThresholdResultBuilder rebalanceCount(int rebalanceCount) { this.rebalanceCount = rebalanceCount; return this; }
+            public ThresholdResultBuilder turnoverPercentage(BigDecimal turnoverPercentage) { this.turnoverPercentage = turnoverPercentage; return this; }
+            public ThresholdResultBuilder trackingErrorPercentage(BigDecimal trackingErrorPercentage) { this.trackingErrorPercentage = trackingErrorPercentage; return this; }
+            public ThresholdResultBuilder finalValue(BigDecimal finalValue) { this.finalValue = finalValue; return this; }
+
+            public ThresholdResult build() {
+                return new ThresholdResult(threshold, rebalanceCount, turnoverPercentage, trackingErrorPercentage, finalValue);
+            }
+        }
+    }
+}
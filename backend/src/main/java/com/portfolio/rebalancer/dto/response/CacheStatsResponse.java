@@ -0,0 +1,55 @@
+package com.portfolio.rebalancer.dto.response;
+
+public class CacheStatsResponse {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private double hitRate;
+
+    public CacheStatsResponse() {
+    }
+
+    public CacheStatsResponse(long hits, long misses, long evictions, int size, double hitRate) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.hitRate = hitRate;
+    }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+
+    public static CacheStatsResponseBuilder builder() { return new CacheStatsResponseBuilder(); }
+
+    public static class CacheStatsResponseBuilder {
+        private long hits;
+        private long misses;
+        private long evictions;
+        private int size;
+        private double hitRate;
+
+        public CacheStatsResponseBuilder hits(long hits) { this.hits = hits; return this; }
+        public CacheStatsResponseBuilder misses(long misses) { this.misses = misses; return this; }
+        public CacheStatsResponseBuilder evictions(long evictions) { this.evictions = evictions; return this; }
+        public CacheStatsResponseBuilder size(int size) { this.size = size; return this; }
+        public CacheStatsResponseBuilder hitRate(double hitRate) { this.hitRate = hitRate; return this; }
+
+        public CacheStatsResponse build() {
+            return new CacheStatsResponse(hits, misses, evictions, size, hitRate);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CostBasisResponse {
+    private CostBasisMethod method;
+    private boolean current;
+    private BigDecimal quantity;
+    private BigDecimal averageCostBasis;
+    private BigDecimal totalCost;
+    private BigDecimal realizedPnL;
+    private List<LotResponse> lots;
+
+    public CostBasisResponse() {
+    }
+
+    public CostBasisResponse(CostBasisMethod method, boolean current, BigDecimal quantity,
+                             BigDecimal averageCostBasis, BigDecimal totalCost, BigDecimal realizedPnL,
+                             List<LotResponse> lots) {
+        this.method = method;
+        this.current = current;
+        this.quantity = quantity;
+        this.averageCostBasis = averageCostBasis;
+        this.totalCost = totalCost;
+        this.realizedPnL = realizedPnL;
+        this.lots = lots;
+    }
+
+    public CostBasisMethod getMethod() { return method; }
+    public void setMethod(CostBasisMethod method) { this.method = method; }
+
+    public boolean isCurrent() { return current; }
+    public void setCurrent(boolean current) { this.current = current; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getAverageCostBasis() { return averageCostBasis; }
+    public void setAverageCostBasis(BigDecimal averageCostBasis) { this.averageCostBasis = averageCostBasis; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+
+    public BigDecimal getRealizedPnL() { return realizedPnL; }
+    public void setRealizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; }
+
+    public List<LotResponse> getLots() { return lots; }
+    public void setLots(List<LotResponse> lots) { this.lots = lots; }
+
+    public static CostBasisResponseBuilder builder() { return new CostBasisResponseBuilder(); }
+
+    public static class CostBasisResponseBuilder {
+        private CostBasisMethod method;
+        private boolean current;
+        private BigDecimal quantity;
+        private BigDecimal averageCostBasis;
+        private BigDecimal totalCost;
+        private BigDecimal realizedPnL;
+        private List<LotResponse> lots;
+
+        public CostBasisResponseBuilder method(CostBasisMethod method) { this.method = method; return this; }
+        public CostBasisResponseBuilder current(boolean current) { this.current = current; return this; }
+        public CostBasisResponseBuilder quantity(BigDecimal quantity) { this.quantity = quantity; return this; }
+        public CostBasisResponseBuilder averageCostBasis(BigDecimal averageCostBasis) { this.averageCostBasis = averageCostBasis; return this; }
+        public CostBasisResponseBuilder totalCost(BigDecimal totalCost) { this.totalCost = totalCost; return this; }
+        public CostBasisResponseBuilder realizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; return this; }
+        public CostBasisResponseBuilder lots(List<LotResponse> lots) { this.lots = lots; return this; }
+
+        public CostBasisResponse build() {
+            return new CostBasisResponse(method, current, quantity, averageCostBasis, totalCost, realizedPnL, lots);
+        }
+    }
+}
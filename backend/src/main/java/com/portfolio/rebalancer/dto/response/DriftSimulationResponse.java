@@ -0,0 +1,89 @@
+package com.portfolio.rebalancer.dto.response;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class DriftSimulationResponse {
+    private Long portfolioId;
+    private BigDecimal driftThreshold;
+    private long paths;
+    private int horizonDays;
+    private int steps;
+    private BigDecimal breachProbability;
+    private BigDecimal meanBreaches;
+    private Map<String, Integer> breachPercentiles;
+    private Integer medianDaysToFirstBreach;
+
+    public DriftSimulationResponse() {
+    }
+
+    public DriftSimulationResponse(Long portfolioId, BigDecimal driftThreshold, long paths, int horizonDays,
+                                   int steps, BigDecimal breachProbability, BigDecimal meanBreaches,
+                                   Map<String, Integer> breachPercentiles, Integer medianDaysToFirstBreach) {
+        this.portfolioId = portfolioId;
+        this.driftThreshold = driftThreshold;
+        this.paths = paths;
+        this.horizonDays = horizonDays;
+        this.steps = steps;
+        this.breachProbability = breachProbability;
+        this.meanBreaches = meanBreaches;
+        this.breachPercentiles = breachPercentiles;
+        this.medianDaysToFirstBreach = medianDaysToFirstBreach;
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+
+    public BigDecimal getDriftThreshold() { return driftThreshold; }
+    public void setDriftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; }
+
+    public long getPaths() { return paths; }
+    public void setPaths(long paths) { this.paths = paths; }
+
+    public int getHorizonDays() { return horizonDays; }
+    public void setHorizonDays(int horizonDays) { this.horizonDays = horizonDays; }
+
+    public int getSteps() { return steps; }
+    public void setSteps(int steps) { this.steps = steps; }
+
+    public BigDecimal getBreachProbability() { return breachProbability; }
+    public void setBreachProbability(BigDecimal breachProbability) { this.breachProbability = breachProbability; }
+
+    public BigDecimal getMeanBreaches() { return meanBreaches; }
+    public void setMeanBreaches(BigDecimal meanBreaches) { this.meanBreaches = meanBreaches; }
+
+    public Map<String, Integer> getBreachPercentiles() { return breachPercentiles; }
+    public void setBreachPercentiles(Map<String, Integer> breachPercentiles) { this.breachPercentiles = breachPercentiles; }
+
+    public Integer getMedianDaysToFirstBreach() { return medianDaysToFirstBreach; }
+    public void setMedianDaysToFirstBreach(Integer medianDaysToFirstBreach) { this.medianDaysToFirstBreach = medianDaysToFirstBreach; }
+
+    public static DriftSimulationResponseBuilder builder() { return new DriftSimulationResponseBuilder(); }
+
+    public static class DriftSimulationResponseBuilder {
+        private Long portfolioId;
+        private BigDecimal driftThreshold;
+        private long paths;
+        private int horizonDays;
+        private int steps;
+        private BigDecimal breachProbability;
+        private BigDecimal meanBreaches;
+        private Map<String, Integer> breachPercentiles;
+        private Integer medianDaysToFirstBreach;
+
+        public DriftSimulationResponseBuilder portfolioId(Long portfolioId) { this.portfolioId = portfolioId; return this; }
+        public DriftSimulationResponseBuilder driftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; return this; }
+        public DriftSimulationResponseBuilder paths(long paths) { this.paths = paths; return this; }
+        public DriftSimulationResponseBuilder horizonDays(int horizonDays) { this.horizonDays = horizonDays; return this; }
+        public DriftSimulationResponseBuilder steps(int steps) { this.steps = steps; return this; }
+        public DriftSimulationResponseBuilder breachProbability(BigDecimal breachProbability) { this.breachProbability = breachProbability; return this; }
+        public DriftSimulationResponseBuilder meanBreaches(BigDecimal meanBreaches) { this.meanBreaches = meanBreaches; return this; }
+        public DriftSimulationResponseBuilder breachPercentiles(Map<String, Integer> breachPercentiles) { this.breachPercentiles = breachPercentiles; return this; }
+        public DriftSimulationResponseBuilder medianDaysToFirstBreach(Integer medianDaysToFirstBreach) { this.medianDaysToFirstBreach = medianDaysToFirstBreach; return this; }
+
+        public DriftSimulationResponse build() {
+            return new DriftSimulationResponse(portfolioId, driftThreshold, paths, horizonDays, steps,
+                    breachProbability, meanBreaches, breachPercentiles, medianDaysToFirstBreach);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.portfolio.rebalancer.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class DriftStatusResponse {
+    private Long portfolioId;
+    private BigDecimal maxDriftPercentage;
+    private BigDecimal driftThreshold;
+    private boolean thresholdExceeded;
+    private LocalDateTime evaluatedAt;
+
+    public DriftStatusResponse() {
+    }
+
+    public DriftStatusResponse(Long portfolioId, BigDecimal maxDriftPercentage, BigDecimal driftThreshold,
+                               boolean thresholdExceeded, LocalDateTime evaluatedAt) {
+        this.portfolioId = portfolioId;
+        this.maxDriftPercentage = maxDriftPercentage;
+        this.driftThreshold = driftThreshold;
+        this.thresholdExceeded = thresholdExceeded;
+        this.evaluatedAt = evaluatedAt;
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+
+    public BigDecimal getMaxDriftPercentage() { return maxDriftPercentage; }
+    public void setMaxDriftPercentage(BigDecimal maxDriftPercentage) { this.maxDriftPercentage = maxDriftPercentage; }
+
+    public BigDecimal getDriftThreshold() { return driftThreshold; }
+    public void setDriftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; }
+
+    public boolean isThresholdExceeded() { return thresholdExceeded; }
+    public void setThresholdExceeded(boolean thresholdExceeded) { this.thresholdExceeded = thresholdExceeded; }
+
+    public LocalDateTime getEvaluatedAt() { return evaluatedAt; }
+    public void setEvaluatedAt(LocalDateTime evaluatedAt) { this.evaluatedAt = evaluatedAt; }
+
+    public static DriftStatusResponseBuilder builder() { return new DriftStatusResponseBuilder(); }
+
+    public static class DriftStatusResponseBuilder {
+        private Long portfolioId;
+        private BigDecimal maxDriftPercentage;
+        private BigDecimal driftThreshold;
+        private boolean thresholdExceeded;
+        private LocalDateTime evaluatedAt;
+
+        public DriftStatusResponseBuilder portfolioId(Long portfolioId) { this.portfolioId = portfolioId; return this; }
+        public DriftStatusResponseBuilder maxDriftPercentage(BigDecimal maxDriftPercentage) { this.maxDriftPercentage = maxDriftPercentage; return this; }
+        public DriftStatusResponseBuilder driftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; return this; }
+        public DriftStatusResponseBuilder thresholdExceeded(boolean thresholdExceeded) { this.thresholdExceeded = thresholdExceeded; return this; }
+        public DriftStatusResponseBuilder evaluatedAt(LocalDateTime evaluatedAt) { this.evaluatedAt = evaluatedAt; return this; }
+
+        public DriftStatusResponse build() {
+            return new DriftStatusResponse(portfolioId, maxDriftPercentage, driftThreshold, thresholdExceeded, evaluatedAt);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.portfolio.rebalancer.entity.AssetClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Aggregate numbers of one holding, without its trades or lots. Amounts are in the holding's currency.
+ */
+public class HoldingSummaryResponse {
+    private Long id;
+    private String tickerSymbol;
+    private String name;
+    private AssetClass assetClass;
+    private String currency;
+    private BigDecimal quantity;
+    private BigDecimal averageCostBasis;
+    private BigDecimal totalCost;
+    private BigDecimal realizedPnL;
+    private long tradeCount;
+    private LocalDate lastTradeDate;
+
+    public HoldingSummaryResponse() {
+    }
+
+    public HoldingSummaryResponse(Long id, String tickerSymbol, String name, AssetClass assetClass,
+                                  String currency, BigDecimal quantity, BigDecimal averageCostBasis,
+                                  BigDecimal totalCost, BigDecimal realizedPnL, long tradeCount,
+                                  LocalDate lastTradeDate) {
+        this.id = id;
+        this.tickerSymbol = tickerSymbol;
+        this.name = name;
+        this.assetClass = assetClass;
+        this.currency = currency;
+        this.quantity = quantity;
+        this.averageCostBasis = averageCostBasis;
+        this.totalCost = totalCost;
+        this.realizedPnL = realizedPnL;
+        this.tradeCount = tradeCount;
+        this.lastTradeDate = lastTradeDate;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTickerSymbol() { return tickerSymbol; }
+    public void setTickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public AssetClass getAssetClass() { return assetClass; }
+    public void setAssetClass(AssetClass assetClass) { this.assetClass = assetClass; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getAverageCostBasis() { return averageCostBasis; }
+    public void setAverageCostBasis(BigDecimal averageCostBasis) { this.averageCostBasis = averageCostBasis; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+
+    public BigDecimal getRealizedPnL() { return realizedPnL; }
+    public void setRealizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; }
+
+    public long getTradeCount() { return tradeCount; }
+    public void setTradeCount(long tradeCount) { this.tradeCount = tradeCount; }
+
+    public LocalDate getLastTradeDate() { return lastTradeDate; }
+    public void setLastTradeDate(LocalDate lastTradeDate) { this.lastTradeDate = lastTradeDate; }
+
+    public static HoldingSummaryResponseBuilder builder() { return new HoldingSummaryResponseBuilder(); }
+
+    public static class HoldingSummaryResponseBuilder {
+        private Long id;
+        private String tickerSymbol;
+        private String name;
+        private AssetClass assetClass;
+        private String currency;
+        private BigDecimal quantity;
+        private BigDecimal averageCostBasis;
+        private BigDecimal totalCost;
+        private BigDecimal realizedPnL;
+        private long tradeCount;
+        private LocalDate lastTradeDate;
+
+        public HoldingSummaryResponseBuilder id(Long id) { this.id = id; return this; }
+        public HoldingSummaryResponseBuilder tickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; return this; }
+        public HoldingSummaryResponseBuilder name(String name) { this.name = name; return this; }
+        public HoldingSummaryResponseBuilder assetClass(AssetClass assetClass) { this.assetClass = assetClass; return this; }
+        public HoldingSummaryResponseBuilder currency(String currency) { this.currency = currency; return this; }
+        public HoldingSummaryResponseBuilder quantity(BigDecimal quantity) { this.quantity = quantity; return this; }
+        public HoldingSummaryResponseBuilder averageCostBasis(BigDecimal averageCostBasis) { this.averageCostBasis = averageCostBasis; return this; }
+        public HoldingSummaryResponseBuilder totalCost(BigDecimal totalCost) { this.totalCost = totalCost; return this; }
+        public HoldingSummaryResponseBuilder realizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; return this; }
+        public HoldingSummaryResponseBuilder tradeCount(long tradeCount) { this.tradeCount = tradeCount; return this; }
+        public HoldingSummaryResponseBuilder lastTradeDate(LocalDate lastTradeDate) { this.lastTradeDate = lastTradeDate; return this; }
+
+        public HoldingSummaryResponse build() {
+            return new HoldingSummaryResponse(id, tickerSymbol, name, assetClass, currency, quantity,
+                    averageCostBasis, totalCost, realizedPnL, tradeCount, lastTradeDate);
+        }
+    }
+}
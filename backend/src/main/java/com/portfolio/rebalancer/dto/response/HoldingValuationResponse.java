@@ -0,0 +1,65 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.math.BigDecimal;
+
+/**
+ * A holding summary valued at its current quote. Price, market value and unrealized gain are null
+ * when the gateway has no price for the ticker; {@code stalePrice} marks a last known good quote.
+ */
+public class HoldingValuationResponse {
+    @JsonUnwrapped
+    private HoldingSummaryResponse holding;
+    private BigDecimal currentPrice;
+    private BigDecimal marketValue;
+    private BigDecimal unrealizedPnL;
+    private boolean stalePrice;
+
+    public HoldingValuationResponse() {
+    }
+
+    public HoldingValuationResponse(HoldingSummaryResponse holding, BigDecimal currentPrice,
+                                    BigDecimal marketValue, BigDecimal unrealizedPnL, boolean stalePrice) {
+        this.holding = holding;
+        this.currentPrice = currentPrice;
+        this.marketValue = marketValue;
+        this.unrealizedPnL = unrealizedPnL;
+        this.stalePrice = stalePrice;
+    }
+
+    public HoldingSummaryResponse getHolding() { return holding; }
+    public void setHolding(HoldingSummaryResponse holding) { this.holding = holding; }
+
+    public BigDecimal getCurrentPrice() { return currentPrice; }
+    public void setCurrentPrice(BigDecimal currentPrice) { this.currentPrice = currentPrice; }
+
+    public BigDecimal getMarketValue() { return marketValue; }
+    public void setMarketValue(BigDecimal marketValue) { this.marketValue = marketValue; }
+
+    public BigDecimal getUnrealizedPnL() { return unrealizedPnL; }
+    public void setUnrealizedPnL(BigDecimal unrealizedPnL) { this.unrealizedPnL = unrealizedPnL; }
+
+    public boolean isStalePrice() { return stalePrice; }
+    public void setStalePrice(boolean stalePrice) { this.stalePrice = stalePrice; }
+
+    public static HoldingValuationResponseBuilder builder() { return new HoldingValuationResponseBuilder(); }
+
+    public static class HoldingValuationResponseBuilder {
+        private HoldingSummaryResponse holding;
+        private BigDecimal currentPrice;
+        private BigDecimal marketValue;
+        private BigDecimal unrealizedPnL;
+        private boolean stalePrice;
+
+        public HoldingValuationResponseBuilder holding(HoldingSummaryResponse holding) { this.holding = holding; return this; }
+        public HoldingValuationResponseBuilder currentPrice(BigDecimal currentPrice) { this.currentPrice = currentPrice; return this; }
+        public HoldingValuationResponseBuilder marketValue(BigDecimal marketValue) { this.marketValue = marketValue; return this; }
+        public HoldingValuationResponseBuilder unrealizedPnL(BigDecimal unrealizedPnL) { this.unrealizedPnL = unrealizedPnL; return this; }
+        public HoldingValuationResponseBuilder stalePrice(boolean stalePrice) { this.stalePrice = stalePrice; return this; }
+
+        public HoldingValuationResponse build() {
+            return new HoldingValuationResponse(holding, currentPrice, marketValue, unrealizedPnL, stalePrice);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.portfolio.rebalancer.dto.response;
+
+public class HttpClientStatsResponse {
+    private long requests;
+    private long failures;
+    private int active;
+    private int peakActive;
+    private double averageLatencyMs;
+    private String version;
+    private int connectionPoolSize;
+    private long keepAliveSeconds;
+
+    public HttpClientStatsResponse() {
+    }
+
+    public HttpClientStatsResponse(long requests, long failures, int active, int peakActive, double averageLatencyMs,
+                                   String version, int connectionPoolSize, long keepAliveSeconds) {
+        this.requests = requests;
+        this.failures = failures;
+        this.active = active;
+        this.peakActive = peakActive;
+        this.averageLatencyMs = averageLatencyMs;
+        this.version = version;
+        this.connectionPoolSize = connectionPoolSize;
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    public long getRequests() { return requests; }
+    public void setRequests(long requests) { this.requests = requests; }
+
+    public long getFailures() { return failures; }
+    public void setFailures(long failures) { this.failures = failures; }
+
+    public int getActive() { return active; }
+    public void setActive(int active) { this.active = active; }
+
+    public int getPeakActive() { return peakActive; }
+    public void setPeakActive(int peakActive) { this.peakActive = peakActive; }
+
+    public double getAverageLatencyMs() { return averageLatencyMs; }
+    public void setAverageLatencyMs(double averageLatencyMs) { this.averageLatencyMs = averageLatencyMs; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public int getConnectionPoolSize() { return connectionPoolSize; }
+    public void setConnectionPoolSize(int connectionPoolSize) { this.connectionPoolSize = connectionPoolSize; }
+
+    public long getKeepAliveSeconds() { return keepAliveSeconds; }
+    public void setKeepAliveSeconds(long keepAliveSeconds) { this.keepAliveSeconds = keepAliveSeconds; }
+
+    public static HttpClientStatsResponseBuilder builder() { return new HttpClientStatsResponseBuilder(); }
+
+    public static class HttpClientStatsResponseBuilder {
+        private long requests;
+        private long failures;
+        private int active;
+        private int peakActive;
+        private double averageLatencyMs;
+        private String version;
+        private int connectionPoolSize;
+        private long keepAliveSeconds;
+
+        public HttpClientStatsResponseBuilder requests(long requests) { this.requests = requests; return this; }
+        public HttpClientStatsResponseBuilder failures(long failures) { this.failures = failures; return this; }
+        public HttpClientStatsResponseBuilder active(int active) { this.active = active; return this; }
+        public HttpClientStatsResponseBuilder peakActive(int peakActive) { this.peakActive = peakActive; return this; }
+        public HttpClientStatsResponseBuilder averageLatencyMs(double averageLatencyMs) { this.averageLatencyMs = averageLatencyMs; return this; }
+        public HttpClientStatsResponseBuilder version(String version) { this.version = version; return this; }
+        public HttpClientStatsResponseBuilder connectionPoolSize(int connectionPoolSize) { this.connectionPoolSize = connectionPoolSize; return this; }
+        public HttpClientStatsResponseBuilder keepAliveSeconds(long keepAliveSeconds) { this.keepAliveSeconds = keepAliveSeconds; return this; }
+
+        public HttpClientStatsResponse build() {
+            return new HttpClientStatsResponse(requests, failures, active, peakActive, averageLatencyMs,
+                    version, connectionPoolSize, keepAliveSeconds);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import java.math.BigDecimal;
+import java.util.List;
+
+public class PortfolioCostBasisResponse {
+    private CostBasisMethod method;
+    private boolean current;
+    private BigDecimal totalCost;
+    private BigDecimal realizedPnL;
+    private List<HoldingCostBasis> holdings;
+
+    public PortfolioCostBasisResponse() {
+    }
+
+    public PortfolioCostBasisResponse(CostBasisMethod method, boolean current, BigDecimal totalCost,
+                                      BigDecimal realizedPnL, List<HoldingCostBasis> holdings) {
+        this.method = method;
+        this.current = current;
+        this.totalCost = totalCost;
+        this.realizedPnL = realizedPnL;
+        this.holdings = holdings;
+    }
+
+    public CostBasisMethod getMethod() { return method; }
+    public void setMethod(CostBasisMethod method) { this.method = method; }
+
+    public boolean isCurrent() { return current; }
+    public void setCurrent(boolean current) { this.current = current; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+
+    public BigDecimal getRealizedPnL() { return realizedPnL; }
+    public void setRealizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; }
+
+    public List<HoldingCostBasis> getHoldings() { return holdings; }
+    public void setHoldings(List<HoldingCostBasis> holdings) { this.holdings = holdings; }
+
+    public static PortfolioCostBasisResponseBuilder builder() { return new PortfolioCostBasisResponseBuilder(); }
+
+    public static class PortfolioCostBasisResponseBuilder {
+        private CostBasisMethod method;
+        private boolean current;
+        private BigDecimal totalCost;
+        private BigDecimal realizedPnL;
+        private List<HoldingCostBasis> holdings;
+
+        public PortfolioCostBasisResponseBuilder method(CostBasisMethod method) { this.method = method; return this; }
+        public PortfolioCostBasisResponseBuilder current(boolean current) { this.current = current; return this; }
+        public PortfolioCostBasisResponseBuilder totalCost(BigDecimal totalCost) { this.totalCost = totalCost; return this; }
+        public PortfolioCostBasisResponseBuilder realizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; return this; }
+        public PortfolioCostBasisResponseBuilder holdings(List<HoldingCostBasis> holdings) { this.holdings = holdings; return this; }
+
+        public PortfolioCostBasisResponse build() {
+            return new PortfolioCostBasisResponse(method, current, totalCost, realizedPnL, holdings);
+        }
+    }
+
+    public static class HoldingCostBasis {
+        private Long holdingId;
+        private String tickerSymbol;
+        private BigDecimal quantity;
+        private BigDecimal averageCostBasis;
+        private BigDecimal totalCost;
+        private BigDecimal realizedPnL;
+
+        public HoldingCostBasis() {
+        }
+
+        public HoldingCostBasis(Long holdingId, String tickerSymbol, BigDecimal quantity,
+                                BigDecimal averageCostBasis, BigDecimal totalCost, BigDecimal realizedPnL) {
+            this.holdingId = holdingId;
+            this.tickerSymbol = tickerSymbol;
+            this.quantity = quantity;
+            this.averageCostBasis = averageCostBasis;
+            this.totalCost = totalCost;
+            this.realizedPnL = realizedPnL;
+        }
+
+        public Long getHoldingId() { return holdingId; }
+        public void setHoldingId(Long holdingId) { this.holdingId = holdingId; }
+
+        public String getTickerSymbol() { return tickerSymbol; }
+        public void setTickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; }
+
+        public BigDecimal getQuantity() { return quantity; }
+        public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+        public BigDecimal getAverageCostBasis() { return averageCostBasis; }
+        public void setAverageCostBasis(BigDecimal averageCostBasis) { this.averageCostBasis = averageCostBasis; }
+
+        public BigDecimal getTotalCost() { return totalCost; }
+        public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+
+        public BigDecimal getRealizedPnL() { return realizedPnL; }
+        public void setRealizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; }
+
+        public static HoldingCostBasisBuilder builder() { return new HoldingCostBasisBuilder(); }
+
+        public static class HoldingCostBasisBuilder {
+            private Long holdingId;
+            private String tickerSymbol;
+            private BigDecimal quantity;
+            private BigDecimal averageCostBasis;
+            private BigDecimal totalCost;
+            private BigDecimal realizedPnL;
+
+            public HoldingCostBasisBuilder holdingId(Long holdingId) { this.holdingId = holdingId; return this; }
+            public HoldingCostBasisBuilder tickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; return this; }
+            public HoldingCostBasisBuilder quantity(BigDecimal quantity) { this.quantity = quantity; return this; }
+            public HoldingCostBasisBuilder averageCostBasis(BigDecimal averageCostBasis) { this.averageCostBasis = averageCostBasis; return this; }
+            public HoldingCostBasisBuilder totalCost(BigDecimal totalCost) { this.totalCost = totalCost; return this; }
+            public HoldingCostBasisBuilder realizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; return this; }
+
+            public HoldingCostBasis build() {
+                return new HoldingCostBasis(holdingId, tickerSymbol, quantity, averageCostBasis, totalCost, realizedPnL);
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.portfolio.rebalancer.dto.response;
 
+import com.portfolio.rebalancer.entity.CostBasisMethod;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,6 +14,7 @@ public class PortfolioResponse {
     private BigDecimal driftThreshold;
     private BigDecimal cashBalance;
     private String baseCurrency;
+    private CostBasisMethod costBasisMethod;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -22,7 +24,7 @@ public class PortfolioResponse {
     public PortfolioResponse(Long id, String name, String description,
                              List<HoldingResponse> holdings, List<AllocationResponse> targetAllocations,
                              BigDecimal driftThreshold, BigDecimal cashBalance, String baseCurrency,
-                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+                             CostBasisMethod costBasisMethod, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -31,6 +33,7 @@ public class PortfolioResponse {
         this.driftThreshold = driftThreshold;
         this.cashBalance = cashBalance;
         this.baseCurrency = baseCurrency;
+        this.costBasisMethod = costBasisMethod;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -59,6 +62,9 @@ public class PortfolioResponse {
     public String getBaseCurrency() { return baseCurrency; }
     public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
 
+    public CostBasisMethod getCostBasisMethod() { return costBasisMethod; }
+    public void setCostBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -76,6 +82,7 @@ public class PortfolioResponse {
         private BigDecimal driftThreshold;
         private BigDecimal cashBalance;
         private String baseCurrency;
+        private CostBasisMethod costBasisMethod;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
 
@@ -87,11 +94,12 @@ public class PortfolioResponse {
         public PortfolioResponseBuilder driftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; return this; }
         public PortfolioResponseBuilder cashBalance(BigDecimal cashBalance) { this.cashBalance = cashBalance; return this; }
         public PortfolioResponseBuilder baseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; return this; }
+        public PortfolioResponseBuilder costBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; return this; }
         public PortfolioResponseBuilder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
         public PortfolioResponseBuilder updatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; return this; }
 
         public PortfolioResponse build() {
-            return new PortfolioResponse(id, name, description, holdings, targetAllocations, driftThreshold, cashBalance, baseCurrency, createdAt, updatedAt);
+            return new PortfolioResponse(id, name, description, holdings, targetAllocations, driftThreshold, cashBalance, baseCurrency, costBasisMethod, createdAt, updatedAt);
         }
     }
 }
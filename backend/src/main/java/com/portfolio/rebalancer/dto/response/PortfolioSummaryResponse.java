@@ -0,0 +1,118 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A portfolio with {@link HoldingSummaryResponse holding summaries} in place of full holdings.
+ */
+public class PortfolioSummaryResponse {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal driftThreshold;
+    private BigDecimal cashBalance;
+    private String baseCurrency;
+    private CostBasisMethod costBasisMethod;
+    private int holdingCount;
+    private long tradeCount;
+    private List<HoldingSummaryResponse> holdings;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public PortfolioSummaryResponse() {
+    }
+
+    public PortfolioSummaryResponse(Long id, String name, String description, BigDecimal driftThreshold,
+                                    BigDecimal cashBalance, String baseCurrency,
+                                    CostBasisMethod costBasisMethod, int holdingCount, long tradeCount,
+                                    List<HoldingSummaryResponse> holdings, LocalDateTime createdAt,
+                                    LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.driftThreshold = driftThreshold;
+        this.cashBalance = cashBalance;
+        this.baseCurrency = baseCurrency;
+        this.costBasisMethod = costBasisMethod;
+        this.holdingCount = holdingCount;
+        this.tradeCount = tradeCount;
+        this.holdings = holdings;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public BigDecimal getDriftThreshold() { return driftThreshold; }
+    public void setDriftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; }
+
+    public BigDecimal getCashBalance() { return cashBalance; }
+    public void setCashBalance(BigDecimal cashBalance) { this.cashBalance = cashBalance; }
+
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+
+    public CostBasisMethod getCostBasisMethod() { return costBasisMethod; }
+    public void setCostBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; }
+
+    public int getHoldingCount() { return holdingCount; }
+    public void setHoldingCount(int holdingCount) { this.holdingCount = holdingCount; }
+
+    public long getTradeCount() { return tradeCount; }
+    public void setTradeCount(long tradeCount) { this.tradeCount = tradeCount; }
+
+    public List<HoldingSummaryResponse> getHoldings() { return holdings; }
+    public void setHoldings(List<HoldingSummaryResponse> holdings) { this.holdings = holdings; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public static PortfolioSummaryResponseBuilder builder() { return new PortfolioSummaryResponseBuilder(); }
+
+    public static class PortfolioSummaryResponseBuilder {
+        private Long id;
+        private String name;
+        private String description;
+        private BigDecimal driftThreshold;
+        private BigDecimal cashBalance;
+        private String baseCurrency;
+        private CostBasisMethod costBasisMethod;
+        private int holdingCount;
+        private long tradeCount;
+        private List<HoldingSummaryResponse> holdings;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+
+        public PortfolioSummaryResponseBuilder id(Long id) { this.id = id; return this; }
+        public PortfolioSummaryResponseBuilder name(String name) { this.name = name; return this; }
+        public PortfolioSummaryResponseBuilder description(String description) { this.description = description; return this; }
+        public PortfolioSummaryResponseBuilder driftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; return this; }
+        public PortfolioSummaryResponseBuilder cashBalance(BigDecimal cashBalance) { this.cashBalance = cashBalance; return this; }
+        public PortfolioSummaryResponseBuilder baseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; return this; }
+        public PortfolioSummaryResponseBuilder costBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; return this; }
+        public PortfolioSummaryResponseBuilder holdingCount(int holdingCount) { this.holdingCount = holdingCount; return this; }
+        public PortfolioSummaryResponseBuilder tradeCount(long tradeCount) { this.tradeCount = tradeCount; return this; }
+        public PortfolioSummaryResponseBuilder holdings(List<HoldingSummaryResponse> holdings) { this.holdings = holdings; return this; }
+        public PortfolioSummaryResponseBuilder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
+        public PortfolioSummaryResponseBuilder updatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; return this; }
+
+        public PortfolioSummaryResponse build() {
+            return new PortfolioSummaryResponse(id, name, description, driftThreshold, cashBalance,
+                    baseCurrency, costBasisMethod, holdingCount, tradeCount, holdings, createdAt, updatedAt);
+        }
+    }
+}
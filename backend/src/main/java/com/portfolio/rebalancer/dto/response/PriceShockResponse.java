@@ -0,0 +1,125 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.portfolio.rebalancer.dto.response.RebalanceResponse.AllocationComparison;
+import com.portfolio.rebalancer.dto.response.RebalanceResponse.TradeRecommendation;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PriceShockResponse {
+    private Long portfolioId;
+    private BigDecimal totalPortfolioValue;
+    private String currency;
+    private List<ScenarioResult> scenarios;
+    private LocalDateTime calculatedAt;
+
+    public PriceShockResponse() {
+    }
+
+    public PriceShockResponse(Long portfolioId, BigDecimal totalPortfolioValue, String currency,
+                              List<ScenarioResult> scenarios, LocalDateTime calculatedAt) {
+        this.portfolioId = portfolioId;
+        this.totalPortfolioValue = totalPortfolioValue;
+        this.currency = currency;
+        this.scenarios = scenarios;
+        this.calculatedAt = calculatedAt;
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+
+    public BigDecimal getTotalPortfolioValue() { return totalPortfolioValue; }
+    public void setTotalPortfolioValue(BigDecimal totalPortfolioValue) { this.totalPortfolioValue = totalPortfolioValue; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public List<ScenarioResult> getScenarios() { return scenarios; }
+    public void setScenarios(List<ScenarioResult> scenarios) { this.scenarios = scenarios; }
+
+    public LocalDateTime getCalculatedAt() { return calculatedAt; }
+    public void setCalculatedAt(LocalDateTime calculatedAt) { this.calculatedAt = calculatedAt; }
+
+    public static PriceShockResponseBuilder builder() { return new PriceShockResponseBuilder(); }
+
+    public static class PriceShockResponseBuilder {
+        private Long portfolioId;
+        private BigDecimal totalPortfolioValue;
+        private String currency;
+        private List<ScenarioResult> scenarios;
+        private LocalDateTime calculatedAt;
+
+        public PriceShockResponseBuilder portfolioId(Long portfolioId) { this.portfolioId = portfolioId; return this; }
+        public PriceShockResponseBuilder totalPortfolioValue(BigDecimal totalPortfolioValue) { this.totalPortfolioValue = totalPortfolioValue; return this; }
+        public PriceShockResponseBuilder currency(String currency) { this.currency = currency; return this; }
+        public PriceShockResponseBuilder scenarios(List<ScenarioResult> scenarios) { this.scenarios = scenarios; return this; }
+        public PriceShockResponseBuilder calculatedAt(LocalDateTime calculatedAt) { this.calculatedAt = calculatedAt; return this; }
+
+        public PriceShockResponse build() {
+            return new PriceShockResponse(portfolioId, totalPortfolioValue, currency, scenarios, calculatedAt);
+        }
+    }
+
+    public static class ScenarioResult {
+        private String name;
+        private BigDecimal totalPortfolioValue;
+        private BigDecimal maxDriftPercentage;
+        private List<AllocationComparison> allocations;
+        private List<TradeRecommendation> trades;
+        private BigDecimal unallocatedCash;
+
+        public ScenarioResult() {
+        }
+
+        public ScenarioResult(String name, BigDecimal totalPortfolioValue, BigDecimal maxDriftPercentage,
+                              List<AllocationComparison> allocations, List<TradeRecommendation> trades,
+                              BigDecimal unallocatedCash) {
+            this.name = name;
+            this.totalPortfolioValue = totalPortfolioValue;
+            this.maxDriftPercentage = maxDriftPercentage;
+            this.allocations = allocations;
+            this.trades = trades;
+            this.unallocatedCash = unallocatedCash;
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public BigDecimal getTotalPortfolioValue() { return totalPortfolioValue; }
+        public void setTotalPortfolioValue(BigDecimal totalPortfolioValue) { this.totalPortfolioValue = totalPortfolioValue; }
+
+        public BigDecimal getMaxDriftPercentage() { return maxDriftPercentage; }
+        public void setMaxDriftPercentage(BigDecimal maxDriftPercentage) { this.maxDriftPercentage = maxDriftPercentage; }
+
+        public List<AllocationComparison> getAllocations() { return allocations; }
+        public void setAllocations(List<AllocationComparison> allocations) { this.allocations = allocations; }
+
+        public List<TradeRecommendation> getTrades() { return trades; }
+        public void setTrades(List<TradeRecommendation> trades) { this.trades = trades; }
+
+        public BigDecimal getUnallocatedCash() { return unallocatedCash; }
+        public void setUnallocatedCash(BigDecimal unallocatedCash) { this.unallocatedCash = unallocatedCash; }
+
+        public static ScenarioResultBuilder builder() { return new ScenarioResultBuilder(); }
+
+        public static class ScenarioResultBuilder {
+            private String name;
+            private BigDecimal totalPortfolioValue;
+            private BigDecimal maxDriftPercentage;
+            private List<AllocationComparison> allocations;
+            private List<TradeRecommendation> trades;
+            private BigDecimal unallocatedCash;
+
+            public ScenarioResultBuilder name(String name) { this.name = name; return this; }
+            public ScenarioResultBuilder totalPortfolioValue(BigDecimal totalPortfolioValue) { this.totalPortfolioValue = totalPortfolioValue; return this; }
+            public ScenarioResultBuilder maxDriftPercentage(BigDecimal maxDriftPercentage) { this.maxDriftPercentage = maxDriftPercentage; return this; }
+            public ScenarioResultBuilder allocations(List<AllocationComparison> allocations) { this.allocations = allocations; return this; }
+            public ScenarioResultBuilder trades(List<TradeRecommendation> trades) { this.trades = trades; return this; }
+            public ScenarioResultBuilder unallocatedCash(BigDecimal unallocatedCash) { this.unallocatedCash = unallocatedCash; return this; }
+
+            public ScenarioResult build() {
+                return new ScenarioResult(name, totalPortfolioValue, maxDriftPercentage, allocations, trades, unallocatedCash);
+            }
+        }
+    }
+}
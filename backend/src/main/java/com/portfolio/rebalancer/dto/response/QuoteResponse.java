@@ -10,13 +10,15 @@ public class QuoteResponse {
     private BigDecimal regularMarketChangePercent;
     private String currency;
     private String exchangeName;
+    /** Last known good quote, served because the gateway could not be reached. */
+    private boolean stale;
 
     public QuoteResponse() {
     }
 
     public QuoteResponse(String symbol, String shortName, BigDecimal regularMarketPrice,
                          BigDecimal regularMarketChange, BigDecimal regularMarketChangePercent,
-                         String currency, String exchangeName) {
+                         String currency, String exchangeName, boolean stale) {
         this.symbol = symbol;
         this.shortName = shortName;
         this.regularMarketPrice = regularMarketPrice;
@@ -24,6 +26,7 @@ public class QuoteResponse {
         this.regularMarketChangePercent = regularMarketChangePercent;
         this.currency = currency;
         this.exchangeName = exchangeName;
+        this.stale = stale;
     }
 
     public String getSymbol() { return symbol; }
@@ -47,6 +50,9 @@ public class QuoteResponse {
     public String getExchangeName() { return exchangeName; }
     public void setExchangeName(String exchangeName) { this.exchangeName = exchangeName; }
 
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+
     public static QuoteResponseBuilder builder() { return new QuoteResponseBuilder(); }
 
     public static class QuoteResponseBuilder {
@@ -57,6 +63,7 @@ public class QuoteResponse {
         private BigDecimal regularMarketChangePercent;
         private String currency;
         private String exchangeName;
+        private boolean stale;
 
         public QuoteResponseBuilder symbol(String symbol) { this.symbol = symbol; return this; }
         public QuoteResponseBuilder shortName(String shortName) { this.shortName = shortName; return this; }
@@ -65,10 +72,11 @@ public class QuoteResponse {
         public QuoteResponseBuilder regularMarketChangePercent(BigDecimal regularMarketChangePercent) { this.regularMarketChangePercent = regularMarketChangePercent; return this; }
         public QuoteResponseBuilder currency(String currency) { this.currency = currency; return this; }
         public QuoteResponseBuilder exchangeName(String exchangeName) { this.exchangeName = exchangeName; return this; }
+        public QuoteResponseBuilder stale(boolean stale) { this.stale = stale; return this; }
 
         public QuoteResponse build() {
             return new QuoteResponse(symbol, shortName, regularMarketPrice, regularMarketChange,
-                    regularMarketChangePercent, currency, exchangeName);
+                    regularMarketChangePercent, currency, exchangeName, stale);
         }
     }
 }
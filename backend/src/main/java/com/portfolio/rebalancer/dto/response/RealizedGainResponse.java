@@ -0,0 +1,129 @@
+package com.portfolio.rebalancer.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of the realized-gains report: shares of one lot sold by one SELL trade.
+ */
+public class RealizedGainResponse {
+    private Long portfolioId;
+    private String portfolioName;
+    private Long holdingId;
+    private String tickerSymbol;
+    private Long buyTradeId;
+    private LocalDate purchaseDate;
+    private Long sellTradeId;
+    private LocalDate sellDate;
+    private BigDecimal quantity;
+    private BigDecimal costBasisPerShare;
+    private BigDecimal sellPricePerShare;
+    private BigDecimal realizedGain;
+    private boolean longTerm;
+    private boolean washSale;
+
+    public RealizedGainResponse() {
+    }
+
+    public RealizedGainResponse(Long portfolioId, String portfolioName, Long holdingId, String tickerSymbol,
+                                Long buyTradeId, LocalDate purchaseDate, Long sellTradeId, LocalDate sellDate,
+                                BigDecimal quantity, BigDecimal costBasisPerShare, BigDecimal sellPricePerShare,
+                                BigDecimal realizedGain, boolean longTerm, boolean washSale) {
+        this.portfolioId = portfolioId;
+        this.portfolioName = portfolioName;
+        this.holdingId = holdingId;
+        this.tickerSymbol = tickerSymbol;
+        this.buyTradeId = buyTradeId;
+        this.purchaseDate = purchaseDate;
+        this.sellTradeId = sellTradeId;
+        this.sellDate = sellDate;
+        this.quantity = quantity;
+        this.costBasisPerShare = costBasisPerShare;
+        this.sellPricePerShare = sellPricePerShare;
+        this.realizedGain = realizedGain;
+        this.longTerm = longTerm;
+        this.washSale = washSale;
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+    public void setPortfolioId(Long portfolioId) { this.portfolioId = portfolioId; }
+
+    public String getPortfolioName() { return portfolioName; }
+    public void setPortfolioName(String portfolioName) { this.portfolioName = portfolioName; }
+
+    public Long getHoldingId() { return holdingId; }
+    public void setHoldingId(Long holdingId) { this.holdingId = holdingId; }
+
+    public String getTickerSymbol() { return tickerSymbol; }
+    public void setTickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; }
+
+    public Long getBuyTradeId() { return buyTradeId; }
+    public void setBuyTradeId(Long buyTradeId) { this.buyTradeId = buyTradeId; }
+
+    public LocalDate getPurchaseDate() { return purchaseDate; }
+    public void setPurchaseDate(LocalDate purchaseDate) { this.purchaseDate = purchaseDate; }
+
+    public Long getSellTradeId() { return sellTradeId; }
+    public void setSellTradeId(Long sellTradeId) { this.sellTradeId = sellTradeId; }
+
+    public LocalDate getSellDate() { return sellDate; }
+    public void setSellDate(LocalDate sellDate) { this.sellDate = sellDate; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getCostBasisPerShare() { return costBasisPerShare; }
+    public void setCostBasisPerShare(BigDecimal costBasisPerShare) { this.costBasisPerShare = costBasisPerShare; }
+
+    public BigDecimal getSellPricePerShare() { return sellPricePerShare; }
+    public void setSellPricePerShare(BigDecimal sellPricePerShare) { this.sellPricePerShare = sellPricePerShare; }
+
+    public BigDecimal getRealizedGain() { return realizedGain; }
+    public void setRealizedGain(BigDecimal realizedGain) { this.realizedGain = realizedGain; }
+
+    public boolean isLongTerm() { return longTerm; }
+    public void setLongTerm(boolean longTerm) { this.longTerm = longTerm; }
+
+    public boolean isWashSale() { return washSale; }
+    public void setWashSale(boolean washSale) { this.washSale = washSale; }
+
+    public static RealizedGainResponseBuilder builder() { return new RealizedGainResponseBuilder(); }
+
+    public static class RealizedGainResponseBuilder {
+        private Long portfolioId;
+        private String portfolioName;
+        private Long holdingId;
+        private String tickerSymbol;
+        private Long buyTradeId;
+        private LocalDate purchaseDate;
+        private Long sellTradeId;
+        private LocalDate sellDate;
+        private BigDecimal quantity;
+        private BigDecimal costBasisPerShare;
+        private BigDecimal sellPricePerShare;
+        private BigDecimal realizedGain;
+        private boolean longTerm;
+    private boolean washSale;
+
+        public RealizedGainResponseBuilder portfolioId(Long portfolioId) { this.portfolioId = portfolioId; return this; }
+        public RealizedGainResponseBuilder portfolioName(String portfolioName) { this.portfolioName = portfolioName; return this; }
+        public RealizedGainResponseBuilder holdingId(Long holdingId) { this.holdingId = holdingId; return this; }
+        public RealizedGainResponseBuilder tickerSymbol(String tickerSymbol) { this.tickerSymbol = tickerSymbol; return this; }
+        public RealizedGainResponseBuilder buyTradeId(Long buyTradeId) { this.buyTradeId = buyTradeId; return this; }
+        public RealizedGainResponseBuilder purchaseDate(LocalDate purchaseDate) { this.purchaseDate = purchaseDate; return this; }
+        public RealizedGainResponseBuilder sellTradeId(Long sellTradeId) { this.sellTradeId = sellTradeId; return this; }
+        public RealizedGainResponseBuilder sellDate(LocalDate sellDate) { this.sellDate = sellDate; return this; }
+        public RealizedGainResponseBuilder quantity(BigDecimal quantity) { this.quantity = quantity; return this; }
+        public RealizedGainResponseBuilder costBasisPerShare(BigDecimal costBasisPerShare) { this.costBasisPerShare = costBasisPerShare; return this; }
+        public RealizedGainResponseBuilder sellPricePerShare(BigDecimal sellPricePerShare) { this.sellPricePerShare = sellPricePerShare; return this; }
+        public RealizedGainResponseBuilder realizedGain(BigDecimal realizedGain) { this.realizedGain = realizedGain; return this; }
+        public RealizedGainResponseBuilder longTerm(boolean longTerm) { this.longTerm = longTerm; return this; }
+        public RealizedGainResponseBuilder washSale(boolean washSale) { this.washSale = washSale; return this; }
+
+        public RealizedGainResponse build() {
+            return new RealizedGainResponse(portfolioId, portfolioName, holdingId, tickerSymbol, buyTradeId,
+                    purchaseDate, sellTradeId, sellDate, quantity, costBasisPerShare, sellPricePerShare,
+                    realizedGain, longTerm, washSale);
+        }
+    }
+}
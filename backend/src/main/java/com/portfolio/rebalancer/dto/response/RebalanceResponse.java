@@ -13,6 +13,7 @@ public class RebalanceResponse {
     private List<AllocationComparison> allocations;
     private List<TradeRecommendation> trades;
     private BigDecimal unallocatedCash;
+    private boolean stalePrices;
     private LocalDateTime calculatedAt;
 
     public RebalanceResponse() {
@@ -20,13 +21,14 @@ public class RebalanceResponse {
 
     public RebalanceResponse(Long portfolioId, BigDecimal totalPortfolioValue, String currency,
                              List<AllocationComparison> allocations, List<TradeRecommendation> trades,
-                             BigDecimal unallocatedCash, LocalDateTime calculatedAt) {
+                             BigDecimal unallocatedCash, boolean stalePrices, LocalDateTime calculatedAt) {
         this.portfolioId = portfolioId;
         this.totalPortfolioValue = totalPortfolioValue;
         this.currency = currency;
         this.allocations = allocations;
         this.trades = trades;
         this.unallocatedCash = unallocatedCash;
+        this.stalePrices = stalePrices;
         this.calculatedAt = calculatedAt;
     }
 
@@ -48,6 +50,9 @@ public class RebalanceResponse {
     public BigDecimal getUnallocatedCash() { return unallocatedCash; }
     public void setUnallocatedCash(BigDecimal unallocatedCash) { this.unallocatedCash = unallocatedCash; }
 
+    public boolean isStalePrices() { return stalePrices; }
+    public void setStalePrices(boolean stalePrices) { this.stalePrices = stalePrices; }
+
     public LocalDateTime getCalculatedAt() { return calculatedAt; }
     public void setCalculatedAt(LocalDateTime calculatedAt) { this.calculatedAt = calculatedAt; }
 
@@ -60,6 +65,7 @@ public class RebalanceResponse {
         private List<AllocationComparison> allocations;
         private List<TradeRecommendation> trades;
         private BigDecimal unallocatedCash;
+        private boolean stalePrices;
         private LocalDateTime calculatedAt;
 
         public RebalanceResponseBuilder portfolioId(Long portfolioId) { this.portfolioId = portfolioId; return this; }
@@ -68,10 +74,12 @@ public class RebalanceResponse {
         public RebalanceResponseBuilder allocations(List<AllocationComparison> allocations) { this.allocations = allocations; return this; }
         public RebalanceResponseBuilder trades(List<TradeRecommendation> trades) { this.trades = trades; return this; }
         public RebalanceResponseBuilder unallocatedCash(BigDecimal unallocatedCash) { this.unallocatedCash = unallocatedCash; return this; }
+        public RebalanceResponseBuilder stalePrices(boolean stalePrices) { this.stalePrices = stalePrices; return this; }
         public RebalanceResponseBuilder calculatedAt(LocalDateTime calculatedAt) { this.calculatedAt = calculatedAt; return this; }
 
         public RebalanceResponse build() {
-            return new RebalanceResponse(portfolioId, totalPortfolioValue, currency, allocations, trades, unallocatedCash, calculatedAt);
+            return new RebalanceResponse(portfolioId, totalPortfolioValue, currency, allocations, trades, unallocatedCash,
+                    stalePrices, calculatedAt);
         }
     }
 
@@ -182,6 +190,7 @@ public class RebalanceResponse {
         private String action; // BUY or SELL
         private int shares;
         private BigDecimal currentPrice;
+        private boolean stalePrice;
         private BigDecimal estimatedCost;
         private BigDecimal currentWeight;
         private BigDecimal targetWeight;
@@ -191,7 +200,7 @@ public class RebalanceResponse {
         }
 
         public TradeRecommendation(Long holdingId, String tickerSymbol, String name, AssetClass assetClass,
-                                   String action, int shares, BigDecimal currentPrice,
+                                   String action, int shares, BigDecimal currentPrice, boolean stalePrice,
                                    BigDecimal estimatedCost, BigDecimal currentWeight, BigDecimal targetWeight,
                                    List<LotSaleDetail> lotDetails) {
             this.holdingId = holdingId;
@@ -201,6 +210,7 @@ public class RebalanceResponse {
             this.action = action;
             this.shares = shares;
             this.currentPrice = currentPrice;
+            this.stalePrice = stalePrice;
             this.estimatedCost = estimatedCost;
             this.currentWeight = currentWeight;
             this.targetWeight = targetWeight;
@@ -228,6 +238,9 @@ public class RebalanceResponse {
         public BigDecimal getCurrentPrice() { return currentPrice; }
         public void setCurrentPrice(BigDecimal currentPrice) { this.currentPrice = currentPrice; }
 
+        public boolean isStalePrice() { return stalePrice; }
+        public void setStalePrice(boolean stalePrice) { this.stalePrice = stalePrice; }
+
         public BigDecimal getEstimatedCost() { return estimatedCost; }
         public void setEstimatedCost(BigDecimal estimatedCost) { this.estimatedCost = estimatedCost; }
 
@@ -250,6 +263,7 @@ public class RebalanceResponse {
             private String action;
             private int shares;
             private BigDecimal currentPrice;
+            private boolean stalePrice;
             private BigDecimal estimatedCost;
             private BigDecimal currentWeight;
             private BigDecimal targetWeight;
@@ -262,6 +276,7 @@ public class RebalanceResponse {
             public TradeRecommendationBuilder action(String action) { this.action = action; return this; }
             public TradeRecommendationBuilder shares(int shares) { this.shares = shares; return this; }
             public TradeRecommendationBuilder currentPrice(BigDecimal currentPrice) { this.currentPrice = currentPrice; return this; }
+            public TradeRecommendationBuilder stalePrice(boolean stalePrice) { this.stalePrice = stalePrice; return this; }
             public TradeRecommendationBuilder estimatedCost(BigDecimal estimatedCost) { this.estimatedCost = estimatedCost; return this; }
             public TradeRecommendationBuilder currentWeight(BigDecimal currentWeight) { this.currentWeight = currentWeight; return this; }
             public TradeRecommendationBuilder targetWeight(BigDecimal targetWeight) { this.targetWeight = targetWeight; return this; }
@@ -269,7 +284,7 @@ public class RebalanceResponse {
 
             public TradeRecommendation build() {
                 return new TradeRecommendation(holdingId, tickerSymbol, name, assetClass, action, shares,
-                        currentPrice, estimatedCost, currentWeight, targetWeight, lotDetails);
+                        currentPrice, stalePrice, estimatedCost, currentWeight, targetWeight, lotDetails);
             }
         }
     }
@@ -0,0 +1,68 @@
+package com.portfolio.rebalancer.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of a bulk import's progress stream: a rejected row, the running totals after a
+ * committed batch, or the final outcome.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TradeImportEvent {
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String COMPLETE = "complete";
+    public static final String FAILED = "failed";
+
+    private String type;
+    /** Line of the rejected row, 1-based. */
+    private Long line;
+    private String message;
+    private Long imported;
+    private Long rejected;
+
+    public TradeImportEvent() {
+    }
+
+    public TradeImportEvent(String type, Long line, String message, Long imported, Long rejected) {
+        this.type = type;
+        this.line = line;
+        this.message = message;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getLine() { return line; }
+    public void setLine(Long line) { this.line = line; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Long getImported() { return imported; }
+    public void setImported(Long imported) { this.imported = imported; }
+
+    public Long getRejected() { return rejected; }
+    public void setRejected(Long rejected) { this.rejected = rejected; }
+
+    public static TradeImportEventBuilder builder() { return new TradeImportEventBuilder(); }
+
+    public static class TradeImportEventBuilder {
+        private String type;
+        private Long line;
+        private String message;
+        private Long imported;
+        private Long rejected;
+
+        public TradeImportEventBuilder type(String type) { this.type = type; return this; }
+        public TradeImportEventBuilder line(Long line) { this.line = line; return this; }
+        public TradeImportEventBuilder message(String message) { this.message = message; return this; }
+        public TradeImportEventBuilder imported(Long imported) { this.imported = imported; return this; }
+        public TradeImportEventBuilder rejected(Long rejected) { this.rejected = rejected; return this; }
+
+        public TradeImportEvent build() {
+            return new TradeImportEvent(type, line, message, imported, rejected);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.portfolio.rebalancer.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a holding's trades, newest first.
+ */
+public class TradePageResponse {
+    private List<TradeResponse> trades;
+    /** Cursor of the next page; null on the last page. */
+    private String nextCursor;
+
+    public TradePageResponse() {
+    }
+
+    public TradePageResponse(List<TradeResponse> trades, String nextCursor) {
+        this.trades = trades;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TradeResponse> getTrades() { return trades; }
+    public void setTrades(List<TradeResponse> trades) { this.trades = trades; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public static TradePageResponseBuilder builder() { return new TradePageResponseBuilder(); }
+
+    public static class TradePageResponseBuilder {
+        private List<TradeResponse> trades;
+        private String nextCursor;
+
+        public TradePageResponseBuilder trades(List<TradeResponse> trades) { this.trades = trades; return this; }
+        public TradePageResponseBuilder nextCursor(String nextCursor) { this.nextCursor = nextCursor; return this; }
+
+        public TradePageResponse build() {
+            return new TradePageResponse(trades, nextCursor);
+        }
+    }
+}
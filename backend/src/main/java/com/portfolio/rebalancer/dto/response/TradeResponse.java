@@ -12,19 +12,21 @@ public class TradeResponse {
     private BigDecimal quantity;
     private BigDecimal price;
     private BigDecimal fee;
+    private Long lotTradeId;
     private LocalDateTime createdAt;
 
     public TradeResponse() {
     }
 
     public TradeResponse(Long id, LocalDate date, TradeType type, BigDecimal quantity,
-                         BigDecimal price, BigDecimal fee, LocalDateTime createdAt) {
+                         BigDecimal price, BigDecimal fee, Long lotTradeId, LocalDateTime createdAt) {
         this.id = id;
         this.date = date;
         this.type = type;
         this.quantity = quantity;
         this.price = price;
         this.fee = fee;
+        this.lotTradeId = lotTradeId;
         this.createdAt = createdAt;
     }
 
@@ -46,6 +48,9 @@ public class TradeResponse {
     public BigDecimal getFee() { return fee; }
     public void setFee(BigDecimal fee) { this.fee = fee; }
 
+    public Long getLotTradeId() { return lotTradeId; }
+    public void setLotTradeId(Long lotTradeId) { this.lotTradeId = lotTradeId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -58,6 +63,7 @@ public class TradeResponse {
         private BigDecimal quantity;
         private BigDecimal price;
         private BigDecimal fee;
+        private Long lotTradeId;
         private LocalDateTime createdAt;
 
         public TradeResponseBuilder id(Long id) { this.id = id; return this; }
@@ -66,10 +72,11 @@ public class TradeResponse {
         public TradeResponseBuilder quantity(BigDecimal quantity) { this.quantity = quantity; return this; }
         public TradeResponseBuilder price(BigDecimal price) { this.price = price; return this; }
         public TradeResponseBuilder fee(BigDecimal fee) { this.fee = fee; return this; }
+        public TradeResponseBuilder lotTradeId(Long lotTradeId) { this.lotTradeId = lotTradeId; return this; }
         public TradeResponseBuilder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
 
         public TradeResponse build() {
-            return new TradeResponse(id, date, type, quantity, price, fee, createdAt);
+            return new TradeResponse(id, date, type, quantity, price, fee, lotTradeId, createdAt);
         }
     }
 }
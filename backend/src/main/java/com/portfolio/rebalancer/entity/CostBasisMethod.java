@@ -0,0 +1,8 @@
+package com.portfolio.rebalancer.entity;
+
+public enum CostBasisMethod {
+    FIFO,
+    LIFO,
+    HIFO,
+    SPECIFIC_ID
+}
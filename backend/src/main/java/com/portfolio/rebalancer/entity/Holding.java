@@ -1,6 +1,7 @@
 package com.portfolio.rebalancer.entity;
 
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,7 +11,8 @@ import java.util.List;
 public class Holding {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "holdings_id")
+    @SequenceGenerator(name = "holdings_id", sequenceName = "holdings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,6 +35,28 @@ public class Holding {
     @OneToMany(mappedBy = "holding", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Trade> trades = new ArrayList<>();
 
+    /** Whether the tax lot ledger reflects the trades; null for holdings that predate the ledger. */
+    @Column(name = "lots_materialized")
+    private Boolean lotsMaterialized;
+
+    /**
+     * Running position, maintained by the lot ledger alongside the lots. Null until the holding's
+     * next trade write for holdings that predate these columns.
+     */
+    @Column(precision = 19, scale = 6)
+    private BigDecimal quantity;
+
+    @Column(name = "open_cost", precision = 31, scale = 12)
+    private BigDecimal openCost;
+
+    @Column(name = "realized_pnl", precision = 31, scale = 12)
+    private BigDecimal realizedPnL;
+
+    /** Guards the running position against concurrent trade writes. */
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
+
     public Holding() {
     }
 
@@ -67,6 +91,20 @@ public class Holding {
     public List<Trade> getTrades() { return trades; }
     public void setTrades(List<Trade> trades) { this.trades = trades; }
 
+    public boolean isLotsMaterialized() { return Boolean.TRUE.equals(lotsMaterialized); }
+    public void setLotsMaterialized(boolean lotsMaterialized) { this.lotsMaterialized = lotsMaterialized; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getOpenCost() { return openCost; }
+    public void setOpenCost(BigDecimal openCost) { this.openCost = openCost; }
+
+    public BigDecimal getRealizedPnL() { return realizedPnL; }
+    public void setRealizedPnL(BigDecimal realizedPnL) { this.realizedPnL = realizedPnL; }
+
+    public long getVersion() { return version; }
+
     public static HoldingBuilder builder() { return new HoldingBuilder(); }
 
     public static class HoldingBuilder {
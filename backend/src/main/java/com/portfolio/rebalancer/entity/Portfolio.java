@@ -38,6 +38,10 @@ public class Portfolio {
     @Column(name = "base_currency", length = 3)
     private String baseCurrency;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "cost_basis_method", length = 12)
+    private CostBasisMethod costBasisMethod = CostBasisMethod.HIFO;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -49,7 +53,7 @@ public class Portfolio {
     public Portfolio(Long id, String name, String description, Long ownerId,
                      List<Holding> holdings, List<TargetAllocation> targetAllocations,
                      BigDecimal driftThreshold, BigDecimal cashBalance, String baseCurrency,
-                     LocalDateTime createdAt, LocalDateTime updatedAt) {
+                     CostBasisMethod costBasisMethod, LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -59,6 +63,7 @@ public class Portfolio {
         this.driftThreshold = driftThreshold != null ? driftThreshold : new BigDecimal("5.00");
         this.cashBalance = cashBalance != null ? cashBalance : BigDecimal.ZERO;
         this.baseCurrency = baseCurrency;
+        this.costBasisMethod = costBasisMethod != null ? costBasisMethod : CostBasisMethod.HIFO;
         this.createdAt = createdAt != null ? createdAt : LocalDateTime.now();
         this.updatedAt = updatedAt != null ? updatedAt : LocalDateTime.now();
     }
@@ -95,6 +100,9 @@ public class Portfolio {
     public String getBaseCurrency() { return baseCurrency != null ? baseCurrency : "USD"; }
     public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
 
+    public CostBasisMethod getCostBasisMethod() { return costBasisMethod != null ? costBasisMethod : CostBasisMethod.HIFO; }
+    public void setCostBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -113,6 +121,7 @@ public class Portfolio {
         private BigDecimal driftThreshold;
         private BigDecimal cashBalance;
         private String baseCurrency;
+        private CostBasisMethod costBasisMethod;
         private LocalDateTime createdAt = LocalDateTime.now();
         private LocalDateTime updatedAt = LocalDateTime.now();
 
@@ -125,11 +134,12 @@ public class Portfolio {
         public PortfolioBuilder driftThreshold(BigDecimal driftThreshold) { this.driftThreshold = driftThreshold; return this; }
         public PortfolioBuilder cashBalance(BigDecimal cashBalance) { this.cashBalance = cashBalance; return this; }
         public PortfolioBuilder baseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; return this; }
+        public PortfolioBuilder costBasisMethod(CostBasisMethod costBasisMethod) { this.costBasisMethod = costBasisMethod; return this; }
         public PortfolioBuilder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
         public PortfolioBuilder updatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; return this; }
 
         public Portfolio build() {
-            return new Portfolio(id, name, description, ownerId, holdings, targetAllocations, driftThreshold, cashBalance, baseCurrency, createdAt, updatedAt);
+            return new Portfolio(id, name, description, ownerId, holdings, targetAllocations, driftThreshold, cashBalance, baseCurrency, costBasisMethod, createdAt, updatedAt);
         }
     }
 }
@@ -0,0 +1,100 @@
+package com.portfolio.rebalancer.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Open lot of a holding, materialized from its trades. Only lots with shares remaining are kept.
+ */
+@Entity
+@Table(name = "tax_lots", indexes = @Index(name = "idx_tax_lots_holding", columnList = "holding_id"))
+public class TaxLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tax_lots_id")
+    @SequenceGenerator(name = "tax_lots_id", sequenceName = "tax_lots_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "holding_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Holding holding;
+
+    @Column(name = "trade_id", nullable = false)
+    private Long tradeId;
+
+    @Column(name = "purchase_date", nullable = false)
+    private LocalDate purchaseDate;
+
+    @Column(name = "original_quantity", nullable = false, precision = 19, scale = 6)
+    private BigDecimal originalQuantity;
+
+    @Column(name = "remaining_quantity", nullable = false, precision = 19, scale = 6)
+    private BigDecimal remainingQuantity;
+
+    @Column(name = "cost_basis_per_share", nullable = false, precision = 19, scale = 6)
+    private BigDecimal costBasisPerShare;
+
+    public TaxLot() {
+    }
+
+    public TaxLot(Long id, Holding holding, Long tradeId, LocalDate purchaseDate, BigDecimal originalQuantity,
+                  BigDecimal remainingQuantity, BigDecimal costBasisPerShare) {
+        this.id = id;
+        this.holding = holding;
+        this.tradeId = tradeId;
+        this.purchaseDate = purchaseDate;
+        this.originalQuantity = originalQuantity;
+        this.remainingQuantity = remainingQuantity;
+        this.costBasisPerShare = costBasisPerShare;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Holding getHolding() { return holding; }
+    public void setHolding(Holding holding) { this.holding = holding; }
+
+    public Long getTradeId() { return tradeId; }
+    public void setTradeId(Long tradeId) { this.tradeId = tradeId; }
+
+    public LocalDate getPurchaseDate() { return purchaseDate; }
+    public void setPurchaseDate(LocalDate purchaseDate) { this.purchaseDate = purchaseDate; }
+
+    public BigDecimal getOriginalQuantity() { return originalQuantity; }
+    public void setOriginalQuantity(BigDecimal originalQuantity) { this.originalQuantity = originalQuantity; }
+
+    public BigDecimal getRemainingQuantity() { return remainingQuantity; }
+    public void setRemainingQuantity(BigDecimal remainingQuantity) { this.remainingQuantity = remainingQuantity; }
+
+    public BigDecimal getCostBasisPerShare() { return costBasisPerShare; }
+    public void setCostBasisPerShare(BigDecimal costBasisPerShare) { this.costBasisPerShare = costBasisPerShare; }
+
+    public static TaxLotBuilder builder() { return new TaxLotBuilder(); }
+
+    public static class TaxLotBuilder {
+        private Long id;
+        private Holding holding;
+        private Long tradeId;
+        private LocalDate purchaseDate;
+        private BigDecimal originalQuantity;
+        private BigDecimal remainingQuantity;
+        private BigDecimal costBasisPerShare;
+
+        public TaxLotBuilder id(Long id) { this.id = id; return this; }
+        public TaxLotBuilder holding(Holding holding) { this.holding = holding; return this; }
+        public TaxLotBuilder tradeId(Long tradeId) { this.tradeId = tradeId; return this; }
+        public TaxLotBuilder purchaseDate(LocalDate purchaseDate) { this.purchaseDate = purchaseDate; return this; }
+        public TaxLotBuilder originalQuantity(BigDecimal originalQuantity) { this.originalQuantity = originalQuantity; return this; }
+        public TaxLotBuilder remainingQuantity(BigDecimal remainingQuantity) { this.remainingQuantity = remainingQuantity; return this; }
+        public TaxLotBuilder costBasisPerShare(BigDecimal costBasisPerShare) { this.costBasisPerShare = costBasisPerShare; return this; }
+
+        public TaxLot build() {
+            return new TaxLot(id, holding, tradeId, purchaseDate, originalQuantity, remainingQuantity, costBasisPerShare);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.rebalancer.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Shares of one lot consumed by one SELL trade, with the gain realized on them.
+ */
+@Entity
+@Table(name = "tax_lot_dispositions",
+       indexes = @Index(name = "idx_tax_lot_dispositions_holding_date", columnList = "holding_id, sell_date"))
+public class TaxLotDisposition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tax_lot_dispositions_id")
+    @SequenceGenerator(name = "tax_lot_dispositions_id", sequenceName = "tax_lot_dispositions_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "holding_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Holding holding;
+
+    @Column(name = "buy_trade_id", nullable = false)
+    private Long buyTradeId;
+
+    @Column(name = "sell_trade_id", nullable = false)
+    private Long sellTradeId;
+
+    @Column(name = "sell_date", nullable = false)
+    private LocalDate sellDate;
+
+    @Column(name = "quantity_sold", nullable = false, precision = 19, scale = 6)
+    private BigDecimal quantitySold;
+
+    @Column(name = "cost_basis_per_share", nullable = false, precision = 19, scale = 6)
+    private BigDecimal costBasisPerShare;
+
+    @Column(name = "sell_price_per_share", nullable = false, precision = 19, scale = 4)
+    private BigDecimal sellPricePerShare;
+
+    /** Exact product of quantity and per-share gain, hence the wide scale. */
+    @Column(name = "realized_gain", nullable = false, precision = 31, scale = 12)
+    private BigDecimal realizedGain;
+
+    public TaxLotDisposition() {
+    }
+
+    public TaxLotDisposition(Long id, Holding holding, Long buyTradeId, Long sellTradeId, LocalDate sellDate,
+                             BigDecimal quantitySold, BigDecimal costBasisPerShare, BigDecimal sellPricePerShare,
+                             BigDecimal realizedGain) {
+        this.id = id;
+        this.holding = holding;
+        this.buyTradeId = buyTradeId;
+        this.sellTradeId = sellTradeId;
+        this.sellDate = sellDate;
+        this.quantitySold = quantitySold;
+        this.costBasisPerShare = costBasisPerShare;
+        this.sellPricePerShare = sellPricePerShare;
+        this.realizedGain = realizedGain;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Holding getHolding() { return holding; }
+    public void setHolding(Holding holding) { this.holding = holding; }
+
+    public Long getBuyTradeId() { return buyTradeId; }
+    public void setBuyTradeId(Long buyTradeId) { this.buyTradeId = buyTradeId; }
+
+    public Long getSellTradeId() { return sellTradeId; }
+    public void setSellTradeId(Long sellTradeId) { this.sellTradeId = sellTradeId; }
+
+    public LocalDate getSellDate() { return sellDate; }
+    public void setSellDate(LocalDate sellDate) { this.sellDate = sellDate; }
+
+    public BigDecimal getQuantitySold() { return quantitySold; }
+    public void setQuantitySold(BigDecimal quantitySold) { this.quantitySold = quantitySold; }
+
+    public BigDecimal getCostBasisPerShare() { return costBasisPerShare; }
+    public void setCostBasisPerShare(BigDecimal costBasisPerShare) { this.costBasisPerShare = costBasisPerShare; }
+
+    public BigDecimal getSellPricePerShare() { return sellPricePerShare; }
+    public void setSellPricePerShare(BigDecimal sellPricePerShare) { this.sellPricePerShare = sellPricePerShare; }
+
+    public BigDecimal getRealizedGain() { return realizedGain; }
+    public void setRealizedGain(BigDecimal realizedGain) { this.realizedGain = realizedGain; }
+
+    public static TaxLotDispositionBuilder builder() { return new TaxLotDispositionBuilder(); }
+
+    public static class TaxLotDispositionBuilder {
+        private Long id;
+        private Holding holding;
+        private Long buyTradeId;
+        private Long sellTradeId;
+        private LocalDate sellDate;
+        private BigDecimal quantitySold;
+        private BigDecimal costBasisPerShare;
+        private BigDecimal sellPricePerShare;
+        private BigDecimal realizedGain;
+
+        public TaxLotDispositionBuilder id(Long id) { this.id = id; return this; }
+        public TaxLotDispositionBuilder holding(Holding holding) { this.holding = holding; return this; }
+        public TaxLotDispositionBuilder buyTradeId(Long buyTradeId) { this.buyTradeId = buyTradeId; return this; }
+        public TaxLotDispositionBuilder sellTradeId(Long sellTradeId) { this.sellTradeId = sellTradeId; return this; }
+        public TaxLotDispositionBuilder sellDate(LocalDate sellDate) { this.sellDate = sellDate; return this; }
+        public TaxLotDispositionBuilder quantitySold(BigDecimal quantitySold) { this.quantitySold = quantitySold; return this; }
+        public TaxLotDispositionBuilder costBasisPerShare(BigDecimal costBasisPerShare) { this.costBasisPerShare = costBasisPerShare; return this; }
+        public TaxLotDispositionBuilder sellPricePerShare(BigDecimal sellPricePerShare) { this.sellPricePerShare = sellPricePerShare; return this; }
+        public TaxLotDispositionBuilder realizedGain(BigDecimal realizedGain) { this.realizedGain = realizedGain; return this; }
+
+        public TaxLotDisposition build() {
+            return new TaxLotDisposition(id, holding, buyTradeId, sellTradeId, sellDate, quantitySold,
+                    costBasisPerShare, sellPricePerShare, realizedGain);
+        }
+    }
+}
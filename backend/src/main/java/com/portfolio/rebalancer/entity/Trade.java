@@ -6,11 +6,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "trades")
+@Table(name = "trades", indexes = @Index(name = "idx_trades_holding_date_id", columnList = "holding_id, date, id"))
 public class Trade {
 
+    /** Sequence-generated so inserts can be batched; IDENTITY needs a round trip per row. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trades_id")
+    @SequenceGenerator(name = "trades_id", sequenceName = "trades_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,6 +35,10 @@ public class Trade {
     @Column(precision = 19, scale = 4)
     private BigDecimal fee;
 
+    /** BUY trade whose lot a SELL closes first under specific identification. */
+    @Column(name = "lot_trade_id")
+    private Long lotTradeId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -40,7 +46,7 @@ public class Trade {
     }
 
     public Trade(Long id, Holding holding, LocalDate date, TradeType type,
-                 BigDecimal quantity, BigDecimal price, BigDecimal fee, LocalDateTime createdAt) {
+                 BigDecimal quantity, BigDecimal price, BigDecimal fee, Long lotTradeId, LocalDateTime createdAt) {
         this.id = id;
         this.holding = holding;
         this.date = date;
@@ -48,6 +54,7 @@ public class Trade {
         this.quantity = quantity;
         this.price = price;
         this.fee = fee;
+        this.lotTradeId = lotTradeId;
         this.createdAt = createdAt;
     }
 
@@ -79,6 +86,9 @@ public class Trade {
     public BigDecimal getFee() { return fee; }
     public void setFee(BigDecimal fee) { this.fee = fee; }
 
+    public Long getLotTradeId() { return lotTradeId; }
+    public void setLotTradeId(Long lotTradeId) { this.lotTradeId = lotTradeId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -92,6 +102,7 @@ public class Trade {
         private BigDecimal quantity;
         private BigDecimal price;
         private BigDecimal fee;
+        private Long lotTradeId;
         private LocalDateTime createdAt;
 
         public TradeBuilder id(Long id) { this.id = id; return this; }
@@ -101,10 +112,11 @@ public class Trade {
         public TradeBuilder quantity(BigDecimal quantity) { this.quantity = quantity; return this; }
         public TradeBuilder price(BigDecimal price) { this.price = price; return this; }
         public TradeBuilder fee(BigDecimal fee) { this.fee = fee; return this; }
+        public TradeBuilder lotTradeId(Long lotTradeId) { this.lotTradeId = lotTradeId; return this; }
         public TradeBuilder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
 
         public Trade build() {
-            return new Trade(id, holding, date, type, quantity, price, fee, createdAt);
+            return new Trade(id, holding, date, type, quantity, price, fee, lotTradeId, createdAt);
         }
     }
 }
@@ -0,0 +1,7 @@
+package com.portfolio.rebalancer.exception;
+
+public class MarketDataUnavailableException extends RuntimeException {
+    public MarketDataUnavailableException(String message) {
+        super(message);
+    }
+}
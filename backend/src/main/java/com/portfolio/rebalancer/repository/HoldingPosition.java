@@ -0,0 +1,16 @@
+package com.portfolio.rebalancer.repository;
+
+import com.portfolio.rebalancer.entity.AssetClass;
+
+import java.math.BigDecimal;
+
+/**
+ * Net share count of a holding, aggregated from its trades in the database.
+ */
+public interface HoldingPosition {
+    Long getHoldingId();
+    Long getPortfolioId();
+    String getTickerSymbol();
+    AssetClass getAssetClass();
+    BigDecimal getQuantity();
+}
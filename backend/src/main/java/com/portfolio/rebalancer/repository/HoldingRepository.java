@@ -1,13 +1,85 @@
 package com.portfolio.rebalancer.repository;
 
 import com.portfolio.rebalancer.entity.Holding;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface HoldingRepository extends JpaRepository<Holding, Long> {
+    String POSITION_SELECT = "SELECT h.id AS holdingId, h.portfolio.id AS portfolioId, "
+            + "h.tickerSymbol AS tickerSymbol, h.assetClass AS assetClass, "
+            + "COALESCE(SUM(CASE WHEN t.type = com.portfolio.rebalancer.entity.TradeType.BUY "
+            + "THEN t.quantity ELSE -t.quantity END), 0) AS quantity "
+            + "FROM Holding h LEFT JOIN h.trades t ";
+    String POSITION_GROUP_BY = "GROUP BY h.id, h.portfolio.id, h.tickerSymbol, h.assetClass";
+
     List<Holding> findByPortfolioId(Long portfolioId);
 
+    Optional<Holding> findByIdAndPortfolioId(Long id, Long portfolioId);
+
+    @Query("SELECT DISTINCT h FROM Holding h LEFT JOIN FETCH h.trades WHERE h.portfolio.id IN :portfolioIds")
+    List<Holding> findWithTradesByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds);
+
+    /** Holdings that carry a running position, which need no trades to value. */
+    List<Holding> findByPortfolioIdInAndQuantityIsNotNull(Collection<Long> portfolioIds);
+
+    /** Holdings without a running position yet, with the trades to derive it from. */
+    @Query("SELECT DISTINCT h FROM Holding h LEFT JOIN FETCH h.trades "
+            + "WHERE h.portfolio.id IN :portfolioIds AND h.quantity IS NULL")
+    List<Holding> findWithTradesByPortfolioIdInAndQuantityIsNull(@Param("portfolioIds") Collection<Long> portfolioIds);
+
+    /**
+     * Mark holdings as needing a ledger rebuild, so reads replay their trades meanwhile. Bumps the
+     * version so in-flight trade writes to them fail rather than update the stale position.
+     */
+    @Modifying
+    @Query("UPDATE Holding h SET h.lotsMaterialized = false, h.quantity = NULL, h.openCost = NULL, "
+            + "h.realizedPnL = NULL, h.version = h.version + 1 WHERE h.id IN :holdingIds")
+    void clearPositions(@Param("holdingIds") Collection<Long> holdingIds);
+
+    /** Holdings whose open lots are replayed from their trades rather than read from the ledger. */
+    @Query("SELECT h.id FROM Holding h WHERE h.portfolio.id = :portfolioId "
+            + "AND (h.lotsMaterialized IS NULL OR h.lotsMaterialized = false) ORDER BY h.id")
+    List<Long> findUnmaterializedIdsByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query("SELECT h.id FROM Holding h ORDER BY h.id")
+    List<Long> findAllIds();
+
+    /** Holdings with ids above {@code afterId}, in id order, for keyset paging. */
+    @Query("SELECT h FROM Holding h JOIN FETCH h.portfolio "
+            + "WHERE h.portfolio.id IN :portfolioIds AND h.id > :afterId ORDER BY h.id")
+    List<Holding> findPageByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds,
+                                          @Param("afterId") Long afterId, Pageable page);
+
+    @Query(POSITION_SELECT + "WHERE h.portfolio.id = :portfolioId " + POSITION_GROUP_BY)
+    List<HoldingPosition> findPositionsByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query(POSITION_SELECT + "WHERE h.portfolio.id IN :portfolioIds " + POSITION_GROUP_BY)
+    List<HoldingPosition> findPositionsByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds);
+
+    @Query(POSITION_SELECT + POSITION_GROUP_BY)
+    List<HoldingPosition> findAllPositions();
+
+    @Query("SELECT h.id AS holdingId, h.portfolio.id AS portfolioId, h.tickerSymbol AS tickerSymbol, "
+            + "h.name AS name, h.assetClass AS assetClass, h.currency AS currency, "
+            + "h.portfolio.costBasisMethod AS costBasisMethod, h.lotsMaterialized AS lotsMaterialized, "
+            + "COALESCE(SUM(CASE WHEN t.type = com.portfolio.rebalancer.entity.TradeType.BUY "
+            + "THEN t.quantity ELSE -t.quantity END), 0) AS quantity, "
+            + "COUNT(t.id) AS tradeCount, MAX(t.date) AS lastTradeDate "
+            + "FROM Holding h LEFT JOIN h.trades t WHERE h.portfolio.id IN :portfolioIds "
+            + "GROUP BY h.id, h.portfolio.id, h.tickerSymbol, h.name, h.assetClass, h.currency, "
+            + "h.portfolio.costBasisMethod, h.lotsMaterialized ORDER BY h.id")
+    List<HoldingSummary> findSummariesByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds);
+
     @Query("SELECT DISTINCT h.tickerSymbol FROM Holding h")
     List<String> findDistinctTickerSymbols();
+
+    @Query("SELECT DISTINCT h.tickerSymbol FROM Holding h WHERE h.portfolio.id IN :portfolioIds")
+    List<String> findDistinctTickerSymbolsByPortfolioIdIn(@Param("portfolioIds") Collection<Long> portfolioIds);
 }
@@ -0,0 +1,25 @@
+package com.portfolio.rebalancer.repository;
+
+import com.portfolio.rebalancer.entity.AssetClass;
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A holding with its trades aggregated in the database: net share count, number of trades and the
+ * latest trade date. No trade is loaded.
+ */
+public interface HoldingSummary {
+    Long getHoldingId();
+    Long getPortfolioId();
+    String getTickerSymbol();
+    String getName();
+    AssetClass getAssetClass();
+    String getCurrency();
+    CostBasisMethod getCostBasisMethod();
+    Boolean getLotsMaterialized();
+    BigDecimal getQuantity();
+    Long getTradeCount();
+    LocalDate getLastTradeDate();
+}
@@ -0,0 +1,17 @@
+package com.portfolio.rebalancer.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One open lot with the ticker of its holding, for exports.
+ */
+public interface LotExportRow {
+    Long getHoldingId();
+    String getTickerSymbol();
+    Long getTradeId();
+    LocalDate getPurchaseDate();
+    BigDecimal getOriginalQuantity();
+    BigDecimal getRemainingQuantity();
+    BigDecimal getCostBasisPerShare();
+}
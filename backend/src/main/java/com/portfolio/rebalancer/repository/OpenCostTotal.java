@@ -0,0 +1,11 @@
+package com.portfolio.rebalancer.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Cost basis of a holding's open lots, summed in the database.
+ */
+public interface OpenCostTotal {
+    Long getHoldingId();
+    BigDecimal getTotalCost();
+}
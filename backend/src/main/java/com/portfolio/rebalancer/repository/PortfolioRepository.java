@@ -2,10 +2,21 @@ package com.portfolio.rebalancer.repository;
 
 import com.portfolio.rebalancer.entity.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     List<Portfolio> findByOwnerId(Long ownerId);
+
+    @Query("SELECT DISTINCT p FROM Portfolio p LEFT JOIN FETCH p.holdings WHERE p.ownerId = :ownerId")
+    List<Portfolio> findWithHoldingsByOwnerId(@Param("ownerId") Long ownerId);
+
+    /** Initializes the target allocations of portfolios already loaded in the persistence context. */
+    @Query("SELECT DISTINCT p FROM Portfolio p LEFT JOIN FETCH p.targetAllocations WHERE p.id IN :ids")
+    List<Portfolio> findWithTargetAllocationsByIdIn(@Param("ids") Collection<Long> ids);
     Optional<Portfolio> findByIdAndOwnerId(Long id, Long ownerId);
 }
@@ -0,0 +1,19 @@
+package com.portfolio.rebalancer.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One lot disposition of a holding with the purchase date of the lot it consumed, for gain reports.
+ */
+public interface RealizedDisposition {
+    Long getHoldingId();
+    Long getBuyTradeId();
+    LocalDate getPurchaseDate();
+    Long getSellTradeId();
+    LocalDate getSellDate();
+    BigDecimal getQuantitySold();
+    BigDecimal getCostBasisPerShare();
+    BigDecimal getSellPricePerShare();
+    BigDecimal getRealizedGain();
+}
@@ -0,0 +1,11 @@
+package com.portfolio.rebalancer.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Realized gain of a holding, summed over its lot dispositions in the database.
+ */
+public interface RealizedGainTotal {
+    Long getHoldingId();
+    BigDecimal getRealizedGain();
+}
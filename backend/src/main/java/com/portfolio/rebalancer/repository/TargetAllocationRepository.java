@@ -2,9 +2,11 @@ package com.portfolio.rebalancer.repository;
 
 import com.portfolio.rebalancer.entity.TargetAllocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.List;
 
 public interface TargetAllocationRepository extends JpaRepository<TargetAllocation, Long> {
     List<TargetAllocation> findByPortfolioId(Long portfolioId);
+    List<TargetAllocation> findByPortfolioIdIn(Collection<Long> portfolioIds);
     void deleteByPortfolioId(Long portfolioId);
 }
@@ -0,0 +1,35 @@
+package com.portfolio.rebalancer.repository;
+
+import com.portfolio.rebalancer.entity.TaxLotDisposition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaxLotDispositionRepository extends JpaRepository<TaxLotDisposition, Long> {
+    @Query("SELECT COALESCE(SUM(d.realizedGain), 0) FROM TaxLotDisposition d WHERE d.holding.id = :holdingId")
+    BigDecimal sumRealizedGainByHoldingId(@Param("holdingId") Long holdingId);
+
+    @Query("SELECT d.holding.id AS holdingId, SUM(d.realizedGain) AS realizedGain FROM TaxLotDisposition d "
+            + "WHERE d.holding.id IN :holdingIds GROUP BY d.holding.id")
+    List<RealizedGainTotal> sumRealizedGainByHoldingIdIn(@Param("holdingIds") Collection<Long> holdingIds);
+
+    @Query("SELECT d.holding.id AS holdingId, d.buyTradeId AS buyTradeId, t.date AS purchaseDate, "
+            + "d.sellTradeId AS sellTradeId, d.sellDate AS sellDate, d.quantitySold AS quantitySold, "
+            + "d.costBasisPerShare AS costBasisPerShare, d.sellPricePerShare AS sellPricePerShare, "
+            + "d.realizedGain AS realizedGain "
+            + "FROM TaxLotDisposition d LEFT JOIN Trade t ON t.id = d.buyTradeId "
+            + "WHERE d.holding.id IN :holdingIds AND d.sellDate BETWEEN :from AND :to "
+            + "ORDER BY d.holding.id, d.sellDate, d.sellTradeId, d.id")
+    List<RealizedDisposition> findRealizedByHoldingIdInAndSellDateBetween(
+            @Param("holdingIds") Collection<Long> holdingIds, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM TaxLotDisposition d WHERE d.holding.id = :holdingId")
+    void deleteByHoldingId(@Param("holdingId") Long holdingId);
+}
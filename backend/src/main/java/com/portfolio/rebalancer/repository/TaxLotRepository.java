@@ -0,0 +1,40 @@
+package com.portfolio.rebalancer.repository;
+
+import com.portfolio.rebalancer.entity.TaxLot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaxLotRepository extends JpaRepository<TaxLot, Long> {
+    List<TaxLot> findByHoldingIdOrderByPurchaseDateAscTradeIdAsc(Long holdingId);
+
+    List<TaxLot> findByHoldingIdInOrderByPurchaseDateAscTradeIdAsc(Collection<Long> holdingIds);
+
+    @Query("SELECT l.holding.id AS holdingId, SUM(l.remainingQuantity * l.costBasisPerShare) AS totalCost "
+            + "FROM TaxLot l WHERE l.holding.id IN :holdingIds GROUP BY l.holding.id")
+    List<OpenCostTotal> sumOpenCostByHoldingIdIn(@Param("holdingIds") Collection<Long> holdingIds);
+
+    /**
+     * Scrolls the open lots of the portfolio's materialized holdings by holding, then purchase; must be
+     * consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT h.id AS holdingId, h.tickerSymbol AS tickerSymbol, l.tradeId AS tradeId, "
+            + "l.purchaseDate AS purchaseDate, l.originalQuantity AS originalQuantity, "
+            + "l.remainingQuantity AS remainingQuantity, l.costBasisPerShare AS costBasisPerShare "
+            + "FROM TaxLot l JOIN l.holding h WHERE h.portfolio.id = :portfolioId AND h.lotsMaterialized = true "
+            + "ORDER BY h.id, l.purchaseDate, l.tradeId")
+    Stream<LotExportRow> streamExportRowsByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Modifying
+    @Query("DELETE FROM TaxLot l WHERE l.holding.id = :holdingId")
+    void deleteByHoldingId(@Param("holdingId") Long holdingId);
+}
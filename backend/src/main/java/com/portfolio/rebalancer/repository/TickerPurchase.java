@@ -0,0 +1,12 @@
+package com.portfolio.rebalancer.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Date of one BUY trade and the ticker it bought.
+ */
+public interface TickerPurchase {
+    Long getTradeId();
+    String getTickerSymbol();
+    LocalDate getDate();
+}
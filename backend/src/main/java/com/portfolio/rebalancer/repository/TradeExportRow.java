@@ -0,0 +1,24 @@
+package com.portfolio.rebalancer.repository;
+
+import com.portfolio.rebalancer.entity.TradeType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One trade with the ticker of its holding, for exports. Named like the import fields, so an
+ * export can be imported again.
+ */
+public interface TradeExportRow {
+    Long getId();
+    Long getHoldingId();
+    String getTickerSymbol();
+    LocalDate getDate();
+    TradeType getType();
+    BigDecimal getQuantity();
+    BigDecimal getPrice();
+    BigDecimal getFee();
+    Long getLotTradeId();
+    LocalDateTime getCreatedAt();
+}
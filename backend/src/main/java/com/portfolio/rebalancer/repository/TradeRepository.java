@@ -1,10 +1,50 @@
 package com.portfolio.rebalancer.repository;
 
 import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TradeRepository extends JpaRepository<Trade, Long> {
     List<Trade> findByHoldingId(Long holdingId);
+    List<Trade> findByHoldingIdIn(Collection<Long> holdingIds);
     List<Trade> findByHoldingIdOrderByDateDesc(Long holdingId);
+    Optional<Trade> findByIdAndHoldingId(Long id, Long holdingId);
+    @Query("SELECT t FROM Trade t WHERE t.holding.id = :holdingId ORDER BY t.date DESC, t.id DESC")
+    List<Trade> findPageByHoldingId(@Param("holdingId") Long holdingId, Pageable page);
+
+    /** Trades that sort after the given one in newest-first order, for keyset paging. */
+    @Query("SELECT t FROM Trade t WHERE t.holding.id = :holdingId "
+            + "AND (t.date, t.id) < (:date, :id) ORDER BY t.date DESC, t.id DESC")
+    List<Trade> findPageByHoldingIdBefore(@Param("holdingId") Long holdingId, @Param("date") LocalDate date,
+                                          @Param("id") Long id, Pageable page);
+
+    boolean existsByHoldingIdAndDateAfter(Long holdingId, LocalDate date);
+    boolean existsByHoldingIdAndDateAndType(Long holdingId, LocalDate date, TradeType type);
+
+    @Query("SELECT t.id AS tradeId, t.holding.tickerSymbol AS tickerSymbol, t.date AS date FROM Trade t "
+            + "WHERE t.holding.portfolio.id IN :portfolioIds AND t.type = com.portfolio.rebalancer.entity.TradeType.BUY "
+            + "AND t.date BETWEEN :from AND :to")
+    List<TickerPurchase> findPurchasesByPortfolioIdInAndDateBetween(@Param("portfolioIds") Collection<Long> portfolioIds,
+                                                                    @Param("from") LocalDate from,
+                                                                    @Param("to") LocalDate to);
+
+    /** Scrolls the portfolio's trades by holding, then date and entry; must be consumed inside a transaction. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, h.id AS holdingId, h.tickerSymbol AS tickerSymbol, t.date AS date, "
+            + "t.type AS type, t.quantity AS quantity, t.price AS price, t.fee AS fee, "
+            + "t.lotTradeId AS lotTradeId, t.createdAt AS createdAt "
+            + "FROM Trade t JOIN t.holding h WHERE h.portfolio.id = :portfolioId ORDER BY h.id, t.date, t.createdAt, t.id")
+    Stream<TradeExportRow> streamExportRowsByPortfolioId(@Param("portfolioId") Long portfolioId);
 }
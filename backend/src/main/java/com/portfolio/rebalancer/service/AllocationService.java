@@ -6,6 +6,7 @@ import com.portfolio.rebalancer.entity.Portfolio;
 import com.portfolio.rebalancer.entity.TargetAllocation;
 import com.portfolio.rebalancer.exception.InvalidAllocationException;
 import com.portfolio.rebalancer.repository.TargetAllocationRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +18,13 @@ public class AllocationService {
 
     private final TargetAllocationRepository allocationRepository;
     private final PortfolioService portfolioService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AllocationService(TargetAllocationRepository allocationRepository, PortfolioService portfolioService) {
+    public AllocationService(TargetAllocationRepository allocationRepository, PortfolioService portfolioService,
+                             ApplicationEventPublisher eventPublisher) {
         this.allocationRepository = allocationRepository;
         this.portfolioService = portfolioService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<AllocationResponse> getAllocations(Long portfolioId) {
@@ -54,9 +58,11 @@ public class AllocationService {
                         .build())
                 .toList();
 
-        return allocationRepository.saveAll(allocations).stream()
+        List<AllocationResponse> saved = allocationRepository.saveAll(allocations).stream()
                 .map(this::toResponse)
                 .toList();
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+        return saved;
     }
 
     private AllocationResponse toResponse(TargetAllocation allocation) {
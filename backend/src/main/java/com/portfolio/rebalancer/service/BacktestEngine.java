@@ -0,0 +1,126 @@
+package com.portfolio.rebalancer.service;
+
+import java.util.Arrays;
+
+/**
+ * Replays threshold-based rebalancing over a {@link PriceHistory}, with holdings grouped into
+ * {@link Sleeves}. Whenever any sleeve drifts past the threshold the portfolio is traded back to
+ * target, keeping the mix of holdings within each class. The benchmark holds the same sleeves at
+ * their target weights every bar, so tracking error only measures allocation drift, not the choice
+ * of holdings within a class.
+ * <p>
+ * Values are doubles: the outputs are statistics, not amounts that are booked. An engine is
+ * immutable, so one instance may run many thresholds concurrently.
+ */
+public final class BacktestEngine {
+
+    private final int bars;
+    private final int assets;
+    private final double[] price;
+    private final int[] sleeve;
+    private final double[] sleeveTarget;
+    private final int cashSleeve;
+    private final double[] initialUnits;
+    private final double initialCash;
+    private final double periodsPerYear;
+
+    /**
+     * @param units units held per asset; must be positive
+     * @param cash  cash balance
+     */
+    public BacktestEngine(PriceHistory history, Sleeves sleeves, double[] units, double cash) {
+        this.bars = history.bars();
+        this.assets = history.assets();
+        this.price = history.prices();
+        this.sleeve = sleeves.sleeve();
+        this.sleeveTarget = sleeves.target();
+        this.cashSleeve = sleeves.cashSleeve();
+        this.initialUnits = units.clone();
+        this.initialCash = cash;
+        this.periodsPerYear = history.periodsPerYear();
+    }
+
+    /**
+     * Simulate rebalancing whenever a sleeve's weight differs from its target by more than
+     * {@code threshold}, a fraction such as 0.05.
+     */
+    public Result run(double threshold) {
+        double[] units = initialUnits.clone();
+        double cash = initialCash;
+        double[] value = new double[assets];
+        double[] sleeveValue = new double[sleeveTarget.length];
+        double[] previousSleeveValue = new double[sleeveTarget.length];
+
+        int rebalances = 0;
+        double turnover = 0;
+        double previousTotal = 0;
+        double activeSum = 0;
+        double activeSquares = 0;
+        int returns = 0;
+        double total = 0;
+        for (int t = 0; t < bars; t++) {
+            int row = t * assets;
+            Arrays.fill(sleeveValue, 0);
+            total = cash;
+            for (int a = 0; a < assets; a++) {
+                double v = units[a] * price[row + a];
+                value[a] = v;
+                sleeveValue[sleeve[a]] += v;
+                total += v;
+            }
+            sleeveValue[cashSleeve] = cash;
+            if (total <= 0) break;
+
+            if (t > 0) {
+                double benchmarkReturn = 0;
+                for (int s = 0; s < cashSleeve; s++) {
+                    if (previousSleeveValue[s] > 0) {
+                        benchmarkReturn += sleeveTarget[s] * (sleeveValue[s] / previousSleeveValue[s] - 1);
+                    }
+                }
+                double active = total / previousTotal - 1 - benchmarkReturn;
+                activeSum += active;
+                activeSquares += active * active;
+                returns++;
+            }
+
+            double maxDrift = 0;
+            for (int s = 0; s < sleeveValue.length; s++) {
+                maxDrift = Math.max(maxDrift, Math.abs(sleeveValue[s] / total - sleeveTarget[s]));
+            }
+            if (maxDrift > threshold) {
+                double traded = 0;
+                for (int a = 0; a < assets; a++) {
+                    int s = sleeve[a];
+                    // A sleeve is only empty when its target is zero
+                    double targetValue = sleeveValue[s] > 0 ? sleeveTarget[s] * total * value[a] / sleeveValue[s] : 0;
+                    traded += Math.abs(targetValue - value[a]);
+                    units[a] = targetValue / price[row + a];
+                }
+                double targetCash = sleeveTarget[cashSleeve] * total;
+                traded += Math.abs(targetCash - cash);
+                cash = targetCash;
+                for (int s = 0; s < cashSleeve; s++) {
+                    sleeveValue[s] = sleeveTarget[s] * total;
+                }
+                // One-way turnover: every purchase is funded by a sale
+                turnover += traded / 2 / total;
+                rebalances++;
+            }
+            System.arraycopy(sleeveValue, 0, previousSleeveValue, 0, cashSleeve);
+            previousTotal = total;
+        }
+
+        double variance = returns > 1
+                ? Math.max(0, (activeSquares - activeSum * activeSum / returns) / (returns - 1))
+                : 0;
+        return new Result(rebalances, turnover, Math.sqrt(variance * periodsPerYear), total);
+    }
+
+    /**
+     * @param turnover      one-way traded value over the period as a fraction of portfolio value
+     * @param trackingError annualized standard deviation of returns against the benchmark, as a fraction
+     */
+    public record Result(int rebalances, double turnover, double trackingError, double finalValue) {
+    }
+}
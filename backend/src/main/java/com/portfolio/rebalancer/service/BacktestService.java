@@ -0,0 +1,167 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.BacktestResponse;
+import com.portfolio.rebalancer.dto.response.HistoricalDataPoint;
+import com.portfolio.rebalancer.entity.Portfolio;
+import com.portfolio.rebalancer.entity.TargetAllocation;
+import com.portfolio.rebalancer.exception.InvalidAllocationException;
+import com.portfolio.rebalancer.repository.HoldingPosition;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.TargetAllocationRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Backtests drift-threshold rebalancing of a portfolio's current holdings against its target
+ * allocations. History is fetched once per ticker and every threshold of the sweep is replayed
+ * in parallel on the rebalance pool.
+ */
+@Service
+public class BacktestService {
+
+    private static final Set<String> RANGES = Set.of("1d", "1w", "1m", "3m", "6m", "1y");
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final int MAX_THRESHOLDS = 100;
+
+    private final HoldingRepository holdingRepository;
+    private final TargetAllocationRepository allocationRepository;
+    private final MarketDataClient marketDataClient;
+    private final PortfolioService portfolioService;
+    private final ForkJoinPool rebalancePool;
+
+    public BacktestService(HoldingRepository holdingRepository, TargetAllocationRepository allocationRepository,
+                           MarketDataClient marketDataClient, PortfolioService portfolioService,
+                           ForkJoinPool rebalancePool) {
+        this.holdingRepository = holdingRepository;
+        this.allocationRepository = allocationRepository;
+        this.marketDataClient = marketDataClient;
+        this.portfolioService = portfolioService;
+        this.rebalancePool = rebalancePool;
+    }
+
+    /**
+     * @param range      history range as accepted by the market data gateway
+     * @param thresholds drift thresholds in percent; defaults to 1% through 10%. The portfolio's own
+     *                   threshold is always included.
+     */
+    public BacktestResponse runBacktest(Long portfolioId, String range, List<BigDecimal> thresholds) {
+        if (!RANGES.contains(range)) {
+            throw new IllegalArgumentException("Invalid range: " + range + ". Allowed: 1d, 1w, 1m, 3m, 6m, 1y");
+        }
+        Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
+        SortedSet<BigDecimal> sweep = sweep(thresholds, portfolio.getDriftThreshold());
+
+        List<TargetAllocation> targets = allocationRepository.findByPortfolioId(portfolioId);
+        if (targets.isEmpty()) {
+            throw new InvalidAllocationException("No target allocations defined");
+        }
+        double[] classTarget = new double[ValuationKernel.CLASS_COUNT];
+        for (TargetAllocation target : targets) {
+            classTarget[target.getAssetClass().ordinal()] = target.getTargetPercentage().doubleValue() / 100;
+        }
+
+        // Net units per ticker; holdings of the same ticker are merged
+        Map<String, HoldingPosition> positionByTicker = new LinkedHashMap<>();
+        Map<String, BigDecimal> unitsByTicker = new HashMap<>();
+        for (HoldingPosition position : holdingRepository.findPositionsByPortfolioId(portfolioId)) {
+            positionByTicker.putIfAbsent(position.getTickerSymbol(), position);
+            unitsByTicker.merge(position.getTickerSymbol(), position.getQuantity(), BigDecimal::add);
+        }
+        unitsByTicker.values().removeIf(units -> units.signum() <= 0);
+        positionByTicker.keySet().retainAll(unitsByTicker.keySet());
+        if (positionByTicker.isEmpty()) {
+            throw new InvalidAllocationException("Portfolio has no holdings");
+        }
+
+        int assets = positionByTicker.size();
+        int[] assetClass = new int[assets];
+        double[] units = new double[assets];
+        List<List<HistoricalDataPoint>> histories = new ArrayList<>(assets);
+        int a = 0;
+        for (HoldingPosition position : positionByTicker.values()) {
+            String ticker = position.getTickerSymbol();
+            List<HistoricalDataPoint> points = marketDataClient.fetchHistory(ticker, range);
+            if (points == null || points.isEmpty()) {
+                throw new InvalidAllocationException("No price history available for " + ticker);
+            }
+            assetClass[a] = position.getAssetClass().ordinal();
+            units[a] = unitsByTicker.get(ticker).doubleValue();
+            histories.add(points);
+            a++;
+        }
+
+        BigDecimal cash = portfolio.getCashBalance() != null ? portfolio.getCashBalance() : BigDecimal.ZERO;
+        PriceHistory history = PriceHistory.align(histories);
+        if (history == null) {
+            throw new InvalidAllocationException("Price histories do not overlap for range " + range);
+        }
+        BacktestEngine engine = new BacktestEngine(history, Sleeves.of(assetClass, classTarget), units,
+                cash.doubleValue());
+
+        List<BacktestResponse.ThresholdResult> results = rebalancePool.submit(() -> sweep.parallelStream()
+                .map(threshold -> toThresholdResult(threshold,
+                        engine.run(threshold.doubleValue() / 100)))
+                .toList())
+                .join();
+
+        return BacktestResponse.builder()
+                .portfolioId(portfolioId)
+                .range(range)
+                .startDate(toDate(history.startTimestamp()))
+                .endDate(toDate(history.endTimestamp()))
+                .bars(history.bars())
+                .driftThreshold(portfolio.getDriftThreshold())
+                .results(results)
+                .build();
+    }
+
+    private static SortedSet<BigDecimal> sweep(List<BigDecimal> thresholds, BigDecimal driftThreshold) {
+        // Sorted by compareTo, so 5 and 5.00 are one threshold
+        SortedSet<BigDecimal> sweep = new TreeSet<>();
+        if (thresholds == null || thresholds.isEmpty()) {
+            for (int percent = 1; percent <= 10; percent++) {
+                sweep.add(BigDecimal.valueOf(percent).setScale(2));
+            }
+        } else {
+            for (BigDecimal threshold : thresholds) {
+                if (threshold.signum() <= 0 || threshold.compareTo(HUNDRED) > 0) {
+                    throw new IllegalArgumentException("Thresholds must be between 0 and 100: " + threshold);
+                }
+                sweep.add(threshold.setScale(2, RoundingMode.HALF_UP));
+            }
+        }
+        if (driftThreshold != null) {
+            sweep.add(driftThreshold.setScale(2, RoundingMode.HALF_UP));
+        }
+        if (sweep.size() > MAX_THRESHOLDS) {
+            throw new IllegalArgumentException("At most " + MAX_THRESHOLDS + " thresholds per backtest");
+        }
+        return sweep;
+    }
+
+    private static BacktestResponse.ThresholdResult toThresholdResult(BigDecimal threshold,
+                                                                      BacktestEngine.Result result) {
+        return BacktestResponse.ThresholdResult.builder()
+                .threshold(threshold)
+                .rebalanceCount(result.rebalances())
+                .turnoverPercentage(percent(result.turnover()))
+                .trackingErrorPercentage(percent(result.trackingError()))
+                .finalValue(BigDecimal.valueOf(result.finalValue()).setScale(2, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    private static BigDecimal percent(double fraction) {
+        return BigDecimal.valueOf(fraction * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static LocalDate toDate(long epochSeconds) {
+        return Instant.ofEpochSecond(epochSeconds).atZone(ZoneOffset.UTC).toLocalDate();
+    }
+}
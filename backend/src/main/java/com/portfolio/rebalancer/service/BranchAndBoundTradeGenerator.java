@@ -0,0 +1,116 @@
+package com.portfolio.rebalancer.service;
+
+import java.util.Arrays;
+
+/**
+ * Bounded branch-and-bound on top of the greedy solution. For each class the share counts of the
+ * largest {@link #MAX_SEARCHED} positions are searched for a lower residual plus trade penalty,
+ * with the greedy choice kept for smaller positions. Branches that cannot beat the incumbent are
+ * pruned and the search stops at the time budget, keeping the best solution found.
+ */
+public class BranchAndBoundTradeGenerator extends GreedyTradeGenerator {
+
+    /** Positions per class whose share counts are searched. */
+    static final int MAX_SEARCHED = 8;
+
+    private final long budgetNanos;
+    private long deadline;
+
+    public BranchAndBoundTradeGenerator(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    @Override
+    public void generate(ValuationKernel kernel, ValuationKernel.Result result) {
+        deadline = System.nanoTime() + budgetNanos;
+        super.generate(kernel, result);
+    }
+
+    @Override
+    long[] solve(ClassProblem problem) {
+        long[] incumbent = super.solve(problem);
+        Search search = new Search(problem, incumbent, deadline);
+        search.run();
+        return search.best;
+    }
+
+    private static final class Search {
+        private final ClassProblem problem;
+        private final int searched;
+        private final long target;
+        private final long fixedPenalty;
+        private final long deadline;
+        private final long[] capacityFrom;
+        private final long[] current;
+        private long[] best;
+        private long bestCost;
+        private long nodes;
+        private boolean timedOut;
+
+        private Search(ClassProblem problem, long[] incumbent, long deadline) {
+            this.problem = problem;
+            this.deadline = deadline;
+            this.best = incumbent;
+            this.bestCost = problem.cost(incumbent);
+            this.searched = Math.min(problem.size(), MAX_SEARCHED);
+            this.current = incumbent.clone();
+            long tail = 0;
+            long tailPenalty = 0;
+            for (int k = searched; k < problem.size(); k++) {
+                if (incumbent[k] == 0) continue;
+                tail = Math.addExact(tail, Math.multiplyExact(incumbent[k], problem.unit[k]));
+                tailPenalty += GreedyTradeGenerator.TRADE_PENALTY;
+            }
+            this.target = problem.target - tail;
+            this.fixedPenalty = tailPenalty;
+            // capacityFrom[k]: most value holdings k.. can move together, saturating at Long.MAX_VALUE
+            this.capacityFrom = new long[searched + 1];
+            for (int k = searched - 1; k >= 0; k--) {
+                long capacity = Math.multiplyExact(problem.cap[k], problem.unit[k]);
+                capacityFrom[k] = capacity > Long.MAX_VALUE - capacityFrom[k + 1]
+                        ? Long.MAX_VALUE
+                        : capacityFrom[k + 1] + capacity;
+            }
+        }
+
+        private void run() {
+            if (bestCost > 0) {
+                search(0, target, fixedPenalty);
+            }
+        }
+
+        private void search(int k, long remaining, long penalty) {
+            if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+                timedOut = true;
+            }
+            if (timedOut) return;
+
+            if (remaining <= 0 || k == searched) {
+                long cost = Math.abs(remaining) + penalty;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = current.clone();
+                    Arrays.fill(best, k, searched, 0);
+                }
+                return;
+            }
+            // Even trading everything left cannot close more than capacityFrom[k]
+            if (penalty + Math.max(0, remaining - capacityFrom[k]) >= bestCost) return;
+
+            long unit = problem.unit[k];
+            long max = Math.min(problem.cap[k], Math.addExact(remaining, unit - 1) / unit);
+            for (long n = max; n >= 0 && !timedOut; n--) {
+                long after = remaining - n * unit;
+                long nextPenalty = n > 0 ? penalty + GreedyTradeGenerator.TRADE_PENALTY : penalty;
+                if (nextPenalty + Math.max(0, after - capacityFrom[k + 1]) >= bestCost) {
+                    // Fewer shares only leave more uncovered; the one exception is not trading at all
+                    if (after > capacityFrom[k + 1] && n > 1) n = 1;
+                    continue;
+                }
+                current[k] = n;
+                search(k + 1, after, nextPenalty);
+            }
+            current[k] = 0;
+        }
+    }
+}
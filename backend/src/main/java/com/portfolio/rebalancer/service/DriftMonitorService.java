@@ -0,0 +1,266 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.DriftStatusResponse;
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import com.portfolio.rebalancer.entity.AssetClass;
+import com.portfolio.rebalancer.entity.Portfolio;
+import com.portfolio.rebalancer.entity.TargetAllocation;
+import com.portfolio.rebalancer.repository.HoldingPosition;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.PortfolioRepository;
+import com.portfolio.rebalancer.repository.TargetAllocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps per-portfolio, per-asset-class market values in memory and flags portfolios whose drift
+ * exceeds their threshold. Price ticks only touch the positions of tickers whose price changed;
+ * portfolio edits reload just the edited portfolio once its transaction commits.
+ */
+@Service
+public class DriftMonitorService {
+
+    private static final Logger log = LoggerFactory.getLogger(DriftMonitorService.class);
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final AssetClass[] ASSET_CLASSES = AssetClass.values();
+
+    private final PortfolioRepository portfolioRepository;
+    private final HoldingRepository holdingRepository;
+    private final TargetAllocationRepository allocationRepository;
+    private final PortfolioService portfolioService;
+    private final RebalanceCache rebalanceCache;
+
+    private final Map<Long, PortfolioDrift> portfolios = new ConcurrentHashMap<>();
+    private final Map<String, Set<Position>> positionsByTicker = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+
+    public DriftMonitorService(PortfolioRepository portfolioRepository, HoldingRepository holdingRepository,
+                               TargetAllocationRepository allocationRepository, PortfolioService portfolioService,
+                               RebalanceCache rebalanceCache) {
+        this.portfolioRepository = portfolioRepository;
+        this.holdingRepository = holdingRepository;
+        this.allocationRepository = allocationRepository;
+        this.portfolioService = portfolioService;
+        this.rebalanceCache = rebalanceCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Map<Long, List<HoldingPosition>> positions = holdingRepository.findAllPositions().stream()
+                .collect(Collectors.groupingBy(HoldingPosition::getPortfolioId));
+        Map<Long, List<TargetAllocation>> targets = allocationRepository.findAll().stream()
+                .collect(Collectors.groupingBy(t -> t.getPortfolio().getId()));
+        for (Portfolio portfolio : portfolioRepository.findAll()) {
+            load(portfolio,
+                    positions.getOrDefault(portfolio.getId(), Collections.emptyList()),
+                    targets.getOrDefault(portfolio.getId(), Collections.emptyList()));
+        }
+        log.info("Drift monitor tracking {} portfolios", portfolios.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        Long portfolioId = event.getPortfolioId();
+        Optional<Portfolio> portfolio = portfolioRepository.findById(portfolioId);
+        if (portfolio.isEmpty()) {
+            PortfolioDrift removed = portfolios.remove(portfolioId);
+            if (removed != null) {
+                synchronized (removed) {
+                    removed.detach();
+                }
+            }
+            return;
+        }
+        load(portfolio.get(),
+                holdingRepository.findPositionsByPortfolioId(portfolioId),
+                allocationRepository.findByPortfolioId(portfolioId));
+    }
+
+    /**
+     * Quotes fetched by any caller, not only the price scheduler; a moved price of a held ticker
+     * also invalidates cached rebalance results.
+     */
+    @EventListener
+    public void onQuotesRefreshed(QuotesRefreshedEvent event) {
+        if (onQuotes(event.getQuotes())) {
+            rebalanceCache.advancePriceEpoch();
+        }
+    }
+
+    /**
+     * Apply a batch of quotes. Only positions in tickers whose price moved are revalued, and only
+     * the portfolios owning them are re-evaluated.
+     *
+     * @return whether the price of any held ticker moved
+     */
+    public boolean onQuotes(List<QuoteResponse> quotes) {
+        Set<PortfolioDrift> touched = new HashSet<>();
+        boolean moved = false;
+        for (QuoteResponse quote : quotes) {
+            BigDecimal price = quote.getRegularMarketPrice();
+            if (price == null) continue;
+            BigDecimal previous = lastPrices.put(quote.getSymbol(), price);
+            if (previous != null && previous.compareTo(price) == 0) continue;
+            Set<Position> positions = positionsByTicker.getOrDefault(quote.getSymbol(), Collections.emptySet());
+            if (positions.isEmpty()) continue;
+            moved = true;
+
+            for (Position position : positions) {
+                PortfolioDrift drift = position.owner;
+                synchronized (drift) {
+                    if (drift.reprice(position, price)) {
+                        touched.add(drift);
+                    }
+                }
+            }
+        }
+        for (PortfolioDrift drift : touched) {
+            synchronized (drift) {
+                drift.evaluate();
+            }
+        }
+        return moved;
+    }
+
+    public List<DriftStatusResponse> getDriftStatus() {
+        List<Portfolio> owned = portfolioService.findPortfoliosForCurrentUser();
+        List<DriftStatusResponse> statuses = new ArrayList<>(owned.size());
+        for (Portfolio portfolio : owned) {
+            PortfolioDrift drift = portfolios.get(portfolio.getId());
+            if (drift == null) continue;
+            synchronized (drift) {
+                statuses.add(DriftStatusResponse.builder()
+                        .portfolioId(drift.portfolioId)
+                        .maxDriftPercentage(drift.maxDrift)
+                        .driftThreshold(drift.threshold)
+                        .thresholdExceeded(drift.exceeded)
+                        .evaluatedAt(drift.evaluatedAt)
+                        .build());
+            }
+        }
+        return statuses;
+    }
+
+    private void load(Portfolio portfolio, List<HoldingPosition> positions, List<TargetAllocation> targets) {
+        PortfolioDrift drift = portfolios.computeIfAbsent(portfolio.getId(), PortfolioDrift::new);
+        synchronized (drift) {
+            drift.detach();
+            drift.threshold = portfolio.getDriftThreshold();
+            drift.cash = portfolio.getCashBalance() != null ? portfolio.getCashBalance() : BigDecimal.ZERO;
+            Arrays.fill(drift.targetPercent, null);
+            for (TargetAllocation target : targets) {
+                drift.targetPercent[target.getAssetClass().ordinal()] = target.getTargetPercentage();
+            }
+            Arrays.fill(drift.classValue, null);
+            for (HoldingPosition hp : positions) {
+                Position position = new Position(drift, hp.getTickerSymbol(), hp.getAssetClass().ordinal(),
+                        hp.getQuantity());
+                drift.positions.add(position);
+                if (drift.classValue[position.assetClass] == null) {
+                    drift.classValue[position.assetClass] = BigDecimal.ZERO;
+                }
+                // Register before reading the price so a concurrent tick either sees this position or
+                // has already published the price read below
+                positionsByTicker.computeIfAbsent(position.ticker, t -> ConcurrentHashMap.newKeySet()).add(position);
+                drift.reprice(position, lastPrices.getOrDefault(position.ticker, BigDecimal.ZERO));
+            }
+            drift.evaluate();
+        }
+    }
+
+    /** A holding's share count and its current contribution to its portfolio's class value. */
+    private static final class Position {
+        private final PortfolioDrift owner;
+        private final String ticker;
+        private final int assetClass;
+        private final BigDecimal quantity;
+        private BigDecimal value = BigDecimal.ZERO;
+        private boolean active = true;
+
+        private Position(PortfolioDrift owner, String ticker, int assetClass, BigDecimal quantity) {
+            this.owner = owner;
+            this.ticker = ticker;
+            this.assetClass = assetClass;
+            this.quantity = quantity;
+        }
+    }
+
+    /** Running valuation of one portfolio. Guarded by its own monitor. */
+    private final class PortfolioDrift {
+        private final Long portfolioId;
+        private final List<Position> positions = new ArrayList<>();
+        private final BigDecimal[] classValue = new BigDecimal[ASSET_CLASSES.length];
+        private final BigDecimal[] targetPercent = new BigDecimal[ASSET_CLASSES.length];
+        private BigDecimal cash = BigDecimal.ZERO;
+        private BigDecimal threshold;
+        private BigDecimal maxDrift = BigDecimal.ZERO;
+        private boolean exceeded;
+        private LocalDateTime evaluatedAt;
+
+        private PortfolioDrift(Long portfolioId) {
+            this.portfolioId = portfolioId;
+        }
+
+        private boolean reprice(Position position, BigDecimal price) {
+            if (!position.active) return false;
+            BigDecimal value = position.quantity.multiply(price);
+            classValue[position.assetClass] = classValue[position.assetClass]
+                    .subtract(position.value)
+                    .add(value);
+            position.value = value;
+            return true;
+        }
+
+        private void detach() {
+            for (Position position : positions) {
+                position.active = false;
+                Set<Position> siblings = positionsByTicker.get(position.ticker);
+                if (siblings != null) {
+                    siblings.remove(position);
+                }
+            }
+            positions.clear();
+        }
+
+        private void evaluate() {
+            BigDecimal total = cash;
+            for (BigDecimal value : classValue) {
+                if (value != null) {
+                    total = total.add(value);
+                }
+            }
+
+            BigDecimal max = BigDecimal.ZERO;
+            if (total.compareTo(BigDecimal.ZERO) > 0) {
+                for (int c = 0; c < ASSET_CLASSES.length; c++) {
+                    if (classValue[c] == null && targetPercent[c] == null) continue;
+                    BigDecimal currentPct = classValue[c] != null
+                            ? classValue[c].multiply(HUNDRED).divide(total, 2, RoundingMode.HALF_UP)
+                            : BigDecimal.ZERO;
+                    BigDecimal targetPct = targetPercent[c] != null ? targetPercent[c] : BigDecimal.ZERO;
+                    max = max.max(currentPct.subtract(targetPct).abs());
+                }
+            }
+
+            boolean nowExceeded = threshold != null && max.compareTo(threshold) > 0;
+            if (nowExceeded && !exceeded) {
+                log.info("Portfolio {} drifted {}% past its {}% threshold", portfolioId, max, threshold);
+            }
+            maxDrift = max;
+            exceeded = nowExceeded;
+            evaluatedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.DriftSimulationResponse;
+import com.portfolio.rebalancer.dto.response.HistoricalDataPoint;
+import com.portfolio.rebalancer.entity.Portfolio;
+import com.portfolio.rebalancer.entity.TargetAllocation;
+import com.portfolio.rebalancer.repository.HoldingPosition;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.TargetAllocationRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Monte Carlo drift simulation for all portfolios of the current user. Positions, targets and
+ * price history are loaded up front, history once per distinct ticker; the simulations themselves
+ * run lazily as the returned stream is consumed, one portfolio at a time across the whole
+ * rebalance pool.
+ */
+@Service
+public class DriftSimulationService {
+
+    private static final Set<String> RANGES = Set.of("1m", "3m", "6m", "1y");
+    private static final int MAX_PATHS = 1_000_000;
+    private static final int MAX_HORIZON_DAYS = 3650;
+    private static final int[] PERCENTILES = {5, 25, 50, 75, 95};
+
+    private final HoldingRepository holdingRepository;
+    private final TargetAllocationRepository allocationRepository;
+    private final MarketDataClient marketDataClient;
+    private final PortfolioService portfolioService;
+    private final ForkJoinPool rebalancePool;
+
+    public DriftSimulationService(HoldingRepository holdingRepository, TargetAllocationRepository allocationRepository,
+                                  MarketDataClient marketDataClient, PortfolioService portfolioService,
+                                  ForkJoinPool rebalancePool) {
+        this.holdingRepository = holdingRepository;
+        this.allocationRepository = allocationRepository;
+        this.marketDataClient = marketDataClient;
+        this.portfolioService = portfolioService;
+        this.rebalancePool = rebalancePool;
+    }
+
+    /**
+     * Portfolios without holdings or targets, or with a holding that has no history or none that
+     * overlaps the others, are left out of the stream.
+     *
+     * @param range       history range to bootstrap daily or weekly returns from
+     * @param horizonDays calendar days to simulate
+     * @param seed        seed for reproducible results; random when null
+     */
+    public Stream<DriftSimulationResponse> simulateDrift(String range, int horizonDays, int paths, Long seed) {
+        if (!RANGES.contains(range)) {
+            throw new IllegalArgumentException("Invalid range: " + range + ". Allowed: 1m, 3m, 6m, 1y");
+        }
+        if (horizonDays < 1 || horizonDays > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("horizonDays must be between 1 and " + MAX_HORIZON_DAYS);
+        }
+        if (paths < 1 || paths > MAX_PATHS) {
+            throw new IllegalArgumentException("paths must be between 1 and " + MAX_PATHS);
+        }
+
+        List<Portfolio> portfolios = portfolioService.findPortfoliosForCurrentUser();
+        if (portfolios.isEmpty()) {
+            return Stream.empty();
+        }
+        List<Long> ids = portfolios.stream().map(Portfolio::getId).toList();
+        Map<Long, List<HoldingPosition>> positionsByPortfolio = holdingRepository.findPositionsByPortfolioIdIn(ids)
+                .stream()
+                .filter(p -> p.getQuantity().signum() > 0)
+                .collect(Collectors.groupingBy(HoldingPosition::getPortfolioId));
+        Map<Long, List<TargetAllocation>> targetsByPortfolio = allocationRepository.findByPortfolioIdIn(ids)
+                .stream()
+                .collect(Collectors.groupingBy(t -> t.getPortfolio().getId()));
+
+        Map<String, List<HistoricalDataPoint>> historyByTicker = new HashMap<>();
+        for (List<HoldingPosition> positions : positionsByPortfolio.values()) {
+            for (HoldingPosition position : positions) {
+                // The gateway client returns null for an empty answer; stored as empty so it is asked once
+                historyByTicker.computeIfAbsent(position.getTickerSymbol(),
+                        ticker -> Objects.requireNonNullElse(marketDataClient.fetchHistory(ticker, range),
+                                Collections.emptyList()));
+            }
+        }
+
+        SplittableRandom random = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+        List<Simulation> simulations = new ArrayList<>();
+        for (Portfolio portfolio : portfolios) {
+            List<HoldingPosition> positions = positionsByPortfolio.getOrDefault(portfolio.getId(), Collections.emptyList());
+            List<TargetAllocation> targets = targetsByPortfolio.getOrDefault(portfolio.getId(), Collections.emptyList());
+            if (positions.isEmpty() || targets.isEmpty() || portfolio.getDriftThreshold() == null) continue;
+
+            // Net units per ticker; holdings of the same ticker are merged
+            Map<String, HoldingPosition> positionByTicker = new LinkedHashMap<>();
+            Map<String, Double> unitsByTicker = new HashMap<>();
+            for (HoldingPosition position : positions) {
+                positionByTicker.putIfAbsent(position.getTickerSymbol(), position);
+                unitsByTicker.merge(position.getTickerSymbol(), position.getQuantity().doubleValue(), Double::sum);
+            }
+            int assets = positionByTicker.size();
+            int[] assetClass = new int[assets];
+            double[] units = new double[assets];
+            List<List<HistoricalDataPoint>> histories = new ArrayList<>(assets);
+            int a = 0;
+            for (HoldingPosition position : positionByTicker.values()) {
+                assetClass[a] = position.getAssetClass().ordinal();
+                units[a] = unitsByTicker.get(position.getTickerSymbol());
+                histories.add(historyByTicker.get(position.getTickerSymbol()));
+                a++;
+            }
+            // A holding without history leaves nothing to bootstrap its returns from
+            if (histories.stream().anyMatch(List::isEmpty)) continue;
+            PriceHistory history = PriceHistory.align(histories);
+            if (history == null) continue;
+
+            double[] classTarget = new double[ValuationKernel.CLASS_COUNT];
+            for (TargetAllocation target : targets) {
+                classTarget[target.getAssetClass().ordinal()] = target.getTargetPercentage().doubleValue() / 100;
+            }
+            int steps = (int) Math.max(1, Math.round(horizonDays * history.periodsPerYear() / 365.25));
+            simulations.add(new Simulation(portfolio.getId(), portfolio.getDriftThreshold(),
+                    new MonteCarloEngine(history, Sleeves.of(assetClass, classTarget), units),
+                    steps, (double) horizonDays / steps, random.split()));
+        }
+
+        return simulations.stream().map(s -> s.run(paths, horizonDays));
+    }
+
+    private final class Simulation {
+        private final Long portfolioId;
+        private final BigDecimal driftThreshold;
+        private final MonteCarloEngine engine;
+        private final int steps;
+        private final double daysPerStep;
+        private final SplittableRandom random;
+
+        private Simulation(Long portfolioId, BigDecimal driftThreshold, MonteCarloEngine engine, int steps,
+                           double daysPerStep, SplittableRandom random) {
+            this.portfolioId = portfolioId;
+            this.driftThreshold = driftThreshold;
+            this.engine = engine;
+            this.steps = steps;
+            this.daysPerStep = daysPerStep;
+            this.random = random;
+        }
+
+        private DriftSimulationResponse run(int paths, int horizonDays) {
+            MonteCarloEngine.Result result = engine.run(paths, steps, driftThreshold.doubleValue() / 100,
+                    random, rebalancePool);
+
+            Map<String, Integer> percentiles = new LinkedHashMap<>();
+            for (int p : PERCENTILES) {
+                percentiles.put("p" + p, result.breachPercentile(p));
+            }
+            int medianFirstBreach = result.firstBreachPercentile(50);
+            return DriftSimulationResponse.builder()
+                    .portfolioId(portfolioId)
+                    .driftThreshold(driftThreshold)
+                    .paths(result.paths())
+                    .horizonDays(horizonDays)
+                    .steps(steps)
+                    .breachProbability(BigDecimal.valueOf(result.breachProbability() * 100)
+                            .setScale(2, RoundingMode.HALF_UP))
+                    .meanBreaches(BigDecimal.valueOf(result.meanBreaches()).setScale(2, RoundingMode.HALF_UP))
+                    .breachPercentiles(percentiles)
+                    .medianDaysToFirstBreach(medianFirstBreach < 0 ? null
+                            : (int) Math.ceil((medianFirstBreach + 1) * daysPerStep))
+                    .build();
+        }
+    }
+}
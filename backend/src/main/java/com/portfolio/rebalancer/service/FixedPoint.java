@@ -0,0 +1,88 @@
+package com.portfolio.rebalancer.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Scaled-long arithmetic helpers. A value {@code v} at scale {@code s} represents {@code v / 10^s}.
+ * Multiply-divide helpers are exact: they take a 64-bit fast path and fall back to BigDecimal only
+ * when the intermediate product does not fit in a long.
+ */
+public final class FixedPoint {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    public static long pow10(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Convert to a scaled long without rounding.
+     * Throws ArithmeticException when the value has more decimals than {@code scale} or overflows a long.
+     */
+    public static long toScaled(BigDecimal value, int scale) {
+        return value.movePointRight(scale).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long scaled, int scale) {
+        return BigDecimal.valueOf(scaled, scale);
+    }
+
+    /** Re-express a scaled long at another scale, throwing when decimals would be lost. */
+    public static long rescale(long value, int fromScale, int toScale) {
+        if (toScale >= fromScale) {
+            return Math.multiplyExact(value, pow10(toScale - fromScale));
+        }
+        long divisor = pow10(fromScale - toScale);
+        if (value % divisor != 0) {
+            throw new ArithmeticException("Rounding necessary");
+        }
+        return value / divisor;
+    }
+
+    /** {@code round(numerator / denominator)} with {@link RoundingMode#HALF_UP} semantics. */
+    public static long divideHalfUp(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder != 0) {
+            long absRemainder = Math.abs(remainder);
+            long absDenominator = Math.abs(denominator);
+            if (absRemainder >= absDenominator - absRemainder) {
+                quotient += (numerator < 0) == (denominator < 0) ? 1 : -1;
+            }
+        }
+        return quotient;
+    }
+
+    /** {@code round(a * b / c)} with {@link RoundingMode#HALF_UP} semantics. */
+    public static long multiplyDivideHalfUp(long a, long b, long c) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideHalfUp(low, c);
+        }
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+                .divide(BigDecimal.valueOf(c), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    /** {@code a * b / c} truncated toward zero ({@link RoundingMode#DOWN}). */
+    public static long multiplyDivideDown(long a, long b, long c) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return low / c;
+        }
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+                .divide(BigDecimal.valueOf(c), 0, RoundingMode.DOWN)
+                .longValueExact();
+    }
+}
@@ -0,0 +1,104 @@
+package com.portfolio.rebalancer.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker and bulkhead around gateway calls. After a run of consecutive failures the
+ * circuit opens and calls are refused without touching the network; once the open period has
+ * passed a single trial call is let through, and its outcome closes or reopens the circuit. Calls
+ * admitted while the circuit is closed are limited by a semaphore, so a slow gateway holds at most
+ * that many request threads; the rest are refused immediately.
+ */
+@Component
+public class GatewayCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Semaphore bulkhead;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    @Autowired
+    public GatewayCircuitBreaker(@Value("${app.gateway.circuit.failure-threshold}") int failureThreshold,
+                                 @Value("${app.gateway.circuit.open-ms}") long openMs,
+                                 @Value("${app.gateway.max-concurrent-calls}") int maxConcurrentCalls) {
+        this(failureThreshold, openMs, maxConcurrentCalls, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()} readings; tests advance it by hand
+     */
+    GatewayCircuitBreaker(int failureThreshold, long openMs, int maxConcurrentCalls, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Admit a call. Every admitted call must report {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return false when the circuit is open or the bulkhead is full
+     */
+    public boolean tryAcquire() {
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openNanos) return false;
+                state = State.HALF_OPEN;
+            } else if (state == State.HALF_OPEN) {
+                // The trial call is still running
+                return false;
+            }
+        }
+        if (bulkhead.tryAcquire()) return true;
+        synchronized (this) {
+            // A refused trial must not leave the circuit half open
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+            }
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        bulkhead.release();
+        synchronized (this) {
+            if (state != State.CLOSED) {
+                log.info("Gateway circuit closed");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+        }
+    }
+
+    public void onFailure() {
+        bulkhead.release();
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                log.warn("Gateway circuit opened after {} consecutive failures", consecutiveFailures);
+                state = State.OPEN;
+                openedAt = nanoClock.getAsLong();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
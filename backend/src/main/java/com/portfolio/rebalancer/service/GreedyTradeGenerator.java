@@ -0,0 +1,182 @@
+package com.portfolio.rebalancer.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Integer greedy trade generation. Each class delta is filled with whole shares of its largest
+ * positions, rounding to the nearest share rather than truncating, and a further holding is only
+ * traded when it cuts the residual by more than {@link #TRADE_PENALTY}. Sells never exceed the
+ * shares held and buys are trimmed to fit the cash balance plus sell proceeds.
+ */
+public class GreedyTradeGenerator implements TradeGenerator {
+
+    /** Residual a trade must remove to be worth placing, at {@link ValuationKernel#VALUE_SCALE}. */
+    static final long TRADE_PENALTY = ValuationKernel.ONE_VALUE;
+
+    private static final long ONE_SHARE = FixedPoint.pow10(ValuationKernel.QUANTITY_SCALE);
+
+    @Override
+    public void generate(ValuationKernel kernel, ValuationKernel.Result result) {
+        int size = kernel.size();
+        long[] shares = new long[size];
+        boolean[] sell = new boolean[size];
+        long[] classShortfall = new long[ValuationKernel.CLASS_COUNT];
+        for (int c = 0; c < ValuationKernel.CLASS_COUNT; c++) {
+            if (!result.isHeld(c)) continue;
+            long delta = result.classDelta(c);
+            if (Math.abs(delta) < ValuationKernel.ONE_VALUE) continue; // Skip tiny adjustments
+
+            ClassProblem problem = classProblem(kernel, c, delta);
+            if (problem.size() == 0) continue;
+            long[] solution = solve(problem);
+            long filled = 0;
+            for (int k = 0; k < problem.size(); k++) {
+                shares[problem.holding[k]] = solution[k];
+                sell[problem.holding[k]] = problem.sell;
+                filled = Math.addExact(filled, Math.multiplyExact(solution[k], problem.unit[k]));
+            }
+            classShortfall[c] = problem.sell ? 0 : problem.target - filled;
+        }
+
+        fitBudget(kernel, shares, sell, classShortfall);
+
+        for (int c = 0; c < ValuationKernel.CLASS_COUNT; c++) {
+            for (int i = 0; i < size; i++) {
+                if (kernel.assetClass(i) != c || shares[i] == 0) continue;
+                long value = Math.multiplyExact(Math.multiplyExact(kernel.tradePrice(i), shares[i]),
+                        ValuationKernel.PRICE_TO_VALUE);
+                result.addTrade(i, Math.toIntExact(shares[i]), sell[i], sell[i] ? -value : value,
+                        ValuationKernel.ONE_PROPORTION);
+            }
+        }
+    }
+
+    /**
+     * Order candidate holdings of a class; the class delta is filled from the front of the list.
+     * Largest positions come first so the delta needs as few trades as possible. The trade side and
+     * the absolute value to move are unused here; {@link TaxAwareTradeGenerator} ranks sells by them.
+     */
+    void sortCandidates(ValuationKernel kernel, List<Integer> candidates, boolean sell, long target) {
+        candidates.sort((a, b) -> Long.compare(kernel.tradeValue(b), kernel.tradeValue(a)));
+    }
+
+    /**
+     * Fill the class target from the first candidate down, rounding each holding to the nearest
+     * whole share.
+     */
+    long[] solve(ClassProblem problem) {
+        long[] solution = new long[problem.size()];
+        long remaining = problem.target;
+        for (int k = 0; k < problem.size() && remaining > 0; k++) {
+            long unit = problem.unit[k];
+            long rest = remaining % unit;
+            long n = Math.min(problem.cap[k], remaining / unit + (rest >= unit - rest ? 1 : 0));
+            if (n == 0) continue;
+            long after = remaining - Math.multiplyExact(n, unit);
+            if (remaining - Math.abs(after) <= TRADE_PENALTY) continue;
+            solution[k] = n;
+            remaining = after;
+        }
+        return solution;
+    }
+
+    /**
+     * Drop buy shares until buys are covered by cash plus sell proceeds, each time from the holding
+     * whose class ends up least underweight.
+     */
+    private static void fitBudget(ValuationKernel kernel, long[] shares, boolean[] sell, long[] classShortfall) {
+        long budget = kernel.cash();
+        long buys = 0;
+        for (int i = 0; i < shares.length; i++) {
+            long value = Math.multiplyExact(Math.multiplyExact(kernel.tradePrice(i), shares[i]),
+                    ValuationKernel.PRICE_TO_VALUE);
+            if (sell[i]) {
+                budget = Math.addExact(budget, value);
+            } else {
+                buys = Math.addExact(buys, value);
+            }
+        }
+        while (buys > budget) {
+            int drop = -1;
+            long dropCost = Long.MAX_VALUE;
+            for (int i = 0; i < shares.length; i++) {
+                if (sell[i] || shares[i] == 0) continue;
+                long unit = Math.multiplyExact(kernel.tradePrice(i), ValuationKernel.PRICE_TO_VALUE);
+                long shortfall = classShortfall[kernel.assetClass(i)];
+                long cost = Math.abs(shortfall + unit) - Math.abs(shortfall);
+                if (cost < dropCost) {
+                    drop = i;
+                    dropCost = cost;
+                }
+            }
+            if (drop < 0) break;
+            long unit = Math.multiplyExact(kernel.tradePrice(drop), ValuationKernel.PRICE_TO_VALUE);
+            long excess = buys - budget;
+            long n = Math.min(shares[drop], excess / unit + (excess % unit == 0 ? 0 : 1));
+            shares[drop] -= n;
+            classShortfall[kernel.assetClass(drop)] += n * unit;
+            buys -= n * unit;
+        }
+    }
+
+    /** Tradable holdings of a class, in fill order. Sells only consider holdings with a whole share. */
+    ClassProblem classProblem(ValuationKernel kernel, int assetClass, long delta) {
+        boolean sell = delta < 0;
+        long target = Math.abs(delta);
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < kernel.size(); i++) {
+            if (kernel.assetClass(i) != assetClass || kernel.tradePrice(i) <= 0) continue;
+            if (sell && kernel.quantity(i) < ONE_SHARE) continue;
+            candidates.add(i);
+        }
+        sortCandidates(kernel, candidates, sell, target);
+
+        int m = candidates.size();
+        int[] holding = new int[m];
+        long[] unit = new long[m];
+        long[] cap = new long[m];
+        for (int k = 0; k < m; k++) {
+            int i = candidates.get(k);
+            holding[k] = i;
+            unit[k] = Math.multiplyExact(kernel.tradePrice(i), ValuationKernel.PRICE_TO_VALUE);
+            // Buys may overshoot by at most one share
+            cap[k] = sell ? kernel.quantity(i) / ONE_SHARE : target / unit[k] + 1;
+        }
+        return new ClassProblem(holding, unit, cap, target, sell);
+    }
+
+    /**
+     * One class to fill: candidate holdings in fill order, the value of one share of each, how many
+     * shares may be traded, and the absolute value to move.
+     */
+    static final class ClassProblem {
+        final int[] holding;
+        final long[] unit;
+        final long[] cap;
+        final long target;
+        final boolean sell;
+
+        private ClassProblem(int[] holding, long[] unit, long[] cap, long target, boolean sell) {
+            this.holding = holding;
+            this.unit = unit;
+            this.cap = cap;
+            this.target = target;
+            this.sell = sell;
+        }
+
+        int size() { return holding.length; }
+
+        /** Residual plus trade penalty of a solution; lower is better. */
+        long cost(long[] solution) {
+            long remaining = target;
+            int trades = 0;
+            for (int k = 0; k < solution.length; k++) {
+                if (solution[k] == 0) continue;
+                remaining -= solution[k] * unit[k];
+                trades++;
+            }
+            return Math.abs(remaining) + trades * TRADE_PENALTY;
+        }
+    }
+}
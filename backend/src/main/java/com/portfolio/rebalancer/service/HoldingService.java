@@ -1,9 +1,12 @@
 package com.portfolio.rebalancer.service;
 
 import com.portfolio.rebalancer.dto.request.CreateHoldingRequest;
+import com.portfolio.rebalancer.dto.response.CostBasisResponse;
 import com.portfolio.rebalancer.dto.response.HoldingResponse;
 import com.portfolio.rebalancer.dto.response.LotResponse;
+import com.portfolio.rebalancer.dto.response.PortfolioCostBasisResponse;
 import com.portfolio.rebalancer.dto.response.TradeResponse;
+import com.portfolio.rebalancer.entity.CostBasisMethod;
 import com.portfolio.rebalancer.entity.Holding;
 import com.portfolio.rebalancer.entity.Portfolio;
 import com.portfolio.rebalancer.entity.Trade;
@@ -11,13 +14,16 @@ import com.portfolio.rebalancer.entity.TradeType;
 import com.portfolio.rebalancer.exception.ResourceNotFoundException;
 import com.portfolio.rebalancer.dto.response.QuoteResponse;
 import com.portfolio.rebalancer.repository.HoldingRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class HoldingService {
@@ -25,14 +31,17 @@ public class HoldingService {
     private final HoldingRepository holdingRepository;
     private final PortfolioService portfolioService;
     private final MarketDataClient marketDataClient;
-    private final LotCalculationService lotCalculationService;
+    private final LotLedgerService lotLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public HoldingService(HoldingRepository holdingRepository, PortfolioService portfolioService,
-                          MarketDataClient marketDataClient, LotCalculationService lotCalculationService) {
+                          MarketDataClient marketDataClient, LotLedgerService lotLedgerService,
+                          ApplicationEventPublisher eventPublisher) {
         this.holdingRepository = holdingRepository;
         this.portfolioService = portfolioService;
         this.marketDataClient = marketDataClient;
-        this.lotCalculationService = lotCalculationService;
+        this.lotLedgerService = lotLedgerService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<HoldingResponse> getHoldings(Long portfolioId) {
@@ -55,6 +64,7 @@ public class HoldingService {
                 .currency(request.getCurrency())
                 .build();
         holding = holdingRepository.save(holding);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return toResponse(holding);
     }
 
@@ -70,11 +80,12 @@ public class HoldingService {
         holding.setAssetClass(request.getAssetClass());
         holding.setCurrency(request.getCurrency());
         holding = holdingRepository.save(holding);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return toResponse(holding);
     }
 
     private void validateTicker(String tickerSymbol) {
-        QuoteResponse quote = marketDataClient.fetchQuote(tickerSymbol);
+        QuoteResponse quote = marketDataClient.requireQuote(tickerSymbol);
         if (quote.getRegularMarketPrice().compareTo(BigDecimal.ZERO) == 0) {
             throw new IllegalArgumentException("Invalid ticker symbol: " + tickerSymbol);
         }
@@ -84,13 +95,98 @@ public class HoldingService {
     public void deleteHolding(Long portfolioId, Long holdingId) {
         portfolioService.findPortfolioForCurrentUser(portfolioId);
         holdingRepository.deleteById(holdingId);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+    }
+
+    /**
+     * Open lots and realized P/L of a holding under each cost-basis method, side by side.
+     */
+    public List<CostBasisResponse> compareCostBasisMethods(Long portfolioId, Long holdingId) {
+        Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
+        Holding holding = holdingRepository.findByIdAndPortfolioId(holdingId, portfolioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
+
+        List<CostBasisResponse> responses = new ArrayList<>();
+        lotLedgerService.compareMethods(holding).forEach((method, ledger) -> {
+            LedgerTotals totals = LedgerTotals.of(ledger);
+            responses.add(CostBasisResponse.builder()
+                    .method(method)
+                    .current(method == portfolio.getCostBasisMethod())
+                    .quantity(totals.quantity())
+                    .averageCostBasis(totals.averageCostBasis())
+                    .totalCost(totals.totalCost())
+                    .realizedPnL(totals.realizedPnL())
+                    .lots(toLotResponses(ledger.openLots()))
+                    .build());
+        });
+        return responses;
+    }
+
+    /**
+     * Cost and realized P/L of every holding of the portfolio under each cost-basis method, with
+     * portfolio totals. All trades are loaded in one query and replayed in memory; lots are left
+     * out so the response stays small for large accounts.
+     */
+    public List<PortfolioCostBasisResponse> comparePortfolioCostBasisMethods(Long portfolioId) {
+        Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
+        List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
+        Map<Long, Map<CostBasisMethod, LotCalculationService.Ledger>> ledgers = lotLedgerService.compareMethods(holdings);
+
+        List<PortfolioCostBasisResponse> responses = new ArrayList<>();
+        for (CostBasisMethod method : CostBasisMethod.values()) {
+            BigDecimal totalCost = BigDecimal.ZERO;
+            BigDecimal realizedPnL = BigDecimal.ZERO;
+            List<PortfolioCostBasisResponse.HoldingCostBasis> rows = new ArrayList<>(holdings.size());
+            for (Holding holding : holdings) {
+                LedgerTotals totals = LedgerTotals.of(ledgers.get(holding.getId()).get(method));
+                totalCost = totalCost.add(totals.totalCost());
+                realizedPnL = realizedPnL.add(totals.realizedPnL());
+                rows.add(PortfolioCostBasisResponse.HoldingCostBasis.builder()
+                        .holdingId(holding.getId())
+                        .tickerSymbol(holding.getTickerSymbol())
+                        .quantity(totals.quantity())
+                        .averageCostBasis(totals.averageCostBasis())
+                        .totalCost(totals.totalCost())
+                        .realizedPnL(totals.realizedPnL())
+                        .build());
+            }
+            responses.add(PortfolioCostBasisResponse.builder()
+                    .method(method)
+                    .current(method == portfolio.getCostBasisMethod())
+                    .totalCost(totalCost)
+                    .realizedPnL(realizedPnL)
+                    .holdings(rows)
+                    .build());
+        }
+        return responses;
+    }
+
+    private record LedgerTotals(BigDecimal quantity, BigDecimal totalCost, BigDecimal realizedPnL) {
+        static LedgerTotals of(LotCalculationService.Ledger ledger) {
+            BigDecimal quantity = BigDecimal.ZERO;
+            BigDecimal totalCost = BigDecimal.ZERO;
+            for (LotCalculationService.Lot lot : ledger.openLots()) {
+                quantity = quantity.add(lot.getRemainingQuantity());
+                totalCost = totalCost.add(lot.getRemainingQuantity().multiply(lot.getCostBasisPerShare()));
+            }
+            BigDecimal realizedPnL = BigDecimal.ZERO;
+            for (LotCalculationService.LotDisposition d : ledger.dispositions()) {
+                realizedPnL = realizedPnL.add(d.getRealizedGain());
+            }
+            return new LedgerTotals(quantity, totalCost, realizedPnL);
+        }
+
+        BigDecimal averageCostBasis() {
+            return quantity.compareTo(BigDecimal.ZERO) > 0
+                    ? totalCost.divide(quantity, 4, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+        }
     }
 
     public HoldingResponse toResponse(Holding holding) {
         List<Trade> trades = holding.getTrades() != null ? holding.getTrades() : Collections.emptyList();
 
-        // Use HIFO lot calculation for quantity, cost basis, and realized P/L
-        List<LotCalculationService.Lot> openLots = lotCalculationService.computeOpenLots(trades);
+        // Quantity, cost basis and realized P/L come from the lot ledger
+        List<LotCalculationService.Lot> openLots = lotLedgerService.openLots(holding);
 
         BigDecimal quantity = BigDecimal.ZERO;
         BigDecimal totalCost = BigDecimal.ZERO;
@@ -99,12 +195,7 @@ public class HoldingService {
             totalCost = totalCost.add(lot.getRemainingQuantity().multiply(lot.getCostBasisPerShare()));
         }
 
-        // Realized P/L from HIFO dispositions
-        BigDecimal realizedPnL = BigDecimal.ZERO;
-        List<LotCalculationService.LotDisposition> dispositions = lotCalculationService.computeRealizedDispositions(trades);
-        for (LotCalculationService.LotDisposition d : dispositions) {
-            realizedPnL = realizedPnL.add(d.getRealizedGain());
-        }
+        BigDecimal realizedPnL = lotLedgerService.realizedGain(holding);
 
         BigDecimal averageCostBasis = BigDecimal.ZERO;
         if (quantity.compareTo(BigDecimal.ZERO) > 0) {
@@ -119,19 +210,12 @@ public class HoldingService {
                         .quantity(t.getQuantity())
                         .price(t.getPrice())
                         .fee(t.getFee())
+                        .lotTradeId(t.getLotTradeId())
                         .createdAt(t.getCreatedAt())
                         .build())
                 .toList();
 
-        List<LotResponse> lotResponses = openLots.stream()
-                .map(lot -> LotResponse.builder()
-                        .tradeId(lot.getTradeId())
-                        .purchaseDate(lot.getPurchaseDate())
-                        .originalQuantity(lot.getOriginalQuantity())
-                        .remainingQuantity(lot.getRemainingQuantity())
-                        .costBasisPerShare(lot.getCostBasisPerShare())
-                        .build())
-                .toList();
+        List<LotResponse> lotResponses = toLotResponses(openLots);
 
         return HoldingResponse.builder()
                 .id(holding.getId())
@@ -147,4 +231,16 @@ public class HoldingService {
                 .lots(lotResponses)
                 .build();
     }
+
+    private static List<LotResponse> toLotResponses(List<LotCalculationService.Lot> openLots) {
+        return openLots.stream()
+                .map(lot -> LotResponse.builder()
+                        .tradeId(lot.getTradeId())
+                        .purchaseDate(lot.getPurchaseDate())
+                        .originalQuantity(lot.getOriginalQuantity())
+                        .remainingQuantity(lot.getRemainingQuantity())
+                        .costBasisPerShare(lot.getCostBasisPerShare())
+                        .build())
+                .toList();
+    }
 }
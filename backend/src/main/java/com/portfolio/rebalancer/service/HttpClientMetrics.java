@@ -0,0 +1,79 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.HttpClientStatsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request statistics of the pooled inter-service transport. The JDK client does not expose its
+ * connection pool, but an HTTP/1.1 connection is leased for exactly as long as a request is active
+ * here, so active and peak requests track the connections in use. Over HTTP/2 they count streams.
+ * Idle pooled connections are not visible at all.
+ */
+@Component
+public class HttpClientMetrics implements ClientHttpRequestInterceptor {
+
+    /** System properties the JDK client reads its pool settings from. */
+    public static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    public static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    private final String version;
+    private final int connectionPoolSize;
+    private final long keepAliveSeconds;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+
+    public HttpClientMetrics(@Value("${app.http-client.version}") String version,
+                             @Value("${app.http-client.pool-size}") int connectionPoolSize,
+                             @Value("${app.http-client.keep-alive-seconds}") long keepAliveSeconds) {
+        this.version = version;
+        this.connectionPoolSize = connectionPoolSize;
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            failed = response.getStatusCode().is5xxServerError();
+            return response;
+        } finally {
+            active.decrementAndGet();
+            requests.incrementAndGet();
+            totalNanos.addAndGet(System.nanoTime() - start);
+            if (failed) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    public HttpClientStatsResponse getStats() {
+        long count = requests.get();
+        return HttpClientStatsResponse.builder()
+                .requests(count)
+                .failures(failures.get())
+                .active(active.get())
+                .peakActive(peakActive.get())
+                .averageLatencyMs(count > 0 ? (double) totalNanos.get() / count / TimeUnit.MILLISECONDS.toNanos(1) : 0)
+                .version(version)
+                .connectionPoolSize(Integer.getInteger(POOL_SIZE_PROPERTY, connectionPoolSize))
+                .keepAliveSeconds(Long.getLong(KEEP_ALIVE_PROPERTY, keepAliveSeconds))
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.portfolio.rebalancer.service;
 
+import com.portfolio.rebalancer.entity.CostBasisMethod;
 import com.portfolio.rebalancer.entity.Trade;
 import com.portfolio.rebalancer.entity.TradeType;
 import org.springframework.stereotype.Service;
@@ -63,72 +64,183 @@ public class LotCalculationService {
     }
 
     /**
-     * Compute open (remaining) lots using HIFO consumption.
-     * BUY trades become lots. SELL trades consume lots starting with the highest cost basis.
+     * Open lots and realized dispositions of one replay.
+     *
+     * @param openLots     lots with shares remaining, oldest first
+     * @param dispositions lots consumed by each SELL, in replay order
      */
-    public List<Lot> computeOpenLots(List<Trade> trades) {
-        List<Lot> lots = buildLots(trades);
-        List<Trade> sells = trades.stream()
-                .filter(t -> t.getType() == TradeType.SELL)
-                .sorted(Comparator.comparing(Trade::getDate).thenComparing(Trade::getId))
-                .toList();
-
-        for (Trade sell : sells) {
-            consumeLotsHifo(lots, sell.getQuantity());
-        }
+    public record Ledger(List<Lot> openLots, List<LotDisposition> dispositions) {
+    }
+
+    /**
+     * Order in which trades are applied to the lots: by date, buys before sells on the same day,
+     * then in order of entry. Entry order is the creation time, not the id: ids come from a pooled
+     * sequence, so a trade saved by one instance can get a lower id than one saved earlier by
+     * another. The id only breaks ties between trades created at the same instant; an unsaved trade
+     * comes last.
+     */
+    public static final Comparator<Trade> REPLAY_ORDER = Comparator.comparing(Trade::getDate)
+            .thenComparing(t -> t.getType() == TradeType.SELL)
+            .thenComparing(Trade::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Trade::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<Lot> FIFO_ORDER = Comparator.comparing(Lot::getPurchaseDate)
+            .thenComparing(Lot::getTradeId);
+    private static final Comparator<Lot> LIFO_ORDER = FIFO_ORDER.reversed();
+    private static final Comparator<Lot> HIFO_ORDER = Comparator.comparing(Lot::getCostBasisPerShare).reversed()
+            .thenComparing(FIFO_ORDER);
+
+    /**
+     * Order in which a SELL consumes lots under a cost-basis method. Shares a specific-ID sale does
+     * not assign to a lot are taken first in, first out.
+     */
+    public static Comparator<Lot> consumptionOrder(CostBasisMethod method) {
+        return switch (method) {
+            case FIFO, SPECIFIC_ID -> FIFO_ORDER;
+            case LIFO -> LIFO_ORDER;
+            case HIFO -> HIFO_ORDER;
+        };
+    }
+
+    /**
+     * Order in which a proposed sale picks lots. Under specific identification the choice is the
+     * seller's, so proposals take the highest-cost lots, which realize the least gain.
+     */
+    public static Comparator<Lot> saleOrder(CostBasisMethod method) {
+        return method == CostBasisMethod.SPECIFIC_ID ? HIFO_ORDER : consumptionOrder(method);
+    }
 
-        return lots.stream()
-                .filter(lot -> lot.getRemainingQuantity().compareTo(BigDecimal.ZERO) > 0)
-                .toList();
+    /**
+     * Compute open (remaining) lots. BUY trades become lots; SELL trades consume the lots bought
+     * up to their date in the method's order.
+     */
+    public List<Lot> computeOpenLots(List<Trade> trades, CostBasisMethod method) {
+        return replay(trades, method).openLots();
     }
 
     /**
-     * Compute all realized dispositions (lot-level realized P/L) using HIFO.
+     * Compute all realized dispositions (lot-level realized P/L).
      */
-    public List<LotDisposition> computeRealizedDispositions(List<Trade> trades) {
-        List<Lot> lots = buildLots(trades);
-        List<Trade> sells = trades.stream()
-                .filter(t -> t.getType() == TradeType.SELL)
-                .sorted(Comparator.comparing(Trade::getDate).thenComparing(Trade::getId))
-                .toList();
+    public List<LotDisposition> computeRealizedDispositions(List<Trade> trades, CostBasisMethod method) {
+        return replay(trades, method).dispositions();
+    }
 
+    /**
+     * Replay all trades once, yielding both the open lots and the realized dispositions.
+     */
+    public Ledger replay(List<Trade> trades, CostBasisMethod method) {
+        PriorityQueue<Lot> lots = new PriorityQueue<>(consumptionOrder(method));
         List<LotDisposition> dispositions = new ArrayList<>();
-        for (Trade sell : sells) {
-            BigDecimal remaining = sell.getQuantity();
-            BigDecimal sellFeePerShare = BigDecimal.ZERO;
-            if (sell.getFee() != null && sell.getQuantity().compareTo(BigDecimal.ZERO) > 0) {
-                sellFeePerShare = sell.getFee().divide(sell.getQuantity(), 6, RoundingMode.HALF_UP);
-            }
-            BigDecimal sellNetPrice = sell.getPrice().subtract(sellFeePerShare);
+        for (Trade trade : trades.stream().sorted(REPLAY_ORDER).toList()) {
+            apply(lots, trade, method, dispositions);
+        }
+        return new Ledger(openLots(lots), dispositions);
+    }
 
-            // Sort lots by cost basis DESC (HIFO)
-            lots.sort((a, b) -> b.getCostBasisPerShare().compareTo(a.getCostBasisPerShare()));
+    /**
+     * Open lots queued in the method's {@link #consumptionOrder}, ready for {@link #apply}.
+     */
+    public PriorityQueue<Lot> queue(Collection<Lot> openLots, CostBasisMethod method) {
+        PriorityQueue<Lot> lots = new PriorityQueue<>(Math.max(1, openLots.size()), consumptionOrder(method));
+        lots.addAll(openLots);
+        return lots;
+    }
 
-            for (Lot lot : lots) {
-                if (remaining.compareTo(BigDecimal.ZERO) <= 0) break;
-                if (lot.getRemainingQuantity().compareTo(BigDecimal.ZERO) <= 0) continue;
+    /**
+     * Lots still in the queue, oldest first.
+     */
+    public List<Lot> openLots(PriorityQueue<Lot> lots) {
+        List<Lot> open = new ArrayList<>(lots);
+        open.sort(FIFO_ORDER);
+        return open;
+    }
 
-                BigDecimal consumed = lot.getRemainingQuantity().min(remaining);
-                lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(consumed));
-                remaining = remaining.subtract(consumed);
+    /**
+     * Apply one trade to the lots held before it: a BUY queues a lot, a SELL takes lots from the
+     * head of the queue and drops those it exhausts. Under specific identification the lot named
+     * by the SELL goes first. Trades must arrive in {@link #REPLAY_ORDER}.
+     *
+     * @param lots         open lots, queued in the method's {@link #consumptionOrder}
+     * @param dispositions receives the lots consumed by a SELL; may be null
+     */
+    public void apply(PriorityQueue<Lot> lots, Trade trade, CostBasisMethod method,
+                      List<LotDisposition> dispositions) {
+        if (trade.getType() == TradeType.BUY) {
+            lots.add(toLot(trade));
+            return;
+        }
+
+        BigDecimal remaining = trade.getQuantity();
+        BigDecimal sellNetPrice = sellNetPrice(trade);
+        if (method == CostBasisMethod.SPECIFIC_ID && trade.getLotTradeId() != null) {
+            for (Lot lot : lots) {
+                if (lot.getTradeId().equals(trade.getLotTradeId())) {
+                    remaining = consume(lots, lot, trade, remaining, sellNetPrice, dispositions);
+                    break;
+                }
+            }
+        }
+        while (remaining.compareTo(BigDecimal.ZERO) > 0 && !lots.isEmpty()) {
+            remaining = consume(lots, lots.peek(), trade, remaining, sellNetPrice, dispositions);
+        }
+    }
 
-                BigDecimal gain = sellNetPrice.subtract(lot.getCostBasisPerShare()).multiply(consumed);
-                dispositions.add(new LotDisposition(
-                        lot.getTradeId(), sell.getId(), consumed,
-                        lot.getCostBasisPerShare(), sell.getPrice(), gain));
+    /**
+     * Sell up to {@code remaining} shares from one lot. Ordering keys never change, so a partly
+     * consumed lot keeps its place in the queue.
+     *
+     * @return shares still to sell
+     */
+    private static BigDecimal consume(PriorityQueue<Lot> lots, Lot lot, Trade sell, BigDecimal remaining,
+                                      BigDecimal sellNetPrice, List<LotDisposition> dispositions) {
+        BigDecimal consumed = lot.getRemainingQuantity().min(remaining);
+        lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(consumed));
+        if (lot.getRemainingQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+            if (lot == lots.peek()) {
+                lots.poll();
+            } else {
+                lots.remove(lot);
             }
         }
 
-        return dispositions;
+        if (dispositions != null) {
+            BigDecimal gain = sellNetPrice.subtract(lot.getCostBasisPerShare()).multiply(consumed);
+            dispositions.add(new LotDisposition(
+                    lot.getTradeId(), sell.getId(), consumed,
+                    lot.getCostBasisPerShare(), sell.getPrice(), gain));
+        }
+        return remaining.subtract(consumed);
+    }
+
+    /**
+     * A BUY trade as a new, untouched lot. Fees are folded into the cost basis.
+     */
+    public Lot toLot(Trade buy) {
+        BigDecimal fee = buy.getFee() != null ? buy.getFee() : BigDecimal.ZERO;
+        BigDecimal costPerShare = buy.getPrice().add(
+                fee.divide(buy.getQuantity(), 6, RoundingMode.HALF_UP));
+        return new Lot(buy.getId(), buy.getDate(), buy.getQuantity(), buy.getQuantity(), costPerShare);
     }
 
     /**
-     * Select lots for a proposed sale quantity using HIFO ordering.
+     * Sale price per share of a SELL trade net of its fee.
+     */
+    public BigDecimal sellNetPrice(Trade sell) {
+        BigDecimal sellFeePerShare = BigDecimal.ZERO;
+        if (sell.getFee() != null && sell.getQuantity().compareTo(BigDecimal.ZERO) > 0) {
+            sellFeePerShare = sell.getFee().divide(sell.getQuantity(), 6, RoundingMode.HALF_UP);
+        }
+        return sell.getPrice().subtract(sellFeePerShare);
+    }
+
+    /**
+     * Select lots for a proposed sale quantity in the method's {@link #saleOrder}.
      * Returns list of (Lot, quantityToSell) pairs.
      */
-    public List<Map.Entry<Lot, BigDecimal>> selectLotsForSale(List<Lot> openLots, BigDecimal qtyToSell) {
+    public List<Map.Entry<Lot, BigDecimal>> selectLotsForSale(List<Lot> openLots, BigDecimal qtyToSell,
+                                                              CostBasisMethod method) {
         List<Lot> sorted = new ArrayList<>(openLots);
-        sorted.sort((a, b) -> b.getCostBasisPerShare().compareTo(a.getCostBasisPerShare()));
+        sorted.sort(saleOrder(method));
 
         List<Map.Entry<Lot, BigDecimal>> selections = new ArrayList<>();
         BigDecimal remaining = qtyToSell;
@@ -144,32 +256,4 @@ public class LotCalculationService {
 
         return selections;
     }
-
-    private List<Lot> buildLots(List<Trade> trades) {
-        List<Lot> lots = new ArrayList<>();
-        for (Trade t : trades) {
-            if (t.getType() == TradeType.BUY) {
-                BigDecimal fee = t.getFee() != null ? t.getFee() : BigDecimal.ZERO;
-                BigDecimal costPerShare = t.getPrice().add(
-                        fee.divide(t.getQuantity(), 6, RoundingMode.HALF_UP));
-                lots.add(new Lot(t.getId(), t.getDate(), t.getQuantity(), t.getQuantity(), costPerShare));
-            }
-        }
-        return lots;
-    }
-
-    private void consumeLotsHifo(List<Lot> lots, BigDecimal qtyToConsume) {
-        // Sort by cost basis DESC (HIFO)
-        lots.sort((a, b) -> b.getCostBasisPerShare().compareTo(a.getCostBasisPerShare()));
-
-        BigDecimal remaining = qtyToConsume;
-        for (Lot lot : lots) {
-            if (remaining.compareTo(BigDecimal.ZERO) <= 0) break;
-            if (lot.getRemainingQuantity().compareTo(BigDecimal.ZERO) <= 0) continue;
-
-            BigDecimal consumed = lot.getRemainingQuantity().min(remaining);
-            lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(consumed));
-            remaining = remaining.subtract(consumed);
-        }
-    }
 }
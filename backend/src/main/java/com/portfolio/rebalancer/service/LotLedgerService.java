@@ -0,0 +1,481 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.entity.TaxLot;
+import com.portfolio.rebalancer.entity.TaxLotDisposition;
+import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+import com.portfolio.rebalancer.exception.ResourceNotFoundException;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.HoldingSummary;
+import com.portfolio.rebalancer.repository.OpenCostTotal;
+import com.portfolio.rebalancer.repository.RealizedDisposition;
+import com.portfolio.rebalancer.repository.RealizedGainTotal;
+import com.portfolio.rebalancer.repository.TaxLotDispositionRepository;
+import com.portfolio.rebalancer.repository.TaxLotRepository;
+import com.portfolio.rebalancer.repository.TradeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Persisted lot ledger. Open lots and realized dispositions are stored per holding, under the
+ * portfolio's cost-basis method, and kept current on trade writes, so reads are an indexed lookup
+ * instead of a replay of every trade. A trade that lands after everything already recorded is
+ * applied incrementally; edits, deletes, back-dated trades and a change of method replay the
+ * holding's trades from scratch.
+ * <p>
+ * The holding's running position (net quantity, open cost and realized P/L) is kept on the holding
+ * row in the same transaction, so valuation reads one column instead of the trades. Concurrent
+ * writes to a holding fail on its version rather than interleave.
+ * <p>
+ * Holdings that predate the ledger are replayed in memory on read until their next trade write
+ * materializes them.
+ */
+@Service
+public class LotLedgerService {
+
+    private final TaxLotRepository taxLotRepository;
+    private final TaxLotDispositionRepository dispositionRepository;
+    private final TradeRepository tradeRepository;
+    private final HoldingRepository holdingRepository;
+    private final LotCalculationService lotCalculationService;
+
+    public LotLedgerService(TaxLotRepository taxLotRepository, TaxLotDispositionRepository dispositionRepository,
+                            TradeRepository tradeRepository, HoldingRepository holdingRepository,
+                            LotCalculationService lotCalculationService) {
+        this.taxLotRepository = taxLotRepository;
+        this.dispositionRepository = dispositionRepository;
+        this.tradeRepository = tradeRepository;
+        this.holdingRepository = holdingRepository;
+        this.lotCalculationService = lotCalculationService;
+    }
+
+    /**
+     * Record a trade that was just saved for the holding.
+     */
+    @Transactional
+    public void recordTrade(Holding holding, Trade trade) {
+        if (!holding.isLotsMaterialized() || holding.getQuantity() == null || isBackDated(holding, trade)) {
+            rebuild(holding);
+            return;
+        }
+        if (trade.getType() == TradeType.BUY) {
+            LotCalculationService.Lot lot = lotCalculationService.toLot(trade);
+            taxLotRepository.save(toEntity(holding, lot));
+            holding.setQuantity(holding.getQuantity().add(trade.getQuantity()));
+            holding.setOpenCost(holding.getOpenCost().add(costOf(lot)));
+            return;
+        }
+
+        List<TaxLot> entities = taxLotRepository.findByHoldingIdOrderByPurchaseDateAscTradeIdAsc(holding.getId());
+        List<LotCalculationService.Lot> lots = entities.stream().map(LotLedgerService::toLot).toList();
+        List<LotCalculationService.LotDisposition> dispositions = new ArrayList<>();
+        CostBasisMethod method = methodOf(holding);
+        lotCalculationService.apply(lotCalculationService.queue(lots, method), trade, method, dispositions);
+
+        BigDecimal openCost = holding.getOpenCost();
+        BigDecimal realizedPnL = holding.getRealizedPnL();
+        for (LotCalculationService.LotDisposition d : dispositions) {
+            dispositionRepository.save(toEntity(holding, d, trade.getDate()));
+            openCost = openCost.subtract(d.getQuantitySold().multiply(d.getCostBasisPerShare()));
+            realizedPnL = realizedPnL.add(d.getRealizedGain());
+        }
+        holding.setQuantity(holding.getQuantity().subtract(trade.getQuantity()));
+        holding.setOpenCost(openCost);
+        holding.setRealizedPnL(realizedPnL);
+        for (int i = 0; i < lots.size(); i++) {
+            BigDecimal remaining = lots.get(i).getRemainingQuantity();
+            if (remaining.compareTo(BigDecimal.ZERO) <= 0) {
+                taxLotRepository.delete(entities.get(i));
+            } else {
+                entities.get(i).setRemainingQuantity(remaining);
+            }
+        }
+    }
+
+    /**
+     * Replace the holding's ledger with a replay of all its trades.
+     */
+    @Transactional
+    public void rebuild(Holding holding) {
+        List<Trade> trades = tradeRepository.findByHoldingId(holding.getId());
+        rebuild(holding, trades, lotCalculationService.replay(trades, methodOf(holding)));
+    }
+
+    @Transactional
+    public void rebuild(Long holdingId) {
+        rebuild(holdingRepository.findById(holdingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Holding not found")));
+    }
+
+    /**
+     * Check the holding's running position against a replay of its trades, rebuilding the ledger
+     * when they disagree.
+     *
+     * @return whether the stored position matched; false for holdings that had none yet
+     */
+    @Transactional
+    public boolean verifyPosition(Long holdingId) {
+        Holding holding = holdingRepository.findById(holdingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
+        List<Trade> trades = tradeRepository.findByHoldingId(holding.getId());
+        LotCalculationService.Ledger ledger = lotCalculationService.replay(trades, methodOf(holding));
+        boolean matches = holding.isLotsMaterialized()
+                && sameValue(holding.getQuantity(), netQuantity(trades))
+                && sameValue(holding.getOpenCost(), openCost(ledger.openLots()))
+                && sameValue(holding.getRealizedPnL(), sum(ledger.dispositions()));
+        if (!matches) {
+            rebuild(holding, trades, ledger);
+        }
+        return matches;
+    }
+
+    /**
+     * Net quantity of a holding: the running position once maintained, otherwise summed from its trades.
+     */
+    public static BigDecimal quantityOf(Holding holding) {
+        if (holding.getQuantity() != null) {
+            return holding.getQuantity();
+        }
+        return netQuantity(tradesOf(holding));
+    }
+
+    private void rebuild(Holding holding, List<Trade> trades, LotCalculationService.Ledger ledger) {
+        taxLotRepository.deleteByHoldingId(holding.getId());
+        dispositionRepository.deleteByHoldingId(holding.getId());
+
+        Map<Long, LocalDate> sellDates = new HashMap<>();
+        for (Trade trade : trades) {
+            sellDates.put(trade.getId(), trade.getDate());
+        }
+
+        taxLotRepository.saveAll(ledger.openLots().stream()
+                .map(lot -> toEntity(holding, lot))
+                .toList());
+        dispositionRepository.saveAll(ledger.dispositions().stream()
+                .map(d -> toEntity(holding, d, sellDates.get(d.getSellTradeId())))
+                .toList());
+        holding.setLotsMaterialized(true);
+        holding.setQuantity(netQuantity(trades));
+        holding.setOpenCost(openCost(ledger.openLots()));
+        holding.setRealizedPnL(sum(ledger.dispositions()));
+    }
+
+    /**
+     * Open lots of a holding, oldest first.
+     */
+    public List<LotCalculationService.Lot> openLots(Holding holding) {
+        if (!holding.isLotsMaterialized()) {
+            return lotCalculationService.computeOpenLots(tradesOf(holding), methodOf(holding));
+        }
+        return taxLotRepository.findByHoldingIdOrderByPurchaseDateAscTradeIdAsc(holding.getId()).stream()
+                .map(LotLedgerService::toLot)
+                .toList();
+    }
+
+    /**
+     * Open lots of several holdings in one query, keyed by holding id. Every holding has an entry.
+     */
+    public Map<Long, List<LotCalculationService.Lot>> openLots(Collection<Holding> holdings) {
+        Map<Long, List<LotCalculationService.Lot>> lotsByHolding = new HashMap<>();
+        List<Long> materialized = new ArrayList<>();
+        for (Holding holding : holdings) {
+            if (holding.isLotsMaterialized()) {
+                lotsByHolding.put(holding.getId(), new ArrayList<>());
+                materialized.add(holding.getId());
+            } else {
+                lotsByHolding.put(holding.getId(),
+                        lotCalculationService.computeOpenLots(tradesOf(holding), methodOf(holding)));
+            }
+        }
+        if (!materialized.isEmpty()) {
+            for (TaxLot lot : taxLotRepository.findByHoldingIdInOrderByPurchaseDateAscTradeIdAsc(materialized)) {
+                lotsByHolding.get(lot.getHolding().getId()).add(toLot(lot));
+            }
+        }
+        return lotsByHolding;
+    }
+
+    /**
+     * Total gain realized by the holding's sales.
+     */
+    public BigDecimal realizedGain(Holding holding) {
+        if (!holding.isLotsMaterialized()) {
+            return sum(lotCalculationService.computeRealizedDispositions(tradesOf(holding), methodOf(holding)));
+        }
+        if (holding.getRealizedPnL() != null) {
+            return holding.getRealizedPnL();
+        }
+        return dispositionRepository.sumRealizedGainByHoldingId(holding.getId());
+    }
+
+    /**
+     * Realized gains of several holdings, keyed by holding id, from the running positions and at most
+     * one query. Every holding has an entry.
+     */
+    public Map<Long, BigDecimal> realizedGains(Collection<Holding> holdings) {
+        Map<Long, BigDecimal> gainByHolding = new HashMap<>();
+        List<Long> materialized = new ArrayList<>();
+        for (Holding holding : holdings) {
+            if (holding.isLotsMaterialized() && holding.getRealizedPnL() != null) {
+                gainByHolding.put(holding.getId(), holding.getRealizedPnL());
+            } else if (holding.isLotsMaterialized()) {
+                gainByHolding.put(holding.getId(), BigDecimal.ZERO);
+                materialized.add(holding.getId());
+            } else {
+                gainByHolding.put(holding.getId(),
+                        sum(lotCalculationService.computeRealizedDispositions(tradesOf(holding), methodOf(holding))));
+            }
+        }
+        if (!materialized.isEmpty()) {
+            for (RealizedGainTotal total : dispositionRepository.sumRealizedGainByHoldingIdIn(materialized)) {
+                gainByHolding.put(total.getHoldingId(), total.getRealizedGain());
+            }
+        }
+        return gainByHolding;
+    }
+
+    /**
+     * Open cost basis and realized gain of several summarized holdings, keyed by holding id, from two
+     * aggregate queries. Every holding has an entry. Trades are only loaded for holdings that predate
+     * the ledger.
+     */
+    public Map<Long, LotTotals> lotTotals(Collection<HoldingSummary> holdings) {
+        Map<Long, LotTotals> totals = new HashMap<>();
+        List<Long> materialized = new ArrayList<>();
+        Map<Long, CostBasisMethod> replayed = new HashMap<>();
+        for (HoldingSummary holding : holdings) {
+            if (Boolean.TRUE.equals(holding.getLotsMaterialized())) {
+                materialized.add(holding.getHoldingId());
+            } else {
+                replayed.put(holding.getHoldingId(), holding.getCostBasisMethod());
+            }
+            totals.put(holding.getHoldingId(), new LotTotals(BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        if (!materialized.isEmpty()) {
+            for (OpenCostTotal cost : taxLotRepository.sumOpenCostByHoldingIdIn(materialized)) {
+                totals.put(cost.getHoldingId(), new LotTotals(cost.getTotalCost(), BigDecimal.ZERO));
+            }
+            for (RealizedGainTotal gain : dispositionRepository.sumRealizedGainByHoldingIdIn(materialized)) {
+                totals.compute(gain.getHoldingId(), (id, t) -> new LotTotals(t.openCost(), gain.getRealizedGain()));
+            }
+        }
+        if (!replayed.isEmpty()) {
+            Map<Long, List<Trade>> tradesByHolding = new HashMap<>();
+            for (Trade trade : tradeRepository.findByHoldingIdIn(replayed.keySet())) {
+                tradesByHolding.computeIfAbsent(trade.getHolding().getId(), id -> new ArrayList<>()).add(trade);
+            }
+            for (Map.Entry<Long, List<Trade>> entry : tradesByHolding.entrySet()) {
+                LotCalculationService.Ledger ledger =
+                        lotCalculationService.replay(entry.getValue(), replayed.get(entry.getKey()));
+                totals.put(entry.getKey(), new LotTotals(openCost(ledger.openLots()), sum(ledger.dispositions())));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Dispositions of several holdings sold between {@code from} and {@code to} inclusive, keyed by
+     * holding id and ordered by sale. Every holding has an entry. Holdings need not be attached to a
+     * session; trades of non-materialized ones are loaded in one query.
+     */
+    public Map<Long, List<RealizedDisposition>> realizedDispositions(Collection<Holding> holdings,
+                                                                     LocalDate from, LocalDate to) {
+        Map<Long, List<RealizedDisposition>> byHolding = new HashMap<>();
+        List<Long> materialized = new ArrayList<>();
+        Map<Long, Holding> replayed = new HashMap<>();
+        for (Holding holding : holdings) {
+            byHolding.put(holding.getId(), new ArrayList<>());
+            if (holding.isLotsMaterialized()) {
+                materialized.add(holding.getId());
+            } else {
+                replayed.put(holding.getId(), holding);
+            }
+        }
+        if (!materialized.isEmpty()) {
+            for (RealizedDisposition d : dispositionRepository.findRealizedByHoldingIdInAndSellDateBetween(materialized, from, to)) {
+                byHolding.get(d.getHoldingId()).add(d);
+            }
+        }
+        if (!replayed.isEmpty()) {
+            Map<Long, List<Trade>> tradesByHolding = new HashMap<>();
+            for (Trade trade : tradeRepository.findByHoldingIdIn(replayed.keySet())) {
+                tradesByHolding.computeIfAbsent(trade.getHolding().getId(), id -> new ArrayList<>()).add(trade);
+            }
+            for (Map.Entry<Long, List<Trade>> entry : tradesByHolding.entrySet()) {
+                Map<Long, LocalDate> dates = new HashMap<>();
+                for (Trade trade : entry.getValue()) {
+                    dates.put(trade.getId(), trade.getDate());
+                }
+                List<RealizedDisposition> rows = byHolding.get(entry.getKey());
+                CostBasisMethod method = methodOf(replayed.get(entry.getKey()));
+                for (LotCalculationService.LotDisposition d
+                        : lotCalculationService.computeRealizedDispositions(entry.getValue(), method)) {
+                    LocalDate sellDate = dates.get(d.getSellTradeId());
+                    if (!sellDate.isBefore(from) && !sellDate.isAfter(to)) {
+                        rows.add(new ReplayedDisposition(entry.getKey(), d, dates.get(d.getBuyTradeId()), sellDate));
+                    }
+                }
+            }
+        }
+        return byHolding;
+    }
+
+    /**
+     * Replay the holding's trades under every cost-basis method, for side-by-side comparison.
+     * Nothing is persisted.
+     */
+    public Map<CostBasisMethod, LotCalculationService.Ledger> compareMethods(Holding holding) {
+        List<Trade> trades = tradeRepository.findByHoldingId(holding.getId());
+        Map<CostBasisMethod, LotCalculationService.Ledger> ledgers = new EnumMap<>(CostBasisMethod.class);
+        for (CostBasisMethod method : CostBasisMethod.values()) {
+            ledgers.put(method, lotCalculationService.replay(trades, method));
+        }
+        return ledgers;
+    }
+
+    /**
+     * {@link #compareMethods(Holding)} for many holdings, loading their trades in one query.
+     *
+     * @return ledgers per method, keyed by holding id
+     */
+    public Map<Long, Map<CostBasisMethod, LotCalculationService.Ledger>> compareMethods(Collection<Holding> holdings) {
+        Map<Long, List<Trade>> tradesByHolding = new HashMap<>();
+        for (Holding holding : holdings) {
+            tradesByHolding.put(holding.getId(), new ArrayList<>());
+        }
+        if (!tradesByHolding.isEmpty()) {
+            for (Trade trade : tradeRepository.findByHoldingIdIn(tradesByHolding.keySet())) {
+                tradesByHolding.get(trade.getHolding().getId()).add(trade);
+            }
+        }
+        Map<Long, Map<CostBasisMethod, LotCalculationService.Ledger>> ledgers = new HashMap<>();
+        tradesByHolding.forEach((holdingId, trades) -> {
+            Map<CostBasisMethod, LotCalculationService.Ledger> byMethod = new EnumMap<>(CostBasisMethod.class);
+            for (CostBasisMethod method : CostBasisMethod.values()) {
+                byMethod.put(method, lotCalculationService.replay(trades, method));
+            }
+            ledgers.put(holdingId, byMethod);
+        });
+        return ledgers;
+    }
+
+    /**
+     * @param openCost     cost basis of the open lots
+     * @param realizedGain gain realized by all sales
+     */
+    public record LotTotals(BigDecimal openCost, BigDecimal realizedGain) {
+    }
+
+    /**
+     * A trade is back-dated when a later trade is already recorded, or when it is a BUY and a
+     * SELL on the same day is, since same-day buys replay first.
+     */
+    private boolean isBackDated(Holding holding, Trade trade) {
+        return tradeRepository.existsByHoldingIdAndDateAfter(holding.getId(), trade.getDate())
+                || (trade.getType() == TradeType.BUY
+                    && tradeRepository.existsByHoldingIdAndDateAndType(holding.getId(), trade.getDate(), TradeType.SELL));
+    }
+
+    private static CostBasisMethod methodOf(Holding holding) {
+        return holding.getPortfolio().getCostBasisMethod();
+    }
+
+    private static List<Trade> tradesOf(Holding holding) {
+        return holding.getTrades() != null ? holding.getTrades() : Collections.emptyList();
+    }
+
+    private static BigDecimal netQuantity(List<Trade> trades) {
+        BigDecimal quantity = BigDecimal.ZERO;
+        for (Trade trade : trades) {
+            quantity = trade.getType() == TradeType.BUY
+                    ? quantity.add(trade.getQuantity())
+                    : quantity.subtract(trade.getQuantity());
+        }
+        return quantity;
+    }
+
+    private static BigDecimal openCost(List<LotCalculationService.Lot> lots) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (LotCalculationService.Lot lot : lots) {
+            total = total.add(costOf(lot));
+        }
+        return total;
+    }
+
+    private static BigDecimal costOf(LotCalculationService.Lot lot) {
+        return lot.getRemainingQuantity().multiply(lot.getCostBasisPerShare());
+    }
+
+    private static boolean sameValue(BigDecimal stored, BigDecimal expected) {
+        return stored != null && stored.compareTo(expected) == 0;
+    }
+
+    private static BigDecimal sum(List<LotCalculationService.LotDisposition> dispositions) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (LotCalculationService.LotDisposition d : dispositions) {
+            total = total.add(d.getRealizedGain());
+        }
+        return total;
+    }
+
+    private static LotCalculationService.Lot toLot(TaxLot lot) {
+        return new LotCalculationService.Lot(lot.getTradeId(), lot.getPurchaseDate(), lot.getOriginalQuantity(),
+                lot.getRemainingQuantity(), lot.getCostBasisPerShare());
+    }
+
+    private static TaxLot toEntity(Holding holding, LotCalculationService.Lot lot) {
+        return TaxLot.builder()
+                .holding(holding)
+                .tradeId(lot.getTradeId())
+                .purchaseDate(lot.getPurchaseDate())
+                .originalQuantity(lot.getOriginalQuantity())
+                .remainingQuantity(lot.getRemainingQuantity())
+                .costBasisPerShare(lot.getCostBasisPerShare())
+                .build();
+    }
+
+    private static TaxLotDisposition toEntity(Holding holding, LotCalculationService.LotDisposition d,
+                                              LocalDate sellDate) {
+        return TaxLotDisposition.builder()
+                .holding(holding)
+                .buyTradeId(d.getBuyTradeId())
+                .sellTradeId(d.getSellTradeId())
+                .sellDate(sellDate)
+                .quantitySold(d.getQuantitySold())
+                .costBasisPerShare(d.getCostBasisPerShare())
+                .sellPricePerShare(d.getSellPricePerShare())
+                .realizedGain(d.getRealizedGain())
+                .build();
+    }
+
+    private static final class ReplayedDisposition implements RealizedDisposition {
+        private final Long holdingId;
+        private final LotCalculationService.LotDisposition disposition;
+        private final LocalDate purchaseDate;
+        private final LocalDate sellDate;
+
+        private ReplayedDisposition(Long holdingId, LotCalculationService.LotDisposition disposition,
+                                    LocalDate purchaseDate, LocalDate sellDate) {
+            this.holdingId = holdingId;
+            this.disposition = disposition;
+            this.purchaseDate = purchaseDate;
+            this.sellDate = sellDate;
+        }
+
+        public Long getHoldingId() { return holdingId; }
+        public Long getBuyTradeId() { return disposition.getBuyTradeId(); }
+        public LocalDate getPurchaseDate() { return purchaseDate; }
+        public Long getSellTradeId() { return disposition.getSellTradeId(); }
+        public LocalDate getSellDate() { return sellDate; }
+        public BigDecimal getQuantitySold() { return disposition.getQuantitySold(); }
+        public BigDecimal getCostBasisPerShare() { return disposition.getCostBasisPerShare(); }
+        public BigDecimal getSellPricePerShare() { return disposition.getSellPricePerShare(); }
+        public BigDecimal getRealizedGain() { return disposition.getRealizedGain(); }
+    }
+}
@@ -1,18 +1,43 @@
 package com.portfolio.rebalancer.service;
 
+import com.portfolio.rebalancer.dto.response.CacheStatsResponse;
 import com.portfolio.rebalancer.dto.response.HistoricalDataPoint;
 import com.portfolio.rebalancer.dto.response.QuoteResponse;
 import com.portfolio.rebalancer.dto.response.TickerSearchResult;
+import com.portfolio.rebalancer.exception.MarketDataUnavailableException;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Gateway client. Quotes go through the {@link QuoteCache}: fresh quotes are served without a
+ * request, stale ones are served while a background refresh replaces them, and only missing
+ * quotes are fetched inline, in one batch request. Concurrent lookups of a symbol share a single
+ * gateway request. Gateway calls go through the {@link GatewayCircuitBreaker}; when a quote cannot
+ * be fetched, the last known good one is served flagged as stale. Every batch of fetched quotes is
+ * published as a {@link QuotesRefreshedEvent}, so moved prices reach the drift monitor and the
+ * rebalance cache whichever caller fetched them. The async variants complete
+ * inline when the cache has every quote, and otherwise fetch on a dedicated pool so the caller can
+ * overlap the request with its own work.
+ */
 @Service
 public class MarketDataClient {
 
@@ -20,72 +45,366 @@ public class MarketDataClient {
 
     private final RestClient gatewayRestClient;
     private final ServiceTokenManager tokenManager;
+    private final QuoteCache quoteCache;
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService refreshExecutor;
+    private final ExecutorService fetchExecutor;
+    private final Function<List<String>, List<QuoteResponse>> quoteGateway;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<QuoteResponse>> inFlight = new ConcurrentHashMap<>();
 
-    public MarketDataClient(RestClient gatewayRestClient, ServiceTokenManager tokenManager) {
+    @Autowired
+    public MarketDataClient(RestClient gatewayRestClient, ServiceTokenManager tokenManager, QuoteCache quoteCache,
+                            GatewayCircuitBreaker circuitBreaker, ApplicationEventPublisher eventPublisher,
+                            @Value("${app.quotes.refresh-threads}") int refreshThreads,
+                            @Value("${app.quotes.fetch-threads}") int fetchThreads) {
+        this(gatewayRestClient, tokenManager, quoteCache, circuitBreaker, eventPublisher, refreshThreads, fetchThreads,
+                symbols -> gatewayQuotes(gatewayRestClient, tokenManager, symbols));
+    }
+
+    /**
+     * @param quoteGateway batch quote request, called through the circuit breaker; tests stub it
+     */
+    MarketDataClient(RestClient gatewayRestClient, ServiceTokenManager tokenManager, QuoteCache quoteCache,
+                     GatewayCircuitBreaker circuitBreaker, ApplicationEventPublisher eventPublisher,
+                     int refreshThreads, int fetchThreads, Function<List<String>, List<QuoteResponse>> quoteGateway) {
         this.gatewayRestClient = gatewayRestClient;
         this.tokenManager = tokenManager;
+        this.quoteCache = quoteCache;
+        this.circuitBreaker = circuitBreaker;
+        this.eventPublisher = eventPublisher;
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, daemonThreads("quote-refresh"));
+        this.fetchExecutor = Executors.newFixedThreadPool(fetchThreads, daemonThreads("quote-fetch"));
+        this.quoteGateway = quoteGateway;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        fetchExecutor.shutdownNow();
     }
 
     public QuoteResponse fetchQuote(String symbol) {
-        try {
-            return gatewayRestClient.get()
-                    .uri("/api/market-data/quotes/{symbol}", symbol)
-                    .header("Authorization", "Bearer " + tokenManager.getToken())
-                    .retrieve()
-                    .body(QuoteResponse.class);
-        } catch (Exception e) {
-            log.error("Failed to fetch quote for {} from gateway: {}", symbol, e.getMessage());
-            return QuoteResponse.builder()
-                    .symbol(symbol)
-                    .shortName(symbol)
-                    .regularMarketPrice(BigDecimal.ZERO)
-                    .regularMarketChange(BigDecimal.ZERO)
-                    .regularMarketChangePercent(BigDecimal.ZERO)
-                    .currency("USD")
-                    .build();
+        QuoteCache.Cached cached = quoteCache.get(symbol);
+        if (cached != null) {
+            if (cached.stale()) {
+                refreshInBackground(List.of(symbol));
+            }
+            return cached.quote();
+        }
+        return orPlaceholder(symbol, load(List.of(symbol)).get(QuoteCache.key(symbol)));
+    }
+
+    /**
+     * {@link #fetchQuote}, for callers that must tell a symbol the gateway does not know, which gets
+     * a zero price, from one that could not be looked up.
+     *
+     * @throws MarketDataUnavailableException when the gateway failed or refused the request and
+     *                                        there is no last known good quote
+     */
+    public QuoteResponse requireQuote(String symbol) {
+        QuoteCache.Cached cached = quoteCache.get(symbol);
+        if (cached != null) {
+            if (cached.stale()) {
+                refreshInBackground(List.of(symbol));
+            }
+            return cached.quote();
+        }
+        Set<String> unavailable = new HashSet<>();
+        QuoteResponse quote = load(List.of(symbol), unavailable).get(QuoteCache.key(symbol));
+        if (unavailable.contains(QuoteCache.key(symbol))) {
+            throw new MarketDataUnavailableException("Market data is unavailable, cannot look up " + symbol);
+        }
+        return orPlaceholder(symbol, quote);
+    }
+
+    public CompletableFuture<QuoteResponse> fetchQuoteAsync(String symbol) {
+        QuoteCache.Cached cached = quoteCache.get(symbol);
+        if (cached != null) {
+            if (cached.stale()) {
+                refreshInBackground(List.of(symbol));
+            }
+            return CompletableFuture.completedFuture(cached.quote());
         }
+        return CompletableFuture.supplyAsync(
+                () -> orPlaceholder(symbol, load(List.of(symbol)).get(QuoteCache.key(symbol))), fetchExecutor);
     }
 
+    /**
+     * Quotes of the symbols the gateway knows, in request order.
+     */
     public List<QuoteResponse> fetchQuotes(List<String> symbols) {
         if (symbols == null || symbols.isEmpty()) {
             return Collections.emptyList();
         }
-        try {
-            String joined = String.join(",", symbols);
-            return gatewayRestClient.get()
-                    .uri("/api/market-data/quotes?symbols={symbols}", joined)
-                    .header("Authorization", "Bearer " + tokenManager.getToken())
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<QuoteResponse>>() {});
-        } catch (Exception e) {
-            log.error("Failed to fetch batch quotes from gateway: {}", e.getMessage());
+        Map<String, QuoteResponse> found = new HashMap<>();
+        List<String> missing = lookUp(symbols, found);
+        if (!missing.isEmpty()) {
+            found.putAll(load(missing));
+        }
+        return inOrder(symbols, found);
+    }
+
+    /**
+     * {@link #fetchQuotes} without blocking the caller on the gateway.
+     */
+    public CompletableFuture<List<QuoteResponse>> fetchQuotesAsync(List<String> symbols) {
+        if (symbols == null || symbols.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        Map<String, QuoteResponse> found = new HashMap<>();
+        List<String> missing = lookUp(symbols, found);
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(inOrder(symbols, found));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            found.putAll(load(missing));
+            return inOrder(symbols, found);
+        }, fetchExecutor);
+    }
+
+    /**
+     * Fetch the symbols from the gateway regardless of the cache and store the results, for the
+     * price scheduler, which keeps held tickers fresh.
+     */
+    public List<QuoteResponse> refreshQuotes(List<String> symbols) {
+        if (symbols == null || symbols.isEmpty()) {
             return Collections.emptyList();
         }
+        return inOrder(symbols, load(symbols));
     }
 
-    public List<TickerSearchResult> searchTickers(String query) {
+    public CacheStatsResponse getQuoteCacheStats() {
+        return quoteCache.getStats();
+    }
+
+    /**
+     * Put the cached quotes of the symbols into {@code found}, keyed by {@link QuoteCache#key}, and
+     * refresh the stale ones in the background.
+     *
+     * @return the symbols with no usable cached quote
+     */
+    private List<String> lookUp(List<String> symbols, Map<String, QuoteResponse> found) {
+        List<String> missing = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        for (String symbol : symbols) {
+            QuoteCache.Cached cached = quoteCache.get(symbol);
+            if (cached == null) {
+                missing.add(symbol);
+                continue;
+            }
+            found.put(QuoteCache.key(symbol), cached.quote());
+            if (cached.stale()) {
+                stale.add(symbol);
+            }
+        }
+        if (!stale.isEmpty()) {
+            refreshInBackground(stale);
+        }
+        return missing;
+    }
+
+    private static List<QuoteResponse> inOrder(List<String> symbols, Map<String, QuoteResponse> found) {
+        List<QuoteResponse> quotes = new ArrayList<>(found.size());
+        for (String symbol : symbols) {
+            QuoteResponse quote = found.remove(QuoteCache.key(symbol));
+            if (quote != null) {
+                quotes.add(quote);
+            }
+        }
+        return quotes;
+    }
+
+    private static QuoteResponse orPlaceholder(String symbol, QuoteResponse quote) {
+        if (quote != null) {
+            return quote;
+        }
+        return QuoteResponse.builder()
+                .symbol(symbol)
+                .shortName(symbol)
+                .regularMarketPrice(BigDecimal.ZERO)
+                .regularMarketChange(BigDecimal.ZERO)
+                .regularMarketChangePercent(BigDecimal.ZERO)
+                .currency("USD")
+                .build();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** One batch request for the stale symbols not already being refreshed. */
+    private void refreshInBackground(List<String> symbols) {
+        List<String> claimed = symbols.stream()
+                .map(QuoteCache::key)
+                .filter(refreshing::add)
+                .toList();
+        if (claimed.isEmpty()) return;
         try {
-            return gatewayRestClient.get()
-                    .uri("/api/market-data/search?q={query}", query)
-                    .header("Authorization", "Bearer " + tokenManager.getToken())
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<TickerSearchResult>>() {});
-        } catch (Exception e) {
-            log.error("Failed to search tickers from gateway: {}", e.getMessage());
-            return Collections.emptyList();
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshQuotes(claimed);
+                } finally {
+                    refreshing.removeAll(claimed);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.removeAll(claimed);
+            log.warn("Failed to schedule quote refresh: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Quotes of the symbols from the gateway, stored in the cache and keyed by {@link QuoteCache#key}.
+     * Symbols another thread is already requesting are not requested again; this call waits for that
+     * request instead. The rest go out in one batch, whose results are shared with any thread that
+     * asks for one of its symbols meanwhile. Symbols the gateway has no price for get their last
+     * known good quote, when there is one.
+     */
+    private Map<String, QuoteResponse> load(Collection<String> symbols) {
+        return load(symbols, new HashSet<>());
+    }
+
+    /**
+     * {@link #load(Collection)}, adding to {@code unavailable} the keys of the symbols left without a
+     * quote because the request failed or was refused, rather than because the gateway has no price.
+     */
+    private Map<String, QuoteResponse> load(Collection<String> symbols, Set<String> unavailable) {
+        Map<String, CompletableFuture<QuoteResponse>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<QuoteResponse>> joined = new HashMap<>();
+        for (String symbol : symbols) {
+            String key = QuoteCache.key(symbol);
+            if (owned.containsKey(key) || joined.containsKey(key)) continue;
+            CompletableFuture<QuoteResponse> future = new CompletableFuture<>();
+            CompletableFuture<QuoteResponse> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                owned.put(key, future);
+            } else {
+                joined.put(key, existing);
+            }
         }
+
+        Map<String, QuoteResponse> quotes = new HashMap<>();
+        if (!owned.isEmpty()) {
+            boolean failed = true;
+            List<QuoteResponse> priced = new ArrayList<>();
+            try {
+                List<QuoteResponse> response = requestQuotes(new ArrayList<>(owned.keySet()));
+                failed = response == null;
+                for (QuoteResponse quote : response != null ? response : List.<QuoteResponse>of()) {
+                    if (quote.getSymbol() == null) continue;
+                    quoteCache.put(quote);
+                    quotes.put(QuoteCache.key(quote.getSymbol()), quote);
+                    if (QuoteCache.hasPrice(quote)) {
+                        priced.add(quote);
+                    }
+                }
+            } finally {
+                boolean requestFailed = failed;
+                owned.forEach((key, future) -> {
+                    QuoteResponse quote = quotes.get(key);
+                    if (quote == null || !QuoteCache.hasPrice(quote)) {
+                        QuoteResponse lastKnown = quoteCache.lastKnown(key);
+                        if (lastKnown != null) {
+                            quotes.put(key, asStale(lastKnown));
+                        }
+                    }
+                    inFlight.remove(key, future);
+                    if (quotes.containsKey(key) || !requestFailed) {
+                        // Waiters get null for symbols the gateway has no price for and no last known one
+                        future.complete(quotes.get(key));
+                    } else {
+                        unavailable.add(key);
+                        future.completeExceptionally(new MarketDataUnavailableException(key));
+                    }
+                });
+            }
+            if (!priced.isEmpty()) {
+                eventPublisher.publishEvent(new QuotesRefreshedEvent(priced));
+            }
+        }
+        joined.forEach((key, future) -> {
+            try {
+                QuoteResponse quote = future.join();
+                if (quote != null) {
+                    quotes.put(key, quote);
+                }
+            } catch (CompletionException e) {
+                unavailable.add(key);
+            }
+        });
+        return quotes;
+    }
+
+    private static QuoteResponse asStale(QuoteResponse quote) {
+        return QuoteResponse.builder()
+                .symbol(quote.getSymbol())
+                .shortName(quote.getShortName())
+                .regularMarketPrice(quote.getRegularMarketPrice())
+                .regularMarketChange(quote.getRegularMarketChange())
+                .regularMarketChangePercent(quote.getRegularMarketChangePercent())
+                .currency(quote.getCurrency())
+                .exchangeName(quote.getExchangeName())
+                .stale(true)
+                .build();
+    }
+
+    /** Quotes from the gateway; null when the request fails or is refused. */
+    private List<QuoteResponse> requestQuotes(List<String> symbols) {
+        return callGateway("fetch batch quotes", () -> quoteGateway.apply(symbols), null);
+    }
+
+    private static List<QuoteResponse> gatewayQuotes(RestClient gatewayRestClient, ServiceTokenManager tokenManager,
+                                                     List<String> symbols) {
+        return gatewayRestClient.get()
+                .uri("/api/market-data/quotes?symbols={symbols}", String.join(",", symbols))
+                .header("Authorization", "Bearer " + tokenManager.getToken())
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<QuoteResponse>>() {});
+    }
+
+    public List<TickerSearchResult> searchTickers(String query) {
+        return callGateway("search tickers", () -> gatewayRestClient.get()
+                .uri("/api/market-data/search?q={query}", query)
+                .header("Authorization", "Bearer " + tokenManager.getToken())
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<TickerSearchResult>>() {}), Collections.emptyList());
     }
 
     public List<HistoricalDataPoint> fetchHistory(String symbol, String range) {
+        return callGateway("fetch history for " + symbol + " (range=" + range + ")", () -> gatewayRestClient.get()
+                .uri("/api/market-data/quotes/{symbol}/history?range={range}", symbol, range)
+                .header("Authorization", "Bearer " + tokenManager.getToken())
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<HistoricalDataPoint>>() {}), Collections.emptyList());
+    }
+
+    /**
+     * Result of the call, or the fallback when it fails or the circuit breaker refuses it. A 4xx
+     * answer fails the call but shows the gateway is up, so it does not count against the circuit.
+     */
+    private <T> T callGateway(String action, Supplier<T> call, T fallback) {
+        if (!circuitBreaker.tryAcquire()) {
+            log.debug("Gateway call refused ({}), circuit {}", action, circuitBreaker.getState());
+            return fallback;
+        }
         try {
-            return gatewayRestClient.get()
-                    .uri("/api/market-data/quotes/{symbol}/history?range={range}", symbol, range)
-                    .header("Authorization", "Bearer " + tokenManager.getToken())
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<HistoricalDataPoint>>() {});
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            circuitBreaker.onSuccess();
+            log.error("Failed to {} from gateway: {}", action, e.getMessage());
+            return fallback;
         } catch (Exception e) {
-            log.error("Failed to fetch history from gateway for {} (range={}): {}", symbol, range, e.getMessage());
-            return Collections.emptyList();
+            circuitBreaker.onFailure();
+            log.error("Failed to {} from gateway: {}", action, e.getMessage());
+            return fallback;
         }
     }
 }
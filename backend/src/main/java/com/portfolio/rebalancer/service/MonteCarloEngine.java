@@ -0,0 +1,188 @@
+package com.portfolio.rebalancer.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo estimate of how often a portfolio breaches its drift threshold. Each path starts at
+ * target weights and draws whole bars of historical returns with replacement, so cross-asset
+ * correlation is kept. On a breach the path is rebalanced back to target, as the backtest does.
+ * <p>
+ * Paths are split across a fork-join pool. Every task takes its own {@link SplittableRandom} split
+ * from its parent, so results depend only on the seed and not on scheduling. Each leaf reuses its
+ * primitive buffers for all of its paths and only reports histograms.
+ */
+public final class MonteCarloEngine {
+
+    private static final int LEAF_PATHS = 1024;
+
+    private final double[] returns;
+    private final int rows;
+    private final int assets;
+    private final int[] sleeve;
+    private final double[] sleeveTarget;
+    private final double[] startWeight;
+    private final double startCash;
+
+    /**
+     * @param units units held per asset; the mix within each sleeve is taken from their value at
+     *              the last bar
+     */
+    public MonteCarloEngine(PriceHistory history, Sleeves sleeves, double[] units) {
+        this.returns = history.grossReturns();
+        this.rows = history.bars() - 1;
+        this.assets = history.assets();
+        this.sleeve = sleeves.sleeve();
+        this.sleeveTarget = sleeves.target();
+
+        int last = history.bars() - 1;
+        double[] sleeveValue = new double[sleeveTarget.length];
+        for (int a = 0; a < assets; a++) {
+            sleeveValue[sleeve[a]] += units[a] * history.price(last, a);
+        }
+        this.startWeight = new double[assets];
+        for (int a = 0; a < assets; a++) {
+            startWeight[a] = sleeveTarget[sleeve[a]] * units[a] * history.price(last, a) / sleeveValue[sleeve[a]];
+        }
+        this.startCash = sleeveTarget[sleeves.cashSleeve()];
+    }
+
+    /**
+     * @param threshold drift that triggers a rebalance, as a fraction such as 0.05
+     */
+    public Result run(int paths, int steps, double threshold, SplittableRandom random, ForkJoinPool pool) {
+        return pool.invoke(new PathTask(paths, steps, threshold, random));
+    }
+
+    private final class PathTask extends RecursiveTask<Result> {
+        private final int paths;
+        private final int steps;
+        private final double threshold;
+        private final SplittableRandom random;
+
+        private PathTask(int paths, int steps, double threshold, SplittableRandom random) {
+            this.paths = paths;
+            this.steps = steps;
+            this.threshold = threshold;
+            this.random = random;
+        }
+
+        @Override
+        protected Result compute() {
+            if (paths <= LEAF_PATHS) {
+                return simulate();
+            }
+            int half = paths / 2;
+            PathTask left = new PathTask(half, steps, threshold, random.split());
+            PathTask right = new PathTask(paths - half, steps, threshold, random);
+            left.fork();
+            Result result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+
+        private Result simulate() {
+            int cashSleeve = sleeveTarget.length - 1;
+            double[] weight = new double[assets];
+            double[] sleeveValue = new double[sleeveTarget.length];
+            Result result = new Result(steps);
+            for (int path = 0; path < paths; path++) {
+                System.arraycopy(startWeight, 0, weight, 0, assets);
+                double cash = startCash;
+                int breaches = 0;
+                int firstBreach = steps;
+                for (int step = 0; step < steps; step++) {
+                    int row = random.nextInt(rows) * assets;
+                    Arrays.fill(sleeveValue, 0);
+                    double total = cash;
+                    for (int a = 0; a < assets; a++) {
+                        double w = weight[a] * returns[row + a];
+                        weight[a] = w;
+                        sleeveValue[sleeve[a]] += w;
+                        total += w;
+                    }
+                    sleeveValue[cashSleeve] = cash;
+
+                    double maxDrift = 0;
+                    for (int s = 0; s < sleeveValue.length; s++) {
+                        maxDrift = Math.max(maxDrift, Math.abs(sleeveValue[s] / total - sleeveTarget[s]));
+                    }
+                    if (maxDrift > threshold) {
+                        if (breaches++ == 0) firstBreach = step;
+                        // Rebalance and rescale to 1 so long horizons cannot overflow
+                        for (int a = 0; a < assets; a++) {
+                            int s = sleeve[a];
+                            weight[a] = sleeveValue[s] > 0 ? sleeveTarget[s] * weight[a] / sleeveValue[s] : 0;
+                        }
+                        cash = sleeveTarget[cashSleeve];
+                    }
+                }
+                result.breachCounts[breaches]++;
+                result.firstBreaches[firstBreach]++;
+            }
+            result.paths = paths;
+            return result;
+        }
+    }
+
+    /**
+     * Histograms over paths: how many paths breached {@code n} times, and how many first breached
+     * at step {@code n}, with index {@code steps} counting paths that never breached.
+     */
+    public static final class Result {
+        private final long[] breachCounts;
+        private final long[] firstBreaches;
+        private long paths;
+
+        private Result(int steps) {
+            this.breachCounts = new long[steps + 1];
+            this.firstBreaches = new long[steps + 1];
+        }
+
+        private void merge(Result other) {
+            for (int k = 0; k < breachCounts.length; k++) {
+                breachCounts[k] += other.breachCounts[k];
+                firstBreaches[k] += other.firstBreaches[k];
+            }
+            paths += other.paths;
+        }
+
+        public long paths() { return paths; }
+
+        /** Fraction of paths with at least one breach. */
+        public double breachProbability() {
+            return paths == 0 ? 0 : (double) (paths - breachCounts[0]) / paths;
+        }
+
+        public double meanBreaches() {
+            double sum = 0;
+            for (int k = 0; k < breachCounts.length; k++) {
+                sum += (double) k * breachCounts[k];
+            }
+            return paths == 0 ? 0 : sum / paths;
+        }
+
+        /** Breach count at percentile {@code p} in [0, 100], nearest-rank. */
+        public int breachPercentile(double p) {
+            return percentile(breachCounts, p);
+        }
+
+        /** Step of the first breach at percentile {@code p}; -1 when fewer paths than that breach. */
+        public int firstBreachPercentile(double p) {
+            int step = percentile(firstBreaches, p);
+            return step == firstBreaches.length - 1 ? -1 : step;
+        }
+
+        private int percentile(long[] histogram, double p) {
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * paths));
+            long seen = 0;
+            for (int k = 0; k < histogram.length; k++) {
+                seen += histogram[k];
+                if (seen >= rank) return k;
+            }
+            return histogram.length - 1;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfolio.rebalancer.service;
+
+/**
+ * Published when a portfolio, its holdings, trades or target allocations change.
+ */
+public class PortfolioChangedEvent {
+    private final Long portfolioId;
+
+    public PortfolioChangedEvent(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public Long getPortfolioId() { return portfolioId; }
+}
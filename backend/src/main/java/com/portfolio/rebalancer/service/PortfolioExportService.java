@@ -0,0 +1,155 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.HoldingSummaryResponse;
+import com.portfolio.rebalancer.dto.response.HoldingValuationResponse;
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.exception.ResourceNotFoundException;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.LotExportRow;
+import com.portfolio.rebalancer.repository.TaxLotRepository;
+import com.portfolio.rebalancer.repository.TradeExportRow;
+import com.portfolio.rebalancer.repository.TradeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exports of one portfolio's holdings valued at current quotes, its trades and its open lots.
+ * Access is checked when an export is requested; its rows are then read inside a read-only
+ * transaction while the caller writes them, scrolling trades and lots with a database cursor so
+ * heap use does not grow with the export.
+ */
+@Service
+public class PortfolioExportService {
+
+    private final HoldingRepository holdingRepository;
+    private final TradeRepository tradeRepository;
+    private final TaxLotRepository taxLotRepository;
+    private final PortfolioService portfolioService;
+    private final LotLedgerService lotLedgerService;
+    private final MarketDataClient marketDataClient;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PortfolioExportService(HoldingRepository holdingRepository, TradeRepository tradeRepository,
+                                  TaxLotRepository taxLotRepository, PortfolioService portfolioService,
+                                  LotLedgerService lotLedgerService, MarketDataClient marketDataClient,
+                                  EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.holdingRepository = holdingRepository;
+        this.tradeRepository = tradeRepository;
+        this.taxLotRepository = taxLotRepository;
+        this.portfolioService = portfolioService;
+        this.lotLedgerService = lotLedgerService;
+        this.marketDataClient = marketDataClient;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Rows of an export, produced on demand. Exceptions thrown by the sink end the export.
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(Consumer<? super T> sink);
+    }
+
+    /**
+     * Holdings with their running positions, valued at current quotes fetched in one batch; there
+     * are few enough to load up front. Quotes are fetched before the response starts, so an
+     * unavailable gateway fails the request rather than the stream.
+     */
+    public RowSource<HoldingValuationResponse> holdings(Long portfolioId) {
+        List<HoldingSummaryResponse> holdings = portfolioService.getHoldingSummaries(portfolioId);
+        Map<String, QuoteResponse> quotes = new HashMap<>();
+        for (QuoteResponse quote : marketDataClient.fetchQuotes(
+                holdings.stream().map(HoldingSummaryResponse::getTickerSymbol).distinct().toList())) {
+            quotes.put(quote.getSymbol(), quote);
+        }
+        List<HoldingValuationResponse> valuations = holdings.stream()
+                .map(h -> valuation(h, quotes.get(h.getTickerSymbol())))
+                .toList();
+        return valuations::forEach;
+    }
+
+    private static HoldingValuationResponse valuation(HoldingSummaryResponse holding, QuoteResponse quote) {
+        HoldingValuationResponse.HoldingValuationResponseBuilder valuation = HoldingValuationResponse.builder()
+                .holding(holding);
+        if (quote == null || quote.getRegularMarketPrice() == null || quote.getRegularMarketPrice().signum() <= 0) {
+            return valuation.build();
+        }
+        BigDecimal price = ValuationKernel.roundPrice(quote.getRegularMarketPrice());
+        BigDecimal marketValue = holding.getQuantity().multiply(price).setScale(2, RoundingMode.HALF_UP);
+        return valuation
+                .currentPrice(price)
+                .marketValue(marketValue)
+                .unrealizedPnL(marketValue.subtract(holding.getTotalCost()).setScale(2, RoundingMode.HALF_UP))
+                .stalePrice(quote.isStale())
+                .build();
+    }
+
+    /**
+     * Trades ordered by holding, then date.
+     */
+    public RowSource<TradeExportRow> trades(Long portfolioId) {
+        portfolioService.findPortfolioForCurrentUser(portfolioId);
+        return sink -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<TradeExportRow> rows = tradeRepository.streamExportRowsByPortfolioId(portfolioId)) {
+                rows.forEach(sink);
+            }
+        });
+    }
+
+    /**
+     * Open lots under the portfolio's cost-basis method, ordered by holding, then purchase. Lots of
+     * holdings that predate the ledger are replayed one holding at a time, after the others.
+     */
+    public RowSource<LotExportRow> lots(Long portfolioId) {
+        portfolioService.findPortfolioForCurrentUser(portfolioId);
+        return sink -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<LotExportRow> rows = taxLotRepository.streamExportRowsByPortfolioId(portfolioId)) {
+                rows.forEach(sink);
+            }
+            for (Long holdingId : holdingRepository.findUnmaterializedIdsByPortfolioId(portfolioId)) {
+                Holding holding = holdingRepository.findById(holdingId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
+                for (LotCalculationService.Lot lot : lotLedgerService.openLots(holding)) {
+                    sink.accept(new ReplayedLot(holding.getId(), holding.getTickerSymbol(), lot));
+                }
+                // Only one holding's trades are in the persistence context at a time
+                entityManager.clear();
+            }
+        });
+    }
+
+    private static final class ReplayedLot implements LotExportRow {
+        private final Long holdingId;
+        private final String tickerSymbol;
+        private final LotCalculationService.Lot lot;
+
+        private ReplayedLot(Long holdingId, String tickerSymbol, LotCalculationService.Lot lot) {
+            this.holdingId = holdingId;
+            this.tickerSymbol = tickerSymbol;
+            this.lot = lot;
+        }
+
+        public Long getHoldingId() { return holdingId; }
+        public String getTickerSymbol() { return tickerSymbol; }
+        public Long getTradeId() { return lot.getTradeId(); }
+        public LocalDate getPurchaseDate() { return lot.getPurchaseDate(); }
+        public BigDecimal getOriginalQuantity() { return lot.getOriginalQuantity(); }
+        public BigDecimal getRemainingQuantity() { return lot.getRemainingQuantity(); }
+        public BigDecimal getCostBasisPerShare() { return lot.getCostBasisPerShare(); }
+    }
+}
@@ -3,42 +3,109 @@ package com.portfolio.rebalancer.service;
 import com.portfolio.rebalancer.dto.request.CreatePortfolioRequest;
 import com.portfolio.rebalancer.dto.response.AllocationResponse;
 import com.portfolio.rebalancer.dto.response.HoldingResponse;
+import com.portfolio.rebalancer.dto.response.HoldingSummaryResponse;
 import com.portfolio.rebalancer.dto.response.LotResponse;
 import com.portfolio.rebalancer.dto.response.PortfolioResponse;
+import com.portfolio.rebalancer.dto.response.PortfolioSummaryResponse;
 import com.portfolio.rebalancer.dto.response.TradeResponse;
 import com.portfolio.rebalancer.entity.Holding;
 import com.portfolio.rebalancer.entity.Portfolio;
 import com.portfolio.rebalancer.entity.Trade;
 import com.portfolio.rebalancer.entity.TradeType;
 import com.portfolio.rebalancer.exception.ResourceNotFoundException;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.HoldingSummary;
 import com.portfolio.rebalancer.repository.PortfolioRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PortfolioService {
 
     private final PortfolioRepository portfolioRepository;
-    private final LotCalculationService lotCalculationService;
+    private final HoldingRepository holdingRepository;
+    private final LotLedgerService lotLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PortfolioService(PortfolioRepository portfolioRepository, LotCalculationService lotCalculationService) {
+    public PortfolioService(PortfolioRepository portfolioRepository, HoldingRepository holdingRepository,
+                            LotLedgerService lotLedgerService, ApplicationEventPublisher eventPublisher) {
         this.portfolioRepository = portfolioRepository;
-        this.lotCalculationService = lotCalculationService;
+        this.holdingRepository = holdingRepository;
+        this.lotLedgerService = lotLedgerService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<PortfolioResponse> getAllPortfolios() {
         Long userId = getCurrentUserId();
-        return portfolioRepository.findByOwnerId(userId).stream()
-                .map(this::toResponse)
+        return toResponses(portfolioRepository.findWithHoldingsByOwnerId(userId));
+    }
+
+    /**
+     * Portfolios of the current user with aggregate numbers per holding, computed in the database
+     * without loading trades or lots.
+     */
+    @Transactional(readOnly = true)
+    public List<PortfolioSummaryResponse> getPortfolioSummaries() {
+        List<Portfolio> portfolios = portfolioRepository.findByOwnerId(getCurrentUserId());
+        if (portfolios.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<HoldingSummary> holdings = holdingRepository.findSummariesByPortfolioIdIn(
+                portfolios.stream().map(Portfolio::getId).toList());
+        Map<Long, LotLedgerService.LotTotals> totals = lotLedgerService.lotTotals(holdings);
+        Map<Long, List<HoldingSummaryResponse>> holdingsByPortfolio = new HashMap<>();
+        for (HoldingSummary h : holdings) {
+            holdingsByPortfolio.computeIfAbsent(h.getPortfolioId(), id -> new ArrayList<>())
+                    .add(toHoldingSummaryResponse(h, totals.get(h.getHoldingId())));
+        }
+
+        return portfolios.stream()
+                .map(p -> {
+                    List<HoldingSummaryResponse> summaries =
+                            holdingsByPortfolio.getOrDefault(p.getId(), Collections.emptyList());
+                    return PortfolioSummaryResponse.builder()
+                            .id(p.getId())
+                            .name(p.getName())
+                            .description(p.getDescription())
+                            .driftThreshold(p.getDriftThreshold())
+                            .cashBalance(p.getCashBalance())
+                            .baseCurrency(p.getBaseCurrency())
+                            .costBasisMethod(p.getCostBasisMethod())
+                            .holdingCount(summaries.size())
+                            .tradeCount(summaries.stream().mapToLong(HoldingSummaryResponse::getTradeCount).sum())
+                            .holdings(summaries)
+                            .createdAt(p.getCreatedAt())
+                            .updatedAt(p.getUpdatedAt())
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Positions of one portfolio's holdings, as in {@link #getPortfolioSummaries()}.
+     */
+    @Transactional(readOnly = true)
+    public List<HoldingSummaryResponse> getHoldingSummaries(Long portfolioId) {
+        findPortfolioForCurrentUser(portfolioId);
+        List<HoldingSummary> holdings = holdingRepository.findSummariesByPortfolioIdIn(List.of(portfolioId));
+        Map<Long, LotLedgerService.LotTotals> totals = lotLedgerService.lotTotals(holdings);
+        return holdings.stream()
+                .map(h -> toHoldingSummaryResponse(h, totals.get(h.getHoldingId())))
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public PortfolioResponse getPortfolio(Long id) {
         Portfolio portfolio = findPortfolioForCurrentUser(id);
         return toResponse(portfolio);
@@ -53,8 +120,10 @@ public class PortfolioService {
                 .driftThreshold(request.getDriftThreshold() != null ? request.getDriftThreshold() : new BigDecimal("5.00"))
                 .cashBalance(request.getCashBalance() != null ? request.getCashBalance() : BigDecimal.ZERO)
                 .baseCurrency(request.getBaseCurrency() != null ? request.getBaseCurrency() : "USD")
+                .costBasisMethod(request.getCostBasisMethod())
                 .build();
         portfolio = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolio.getId()));
         return toResponse(portfolio);
     }
 
@@ -72,7 +141,14 @@ public class PortfolioService {
         if (request.getBaseCurrency() != null) {
             portfolio.setBaseCurrency(request.getBaseCurrency());
         }
+        if (request.getCostBasisMethod() != null && request.getCostBasisMethod() != portfolio.getCostBasisMethod()) {
+            portfolio.setCostBasisMethod(request.getCostBasisMethod());
+            for (Holding holding : portfolio.getHoldings()) {
+                lotLedgerService.rebuild(holding);
+            }
+        }
         portfolio = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(id));
         return toResponse(portfolio);
     }
 
@@ -80,6 +156,7 @@ public class PortfolioService {
     public void deletePortfolio(Long id) {
         Portfolio portfolio = findPortfolioForCurrentUser(id);
         portfolioRepository.delete(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(id));
     }
 
     @Transactional
@@ -87,6 +164,7 @@ public class PortfolioService {
         Portfolio portfolio = findPortfolioForCurrentUser(id);
         portfolio.setCashBalance(cashBalance);
         portfolio = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(id));
         return toResponse(portfolio);
     }
 
@@ -96,17 +174,45 @@ public class PortfolioService {
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found"));
     }
 
+    public List<Portfolio> findPortfoliosForCurrentUser() {
+        return portfolioRepository.findByOwnerId(getCurrentUserId());
+    }
+
     private Long getCurrentUserId() {
         return (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
     }
 
     private PortfolioResponse toResponse(Portfolio portfolio) {
+        return toResponses(List.of(portfolio)).get(0);
+    }
+
+    /**
+     * Map portfolios with their allocations, holdings, trades and lots in a constant number of
+     * queries, whatever the number of portfolios and holdings. Collections are initialized by
+     * fetch-join queries into the current persistence context, so this must run in a transaction.
+     */
+    private List<PortfolioResponse> toResponses(List<Portfolio> portfolios) {
+        if (portfolios.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = portfolios.stream().map(Portfolio::getId).toList();
+        portfolioRepository.findWithTargetAllocationsByIdIn(ids);
+        List<Holding> holdings = holdingRepository.findWithTradesByPortfolioIdIn(ids);
+        Map<Long, List<LotCalculationService.Lot>> openLots = lotLedgerService.openLots(holdings);
+        Map<Long, BigDecimal> realizedGains = lotLedgerService.realizedGains(holdings);
+        return portfolios.stream()
+                .map(p -> toResponse(p, openLots, realizedGains))
+                .toList();
+    }
+
+    private PortfolioResponse toResponse(Portfolio portfolio, Map<Long, List<LotCalculationService.Lot>> openLots,
+                                         Map<Long, BigDecimal> realizedGains) {
         return PortfolioResponse.builder()
                 .id(portfolio.getId())
                 .name(portfolio.getName())
                 .description(portfolio.getDescription())
                 .holdings(portfolio.getHoldings().stream()
-                        .map(this::toHoldingResponse)
+                        .map(h -> toHoldingResponse(h, openLots.get(h.getId()), realizedGains.get(h.getId())))
                         .toList())
                 .targetAllocations(portfolio.getTargetAllocations().stream()
                         .map(a -> AllocationResponse.builder()
@@ -118,16 +224,16 @@ public class PortfolioService {
                 .driftThreshold(portfolio.getDriftThreshold())
                 .cashBalance(portfolio.getCashBalance())
                 .baseCurrency(portfolio.getBaseCurrency())
+                .costBasisMethod(portfolio.getCostBasisMethod())
                 .createdAt(portfolio.getCreatedAt())
                 .updatedAt(portfolio.getUpdatedAt())
                 .build();
     }
 
-    private HoldingResponse toHoldingResponse(Holding h) {
+    private HoldingResponse toHoldingResponse(Holding h, List<LotCalculationService.Lot> openLots,
+                                              BigDecimal realizedPnL) {
         List<Trade> trades = h.getTrades() != null ? h.getTrades() : Collections.emptyList();
 
-        List<LotCalculationService.Lot> openLots = lotCalculationService.computeOpenLots(trades);
-
         BigDecimal quantity = BigDecimal.ZERO;
         BigDecimal totalCost = BigDecimal.ZERO;
         for (LotCalculationService.Lot lot : openLots) {
@@ -135,11 +241,6 @@ public class PortfolioService {
             totalCost = totalCost.add(lot.getRemainingQuantity().multiply(lot.getCostBasisPerShare()));
         }
 
-        BigDecimal realizedPnL = BigDecimal.ZERO;
-        for (LotCalculationService.LotDisposition d : lotCalculationService.computeRealizedDispositions(trades)) {
-            realizedPnL = realizedPnL.add(d.getRealizedGain());
-        }
-
         BigDecimal averageCostBasis = BigDecimal.ZERO;
         if (quantity.compareTo(BigDecimal.ZERO) > 0) {
             averageCostBasis = totalCost.divide(quantity, 4, RoundingMode.HALF_UP);
@@ -153,6 +254,7 @@ public class PortfolioService {
                         .quantity(t.getQuantity())
                         .price(t.getPrice())
                         .fee(t.getFee())
+                        .lotTradeId(t.getLotTradeId())
                         .createdAt(t.getCreatedAt())
                         .build())
                 .toList();
@@ -181,4 +283,25 @@ public class PortfolioService {
                 .lots(lotResponses)
                 .build();
     }
+
+    private static HoldingSummaryResponse toHoldingSummaryResponse(HoldingSummary h,
+                                                                   LotLedgerService.LotTotals totals) {
+        BigDecimal averageCostBasis = BigDecimal.ZERO;
+        if (h.getQuantity().compareTo(BigDecimal.ZERO) > 0) {
+            averageCostBasis = totals.openCost().divide(h.getQuantity(), 4, RoundingMode.HALF_UP);
+        }
+        return HoldingSummaryResponse.builder()
+                .id(h.getHoldingId())
+                .tickerSymbol(h.getTickerSymbol())
+                .name(h.getName())
+                .assetClass(h.getAssetClass())
+                .currency(h.getCurrency())
+                .quantity(h.getQuantity())
+                .averageCostBasis(averageCostBasis)
+                .totalCost(totals.openCost())
+                .realizedPnL(totals.realizedGain())
+                .tradeCount(h.getTradeCount())
+                .lastTradeDate(h.getLastTradeDate())
+                .build();
+    }
 }
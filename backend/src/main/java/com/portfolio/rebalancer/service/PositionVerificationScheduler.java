@@ -0,0 +1,51 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.exception.ResourceNotFoundException;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Operational check of the running positions kept on holdings. Each holding is replayed from its
+ * trades in its own transaction and rebuilt when the stored position disagrees; mismatches are
+ * logged. Disabled unless {@code app.positions.verify-cron} is set.
+ */
+@Service
+public class PositionVerificationScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionVerificationScheduler.class);
+
+    private final HoldingRepository holdingRepository;
+    private final LotLedgerService lotLedgerService;
+
+    public PositionVerificationScheduler(HoldingRepository holdingRepository, LotLedgerService lotLedgerService) {
+        this.holdingRepository = holdingRepository;
+        this.lotLedgerService = lotLedgerService;
+    }
+
+    @Scheduled(cron = "${app.positions.verify-cron}")
+    public void verifyPositions() {
+        int checked = 0;
+        int rebuilt = 0;
+        for (Long holdingId : holdingRepository.findAllIds()) {
+            try {
+                if (!lotLedgerService.verifyPosition(holdingId)) {
+                    log.warn("Rebuilt running position of holding {}", holdingId);
+                    rebuilt++;
+                }
+                checked++;
+            } catch (OptimisticLockingFailureException e) {
+                // A trade write got there first and left the position current
+                log.debug("Skipped holding {} updated during verification", holdingId);
+            } catch (ResourceNotFoundException e) {
+                log.debug("Skipped holding {} deleted during verification", holdingId);
+            } catch (Exception e) {
+                log.error("Failed to verify holding {}: {}", holdingId, e.getMessage());
+            }
+        }
+        log.info("Verified {} holding positions, {} rebuilt", checked, rebuilt);
+    }
+}
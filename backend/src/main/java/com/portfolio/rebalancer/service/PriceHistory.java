@@ -0,0 +1,132 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.HistoricalDataPoint;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Closes of several assets aligned onto one forward-filled timeline and stored bar-major in a
+ * single primitive array, so each bar is a contiguous scan. Immutable.
+ */
+public final class PriceHistory {
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final double SECONDS_PER_YEAR = 365.25 * SECONDS_PER_DAY;
+
+    private final long[] timestamps;
+    private final int assets;
+    private final double[] price;
+
+    private PriceHistory(long[] timestamps, int assets, double[] price) {
+        this.timestamps = timestamps;
+        this.assets = assets;
+        this.price = price;
+    }
+
+    /**
+     * Align the histories onto the union of their timestamps, starting at the first bar where
+     * every asset has a price. Daily and weekly bars are keyed by UTC date, since exchanges stamp
+     * the same session at different times.
+     *
+     * @param histories bars per asset, timestamps in epoch seconds
+     * @return null when fewer than two bars are covered by every asset
+     */
+    public static PriceHistory align(List<List<HistoricalDataPoint>> histories) {
+        int assets = histories.size();
+        if (assets == 0) return null;
+        long[][] assetTimes = new long[assets][];
+        double[][] assetCloses = new double[assets][];
+        int pointCount = 0;
+        for (int a = 0; a < assets; a++) {
+            List<HistoricalDataPoint> points = histories.get(a).stream()
+                    .filter(p -> p.getClose() != null && p.getClose().signum() > 0)
+                    .sorted(Comparator.comparingLong(HistoricalDataPoint::getTimestamp))
+                    .toList();
+            if (points.isEmpty()) return null;
+            assetTimes[a] = new long[points.size()];
+            assetCloses[a] = new double[points.size()];
+            for (int k = 0; k < points.size(); k++) {
+                assetTimes[a][k] = points.get(k).getTimestamp();
+                assetCloses[a][k] = points.get(k).getClose().doubleValue();
+            }
+            pointCount += points.size();
+        }
+        if (medianSpacing(assetTimes[0]) >= SECONDS_PER_DAY / 2) {
+            for (long[] times : assetTimes) {
+                for (int k = 0; k < times.length; k++) {
+                    times[k] -= Math.floorMod(times[k], SECONDS_PER_DAY);
+                }
+            }
+        }
+        long start = Long.MIN_VALUE;
+        for (long[] times : assetTimes) {
+            start = Math.max(start, times[0]);
+        }
+
+        long[] all = new long[pointCount];
+        int n = 0;
+        for (long[] times : assetTimes) {
+            for (long time : times) {
+                if (time >= start) all[n++] = time;
+            }
+        }
+        Arrays.sort(all, 0, n);
+        int bars = 0;
+        for (int k = 0; k < n; k++) {
+            if (bars == 0 || all[k] != all[bars - 1]) all[bars++] = all[k];
+        }
+        if (bars < 2) return null;
+        long[] timestamps = Arrays.copyOf(all, bars);
+
+        double[] price = new double[bars * assets];
+        for (int a = 0; a < assets; a++) {
+            long[] times = assetTimes[a];
+            int k = 0;
+            for (int t = 0; t < bars; t++) {
+                while (k + 1 < times.length && times[k + 1] <= timestamps[t]) k++;
+                price[t * assets + a] = assetCloses[a][k];
+            }
+        }
+        return new PriceHistory(timestamps, assets, price);
+    }
+
+    public int bars() { return timestamps.length; }
+
+    public int assets() { return assets; }
+
+    public long startTimestamp() { return timestamps[0]; }
+
+    public long endTimestamp() { return timestamps[timestamps.length - 1]; }
+
+    /** Bars per year, from the average spacing, so market holidays and weekends are accounted for. */
+    public double periodsPerYear() {
+        return (timestamps.length - 1) * SECONDS_PER_YEAR / Math.max(1, endTimestamp() - startTimestamp());
+    }
+
+    /** Close of {@code asset} at {@code bar}, read from {@code prices()[bar * assets() + asset]}. */
+    public double price(int bar, int asset) { return price[bar * assets + asset]; }
+
+    /** The bar-major price array itself; callers must not modify it. */
+    double[] prices() { return price; }
+
+    /** Gross return {@code price[t] / price[t - 1]} per bar from the second on, bar-major. */
+    public double[] grossReturns() {
+        double[] returns = new double[(timestamps.length - 1) * assets];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = price[i + assets] / price[i];
+        }
+        return returns;
+    }
+
+    private static long medianSpacing(long[] times) {
+        if (times.length < 2) return 0;
+        long[] spacing = new long[times.length - 1];
+        for (int k = 1; k < times.length; k++) {
+            spacing[k - 1] = times[k] - times[k - 1];
+        }
+        Arrays.sort(spacing);
+        return spacing[spacing.length / 2];
+    }
+}
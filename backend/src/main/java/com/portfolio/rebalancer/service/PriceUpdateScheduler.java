@@ -29,13 +29,18 @@ public class PriceUpdateScheduler {
         this.holdingRepository = holdingRepository;
     }
 
+    /**
+     * Refresh every held ticker and push the quotes to subscribers. The drift monitor and the
+     * rebalance cache pick the new prices up from the {@link QuotesRefreshedEvent} of the refresh.
+     */
+
     @Scheduled(fixedRate = 15000)
     public void pushPriceUpdates() {
         List<String> allTickers = holdingRepository.findDistinctTickerSymbols();
         if (allTickers.isEmpty()) return;
 
         try {
-            List<QuoteResponse> quotes = marketDataClient.fetchQuotes(allTickers);
+            List<QuoteResponse> quotes = marketDataClient.refreshQuotes(allTickers);
             StockPriceMessage message = new StockPriceMessage(quotes, LocalDateTime.now());
             messagingTemplate.convertAndSend("/topic/prices", message);
             log.debug("Pushed price updates for {} tickers", allTickers.size());
@@ -0,0 +1,44 @@
+package com.portfolio.rebalancer.service;
+
+/**
+ * Original algorithm: spread each class delta across the class's holdings in proportion to their
+ * value and truncate to whole shares. Leftover cash and drift are not redistributed.
+ */
+public class ProportionalTradeGenerator implements TradeGenerator {
+
+    @Override
+    public void generate(ValuationKernel kernel, ValuationKernel.Result result) {
+        int size = kernel.size();
+        for (int c = 0; c < ValuationKernel.CLASS_COUNT; c++) {
+            if (!result.isHeld(c)) continue;
+            long delta = result.classDelta(c);
+            if (Math.abs(delta) < ValuationKernel.ONE_VALUE) continue; // Skip tiny adjustments
+
+            long classTotal = 0;
+            int classCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (kernel.assetClass(i) == c) {
+                    classTotal = Math.addExact(classTotal, kernel.tradeValue(i));
+                    classCount++;
+                }
+            }
+
+            long absDelta = Math.abs(delta);
+            boolean sell = delta < 0;
+            for (int i = 0; i < size; i++) {
+                if (kernel.assetClass(i) != c) continue;
+                long p = kernel.tradePrice(i);
+                if (p == 0) continue;
+
+                long proportion = classTotal > 0
+                        ? FixedPoint.multiplyDivideHalfUp(kernel.tradeValue(i), ValuationKernel.ONE_PROPORTION, classTotal)
+                        : FixedPoint.divideHalfUp(ValuationKernel.ONE_PROPORTION, classCount);
+                int shares = (int) (FixedPoint.multiplyDivideDown(absDelta, Math.abs(proportion),
+                        ValuationKernel.SHARE_DIVISOR) / p);
+                if (shares == 0) continue;
+
+                result.addTrade(i, shares, sell, delta, proportion);
+            }
+        }
+    }
+}
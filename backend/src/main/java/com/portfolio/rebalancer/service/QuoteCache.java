@@ -0,0 +1,136 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.CacheStatsResponse;
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of gateway quotes keyed by symbol. A quote younger than the fresh TTL is served
+ * as is; one younger than the stale TTL is served too, but flagged so the caller can refresh it in
+ * the background. Older quotes count as misses.
+ */
+@Service
+public class QuoteCache {
+
+    /**
+     * @param stale whether the quote is past its fresh TTL and should be refreshed
+     */
+    public record Cached(QuoteResponse quote, boolean stale) {
+    }
+
+    private record Entry(QuoteResponse quote, long fetchedAt) {
+    }
+
+    private final int maxEntries;
+    private final long freshNanos;
+    private final long staleNanos;
+    private final Map<String, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public QuoteCache(@Value("${app.quotes.cache-size}") int maxEntries,
+                      @Value("${app.quotes.fresh-ttl-ms}") long freshTtlMs,
+                      @Value("${app.quotes.stale-ttl-ms}") long staleTtlMs) {
+        this(maxEntries, freshTtlMs, staleTtlMs, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic clock in nanoseconds that quote ages are measured on
+     */
+    QuoteCache(int maxEntries, long freshTtlMs, long staleTtlMs, LongSupplier nanoClock) {
+        if (staleTtlMs < freshTtlMs) {
+            throw new IllegalArgumentException("app.quotes.stale-ttl-ms must not be below app.quotes.fresh-ttl-ms");
+        }
+        this.maxEntries = maxEntries;
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshTtlMs);
+        this.staleNanos = TimeUnit.MILLISECONDS.toNanos(staleTtlMs);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.nanoClock = nanoClock;
+    }
+
+    /** Cached quote of the symbol, or null when there is none younger than the stale TTL. */
+    public Cached get(String symbol) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key(symbol));
+        }
+        long age = entry != null ? nanoClock.getAsLong() - entry.fetchedAt() : Long.MAX_VALUE;
+        if (age >= staleNanos) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new Cached(entry.quote(), age >= freshNanos);
+    }
+
+    /**
+     * Most recent quote of the symbol whatever its age, or null; for serving when the gateway fails.
+     * Not counted as a hit or a miss.
+     */
+    public QuoteResponse lastKnown(String symbol) {
+        synchronized (entries) {
+            Entry entry = entries.get(key(symbol));
+            return entry != null ? entry.quote() : null;
+        }
+    }
+
+    /**
+     * Store the quote, unless it has no positive price or is itself a last known good quote.
+     */
+    public void put(QuoteResponse quote) {
+        if (quote.getSymbol() == null || !hasPrice(quote) || quote.isStale()) {
+            return;
+        }
+        Entry entry = new Entry(quote, nanoClock.getAsLong());
+        synchronized (entries) {
+            entries.put(key(quote.getSymbol()), entry);
+            if (entries.size() > maxEntries) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public CacheStatsResponse getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return CacheStatsResponse.builder()
+                .hits(h)
+                .misses(m)
+                .evictions(evictions.get())
+                .size(size)
+                .hitRate(h + m > 0 ? (double) h / (h + m) : 0)
+                .build();
+    }
+
+    /**
+     * Whether the quote has a positive price; the gateway answers a failed upstream lookup with a
+     * zero price.
+     */
+    static boolean hasPrice(QuoteResponse quote) {
+        return quote.getRegularMarketPrice() != null && quote.getRegularMarketPrice().signum() > 0;
+    }
+
+    static String key(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
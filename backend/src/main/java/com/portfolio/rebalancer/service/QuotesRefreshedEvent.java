@@ -0,0 +1,18 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+
+import java.util.List;
+
+/**
+ * Published when quotes with a price have been fetched from the gateway and cached.
+ */
+public class QuotesRefreshedEvent {
+    private final List<QuoteResponse> quotes;
+
+    public QuotesRefreshedEvent(List<QuoteResponse> quotes) {
+        this.quotes = quotes;
+    }
+
+    public List<QuoteResponse> getQuotes() { return quotes; }
+}
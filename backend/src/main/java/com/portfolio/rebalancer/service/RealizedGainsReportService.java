@@ -0,0 +1,126 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.RealizedGainResponse;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.entity.Portfolio;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.RealizedDisposition;
+import com.portfolio.rebalancer.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Realized gains of all portfolios of the current user for one tax year. Holdings are read in
+ * keyset pages as the returned stream is consumed, so only one page of holdings and their
+ * dispositions is in memory at a time, however large the account. Loss sales are checked for
+ * wash sales against a {@link WashSaleIndex} of the year's purchases, loaded up front.
+ */
+@Service
+public class RealizedGainsReportService {
+
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 9999;
+
+    private final HoldingRepository holdingRepository;
+    private final TradeRepository tradeRepository;
+    private final LotLedgerService lotLedgerService;
+    private final PortfolioService portfolioService;
+    private final int pageSize;
+
+    public RealizedGainsReportService(HoldingRepository holdingRepository, TradeRepository tradeRepository,
+                                      LotLedgerService lotLedgerService, PortfolioService portfolioService,
+                                      @Value("${app.reports.page-size}") int pageSize) {
+        this.holdingRepository = holdingRepository;
+        this.tradeRepository = tradeRepository;
+        this.lotLedgerService = lotLedgerService;
+        this.portfolioService = portfolioService;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * One row per lot disposition sold in {@code year}, ordered by holding and sale. The current
+     * user is resolved here; everything else is read lazily and may run on another thread.
+     */
+    public Stream<RealizedGainResponse> realizedGains(int year) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("year must be between " + MIN_YEAR + " and " + MAX_YEAR);
+        }
+        List<Long> portfolioIds = portfolioService.findPortfoliosForCurrentUser().stream()
+                .map(Portfolio::getId)
+                .toList();
+        if (portfolioIds.isEmpty()) {
+            return Stream.empty();
+        }
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = LocalDate.of(year, 12, 31);
+        WashSaleIndex washSales = WashSaleIndex.of(tradeRepository.findPurchasesByPortfolioIdInAndDateBetween(
+                portfolioIds, from.minusDays(WashSaleIndex.WINDOW_DAYS), to.plusDays(WashSaleIndex.WINDOW_DAYS)));
+        return Stream.iterate(page(portfolioIds, 0L),
+                        page -> !page.isEmpty(),
+                        page -> page.size() < pageSize ? List.of()
+                                : page(portfolioIds, page.get(page.size() - 1).getId()))
+                .flatMap(page -> rows(page, from, to, washSales).stream());
+    }
+
+    private List<Holding> page(List<Long> portfolioIds, Long afterId) {
+        return holdingRepository.findPageByPortfolioIdIn(portfolioIds, afterId, PageRequest.of(0, pageSize));
+    }
+
+    private List<RealizedGainResponse> rows(List<Holding> holdings, LocalDate from, LocalDate to,
+                                            WashSaleIndex washSales) {
+        Map<Long, List<RealizedDisposition>> dispositions = lotLedgerService.realizedDispositions(holdings, from, to);
+        List<RealizedGainResponse> rows = new ArrayList<>();
+        for (Holding holding : holdings) {
+            List<RealizedDisposition> sold = dispositions.get(holding.getId());
+            Map<Long, Set<Long>> soldLots = soldLotsBySale(sold);
+            for (RealizedDisposition d : sold) {
+                rows.add(toResponse(holding, d, washSales, soldLots.get(d.getSellTradeId())));
+            }
+        }
+        return rows;
+    }
+
+    /** BUY trades of the lots each sale consumed; a lot whose buy trade is gone has none. */
+    private static Map<Long, Set<Long>> soldLotsBySale(List<RealizedDisposition> dispositions) {
+        Map<Long, Set<Long>> soldLots = new HashMap<>();
+        for (RealizedDisposition d : dispositions) {
+            Set<Long> lots = soldLots.computeIfAbsent(d.getSellTradeId(), id -> new HashSet<>());
+            if (d.getBuyTradeId() != null) {
+                lots.add(d.getBuyTradeId());
+            }
+        }
+        return soldLots;
+    }
+
+    private static RealizedGainResponse toResponse(Holding holding, RealizedDisposition d,
+                                                   WashSaleIndex washSales, Set<Long> soldLots) {
+        return RealizedGainResponse.builder()
+                .portfolioId(holding.getPortfolio().getId())
+                .portfolioName(holding.getPortfolio().getName())
+                .holdingId(holding.getId())
+                .tickerSymbol(holding.getTickerSymbol())
+                .buyTradeId(d.getBuyTradeId())
+                .purchaseDate(d.getPurchaseDate())
+                .sellTradeId(d.getSellTradeId())
+                .sellDate(d.getSellDate())
+                .quantity(d.getQuantitySold())
+                .costBasisPerShare(d.getCostBasisPerShare())
+                .sellPricePerShare(d.getSellPricePerShare())
+                .realizedGain(d.getRealizedGain())
+                // Held for more than one year
+                .longTerm(d.getPurchaseDate() != null && d.getSellDate().isAfter(d.getPurchaseDate().plusYears(1)))
+                .washSale(washSales.isWashSale(holding.getTickerSymbol(), d.getSellDate(), soldLots,
+                        d.getRealizedGain()))
+                .build();
+    }
+}
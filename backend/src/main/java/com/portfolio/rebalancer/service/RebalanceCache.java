@@ -0,0 +1,124 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.CacheStatsResponse;
+import com.portfolio.rebalancer.dto.response.RebalanceResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of full rebalance results. Entries are keyed by portfolio, the portfolio's
+ * version stamp, the price epoch and the trade strategy. A committed portfolio, holding, trade or
+ * allocation write drops that portfolio's version and evicts its entries; a quote batch that moves
+ * the price of a held ticker advances the epoch and clears the cache.
+ * <p>
+ * Versions are drawn from one counter and never reused, so a portfolio's version can be dropped
+ * together with its last entry: its next key gets a new version, which no result computed before
+ * can carry.
+ */
+@Service
+public class RebalanceCache {
+
+    public record Key(Long portfolioId, long version, long priceEpoch, TradeStrategy strategy) {
+    }
+
+    private final int maxEntries;
+    private final Map<Key, RebalanceResponse> entries;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final AtomicLong priceEpoch = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RebalanceCache(@Value("${app.rebalance.cache-size}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /** Key for the portfolio's current version and the current price epoch. */
+    public Key keyFor(Long portfolioId, TradeStrategy strategy) {
+        long version = versions.computeIfAbsent(portfolioId, id -> versionCounter.incrementAndGet());
+        return new Key(portfolioId, version, priceEpoch.get(), strategy);
+    }
+
+    public RebalanceResponse get(Key key) {
+        RebalanceResponse response;
+        synchronized (entries) {
+            response = entries.get(key);
+        }
+        if (response != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return response;
+    }
+
+    /**
+     * Store the result, unless its key is out of date: a result computed against a version or
+     * epoch that has since moved on could never be looked up again.
+     */
+    public void put(Key key, RebalanceResponse response) {
+        synchronized (entries) {
+            if (key.version() != versions.getOrDefault(key.portfolioId(), 0L)
+                    || key.priceEpoch() != priceEpoch.get()) {
+                return;
+            }
+            entries.put(key, response);
+            if (entries.size() > maxEntries) {
+                Iterator<Key> eldest = entries.keySet().iterator();
+                Long evicted = eldest.next().portfolioId();
+                eldest.remove();
+                evictions.incrementAndGet();
+                if (entries.keySet().stream().noneMatch(k -> k.portfolioId().equals(evicted))) {
+                    versions.remove(evicted);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        Long portfolioId = event.getPortfolioId();
+        synchronized (entries) {
+            versions.remove(portfolioId);
+            int before = entries.size();
+            entries.keySet().removeIf(key -> key.portfolioId().equals(portfolioId));
+            evictions.addAndGet(before - entries.size());
+        }
+    }
+
+    /** Called when a quote batch moved the price of a held ticker. */
+    public void advancePriceEpoch() {
+        synchronized (entries) {
+            priceEpoch.incrementAndGet();
+            versions.clear();
+            evictions.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public CacheStatsResponse getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return CacheStatsResponse.builder()
+                .hits(h)
+                .misses(m)
+                .evictions(evictions.get())
+                .size(size)
+                .hitRate(h + m > 0 ? (double) h / (h + m) : 0)
+                .build();
+    }
+}
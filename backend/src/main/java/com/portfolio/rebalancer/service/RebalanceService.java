@@ -1,5 +1,7 @@
 package com.portfolio.rebalancer.service;
 
+import com.portfolio.rebalancer.dto.request.PriceShockRequest;
+import com.portfolio.rebalancer.dto.response.PriceShockResponse;
 import com.portfolio.rebalancer.dto.response.QuoteResponse;
 import com.portfolio.rebalancer.dto.response.RebalanceResponse;
 import com.portfolio.rebalancer.dto.response.RebalanceResponse.AllocationComparison;
@@ -9,40 +11,72 @@ import com.portfolio.rebalancer.entity.AssetClass;
 import com.portfolio.rebalancer.entity.Holding;
 import com.portfolio.rebalancer.entity.Portfolio;
 import com.portfolio.rebalancer.entity.TargetAllocation;
-import com.portfolio.rebalancer.entity.Trade;
-import com.portfolio.rebalancer.entity.TradeType;
 import com.portfolio.rebalancer.exception.InvalidAllocationException;
 import com.portfolio.rebalancer.repository.HoldingRepository;
 import com.portfolio.rebalancer.repository.TargetAllocationRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class RebalanceService {
 
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final AssetClass[] ASSET_CLASSES = AssetClass.values();
+
     private final HoldingRepository holdingRepository;
     private final TargetAllocationRepository allocationRepository;
     private final MarketDataClient marketDataClient;
     private final PortfolioService portfolioService;
     private final LotCalculationService lotCalculationService;
+    private final LotLedgerService lotLedgerService;
+    private final ForkJoinPool rebalancePool;
+    private final RebalanceCache rebalanceCache;
+    private final long strategyBudgetNanos;
 
     public RebalanceService(HoldingRepository holdingRepository, TargetAllocationRepository allocationRepository,
                             MarketDataClient marketDataClient, PortfolioService portfolioService,
-                            LotCalculationService lotCalculationService) {
+                            LotCalculationService lotCalculationService, LotLedgerService lotLedgerService,
+                            ForkJoinPool rebalancePool,
+                            RebalanceCache rebalanceCache,
+                            @Value("${app.rebalance.strategy-time-budget-ms}") long strategyBudgetMillis) {
         this.holdingRepository = holdingRepository;
         this.allocationRepository = allocationRepository;
         this.marketDataClient = marketDataClient;
         this.portfolioService = portfolioService;
         this.lotCalculationService = lotCalculationService;
+        this.lotLedgerService = lotLedgerService;
+        this.rebalancePool = rebalancePool;
+        this.rebalanceCache = rebalanceCache;
+        this.strategyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(strategyBudgetMillis);
     }
 
     public RebalanceResponse calculateRebalance(Long portfolioId) {
+        return calculateRebalance(portfolioId, TradeStrategy.PROPORTIONAL);
+    }
+
+    public RebalanceResponse calculateRebalance(Long portfolioId, TradeStrategy strategy) {
         Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
+        // Take the key before loading so a concurrent write can only leave an unreachable entry
+        RebalanceCache.Key key = rebalanceCache.keyFor(portfolioId, strategy);
+        RebalanceResponse cached = rebalanceCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<Map<String, QuoteResponse>> prices = fetchPriceMapAsync(List.of(portfolioId));
         List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
         List<TargetAllocation> targets = allocationRepository.findByPortfolioId(portfolioId);
 
@@ -52,11 +86,407 @@ public class RebalanceService {
         if (targets.isEmpty()) {
             throw new InvalidAllocationException("No target allocations defined");
         }
+        Map<String, QuoteResponse> priceMap = prices.join();
+
+        RebalanceResponse response = rebalance(portfolio, holdings, targets, priceMap, strategy, new HashMap<>());
+        // A result priced from stale quotes is recomputed once the quotes are refreshed
+        if (!response.isStalePrices()) {
+            rebalanceCache.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Rebalance every portfolio of the current user. Cached results are reused; for the rest,
+     * holdings, trades and targets are loaded in bulk while quotes are fetched once for the union of
+     * tickers, and portfolios are evaluated in parallel on the rebalance pool. Portfolios that
+     * cannot be rebalanced (no holdings, no targets or zero value) are left out of the result.
+     */
+    public List<RebalanceResponse> calculateRebalanceForAllPortfolios() {
+        List<Portfolio> portfolios = portfolioService.findPortfoliosForCurrentUser();
+        if (portfolios.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, RebalanceResponse> cached = new HashMap<>();
+        Map<Long, RebalanceCache.Key> keys = new HashMap<>();
+        List<Long> staleIds = new ArrayList<>();
+        for (Portfolio portfolio : portfolios) {
+            RebalanceCache.Key key = rebalanceCache.keyFor(portfolio.getId(), TradeStrategy.PROPORTIONAL);
+            RebalanceResponse response = rebalanceCache.get(key);
+            if (response != null) {
+                cached.put(portfolio.getId(), response);
+            } else {
+                keys.put(portfolio.getId(), key);
+                staleIds.add(portfolio.getId());
+            }
+        }
+
+        Map<Long, ForkJoinTask<RebalanceResponse>> tasks = new HashMap<>();
+        if (!staleIds.isEmpty()) {
+            CompletableFuture<Map<String, QuoteResponse>> prices = fetchPriceMapAsync(staleIds);
+            // Trades are only fetched for holdings that have no running position yet
+            Map<Long, List<Holding>> holdingsByPortfolio = Stream.concat(
+                            holdingRepository.findByPortfolioIdInAndQuantityIsNotNull(staleIds).stream(),
+                            holdingRepository.findWithTradesByPortfolioIdInAndQuantityIsNull(staleIds).stream())
+                    .collect(Collectors.groupingBy(h -> h.getPortfolio().getId()));
+            Map<Long, List<TargetAllocation>> targetsByPortfolio = allocationRepository.findByPortfolioIdIn(staleIds)
+                    .stream()
+                    .collect(Collectors.groupingBy(t -> t.getPortfolio().getId()));
+
+            Map<Long, List<LotCalculationService.Lot>> openLots = new ConcurrentHashMap<>(
+                    lotLedgerService.openLots(holdingsByPortfolio.values().stream().flatMap(List::stream).toList()));
+            Map<String, QuoteResponse> priceMap = prices.join();
+
+            // Everything the tasks touch is loaded up front, so they never hit the persistence context
+            for (Portfolio portfolio : portfolios) {
+                if (!keys.containsKey(portfolio.getId())) continue;
+                List<Holding> holdings = holdingsByPortfolio.getOrDefault(portfolio.getId(), Collections.emptyList());
+                List<TargetAllocation> targets = targetsByPortfolio.getOrDefault(portfolio.getId(), Collections.emptyList());
+                if (holdings.isEmpty() || targets.isEmpty()) continue;
+
+                tasks.put(portfolio.getId(), rebalancePool.submit(() -> {
+                    try {
+                        return rebalance(portfolio, holdings, targets, priceMap, TradeStrategy.PROPORTIONAL, openLots);
+                    } catch (InvalidAllocationException e) {
+                        return null;
+                    }
+                }));
+            }
+        }
+
+        List<RebalanceResponse> responses = new ArrayList<>(portfolios.size());
+        for (Portfolio portfolio : portfolios) {
+            RebalanceResponse response = cached.get(portfolio.getId());
+            ForkJoinTask<RebalanceResponse> task = tasks.get(portfolio.getId());
+            if (response == null && task != null) {
+                response = task.join();
+                if (response != null && !response.isStalePrices()) {
+                    rebalanceCache.put(keys.get(portfolio.getId()), response);
+                }
+            }
+            if (response != null) {
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+
+    private RebalanceResponse rebalance(Portfolio portfolio, List<Holding> holdings,
+                                        List<TargetAllocation> targets, Map<String, QuoteResponse> priceMap,
+                                        TradeStrategy strategy,
+                                        Map<Long, List<LotCalculationService.Lot>> openLots) {
+        ValuationKernel kernel = ValuationKernel.of(holdings, priceMap, targets, portfolio.getCashBalance());
+        if (kernel != null) {
+            try {
+                ValuationKernel.Result result = kernel.rebalance(tradeGenerator(strategy, holdings, openLots));
+                if (result.totalValue() == 0) {
+                    throw new InvalidAllocationException("Portfolio total value is zero. Check prices.");
+                }
+                return markStalePrices(
+                        toRebalanceResponse(portfolio.getId(), holdings, priceMap, targets, kernel, result, openLots),
+                        holdings, priceMap);
+            } catch (ArithmeticException e) {
+                // Outside the fixed-point range: use the BigDecimal implementation
+            }
+        }
+        // The BigDecimal implementation only generates proportional trades
+        if (strategy != TradeStrategy.PROPORTIONAL) {
+            throw new InvalidAllocationException("Portfolio values are outside the range supported by the "
+                    + strategy.name().toLowerCase().replace('_', '-') + " strategy; use proportional");
+        }
+        return markStalePrices(rebalanceWithBigDecimal(portfolio.getId(), portfolio, holdings, targets, priceMap, openLots),
+                holdings, priceMap);
+    }
+
+    public RebalanceResponse calculateCashRebalance(Long portfolioId, BigDecimal newCash) {
+        Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
+        CompletableFuture<Map<String, QuoteResponse>> prices = fetchPriceMapAsync(List.of(portfolioId));
+        List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
+        List<TargetAllocation> targets = allocationRepository.findByPortfolioId(portfolioId);
+
+        if (targets.isEmpty()) {
+            throw new InvalidAllocationException("No target allocations defined");
+        }
+        Map<String, QuoteResponse> priceMap = prices.join();
+
+        ValuationKernel kernel = ValuationKernel.of(holdings, priceMap, targets, portfolio.getCashBalance());
+        if (kernel != null) {
+            try {
+                ValuationKernel.Result result = kernel.cashRebalance(
+                        FixedPoint.toScaled(newCash, ValuationKernel.VALUE_SCALE), newCash.scale());
+                return markStalePrices(toCashRebalanceResponse(portfolioId, holdings, priceMap, targets, result),
+                        holdings, priceMap);
+            } catch (ArithmeticException e) {
+                // Outside the fixed-point range: use the BigDecimal implementation
+            }
+        }
+        return markStalePrices(cashRebalanceWithBigDecimal(portfolioId, portfolio, holdings, targets, priceMap, newCash),
+                holdings, priceMap);
+    }
+
+    /**
+     * Evaluate price-shock scenarios against one portfolio. Holdings, targets and quotes are loaded
+     * once; each scenario only swaps the kernel's price array and is evaluated in parallel on the
+     * rebalance pool. Trades carry no lot breakdown.
+     */
+    public PriceShockResponse simulatePriceShocks(Long portfolioId, List<PriceShockRequest.Scenario> scenarios,
+                                                  TradeStrategy strategy) {
+        Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
+        CompletableFuture<Map<String, QuoteResponse>> prices = fetchPriceMapAsync(List.of(portfolioId));
+        List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
+        List<TargetAllocation> targets = allocationRepository.findByPortfolioId(portfolioId);
+
+        if (holdings.isEmpty()) {
+            throw new InvalidAllocationException("Portfolio has no holdings");
+        }
+        if (targets.isEmpty()) {
+            throw new InvalidAllocationException("No target allocations defined");
+        }
+        Map<String, QuoteResponse> priceMap = prices.join();
+
+        ValuationKernel kernel = ValuationKernel.of(holdings, priceMap, targets, portfolio.getCashBalance());
+        if (kernel == null) {
+            throw new InvalidAllocationException("Portfolio values are outside the range supported by simulation");
+        }
+
+        // Parse every scenario up front so bad input fails before any work is scheduled
+        long[][] factors = new long[scenarios.size()][];
+        for (int s = 0; s < factors.length; s++) {
+            factors[s] = priceFactors(holdings, scenarios.get(s));
+        }
+
+        Map<AssetClass, BigDecimal> targetMap = toTargetMap(targets);
+        Supplier<TradeGenerator> generators = tradeGenerators(strategy, holdings, new HashMap<>());
+        List<PriceShockResponse.ScenarioResult> results = rebalancePool.submit(() -> IntStream.range(0, factors.length)
+                .parallel()
+                .mapToObj(s -> simulate(scenarios.get(s).getName(), holdings, targetMap,
+                        kernel.withPriceFactors(factors[s]), generators.get()))
+                .toList())
+                .join();
+
+        return PriceShockResponse.builder()
+                .portfolioId(portfolioId)
+                .totalPortfolioValue(FixedPoint.toBigDecimal(kernel.rebalance().totalValue(),
+                        ValuationKernel.VALUE_SCALE).setScale(2, RoundingMode.HALF_UP))
+                .currency(currencyOf(holdings))
+                .scenarios(results)
+                .calculatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private PriceShockResponse.ScenarioResult simulate(String name, List<Holding> holdings,
+                                                       Map<AssetClass, BigDecimal> targetMap,
+                                                       ValuationKernel kernel, TradeGenerator generator) {
+        ValuationKernel.Result result;
+        try {
+            result = kernel.rebalance(generator);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Scenario " + name + " moves values outside the supported range");
+        }
+
+        long maxDrift = 0;
+        List<TradeRecommendation> trades = new ArrayList<>(result.tradeCount());
+        if (result.hasPercentBase()) {
+            for (int c = 0; c < ValuationKernel.CLASS_COUNT; c++) {
+                if (result.isHeld(c) || kernel.isTargeted(c)) {
+                    maxDrift = Math.max(maxDrift, Math.abs(result.currentPercent(c) - kernel.targetPercent(c)));
+                }
+            }
+            BigDecimal totalValue = FixedPoint.toBigDecimal(result.totalValue(), ValuationKernel.VALUE_SCALE);
+            for (int t = 0; t < result.tradeCount(); t++) {
+                int i = result.tradeHolding(t);
+                BigDecimal price = FixedPoint.toBigDecimal(kernel.tradePrice(i), ValuationKernel.PRICE_SCALE);
+                trades.add(tradeRecommendation(holdings.get(i), price, kernel, result, t, totalValue).build());
+            }
+        }
+
+        return PriceShockResponse.ScenarioResult.builder()
+                .name(name)
+                .totalPortfolioValue(FixedPoint.toBigDecimal(result.totalValue(), ValuationKernel.VALUE_SCALE)
+                        .setScale(2, RoundingMode.HALF_UP))
+                .maxDriftPercentage(FixedPoint.toBigDecimal(maxDrift, ValuationKernel.PERCENT_SCALE))
+                .allocations(toComparisons(result, targetMap))
+                .trades(trades)
+                .unallocatedCash(toCents(result.remainingCash()))
+                .build();
+    }
+
+    /** Per-holding price factors at {@link ValuationKernel#FACTOR_SCALE}; ticker shocks win over class shocks. */
+    private static long[] priceFactors(List<Holding> holdings, PriceShockRequest.Scenario scenario) {
+        Map<AssetClass, BigDecimal> classShocks = scenario.getAssetClassShocks() != null
+                ? scenario.getAssetClassShocks() : Collections.emptyMap();
+        Map<String, BigDecimal> tickerShocks = scenario.getTickerShocks() != null
+                ? scenario.getTickerShocks() : Collections.emptyMap();
+        long one = FixedPoint.pow10(ValuationKernel.FACTOR_SCALE);
+
+        long[] factors = new long[holdings.size()];
+        for (int i = 0; i < factors.length; i++) {
+            Holding h = holdings.get(i);
+            BigDecimal shock = tickerShocks.get(h.getTickerSymbol());
+            if (shock == null) {
+                shock = classShocks.getOrDefault(h.getAssetClass(), BigDecimal.ZERO);
+            }
+            if (shock.compareTo(HUNDRED.negate()) < 0) {
+                throw new IllegalArgumentException("Price shocks cannot be below -100%");
+            }
+            try {
+                factors[i] = Math.addExact(one, FixedPoint.toScaled(shock, ValuationKernel.FACTOR_SCALE - 2));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Price shocks support at most "
+                        + (ValuationKernel.FACTOR_SCALE - 2) + " decimal places: " + shock);
+            }
+        }
+        return factors;
+    }
+
+    private TradeGenerator tradeGenerator(TradeStrategy strategy, List<Holding> holdings,
+                                          Map<Long, List<LotCalculationService.Lot>> openLots) {
+        return tradeGenerators(strategy, holdings, openLots).get();
+    }
+
+    /**
+     * Generators are not shared across threads, so callers running several kernels take a fresh
+     * one per run; per-portfolio inputs such as lot profiles are built once.
+     */
+    private Supplier<TradeGenerator> tradeGenerators(TradeStrategy strategy, List<Holding> holdings,
+                                                     Map<Long, List<LotCalculationService.Lot>> openLots) {
+        return switch (strategy) {
+            case PROPORTIONAL -> ProportionalTradeGenerator::new;
+            case GREEDY -> GreedyTradeGenerator::new;
+            case BRANCH_AND_BOUND -> () -> new BranchAndBoundTradeGenerator(strategyBudgetNanos);
+            case TAX_AWARE -> {
+                List<Holding> missing = holdings.stream().filter(h -> !openLots.containsKey(h.getId())).toList();
+                if (!missing.isEmpty()) {
+                    openLots.putAll(lotLedgerService.openLots(missing));
+                }
+                TaxAwareTradeGenerator.LotProfile[] profiles = new TaxAwareTradeGenerator.LotProfile[holdings.size()];
+                for (int i = 0; i < profiles.length; i++) {
+                    Holding h = holdings.get(i);
+                    profiles[i] = TaxAwareTradeGenerator.LotProfile.of(openLotsOf(openLots, h),
+                            LotCalculationService.saleOrder(h.getPortfolio().getCostBasisMethod()));
+                }
+                yield () -> new TaxAwareTradeGenerator(profiles);
+            }
+        };
+    }
+
+    RebalanceResponse toRebalanceResponse(Long portfolioId, List<Holding> holdings,
+                                          Map<String, QuoteResponse> priceMap,
+                                          List<TargetAllocation> targets,
+                                          ValuationKernel kernel, ValuationKernel.Result result,
+                                          Map<Long, List<LotCalculationService.Lot>> openLots) {
+        BigDecimal totalValue = FixedPoint.toBigDecimal(result.totalValue(), ValuationKernel.VALUE_SCALE);
+
+        List<TradeRecommendation> trades = new ArrayList<>(result.tradeCount());
+        for (int t = 0; t < result.tradeCount(); t++) {
+            Holding h = holdings.get(result.tradeHolding(t));
+            BigDecimal price = priceOf(priceMap, h.getTickerSymbol(), BigDecimal.ONE);
+            trades.add(tradeRecommendation(h, price, kernel, result, t, totalValue)
+                    .lotDetails(result.tradeSell(t) ? lotDetails(h, price, result.tradeShares(t), openLots) : null)
+                    .build());
+        }
+
+        return RebalanceResponse.builder()
+                .portfolioId(portfolioId)
+                .totalPortfolioValue(totalValue.setScale(2, RoundingMode.HALF_UP))
+                .currency(currencyOf(holdings))
+                .allocations(toComparisons(result, toTargetMap(targets)))
+                .trades(trades)
+                .unallocatedCash(toCents(result.remainingCash()))
+                .calculatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static TradeRecommendation.TradeRecommendationBuilder tradeRecommendation(
+            Holding h, BigDecimal price, ValuationKernel kernel, ValuationKernel.Result result, int t,
+            BigDecimal totalValue) {
+        int i = result.tradeHolding(t);
+        int shares = result.tradeShares(t);
+        BigDecimal holdingVal = FixedPoint.toBigDecimal(kernel.tradeValue(i), ValuationKernel.VALUE_SCALE);
+        BigDecimal holdingDelta = FixedPoint.toBigDecimal(result.tradeDelta(t), ValuationKernel.VALUE_SCALE)
+                .multiply(FixedPoint.toBigDecimal(result.tradeProportion(t), 6));
+
+        return TradeRecommendation.builder()
+                .holdingId(h.getId())
+                .tickerSymbol(h.getTickerSymbol())
+                .name(h.getName())
+                .assetClass(h.getAssetClass())
+                .action(result.tradeSell(t) ? "SELL" : "BUY")
+                .shares(shares)
+                .currentPrice(price)
+                .estimatedCost(price.multiply(BigDecimal.valueOf(shares)))
+                .currentWeight(holdingVal.multiply(HUNDRED).divide(totalValue, 2, RoundingMode.HALF_UP))
+                .targetWeight(holdingVal.add(holdingDelta).multiply(HUNDRED)
+                        .divide(totalValue, 2, RoundingMode.HALF_UP));
+    }
+
+    RebalanceResponse toCashRebalanceResponse(Long portfolioId, List<Holding> holdings,
+                                              Map<String, QuoteResponse> priceMap,
+                                              List<TargetAllocation> targets,
+                                              ValuationKernel.Result result) {
+        List<TradeRecommendation> trades = new ArrayList<>(result.tradeCount());
+        for (int t = 0; t < result.tradeCount(); t++) {
+            Holding h = holdings.get(result.tradeHolding(t));
+            BigDecimal price = priceOf(priceMap, h.getTickerSymbol(), BigDecimal.ONE);
+            int shares = result.tradeShares(t);
+            trades.add(TradeRecommendation.builder()
+                    .holdingId(h.getId())
+                    .tickerSymbol(h.getTickerSymbol())
+                    .name(h.getName())
+                    .assetClass(h.getAssetClass())
+                    .action("BUY")
+                    .shares(shares)
+                    .currentPrice(price)
+                    .estimatedCost(price.multiply(BigDecimal.valueOf(shares)))
+                    .build());
+        }
+
+        return RebalanceResponse.builder()
+                .portfolioId(portfolioId)
+                .totalPortfolioValue(FixedPoint.toBigDecimal(result.totalValue(), ValuationKernel.VALUE_SCALE)
+                        .setScale(result.totalScale()))
+                .currency(currencyOf(holdings))
+                .allocations(toComparisons(result, toTargetMap(targets)))
+                .trades(trades)
+                .unallocatedCash(toCents(result.remainingCash()))
+                .calculatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private List<AllocationComparison> toComparisons(ValuationKernel.Result result,
+                                                     Map<AssetClass, BigDecimal> targetMap) {
+        List<AllocationComparison> comparisons = new ArrayList<>();
+        for (AssetClass ac : ASSET_CLASSES) {
+            int c = ac.ordinal();
+            if (!result.isHeld(c) && !targetMap.containsKey(ac)) continue;
+
+            // Class values carry the scale the equivalent BigDecimal sum would have
+            BigDecimal currentVal = result.isHeld(c)
+                    ? FixedPoint.toBigDecimal(result.classValue(c), ValuationKernel.VALUE_SCALE)
+                            .setScale(result.classScale(c))
+                    : BigDecimal.ZERO;
+            BigDecimal currentPct = result.hasPercentBase()
+                    ? FixedPoint.toBigDecimal(result.currentPercent(c), ValuationKernel.PERCENT_SCALE)
+                    : BigDecimal.ZERO;
+            BigDecimal targetPct = targetMap.getOrDefault(ac, BigDecimal.ZERO);
 
-        // Fetch current prices
-        List<String> tickers = holdings.stream().map(Holding::getTickerSymbol).toList();
-        Map<String, QuoteResponse> priceMap = fetchPriceMap(tickers);
+            comparisons.add(AllocationComparison.builder()
+                    .assetClass(ac)
+                    .currentPercentage(currentPct)
+                    .targetPercentage(targetPct)
+                    .driftPercentage(currentPct.subtract(targetPct))
+                    .currentValue(currentVal)
+                    .targetValue(FixedPoint.toBigDecimal(result.targetValue(c), ValuationKernel.PERCENT_SCALE))
+                    .build());
+        }
+        return comparisons;
+    }
 
+    RebalanceResponse rebalanceWithBigDecimal(Long portfolioId, Portfolio portfolio,
+                                              List<Holding> holdings, List<TargetAllocation> targets,
+                                              Map<String, QuoteResponse> priceMap,
+                                              Map<Long, List<LotCalculationService.Lot>> openLots) {
         // Calculate total portfolio value
         BigDecimal totalValue = BigDecimal.ZERO;
         Map<String, BigDecimal> holdingValues = new HashMap<>();
@@ -64,10 +494,7 @@ public class RebalanceService {
         for (Holding h : holdings) {
             BigDecimal qty = computeQuantity(h);
             holdingQuantities.put(h.getTickerSymbol(), qty);
-            BigDecimal price = priceMap.getOrDefault(h.getTickerSymbol(),
-                    QuoteResponse.builder().regularMarketPrice(BigDecimal.ZERO).build())
-                    .getRegularMarketPrice();
-            BigDecimal value = qty.multiply(price);
+            BigDecimal value = qty.multiply(priceOf(priceMap, h.getTickerSymbol(), BigDecimal.ZERO));
             holdingValues.put(h.getTickerSymbol(), value);
             totalValue = totalValue.add(value);
         }
@@ -79,13 +506,6 @@ public class RebalanceService {
             throw new InvalidAllocationException("Portfolio total value is zero. Check prices.");
         }
 
-        // Determine portfolio currency from first holding with a currency set
-        String currency = holdings.stream()
-                .map(Holding::getCurrency)
-                .filter(c -> c != null && !c.isEmpty())
-                .findFirst()
-                .orElse("USD");
-
         // Calculate current allocation per asset class
         Map<AssetClass, BigDecimal> currentValueByClass = new EnumMap<>(AssetClass.class);
         for (Holding h : holdings) {
@@ -93,22 +513,21 @@ public class RebalanceService {
             currentValueByClass.merge(h.getAssetClass(), value, BigDecimal::add);
         }
 
-        // Build target map
-        Map<AssetClass, BigDecimal> targetMap = targets.stream()
-                .collect(Collectors.toMap(TargetAllocation::getAssetClass, TargetAllocation::getTargetPercentage));
+        Map<AssetClass, BigDecimal> targetMap = toTargetMap(targets);
 
         // Build allocation comparisons
         List<AllocationComparison> comparisons = new ArrayList<>();
-        Set<AssetClass> allClasses = new HashSet<>(currentValueByClass.keySet());
+        Set<AssetClass> allClasses = EnumSet.noneOf(AssetClass.class);
+        allClasses.addAll(currentValueByClass.keySet());
         allClasses.addAll(targetMap.keySet());
 
         for (AssetClass ac : allClasses) {
             BigDecimal currentVal = currentValueByClass.getOrDefault(ac, BigDecimal.ZERO);
-            BigDecimal currentPct = currentVal.multiply(new BigDecimal("100"))
+            BigDecimal currentPct = currentVal.multiply(HUNDRED)
                     .divide(totalValue, 2, RoundingMode.HALF_UP);
             BigDecimal targetPct = targetMap.getOrDefault(ac, BigDecimal.ZERO);
             BigDecimal targetVal = totalValue.multiply(targetPct)
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP);
 
             comparisons.add(AllocationComparison.builder()
                     .assetClass(ac)
@@ -122,7 +541,7 @@ public class RebalanceService {
 
         // Generate trade recommendations
         List<TradeRecommendation> trades = generateTrades(holdings, holdingQuantities, priceMap,
-                currentValueByClass, targetMap, totalValue);
+                currentValueByClass, targetMap, totalValue, openLots);
 
         // Calculate unallocated cash: sell proceeds minus buy costs
         BigDecimal sellProceeds = BigDecimal.ZERO;
@@ -139,7 +558,7 @@ public class RebalanceService {
         return RebalanceResponse.builder()
                 .portfolioId(portfolioId)
                 .totalPortfolioValue(totalValue.setScale(2, RoundingMode.HALF_UP))
-                .currency(currency)
+                .currency(currencyOf(holdings))
                 .allocations(comparisons)
                 .trades(trades)
                 .unallocatedCash(unallocatedCash.setScale(2, RoundingMode.HALF_UP))
@@ -147,34 +566,23 @@ public class RebalanceService {
                 .build();
     }
 
-    public RebalanceResponse calculateCashRebalance(Long portfolioId, BigDecimal newCash) {
-        Portfolio portfolio = portfolioService.findPortfolioForCurrentUser(portfolioId);
-        List<Holding> holdings = holdingRepository.findByPortfolioId(portfolioId);
-        List<TargetAllocation> targets = allocationRepository.findByPortfolioId(portfolioId);
-
-        if (targets.isEmpty()) {
-            throw new InvalidAllocationException("No target allocations defined");
-        }
-
-        List<String> tickers = holdings.stream().map(Holding::getTickerSymbol).toList();
-        Map<String, QuoteResponse> priceMap = fetchPriceMap(tickers);
-
+    RebalanceResponse cashRebalanceWithBigDecimal(Long portfolioId, Portfolio portfolio,
+                                                  List<Holding> holdings, List<TargetAllocation> targets,
+                                                  Map<String, QuoteResponse> priceMap, BigDecimal newCash) {
         // Group holdings by asset class
         Map<AssetClass, List<Holding>> holdingsByClass = holdings.stream()
-                .collect(Collectors.groupingBy(Holding::getAssetClass));
+                .collect(Collectors.groupingBy(Holding::getAssetClass, () -> new EnumMap<>(AssetClass.class),
+                        Collectors.toList()));
 
-        Map<AssetClass, BigDecimal> targetMap = targets.stream()
-                .collect(Collectors.toMap(TargetAllocation::getAssetClass, TargetAllocation::getTargetPercentage));
+        Map<AssetClass, BigDecimal> targetMap = toTargetMap(targets);
 
         // Calculate current value per asset class
         Map<AssetClass, BigDecimal> currentValueByClass = new EnumMap<>(AssetClass.class);
+        Map<Holding, BigDecimal> holdingValues = new IdentityHashMap<>();
         BigDecimal currentTotalValue = BigDecimal.ZERO;
         for (Holding h : holdings) {
-            BigDecimal qty = computeQuantity(h);
-            BigDecimal price = priceMap.getOrDefault(h.getTickerSymbol(),
-                    QuoteResponse.builder().regularMarketPrice(BigDecimal.ZERO).build())
-                    .getRegularMarketPrice();
-            BigDecimal value = qty.multiply(price);
+            BigDecimal value = computeQuantity(h).multiply(priceOf(priceMap, h.getTickerSymbol(), BigDecimal.ZERO));
+            holdingValues.put(h, value);
             currentValueByClass.merge(h.getAssetClass(), value, BigDecimal::add);
             currentTotalValue = currentTotalValue.add(value);
         }
@@ -192,7 +600,7 @@ public class RebalanceService {
         for (var entry : targetMap.entrySet()) {
             AssetClass ac = entry.getKey();
             BigDecimal targetVal = newTotalValue.multiply(entry.getValue())
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP);
             BigDecimal currentVal = currentValueByClass.getOrDefault(ac, BigDecimal.ZERO);
             BigDecimal deficit = targetVal.subtract(currentVal);
             if (deficit.compareTo(BigDecimal.ZERO) > 0) {
@@ -216,18 +624,10 @@ public class RebalanceService {
             if (classHoldings.isEmpty()) continue;
 
             Holding bestHolding = classHoldings.stream()
-                    .max(Comparator.comparing(h -> {
-                        BigDecimal qty = computeQuantity(h);
-                        BigDecimal price = priceMap.getOrDefault(h.getTickerSymbol(),
-                                QuoteResponse.builder().regularMarketPrice(BigDecimal.ZERO).build())
-                                .getRegularMarketPrice();
-                        return qty.multiply(price);
-                    }))
+                    .max(Comparator.comparing(holdingValues::get))
                     .orElse(classHoldings.get(0));
 
-            BigDecimal price = priceMap.getOrDefault(bestHolding.getTickerSymbol(),
-                    QuoteResponse.builder().regularMarketPrice(BigDecimal.ONE).build())
-                    .getRegularMarketPrice();
+            BigDecimal price = priceOf(priceMap, bestHolding.getTickerSymbol(), BigDecimal.ONE);
             if (price.compareTo(BigDecimal.ZERO) <= 0) continue;
 
             int shares = cashForClass.divide(price, 0, RoundingMode.DOWN).intValue();
@@ -249,16 +649,17 @@ public class RebalanceService {
 
         // Build allocation comparisons showing before/after
         List<AllocationComparison> comparisons = new ArrayList<>();
-        Set<AssetClass> allClasses = new HashSet<>(currentValueByClass.keySet());
+        Set<AssetClass> allClasses = EnumSet.noneOf(AssetClass.class);
+        allClasses.addAll(currentValueByClass.keySet());
         allClasses.addAll(targetMap.keySet());
         for (AssetClass ac : allClasses) {
             BigDecimal currentVal = currentValueByClass.getOrDefault(ac, BigDecimal.ZERO);
             BigDecimal currentPct = currentTotalValue.compareTo(BigDecimal.ZERO) > 0
-                    ? currentVal.multiply(new BigDecimal("100")).divide(currentTotalValue, 2, RoundingMode.HALF_UP)
+                    ? currentVal.multiply(HUNDRED).divide(currentTotalValue, 2, RoundingMode.HALF_UP)
                     : BigDecimal.ZERO;
             BigDecimal targetPct = targetMap.getOrDefault(ac, BigDecimal.ZERO);
             BigDecimal targetVal = newTotalValue.multiply(targetPct)
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP);
             comparisons.add(AllocationComparison.builder()
                     .assetClass(ac)
                     .currentPercentage(currentPct)
@@ -269,16 +670,10 @@ public class RebalanceService {
                     .build());
         }
 
-        String currency = holdings.stream()
-                .map(Holding::getCurrency)
-                .filter(c -> c != null && !c.isEmpty())
-                .findFirst()
-                .orElse("USD");
-
         return RebalanceResponse.builder()
                 .portfolioId(portfolioId)
                 .totalPortfolioValue(newTotalValue)
-                .currency(currency)
+                .currency(currencyOf(holdings))
                 .allocations(comparisons)
                 .trades(trades)
                 .unallocatedCash(remainingCash.setScale(2, RoundingMode.HALF_UP))
@@ -287,16 +682,7 @@ public class RebalanceService {
     }
 
     private BigDecimal computeQuantity(Holding holding) {
-        if (holding.getTrades() == null) return BigDecimal.ZERO;
-        BigDecimal qty = BigDecimal.ZERO;
-        for (Trade t : holding.getTrades()) {
-            if (t.getType() == TradeType.BUY) {
-                qty = qty.add(t.getQuantity());
-            } else {
-                qty = qty.subtract(t.getQuantity());
-            }
-        }
-        return qty;
+        return LotLedgerService.quantityOf(holding);
     }
 
     private List<TradeRecommendation> generateTrades(
@@ -305,13 +691,15 @@ public class RebalanceService {
             Map<String, QuoteResponse> priceMap,
             Map<AssetClass, BigDecimal> currentValueByClass,
             Map<AssetClass, BigDecimal> targetMap,
-            BigDecimal totalValue) {
+            BigDecimal totalValue,
+            Map<Long, List<LotCalculationService.Lot>> openLots) {
 
         List<TradeRecommendation> trades = new ArrayList<>();
 
         // Group holdings by asset class
         Map<AssetClass, List<Holding>> holdingsByClass = holdings.stream()
-                .collect(Collectors.groupingBy(Holding::getAssetClass));
+                .collect(Collectors.groupingBy(Holding::getAssetClass, () -> new EnumMap<>(AssetClass.class),
+                        Collectors.toList()));
 
         for (var entry : holdingsByClass.entrySet()) {
             AssetClass ac = entry.getKey();
@@ -320,28 +708,21 @@ public class RebalanceService {
             BigDecimal currentVal = currentValueByClass.getOrDefault(ac, BigDecimal.ZERO);
             BigDecimal targetPct = targetMap.getOrDefault(ac, BigDecimal.ZERO);
             BigDecimal targetVal = totalValue.multiply(targetPct)
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP);
             BigDecimal delta = targetVal.subtract(currentVal);
 
-            if (delta.abs().compareTo(new BigDecimal("1")) < 0) {
+            if (delta.abs().compareTo(BigDecimal.ONE) < 0) {
                 continue; // Skip tiny adjustments
             }
 
             // Distribute delta proportionally across holdings in this class
             BigDecimal classTotal = classHoldings.stream()
-                    .map(h -> {
-                        BigDecimal price = priceMap.getOrDefault(h.getTickerSymbol(),
-                                QuoteResponse.builder().regularMarketPrice(BigDecimal.ONE).build())
-                                .getRegularMarketPrice();
-                        BigDecimal qty = holdingQuantities.getOrDefault(h.getTickerSymbol(), BigDecimal.ZERO);
-                        return qty.multiply(price);
-                    })
+                    .map(h -> holdingQuantities.getOrDefault(h.getTickerSymbol(), BigDecimal.ZERO)
+                            .multiply(priceOf(priceMap, h.getTickerSymbol(), BigDecimal.ONE)))
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
 
             for (Holding h : classHoldings) {
-                BigDecimal price = priceMap.getOrDefault(h.getTickerSymbol(),
-                        QuoteResponse.builder().regularMarketPrice(BigDecimal.ONE).build())
-                        .getRegularMarketPrice();
+                BigDecimal price = priceOf(priceMap, h.getTickerSymbol(), BigDecimal.ONE);
                 if (price.compareTo(BigDecimal.ZERO) == 0) continue;
 
                 BigDecimal qty = holdingQuantities.getOrDefault(h.getTickerSymbol(), BigDecimal.ZERO);
@@ -356,30 +737,12 @@ public class RebalanceService {
                 if (sharesToTrade == 0) continue;
 
                 String action = delta.compareTo(BigDecimal.ZERO) > 0 ? "BUY" : "SELL";
-                BigDecimal currentWeight = holdingVal.multiply(new BigDecimal("100"))
+                BigDecimal currentWeight = holdingVal.multiply(HUNDRED)
                         .divide(totalValue, 2, RoundingMode.HALF_UP);
                 BigDecimal newVal = holdingVal.add(holdingDelta);
-                BigDecimal targetWeight = newVal.multiply(new BigDecimal("100"))
+                BigDecimal targetWeight = newVal.multiply(HUNDRED)
                         .divide(totalValue, 2, RoundingMode.HALF_UP);
 
-                // For SELL actions, compute HIFO lot details
-                List<LotSaleDetail> lotDetails = null;
-                if ("SELL".equals(action)) {
-                    List<Trade> holdingTrades = h.getTrades() != null ? h.getTrades() : Collections.emptyList();
-                    List<LotCalculationService.Lot> openLots = lotCalculationService.computeOpenLots(holdingTrades);
-                    List<Map.Entry<LotCalculationService.Lot, BigDecimal>> selections =
-                            lotCalculationService.selectLotsForSale(openLots, BigDecimal.valueOf(sharesToTrade));
-                    lotDetails = new ArrayList<>();
-                    for (Map.Entry<LotCalculationService.Lot, BigDecimal> sel : selections) {
-                        LotCalculationService.Lot lot = sel.getKey();
-                        BigDecimal sellQty = sel.getValue();
-                        BigDecimal gain = price.subtract(lot.getCostBasisPerShare()).multiply(sellQty);
-                        lotDetails.add(new LotSaleDetail(
-                                lot.getTradeId(), lot.getPurchaseDate(), sellQty,
-                                lot.getCostBasisPerShare(), gain));
-                    }
-                }
-
                 trades.add(TradeRecommendation.builder()
                         .holdingId(h.getId())
                         .tickerSymbol(h.getTickerSymbol())
@@ -391,7 +754,7 @@ public class RebalanceService {
                         .estimatedCost(price.multiply(BigDecimal.valueOf(sharesToTrade)))
                         .currentWeight(currentWeight)
                         .targetWeight(targetWeight)
-                        .lotDetails(lotDetails)
+                        .lotDetails("SELL".equals(action) ? lotDetails(h, price, sharesToTrade, openLots) : null)
                         .build());
             }
         }
@@ -399,8 +762,86 @@ public class RebalanceService {
         return trades;
     }
 
-    private Map<String, QuoteResponse> fetchPriceMap(List<String> tickers) {
-        List<QuoteResponse> quotes = marketDataClient.fetchQuotes(tickers);
-        return quotes.stream().collect(Collectors.toMap(QuoteResponse::getSymbol, q -> q, (a, b) -> a));
+    /**
+     * Lot breakdown for a proposed SELL under the portfolio's cost-basis method.
+     */
+    private List<LotSaleDetail> lotDetails(Holding h, BigDecimal price, int sharesToSell,
+                                           Map<Long, List<LotCalculationService.Lot>> openLots) {
+        List<Map.Entry<LotCalculationService.Lot, BigDecimal>> selections =
+                lotCalculationService.selectLotsForSale(openLotsOf(openLots, h), BigDecimal.valueOf(sharesToSell),
+                        h.getPortfolio().getCostBasisMethod());
+        List<LotSaleDetail> lotDetails = new ArrayList<>();
+        for (Map.Entry<LotCalculationService.Lot, BigDecimal> sel : selections) {
+            LotCalculationService.Lot lot = sel.getKey();
+            BigDecimal sellQty = sel.getValue();
+            BigDecimal gain = price.subtract(lot.getCostBasisPerShare()).multiply(sellQty);
+            lotDetails.add(new LotSaleDetail(
+                    lot.getTradeId(), lot.getPurchaseDate(), sellQty,
+                    lot.getCostBasisPerShare(), gain));
+        }
+        return lotDetails;
+    }
+
+    /**
+     * Open lots of a holding from the lot ledger, looked up at most once per holding per request.
+     */
+    private List<LotCalculationService.Lot> openLotsOf(Map<Long, List<LotCalculationService.Lot>> openLots,
+                                                       Holding h) {
+        return openLots.computeIfAbsent(h.getId(), id -> lotLedgerService.openLots(h));
+    }
+
+    /**
+     * Flag the trades priced from a last known good quote served while the gateway was unavailable,
+     * and the response when any holding was valued with one.
+     */
+    private static RebalanceResponse markStalePrices(RebalanceResponse response, List<Holding> holdings,
+                                                     Map<String, QuoteResponse> priceMap) {
+        for (TradeRecommendation trade : response.getTrades()) {
+            trade.setStalePrice(isStale(priceMap, trade.getTickerSymbol()));
+        }
+        response.setStalePrices(holdings.stream().anyMatch(h -> isStale(priceMap, h.getTickerSymbol())));
+        return response;
+    }
+
+    private static boolean isStale(Map<String, QuoteResponse> priceMap, String ticker) {
+        QuoteResponse quote = priceMap.get(ticker);
+        return quote != null && quote.isStale();
+    }
+
+    private static BigDecimal priceOf(Map<String, QuoteResponse> priceMap, String ticker, BigDecimal defaultPrice) {
+        QuoteResponse quote = priceMap.get(ticker);
+        return quote != null ? ValuationKernel.roundPrice(quote.getRegularMarketPrice()) : defaultPrice;
+    }
+
+    private static Map<AssetClass, BigDecimal> toTargetMap(List<TargetAllocation> targets) {
+        return targets.stream()
+                .collect(Collectors.toMap(TargetAllocation::getAssetClass, TargetAllocation::getTargetPercentage,
+                        (a, b) -> a, () -> new EnumMap<>(AssetClass.class)));
+    }
+
+    /**
+     * Determine portfolio currency from first holding with a currency set.
+     */
+    private static String currencyOf(List<Holding> holdings) {
+        return holdings.stream()
+                .map(Holding::getCurrency)
+                .filter(c -> c != null && !c.isEmpty())
+                .findFirst()
+                .orElse("USD");
+    }
+
+    private static BigDecimal toCents(long value) {
+        return FixedPoint.toBigDecimal(
+                FixedPoint.divideHalfUp(value, FixedPoint.pow10(ValuationKernel.VALUE_SCALE - 2)), 2);
+    }
+
+    /**
+     * Quotes of the portfolios' tickers, keyed by symbol. Started before holdings and targets are
+     * loaded, so that a gateway request overlaps the database reads.
+     */
+    private CompletableFuture<Map<String, QuoteResponse>> fetchPriceMapAsync(Collection<Long> portfolioIds) {
+        List<String> tickers = holdingRepository.findDistinctTickerSymbolsByPortfolioIdIn(portfolioIds);
+        return marketDataClient.fetchQuotesAsync(tickers).thenApply(quotes -> quotes.stream()
+                .collect(Collectors.toMap(QuoteResponse::getSymbol, q -> q, (a, b) -> a)));
     }
 }
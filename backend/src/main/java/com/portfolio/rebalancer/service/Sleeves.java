@@ -0,0 +1,42 @@
+package com.portfolio.rebalancer.service;
+
+/**
+ * Grouping of assets into one sleeve per held asset class, in ordinal order, plus a trailing cash
+ * sleeve. Held classes keep their target; the cash sleeve takes the remainder, which covers CASH
+ * targets and targets of classes without holdings, since neither can be bought.
+ *
+ * @param sleeve sleeve index per asset
+ * @param target target fraction per sleeve, cash last
+ */
+public record Sleeves(int[] sleeve, double[] target) {
+
+    /**
+     * @param assetClass  asset class ordinal per asset
+     * @param classTarget target fraction per asset class ordinal
+     */
+    public static Sleeves of(int[] assetClass, double[] classTarget) {
+        boolean[] held = new boolean[classTarget.length];
+        for (int c : assetClass) held[c] = true;
+        int[] sleeveOfClass = new int[classTarget.length];
+        int count = 0;
+        for (int c = 0; c < classTarget.length; c++) {
+            sleeveOfClass[c] = held[c] ? count++ : -1;
+        }
+        double[] target = new double[count + 1];
+        double assigned = 0;
+        for (int c = 0; c < classTarget.length; c++) {
+            if (sleeveOfClass[c] < 0) continue;
+            target[sleeveOfClass[c]] = classTarget[c];
+            assigned += classTarget[c];
+        }
+        target[count] = Math.max(0, 1 - assigned);
+
+        int[] sleeve = new int[assetClass.length];
+        for (int a = 0; a < sleeve.length; a++) {
+            sleeve[a] = sleeveOfClass[assetClass[a]];
+        }
+        return new Sleeves(sleeve, target);
+    }
+
+    public int cashSleeve() { return target.length - 1; }
+}
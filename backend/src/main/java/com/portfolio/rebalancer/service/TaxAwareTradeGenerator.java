@@ -0,0 +1,103 @@
+package com.portfolio.rebalancer.service;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Greedy trade generation that sells tax-efficiently. Sell candidates in a class are ranked by the
+ * realized gain per unit of value sold, taking lots in the portfolio's sale order, so holdings whose
+ * sale realizes a loss go first and large embedded gains go last. Buys are sized as in
+ * {@link GreedyTradeGenerator}.
+ */
+public class TaxAwareTradeGenerator extends GreedyTradeGenerator {
+
+    private final LotProfile[] profiles;
+
+    /**
+     * @param profiles open-lot profile per kernel holding index
+     */
+    public TaxAwareTradeGenerator(LotProfile[] profiles) {
+        this.profiles = profiles;
+    }
+
+    @Override
+    void sortCandidates(ValuationKernel kernel, List<Integer> candidates, boolean sell, long target) {
+        super.sortCandidates(kernel, candidates, sell, target);
+        if (!sell) return;
+
+        Map<Integer, Double> gainRate = new HashMap<>();
+        for (int i : candidates) {
+            long unit = Math.multiplyExact(kernel.tradePrice(i), ValuationKernel.PRICE_TO_VALUE);
+            long shares = Math.min(kernel.quantity(i) / FixedPoint.pow10(ValuationKernel.QUANTITY_SCALE),
+                    target / unit + 1);
+            double price = (double) kernel.tradePrice(i) / FixedPoint.pow10(ValuationKernel.PRICE_SCALE);
+            // A candidate that cannot sell a whole share has no rate; rank it last instead of as NaN
+            gainRate.put(i, shares == 0 ? Double.POSITIVE_INFINITY
+                    : profiles[i].realizedGain(shares, price) / (shares * price));
+        }
+        // Stable sort keeps largest-position-first among equal rates
+        candidates.sort((a, b) -> Double.compare(gainRate.get(a), gainRate.get(b)));
+    }
+
+    /**
+     * Open lots of one holding in sale order with running totals, so the gain of selling any
+     * number of shares is a binary search rather than a lot replay. Values are doubles because
+     * they only rank candidates; reported gains still come from the BigDecimal lot breakdown.
+     */
+    public static final class LotProfile {
+        private final double[] cumulativeQuantity;
+        private final double[] cumulativeCost;
+
+        private LotProfile(double[] cumulativeQuantity, double[] cumulativeCost) {
+            this.cumulativeQuantity = cumulativeQuantity;
+            this.cumulativeCost = cumulativeCost;
+        }
+
+        /**
+         * @param openLots  open lots as returned by {@link LotLedgerService#openLots}
+         * @param saleOrder order in which a sale consumes the lots, see {@link LotCalculationService#saleOrder}
+         */
+        public static LotProfile of(List<LotCalculationService.Lot> openLots,
+                                    Comparator<LotCalculationService.Lot> saleOrder) {
+            List<LotCalculationService.Lot> sorted = openLots.stream()
+                    .sorted(saleOrder)
+                    .toList();
+            double[] quantity = new double[sorted.size() + 1];
+            double[] cost = new double[sorted.size() + 1];
+            for (int k = 0; k < sorted.size(); k++) {
+                LotCalculationService.Lot lot = sorted.get(k);
+                BigDecimal remaining = lot.getRemainingQuantity();
+                quantity[k + 1] = quantity[k] + remaining.doubleValue();
+                cost[k + 1] = cost[k] + remaining.multiply(lot.getCostBasisPerShare()).doubleValue();
+            }
+            return new LotProfile(quantity, cost);
+        }
+
+        /** Realized gain of selling {@code shares} at {@code price}, consuming lots in sale order. */
+        public double realizedGain(double shares, double price) {
+            int last = cumulativeQuantity.length - 1;
+            double sold = Math.min(shares, cumulativeQuantity[last]);
+            // First k with cumulativeQuantity[k] >= sold
+            int lo = 0;
+            int hi = last;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cumulativeQuantity[mid] < sold) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            double cost = cumulativeCost[lo];
+            if (lo > 0 && cumulativeQuantity[lo] > sold) {
+                double lotQuantity = cumulativeQuantity[lo] - cumulativeQuantity[lo - 1];
+                double lotCost = cumulativeCost[lo] - cumulativeCost[lo - 1];
+                cost -= lotCost * (cumulativeQuantity[lo] - sold) / lotQuantity;
+            }
+            return sold * price - cost;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.portfolio.rebalancer.service;
+
+/**
+ * Turns the per-class deltas of a valued portfolio into whole-share trades.
+ * Implementations read class deltas from the result and record trades with
+ * {@link ValuationKernel.Result#addTrade}, at most one per holding.
+ */
+public interface TradeGenerator {
+
+    void generate(ValuationKernel kernel, ValuationKernel.Result result);
+}
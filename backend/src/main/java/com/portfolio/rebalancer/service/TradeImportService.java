@@ -0,0 +1,450 @@
+package com.portfolio.rebalancer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.rebalancer.dto.request.TradeImportRow;
+import com.portfolio.rebalancer.dto.response.TradeImportEvent;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+import com.portfolio.rebalancer.repository.HoldingRepository;
+import com.portfolio.rebalancer.repository.TradeRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bulk import of trades into the holdings of one portfolio, from CSV or NDJSON. The input is read
+ * a line at a time and inserted in batches of {@code app.trades.import-batch-size} rows, one
+ * transaction per batch, so neither the file nor its trades are held in memory. Rejected rows are
+ * reported and skipped; a batch the database refuses ends the import, keeping the batches before it.
+ * <p>
+ * A SELL names the BUY whose lot it closes by trade id. Rows that carry their own id, as exported
+ * rows do, name it by its id in the file instead, which is translated to the id the BUY was saved
+ * under; so an export can be imported into another portfolio. Only those ids of BUY rows are kept.
+ * <p>
+ * Holdings are marked for a ledger rebuild before their first trade is inserted and rebuilt once
+ * at the end, so an import cut short leaves them replaying from their trades, never stale. The end
+ * is reached at the end of the input, or when the returned stream is closed before that, as when
+ * the client goes away.
+ */
+@Service
+public class TradeImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("ticker_symbol", "date", "type", "quantity", "price");
+
+    private final HoldingRepository holdingRepository;
+    private final TradeRepository tradeRepository;
+    private final PortfolioService portfolioService;
+    private final LotLedgerService lotLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public TradeImportService(HoldingRepository holdingRepository, TradeRepository tradeRepository,
+                              PortfolioService portfolioService, LotLedgerService lotLedgerService,
+                              ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                              EntityManager entityManager, ObjectMapper objectMapper,
+                              @Value("${app.trades.import-batch-size}") int batchSize) {
+        this.holdingRepository = holdingRepository;
+        this.tradeRepository = tradeRepository;
+        this.portfolioService = portfolioService;
+        this.lotLedgerService = lotLedgerService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Validates the format and the portfolio up front; rows are read and imported as the returned
+     * stream is consumed, which ends with a {@code complete} or {@code failed} event. The caller must
+     * close the stream, which finishes an import it stopped consuming early.
+     *
+     * @param format {@code csv}, with a header row naming the columns, or {@code ndjson}
+     */
+    public Stream<TradeImportEvent> importTrades(Long portfolioId, InputStream input, String format) {
+        boolean csv = switch (format) {
+            case "csv" -> true;
+            case "ndjson" -> false;
+            default -> throw new IllegalArgumentException("Invalid format: " + format + ". Allowed: csv, ndjson");
+        };
+        portfolioService.findPortfolioForCurrentUser(portfolioId);
+        Map<String, Holding> holdings = new HashMap<>();
+        for (Holding holding : holdingRepository.findByPortfolioId(portfolioId)) {
+            holdings.put(holding.getTickerSymbol(), holding);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        TradeImport events = new TradeImport(portfolioId, holdings, reader, csv);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(events, Spliterator.ORDERED), false)
+                .onClose(events::close);
+    }
+
+    private final class TradeImport implements Iterator<TradeImportEvent> {
+        private final Long portfolioId;
+        private final Map<String, Holding> holdings;
+        private final BufferedReader reader;
+        private final boolean csv;
+        private final Deque<TradeImportEvent> pending = new ArrayDeque<>();
+        private final List<Row> batch = new ArrayList<>();
+        private final Set<Long> touched = new HashSet<>();
+        private final Map<Long, FileLot> fileLots = new HashMap<>();
+        private Map<String, Integer> columns;
+        private long lineNumber;
+        private long imported;
+        private long rejected;
+        private boolean finished;
+
+        private TradeImport(Long portfolioId, Map<String, Holding> holdings, BufferedReader reader, boolean csv) {
+            this.portfolioId = portfolioId;
+            this.holdings = holdings;
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !finished) {
+                readLine();
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public TradeImportEvent next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return pending.poll();
+        }
+
+        /**
+         * Finish an import that was abandoned before the end of its input. The rows of the batch
+         * being collected were never saved and are dropped.
+         */
+        private void close() {
+            if (!finished) {
+                finish("Import interrupted after line " + lineNumber);
+            }
+        }
+
+        private void readLine() {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                finish("Failed to read line " + (lineNumber + 1) + ": " + e.getMessage());
+                throw new UncheckedIOException(e);
+            }
+            if (line == null) {
+                flush();
+                if (!finished) {
+                    finish(null);
+                }
+                return;
+            }
+            lineNumber++;
+            if (line.isBlank()) return;
+            if (csv && columns == null) {
+                columns = header(line);
+                List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+                if (!missing.isEmpty()) {
+                    finish("CSV header is missing columns: " + String.join(", ", missing));
+                }
+                return;
+            }
+            try {
+                TradeImportRow row = csv ? fromCsv(line) : fromJson(line);
+                batch.add(new Row(lineNumber, toTrade(row), row.getId()));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                reject(lineNumber, e.getMessage());
+            }
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty() || finished) return;
+            List<Trade> trades = new ArrayList<>(batch.size());
+            Map<Long, Trade> lots = lotsOf(batch);
+            // BUYs of this batch by their id in the file, and the SELLs that name one of them
+            Map<Long, Trade> batchLots = new HashMap<>();
+            Map<Trade, Trade> lotOf = new IdentityHashMap<>();
+            for (Row row : batch) {
+                Trade trade = row.trade();
+                Long lotTradeId = trade.getLotTradeId();
+                if (lotTradeId != null && row.fileId() != null) {
+                    Trade pending = batchLots.get(lotTradeId);
+                    FileLot saved = fileLots.get(lotTradeId);
+                    Long holdingId = pending != null ? pending.getHolding().getId()
+                            : saved != null ? saved.holdingId() : null;
+                    if (!trade.getHolding().getId().equals(holdingId)) {
+                        reject(row.line(), "Lot trade " + lotTradeId + " is not an earlier BUY of this holding in the file");
+                        continue;
+                    }
+                    if (pending != null) {
+                        lotOf.put(trade, pending);
+                    } else {
+                        trade.setLotTradeId(saved.id());
+                    }
+                } else if (lotTradeId != null) {
+                    Trade lot = lots.get(lotTradeId);
+                    if (lot == null || lot.getType() != TradeType.BUY
+                            || !lot.getHolding().getId().equals(trade.getHolding().getId())) {
+                        reject(row.line(), "Lot trade " + lotTradeId + " is not a BUY of this holding");
+                        continue;
+                    }
+                }
+                if (row.fileId() != null && trade.getType() == TradeType.BUY) {
+                    batchLots.put(row.fileId(), trade);
+                }
+                trades.add(trade);
+            }
+            long firstLine = batch.get(0).line();
+            batch.clear();
+            if (trades.isEmpty()) return;
+
+            Set<Long> holdingIds = new HashSet<>();
+            for (Trade trade : trades) {
+                if (!touched.contains(trade.getHolding().getId())) {
+                    holdingIds.add(trade.getHolding().getId());
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!holdingIds.isEmpty()) {
+                        holdingRepository.clearPositions(holdingIds);
+                    }
+                    for (Trade trade : trades) {
+                        // The BUY was saved earlier in this loop, which assigned its id
+                        Trade lot = lotOf.get(trade);
+                        if (lot != null) {
+                            trade.setLotTradeId(lot.getId());
+                        }
+                        tradeRepository.save(trade);
+                    }
+                    // Keep the persistence context from growing with the file
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            } catch (RuntimeException e) {
+                finish("Lines " + firstLine + "-" + lineNumber + " could not be saved: "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            touched.addAll(holdingIds);
+            batchLots.forEach((fileId, lot) -> fileLots.put(fileId, new FileLot(lot.getHolding().getId(), lot.getId())));
+            imported += trades.size();
+            pending.add(totals(TradeImportEvent.PROGRESS, null));
+        }
+
+        private void finish(String failure) {
+            finished = true;
+            // Listeners act after commit, and the response stream runs outside any transaction
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Long holdingId : touched) {
+                    lotLedgerService.rebuild(holdingId);
+                }
+                if (imported > 0) {
+                    eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+                }
+            });
+            pending.add(totals(failure == null ? TradeImportEvent.COMPLETE : TradeImportEvent.FAILED, failure));
+        }
+
+        private Map<Long, Trade> lotsOf(List<Row> rows) {
+            Set<Long> ids = new HashSet<>();
+            for (Row row : rows) {
+                if (row.trade().getLotTradeId() != null && row.fileId() == null) {
+                    ids.add(row.trade().getLotTradeId());
+                }
+            }
+            Map<Long, Trade> lots = new HashMap<>();
+            if (!ids.isEmpty()) {
+                for (Trade lot : tradeRepository.findAllById(ids)) {
+                    lots.put(lot.getId(), lot);
+                }
+            }
+            return lots;
+        }
+
+        private void reject(long line, String message) {
+            rejected++;
+            pending.add(TradeImportEvent.builder()
+                    .type(TradeImportEvent.ERROR)
+                    .line(line)
+                    .message(message)
+                    .build());
+        }
+
+        private TradeImportEvent totals(String type, String message) {
+            return TradeImportEvent.builder()
+                    .type(type)
+                    .message(message)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .build();
+        }
+
+        private Trade toTrade(TradeImportRow row) {
+            if (row.getTickerSymbol() == null || row.getTickerSymbol().isBlank()) {
+                throw new IllegalArgumentException("tickerSymbol is required");
+            }
+            Holding holding = holdings.get(row.getTickerSymbol().trim().toUpperCase());
+            if (holding == null) {
+                throw new IllegalArgumentException("No holding for ticker " + row.getTickerSymbol());
+            }
+            if (row.getDate() == null) {
+                throw new IllegalArgumentException("date is required");
+            }
+            if (row.getType() == null) {
+                throw new IllegalArgumentException("type is required");
+            }
+            if (row.getQuantity() == null || row.getQuantity().signum() <= 0) {
+                throw new IllegalArgumentException("quantity must be positive");
+            }
+            if (row.getPrice() == null || row.getPrice().signum() <= 0) {
+                throw new IllegalArgumentException("price must be positive");
+            }
+            if (row.getFee() != null && row.getFee().signum() < 0) {
+                throw new IllegalArgumentException("fee must not be negative");
+            }
+            if (row.getLotTradeId() != null && row.getType() != TradeType.SELL) {
+                throw new IllegalArgumentException("Only SELL trades can name a lot");
+            }
+            return Trade.builder()
+                    .holding(holding)
+                    .date(row.getDate())
+                    .type(row.getType())
+                    .quantity(row.getQuantity())
+                    .price(row.getPrice())
+                    .fee(row.getFee())
+                    .lotTradeId(row.getLotTradeId())
+                    .build();
+        }
+
+        private TradeImportRow fromJson(String line) {
+            try {
+                return objectMapper.readValue(line, TradeImportRow.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        private TradeImportRow fromCsv(String line) {
+            List<String> fields = splitCsv(line);
+            TradeImportRow row = new TradeImportRow();
+            row.setId(id(fields, "trade_id"));
+            row.setTickerSymbol(field(fields, "ticker_symbol"));
+            String date = field(fields, "date");
+            row.setDate(date != null ? LocalDate.parse(date) : null);
+            String type = field(fields, "type");
+            if (type != null) {
+                try {
+                    row.setType(TradeType.valueOf(type.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid type: " + type + ". Allowed: BUY, SELL");
+                }
+            }
+            row.setQuantity(decimal(fields, "quantity"));
+            row.setPrice(decimal(fields, "price"));
+            row.setFee(decimal(fields, "fee"));
+            row.setLotTradeId(id(fields, "lot_trade_id"));
+            return row;
+        }
+
+        private Long id(List<String> fields, String column) {
+            String value = field(fields, column);
+            if (value == null) return null;
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        /** Trimmed value of a column, or null when the column is absent or empty. */
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) return null;
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private BigDecimal decimal(List<String> fields, String column) {
+            String value = field(fields, column);
+            if (value == null) return null;
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+
+        private Map<String, Integer> header(String line) {
+            List<String> names = splitCsv(line);
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                header.putIfAbsent(names.get(i).trim().toLowerCase(), i);
+            }
+            return header;
+        }
+    }
+
+    /** Fields of one CSV line; double quotes may enclose a field, with {@code ""} for a quote. */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * @param fileId id of the trade in the file, when the row carries one
+     */
+    private record Row(long line, Trade trade, Long fileId) {
+    }
+
+    /** A BUY saved from the file, by the holding it belongs to and the id it was saved under. */
+    private record FileLot(Long holdingId, Long id) {
+    }
+}
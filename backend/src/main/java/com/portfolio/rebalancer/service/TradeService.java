@@ -1,15 +1,24 @@
 package com.portfolio.rebalancer.service;
 
 import com.portfolio.rebalancer.dto.request.CreateTradeRequest;
+import com.portfolio.rebalancer.dto.response.TradePageResponse;
 import com.portfolio.rebalancer.dto.response.TradeResponse;
 import com.portfolio.rebalancer.entity.Holding;
 import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
 import com.portfolio.rebalancer.exception.ResourceNotFoundException;
 import com.portfolio.rebalancer.repository.HoldingRepository;
 import com.portfolio.rebalancer.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -18,26 +27,69 @@ public class TradeService {
     private final TradeRepository tradeRepository;
     private final HoldingRepository holdingRepository;
     private final PortfolioService portfolioService;
+    private final LotLedgerService lotLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public TradeService(TradeRepository tradeRepository, HoldingRepository holdingRepository,
-                        PortfolioService portfolioService) {
+                        PortfolioService portfolioService, LotLedgerService lotLedgerService,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${app.trades.page-size}") int defaultPageSize,
+                        @Value("${app.trades.max-page-size}") int maxPageSize) {
         this.tradeRepository = tradeRepository;
         this.holdingRepository = holdingRepository;
         this.portfolioService = portfolioService;
+        this.lotLedgerService = lotLedgerService;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public List<TradeResponse> getTrades(Long portfolioId, Long holdingId) {
-        portfolioService.findPortfolioForCurrentUser(portfolioId);
+        findHolding(portfolioId, holdingId);
         return tradeRepository.findByHoldingIdOrderByDateDesc(holdingId).stream()
                 .map(this::toResponse)
                 .toList();
     }
 
+    /**
+     * One page of the holding's trades, newest first, paged by (date, id) so every page is an index
+     * range scan however deep it is.
+     *
+     * @param cursor {@link TradePageResponse#getNextCursor() next cursor} of the previous page, or null
+     *               for the first page
+     * @param size   trades per page; the configured default when null
+     */
+    public TradePageResponse getTradePage(Long portfolioId, Long holdingId, String cursor, Integer size) {
+        findHolding(portfolioId, holdingId);
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxPageSize);
+        }
+
+        // One extra row tells whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<Trade> trades;
+        if (cursor == null) {
+            trades = tradeRepository.findPageByHoldingId(holdingId, limit);
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            trades = tradeRepository.findPageByHoldingIdBefore(holdingId, after.date(), after.id(), limit);
+        }
+        boolean more = trades.size() > pageSize;
+        List<Trade> page = more ? trades.subList(0, pageSize) : trades;
+        return TradePageResponse.builder()
+                .trades(page.stream().map(this::toResponse).toList())
+                .nextCursor(more ? Cursor.of(page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
     @Transactional
     public TradeResponse addTrade(Long portfolioId, Long holdingId, CreateTradeRequest request) {
-        portfolioService.findPortfolioForCurrentUser(portfolioId);
-        Holding holding = holdingRepository.findById(holdingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
+        Holding holding = findHolding(portfolioId, holdingId);
+
+        validateLotTradeId(holdingId, request);
 
         Trade trade = Trade.builder()
                 .holding(holding)
@@ -46,31 +98,69 @@ public class TradeService {
                 .quantity(request.getQuantity())
                 .price(request.getPrice())
                 .fee(request.getFee())
+                .lotTradeId(request.getLotTradeId())
                 .build();
         trade = tradeRepository.save(trade);
+        lotLedgerService.recordTrade(holding, trade);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return toResponse(trade);
     }
 
     @Transactional
     public TradeResponse updateTrade(Long portfolioId, Long holdingId, Long tradeId,
                                      CreateTradeRequest request) {
-        portfolioService.findPortfolioForCurrentUser(portfolioId);
-        Trade trade = tradeRepository.findById(tradeId)
+        findHolding(portfolioId, holdingId);
+        Trade trade = tradeRepository.findByIdAndHoldingId(tradeId, holdingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trade not found"));
 
+        validateLotTradeId(trade.getHolding().getId(), request);
+
         trade.setDate(request.getDate());
         trade.setType(request.getType());
         trade.setQuantity(request.getQuantity());
         trade.setPrice(request.getPrice());
         trade.setFee(request.getFee());
+        trade.setLotTradeId(request.getLotTradeId());
         trade = tradeRepository.save(trade);
+        lotLedgerService.rebuild(trade.getHolding());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
         return toResponse(trade);
     }
 
     @Transactional
     public void deleteTrade(Long portfolioId, Long holdingId, Long tradeId) {
+        findHolding(portfolioId, holdingId);
+        tradeRepository.findByIdAndHoldingId(tradeId, holdingId).ifPresent(trade -> {
+            tradeRepository.delete(trade);
+            lotLedgerService.rebuild(trade.getHolding());
+        });
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId));
+    }
+
+    /**
+     * The holding, provided it belongs to a portfolio of the current user.
+     */
+    private Holding findHolding(Long portfolioId, Long holdingId) {
         portfolioService.findPortfolioForCurrentUser(portfolioId);
-        tradeRepository.deleteById(tradeId);
+        return holdingRepository.findByIdAndPortfolioId(holdingId, portfolioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Holding not found"));
+    }
+
+    /**
+     * A SELL may name the BUY trade of the same holding whose lot it closes.
+     */
+    private void validateLotTradeId(Long holdingId, CreateTradeRequest request) {
+        if (request.getLotTradeId() == null) return;
+        if (request.getType() != TradeType.SELL) {
+            throw new IllegalArgumentException("Only SELL trades can name a lot");
+        }
+        boolean valid = tradeRepository.findById(request.getLotTradeId())
+                .filter(lot -> lot.getType() == TradeType.BUY && lot.getHolding().getId().equals(holdingId))
+                .isPresent();
+        if (!valid) {
+            throw new IllegalArgumentException("Lot trade " + request.getLotTradeId()
+                    + " is not a BUY of this holding");
+        }
     }
 
     private TradeResponse toResponse(Trade trade) {
@@ -81,7 +171,34 @@ public class TradeService {
                 .quantity(trade.getQuantity())
                 .price(trade.getPrice())
                 .fee(trade.getFee())
+                .lotTradeId(trade.getLotTradeId())
                 .createdAt(trade.getCreatedAt())
                 .build();
     }
+
+    /**
+     * Position of the last trade of a page, encoded as an opaque URL-safe string.
+     */
+    private record Cursor(LocalDate date, Long id) {
+
+        static Cursor of(Trade trade) {
+            return new Cursor(trade.getDate(), trade.getId());
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf(':');
+                return new Cursor(LocalDate.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((date + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.portfolio.rebalancer.service;
+
+/**
+ * Trade generation strategies selectable on the rebalance endpoint.
+ */
+public enum TradeStrategy {
+    PROPORTIONAL,
+    GREEDY,
+    BRANCH_AND_BOUND,
+    TAX_AWARE;
+
+    /** Parse a request parameter such as {@code greedy} or {@code tax-aware}. */
+    public static TradeStrategy fromParameter(String value) {
+        for (TradeStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(value.replace('-', '_'))) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trade strategy: " + value);
+    }
+}
@@ -0,0 +1,399 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import com.portfolio.rebalancer.entity.AssetClass;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.entity.TargetAllocation;
+import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed-point valuation kernel behind {@link RebalanceService}.
+ * Holdings are indexed by position in the loaded list and asset classes by {@link AssetClass#ordinal()}.
+ * Quantities are micro-shares, prices are 1/10000 units and values are the exact product of the two,
+ * so every result reproduces the BigDecimal arithmetic of the original implementation.
+ * Gateway prices are converted doubles with up to 16 decimals; both implementations value them
+ * rounded by {@link #roundPrice}. Anything else that cannot be represented (more decimals, long
+ * overflow) raises ArithmeticException and the caller falls back to BigDecimal.
+ */
+public final class ValuationKernel {
+
+    public static final int QUANTITY_SCALE = 6;
+    public static final int PRICE_SCALE = 4;
+    public static final int VALUE_SCALE = QUANTITY_SCALE + PRICE_SCALE;
+    public static final int PERCENT_SCALE = 2;
+    public static final int FACTOR_SCALE = 6;
+    public static final int CLASS_COUNT = AssetClass.values().length;
+
+    private static final int PROPORTION_SCALE = 6;
+    private static final long ONE_PRICE = FixedPoint.pow10(PRICE_SCALE);
+    private static final long ONE_FACTOR = FixedPoint.pow10(FACTOR_SCALE);
+    static final long ONE_VALUE = FixedPoint.pow10(VALUE_SCALE);
+    static final long ONE_PROPORTION = FixedPoint.pow10(PROPORTION_SCALE);
+    static final long CENTS_TO_VALUE = FixedPoint.pow10(VALUE_SCALE - PERCENT_SCALE);
+    private static final long PERCENT_OF_VALUE = FixedPoint.pow10(VALUE_SCALE + PERCENT_SCALE);
+    private static final long HUNDRED_PERCENT = FixedPoint.pow10(PERCENT_SCALE + 2);
+    static final long PRICE_TO_VALUE = FixedPoint.pow10(VALUE_SCALE - PRICE_SCALE);
+    static final long SHARE_DIVISOR = FixedPoint.pow10(VALUE_SCALE + PROPORTION_SCALE - PRICE_SCALE);
+
+    private final int size;
+    private final int[] assetClass;
+    private final long[] quantity;
+    private final int[] quantityScale;
+    private final long[] price;
+    private final long[] tradePrice;
+    private final int[] priceScale;
+    private final long[] targetPercent;
+    private final boolean[] targeted;
+    private final long cash;
+    private final int cashScale;
+
+    /**
+     * @param price      valuation price per holding; 0 when no quote is available
+     * @param tradePrice price used to size trades; 1.0 when no quote is available
+     */
+    public ValuationKernel(int[] assetClass, long[] quantity, int[] quantityScale,
+                           long[] price, long[] tradePrice, int[] priceScale,
+                           long[] targetPercent, boolean[] targeted, long cash, int cashScale) {
+        this.size = assetClass.length;
+        this.assetClass = assetClass;
+        this.quantity = quantity;
+        this.quantityScale = quantityScale;
+        this.price = price;
+        this.tradePrice = tradePrice;
+        this.priceScale = priceScale;
+        this.targetPercent = targetPercent;
+        this.targeted = targeted;
+        this.cash = cash;
+        this.cashScale = cashScale;
+    }
+
+    /**
+     * Load holdings, quotes and targets into primitive arrays.
+     * Returns null when an input cannot be represented at the kernel's fixed scales.
+     */
+    public static ValuationKernel of(List<Holding> holdings, Map<String, QuoteResponse> priceMap,
+                                     List<TargetAllocation> targets, BigDecimal cashBalance) {
+        int n = holdings.size();
+        int[] assetClass = new int[n];
+        long[] quantity = new long[n];
+        int[] quantityScale = new int[n];
+        long[] price = new long[n];
+        long[] tradePrice = new long[n];
+        int[] priceScale = new int[n];
+        long[] targetPercent = new long[CLASS_COUNT];
+        boolean[] targeted = new boolean[CLASS_COUNT];
+        try {
+            for (int i = 0; i < n; i++) {
+                Holding h = holdings.get(i);
+                assetClass[i] = h.getAssetClass().ordinal();
+                long qty = 0;
+                int scale = 0;
+                if (h.getQuantity() != null) {
+                    qty = FixedPoint.toScaled(h.getQuantity(), QUANTITY_SCALE);
+                    scale = h.getQuantity().scale();
+                } else if (h.getTrades() != null) {
+                    for (Trade t : h.getTrades()) {
+                        long tradeQty = FixedPoint.toScaled(t.getQuantity(), QUANTITY_SCALE);
+                        qty = t.getType() == TradeType.BUY
+                                ? Math.addExact(qty, tradeQty)
+                                : Math.subtractExact(qty, tradeQty);
+                        scale = Math.max(scale, t.getQuantity().scale());
+                    }
+                }
+                quantity[i] = qty;
+                quantityScale[i] = scale;
+
+                QuoteResponse quote = priceMap.get(h.getTickerSymbol());
+                if (quote == null) {
+                    price[i] = 0;
+                    tradePrice[i] = ONE_PRICE;
+                    priceScale[i] = 0;
+                } else {
+                    BigDecimal p = quote.getRegularMarketPrice();
+                    if (p == null) return null;
+                    p = roundPrice(p);
+                    price[i] = FixedPoint.toScaled(p, PRICE_SCALE);
+                    tradePrice[i] = price[i];
+                    priceScale[i] = p.scale();
+                }
+            }
+            for (TargetAllocation t : targets) {
+                int c = t.getAssetClass().ordinal();
+                targetPercent[c] = FixedPoint.toScaled(t.getTargetPercentage(), PERCENT_SCALE);
+                targeted[c] = true;
+            }
+            return new ValuationKernel(assetClass, quantity, quantityScale, price, tradePrice, priceScale,
+                    targetPercent, targeted, FixedPoint.toScaled(cashBalance, VALUE_SCALE), cashBalance.scale());
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /** A quoted price as it is valued: rounded half-up to {@link #PRICE_SCALE} when it has more decimals. */
+    public static BigDecimal roundPrice(BigDecimal price) {
+        return price.scale() > PRICE_SCALE ? price.setScale(PRICE_SCALE, RoundingMode.HALF_UP) : price;
+    }
+
+    /**
+     * Copy of this kernel with each holding's price multiplied by {@code factor[i]}, given at
+     * {@link #FACTOR_SCALE} and rounded half-up to {@link #PRICE_SCALE}. Quantities, targets and
+     * cash are shared, not copied. Holdings without a quote keep trading at 1.0.
+     */
+    public ValuationKernel withPriceFactors(long[] factor) {
+        long[] shockedPrice = new long[size];
+        long[] shockedTradePrice = new long[size];
+        int[] shockedScale = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (factor[i] == ONE_FACTOR) {
+                shockedPrice[i] = price[i];
+                shockedTradePrice[i] = tradePrice[i];
+                shockedScale[i] = priceScale[i];
+                continue;
+            }
+            shockedPrice[i] = FixedPoint.multiplyDivideHalfUp(price[i], factor[i], ONE_FACTOR);
+            // Only quoted holdings trade at their valuation price
+            shockedTradePrice[i] = tradePrice[i] == price[i] ? shockedPrice[i] : tradePrice[i];
+            shockedScale[i] = PRICE_SCALE;
+        }
+        return new ValuationKernel(assetClass, quantity, quantityScale, shockedPrice, shockedTradePrice,
+                shockedScale, targetPercent, targeted, cash, cashScale);
+    }
+
+    public int size() { return size; }
+
+    /** Quantity at {@link #QUANTITY_SCALE}. */
+    public long quantity(int holding) { return quantity[holding]; }
+
+    public int assetClass(int holding) { return assetClass[holding]; }
+
+    /** Price used to size trades, at {@link #PRICE_SCALE}. */
+    public long tradePrice(int holding) { return tradePrice[holding]; }
+
+    /** Target percentage of a class at {@link #PERCENT_SCALE}; 0 when the class has no target. */
+    public long targetPercent(int assetClass) { return targetPercent[assetClass]; }
+
+    public boolean isTargeted(int assetClass) { return targeted[assetClass]; }
+
+    /** Cash balance at {@link #VALUE_SCALE}. */
+    public long cash() { return cash; }
+
+    /** Value used to size trades for a holding, at {@link #VALUE_SCALE}. */
+    public long tradeValue(int holding) {
+        return Math.multiplyExact(quantity[holding], tradePrice[holding]);
+    }
+
+    /**
+     * Full rebalance: value every holding, compare against targets and size trades by
+     * distributing each class delta proportionally across the class's holdings.
+     */
+    public Result rebalance() {
+        return rebalance(new ProportionalTradeGenerator());
+    }
+
+    /**
+     * Full rebalance with trades sized by {@code generator}.
+     */
+    public Result rebalance(TradeGenerator generator) {
+        Result r = new Result(size);
+        value(r);
+        long total = r.totalValue;
+        if (total == 0) {
+            return r;
+        }
+        r.percentBase = true;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            if (r.held[c] || targeted[c]) {
+                r.currentPercent[c] = FixedPoint.multiplyDivideHalfUp(r.classValue[c], HUNDRED_PERCENT, total);
+                r.targetValue[c] = FixedPoint.multiplyDivideHalfUp(total, targetPercent[c], PERCENT_OF_VALUE);
+            }
+        }
+
+        generator.generate(this, r);
+
+        long sellProceeds = 0;
+        long buyCosts = 0;
+        for (int t = 0; t < r.tradeCount; t++) {
+            long cost = Math.multiplyExact(tradePrice[r.tradeHolding[t]], r.tradeShares[t]);
+            if (r.tradeSell[t]) {
+                sellProceeds = Math.addExact(sellProceeds, cost);
+            } else {
+                buyCosts = Math.addExact(buyCosts, cost);
+            }
+        }
+        r.remainingCash = Math.multiplyExact(Math.max(0, Math.subtractExact(sellProceeds, buyCosts)), PRICE_TO_VALUE);
+        return r;
+    }
+
+    /**
+     * Cash rebalance: invest {@code newCash} plus the existing cash balance into the most
+     * underweight classes first, one holding per class.
+     *
+     * @param newCash      amount at {@link #VALUE_SCALE}
+     * @param newCashScale BigDecimal scale of the requested amount
+     */
+    public Result cashRebalance(long newCash, int newCashScale) {
+        Result r = new Result(size);
+        value(r);
+        long currentTotal = r.totalValue;
+        long newTotal = Math.addExact(currentTotal, newCash);
+        r.currentTotalValue = currentTotal;
+        r.percentBase = currentTotal > 0;
+        r.totalValue = newTotal;
+        r.totalScale = Math.max(r.totalScale, newCashScale);
+
+        int[] deficitClass = new int[CLASS_COUNT];
+        long[] deficit = new long[CLASS_COUNT];
+        int deficitCount = 0;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            if (r.held[c] || targeted[c]) {
+                r.currentPercent[c] = currentTotal > 0
+                        ? FixedPoint.multiplyDivideHalfUp(r.classValue[c], HUNDRED_PERCENT, currentTotal)
+                        : 0;
+                r.targetValue[c] = FixedPoint.multiplyDivideHalfUp(newTotal, targetPercent[c], PERCENT_OF_VALUE);
+            }
+            if (!targeted[c]) continue;
+            long d = Math.subtractExact(Math.multiplyExact(r.targetValue[c], CENTS_TO_VALUE), r.classValue[c]);
+            if (d > 0) {
+                // Insertion keeps deficits sorted descending, ties in ordinal order
+                int j = deficitCount++;
+                while (j > 0 && deficit[j - 1] < d) {
+                    deficit[j] = deficit[j - 1];
+                    deficitClass[j] = deficitClass[j - 1];
+                    j--;
+                }
+                deficit[j] = d;
+                deficitClass[j] = c;
+            }
+        }
+
+        long remaining = Math.addExact(newCash, cash);
+        for (int k = 0; k < deficitCount; k++) {
+            if (remaining < ONE_VALUE) break;
+            int c = deficitClass[k];
+            long cashForClass = Math.min(remaining, deficit[k]);
+
+            // Pick the holding with the highest current value in this class (first one wins ties)
+            int best = -1;
+            long bestValue = 0;
+            for (int i = 0; i < size; i++) {
+                if (assetClass[i] != c) continue;
+                long v = Math.multiplyExact(quantity[i], price[i]);
+                if (best < 0 || v > bestValue) {
+                    best = i;
+                    bestValue = v;
+                }
+            }
+            if (best < 0) continue;
+
+            long p = tradePrice[best];
+            if (p <= 0) continue;
+
+            int shares = (int) (cashForClass / PRICE_TO_VALUE / p);
+            if (shares > 0) {
+                r.addTrade(best, shares, false, 0, 0);
+                remaining = Math.subtractExact(remaining,
+                        Math.multiplyExact(Math.multiplyExact(p, shares), PRICE_TO_VALUE));
+            }
+        }
+        r.remainingCash = remaining;
+        return r;
+    }
+
+    private void value(Result r) {
+        long total = 0;
+        int totalScale = 0;
+        for (int i = 0; i < size; i++) {
+            int c = assetClass[i];
+            long v = Math.multiplyExact(quantity[i], price[i]);
+            int scale = quantityScale[i] + priceScale[i];
+            r.classValue[c] = Math.addExact(r.classValue[c], v);
+            r.classScale[c] = r.held[c] ? Math.max(r.classScale[c], scale) : scale;
+            r.held[c] = true;
+            total = Math.addExact(total, v);
+            totalScale = Math.max(totalScale, scale);
+        }
+        r.totalValue = Math.addExact(total, cash);
+        r.totalScale = Math.max(totalScale, cashScale);
+    }
+
+    /**
+     * Output of a kernel run. Values are at {@link #VALUE_SCALE}, percentages and target values
+     * at {@link #PERCENT_SCALE}; trades refer to holdings by index.
+     */
+    public static final class Result {
+        private long totalValue;
+        private long currentTotalValue;
+        private int totalScale;
+        private boolean percentBase;
+        private long remainingCash;
+        private final long[] classValue = new long[CLASS_COUNT];
+        private final int[] classScale = new int[CLASS_COUNT];
+        private final boolean[] held = new boolean[CLASS_COUNT];
+        private final long[] currentPercent = new long[CLASS_COUNT];
+        private final long[] targetValue = new long[CLASS_COUNT];
+        private int tradeCount;
+        private final int[] tradeHolding;
+        private final int[] tradeShares;
+        private final boolean[] tradeSell;
+        private final long[] tradeDelta;
+        private final long[] tradeProportion;
+
+        Result(int holdings) {
+            int capacity = Math.max(holdings, CLASS_COUNT);
+            this.tradeHolding = new int[capacity];
+            this.tradeShares = new int[capacity];
+            this.tradeSell = new boolean[capacity];
+            this.tradeDelta = new long[capacity];
+            this.tradeProportion = new long[capacity];
+        }
+
+        /** Total value including cash (and the new cash, for a cash rebalance). */
+        public long totalValue() { return totalValue; }
+        /** Cash rebalance only: total value before the new cash is added. */
+        public long currentTotalValue() { return currentTotalValue; }
+        /** Scale the equivalent BigDecimal sum would carry. */
+        public int totalScale() { return totalScale; }
+        /** False when current percentages are undefined because there is nothing to divide by. */
+        public boolean hasPercentBase() { return percentBase; }
+        public long remainingCash() { return remainingCash; }
+
+        public boolean isHeld(int assetClass) { return held[assetClass]; }
+        public long classValue(int assetClass) { return classValue[assetClass]; }
+        public int classScale(int assetClass) { return classScale[assetClass]; }
+        public long currentPercent(int assetClass) { return currentPercent[assetClass]; }
+        public long targetValue(int assetClass) { return targetValue[assetClass]; }
+
+        /** Target minus current value of a class, at {@link #VALUE_SCALE}. */
+        public long classDelta(int assetClass) {
+            return Math.subtractExact(Math.multiplyExact(targetValue[assetClass], CENTS_TO_VALUE),
+                    classValue[assetClass]);
+        }
+
+        void addTrade(int holding, int shares, boolean sell, long delta, long proportion) {
+            int t = tradeCount++;
+            tradeHolding[t] = holding;
+            tradeShares[t] = shares;
+            tradeSell[t] = sell;
+            tradeDelta[t] = delta;
+            tradeProportion[t] = proportion;
+        }
+
+        public int tradeCount() { return tradeCount; }
+        public int tradeHolding(int trade) { return tradeHolding[trade]; }
+        public int tradeShares(int trade) { return tradeShares[trade]; }
+        public boolean tradeSell(int trade) { return tradeSell[trade]; }
+        /**
+         * Delta the trade was sized from, at {@link #VALUE_SCALE}: the class delta for proportional
+         * trades, the signed value of the trade itself for whole-share generators.
+         */
+        public long tradeDelta(int trade) { return tradeDelta[trade]; }
+        /** Share of the class delta assigned to the holding, in millionths. */
+        public long tradeProportion(int trade) { return tradeProportion[trade]; }
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.repository.TickerPurchase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Purchase dates per ticker, sorted, so whether a sale has a replacement purchase within the
+ * wash-sale window is a binary search instead of a scan over every trade. Built from the BUY
+ * trades of all of a user's portfolios, since a repurchase in any account counts. Immutable.
+ */
+public final class WashSaleIndex {
+
+    /** Days before and after a loss sale in which a purchase of the same ticker makes it a wash sale. */
+    public static final int WINDOW_DAYS = 30;
+
+    private final Map<String, Purchases> purchasesByTicker;
+
+    private WashSaleIndex(Map<String, Purchases> purchasesByTicker) {
+        this.purchasesByTicker = purchasesByTicker;
+    }
+
+    /**
+     * @param purchases BUY trades in any order; to answer sales between two dates they must cover
+     *                  {@link #WINDOW_DAYS} either side of that range
+     */
+    public static WashSaleIndex of(Collection<? extends TickerPurchase> purchases) {
+        Map<String, List<TickerPurchase>> grouped = new HashMap<>();
+        for (TickerPurchase purchase : purchases) {
+            grouped.computeIfAbsent(purchase.getTickerSymbol(), t -> new ArrayList<>()).add(purchase);
+        }
+        Map<String, Purchases> byTicker = new HashMap<>();
+        for (Map.Entry<String, List<TickerPurchase>> entry : grouped.entrySet()) {
+            List<TickerPurchase> sorted = entry.getValue();
+            sorted.sort(Comparator.comparing(TickerPurchase::getDate));
+            long[] days = new long[sorted.size()];
+            long[] tradeIds = new long[sorted.size()];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = sorted.get(i).getDate().toEpochDay();
+                tradeIds[i] = sorted.get(i).getTradeId();
+            }
+            byTicker.put(entry.getKey(), new Purchases(days, tradeIds));
+        }
+        return new WashSaleIndex(byTicker);
+    }
+
+    /**
+     * Whether shares of a lot sold at a loss were replaced: the ticker was bought within
+     * {@link #WINDOW_DAYS} of the sale by a trade other than those that opened the lots the sale
+     * consumed. Shares sold together cannot replace each other.
+     *
+     * @param soldLotTradeIds BUY trades of every lot consumed by the sale
+     */
+    public boolean isWashSale(String ticker, LocalDate sellDate, Set<Long> soldLotTradeIds, BigDecimal realizedGain) {
+        if (realizedGain.signum() >= 0) return false;
+        Purchases purchases = purchasesByTicker.get(ticker);
+        if (purchases == null) return false;
+
+        long from = sellDate.toEpochDay() - WINDOW_DAYS;
+        long to = sellDate.toEpochDay() + WINDOW_DAYS;
+        // Stops at the first purchase in the window that the sale did not consume
+        for (int i = purchases.firstOnOrAfter(from); i < purchases.days.length && purchases.days[i] <= to; i++) {
+            if (!soldLotTradeIds.contains(purchases.tradeIds[i])) return true;
+        }
+        return false;
+    }
+
+    private record Purchases(long[] days, long[] tradeIds) {
+
+        private int firstOnOrAfter(long day) {
+            int low = 0;
+            int high = days.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Dev database counterpart of id-sequences-postgres.sql. ddl-auto creates missing sequences
+-- starting at 1, below the ids already in use; run this from the H2 console, then restart the backend.
+
+CREATE SEQUENCE IF NOT EXISTS holdings_seq INCREMENT BY 50;
+ALTER SEQUENCE holdings_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM holdings);
+
+CREATE SEQUENCE IF NOT EXISTS trades_seq INCREMENT BY 50;
+ALTER SEQUENCE trades_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM trades);
+
+CREATE SEQUENCE IF NOT EXISTS tax_lots_seq INCREMENT BY 50;
+ALTER SEQUENCE tax_lots_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM tax_lots);
+
+CREATE SEQUENCE IF NOT EXISTS tax_lot_dispositions_seq INCREMENT BY 50;
+ALTER SEQUENCE tax_lot_dispositions_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM tax_lot_dispositions);
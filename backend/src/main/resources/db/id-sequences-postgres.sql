@@ -0,0 +1,15 @@
+-- Id sequences for holdings and trades, which used identity columns before bulk trade import.
+-- Hibernate allocates ids in blocks of 50 ending at the value nextval returns, so each sequence
+-- restarts 50 above the highest id in use. Safe to run again; run it before deploying the backend.
+
+CREATE SEQUENCE IF NOT EXISTS holdings_seq INCREMENT BY 50;
+SELECT setval('holdings_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM holdings), false);
+
+CREATE SEQUENCE IF NOT EXISTS trades_seq INCREMENT BY 50;
+SELECT setval('trades_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM trades), false);
+
+CREATE SEQUENCE IF NOT EXISTS tax_lots_seq INCREMENT BY 50;
+SELECT setval('tax_lots_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tax_lots), false);
+
+CREATE SEQUENCE IF NOT EXISTS tax_lot_dispositions_seq INCREMENT BY 50;
+SELECT setval('tax_lot_dispositions_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tax_lot_dispositions), false);
@@ -0,0 +1,98 @@
+package com.portfolio.rebalancer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class GatewayCircuitBreakerTest {
+
+    private static final long OPEN_MS = 1_000;
+
+    private long now;
+
+    private GatewayCircuitBreaker breaker(int failureThreshold, int maxConcurrentCalls) {
+        return new GatewayCircuitBreaker(failureThreshold, OPEN_MS, maxConcurrentCalls, () -> now);
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        GatewayCircuitBreaker breaker = breaker(3, 10);
+
+        fail(breaker, 2);
+        succeed(breaker);
+        fail(breaker, 2);
+        assertThat("a success resets the run", breaker.getState(), is(GatewayCircuitBreaker.State.CLOSED));
+
+        fail(breaker, 1);
+        assertThat(breaker.getState(), is(GatewayCircuitBreaker.State.OPEN));
+        assertThat(breaker.tryAcquire(), is(false));
+    }
+
+    @Test
+    void admitsOneTrialOnceTheOpenPeriodHasPassed() {
+        GatewayCircuitBreaker breaker = breaker(1, 10);
+        fail(breaker, 1);
+
+        advanceMillis(OPEN_MS - 1);
+        assertThat(breaker.tryAcquire(), is(false));
+
+        advanceMillis(1);
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.getState(), is(GatewayCircuitBreaker.State.HALF_OPEN));
+        assertThat("only one trial at a time", breaker.tryAcquire(), is(false));
+
+        breaker.onSuccess();
+        assertThat(breaker.getState(), is(GatewayCircuitBreaker.State.CLOSED));
+        assertThat(breaker.tryAcquire(), is(true));
+    }
+
+    @Test
+    void failedTrialReopensForAnotherFullPeriod() {
+        GatewayCircuitBreaker breaker = breaker(1, 10);
+        fail(breaker, 1);
+        advanceMillis(OPEN_MS);
+
+        assertThat(breaker.tryAcquire(), is(true));
+        breaker.onFailure();
+        assertThat(breaker.getState(), is(GatewayCircuitBreaker.State.OPEN));
+
+        advanceMillis(OPEN_MS - 1);
+        assertThat(breaker.tryAcquire(), is(false));
+        advanceMillis(1);
+        assertThat(breaker.tryAcquire(), is(true));
+    }
+
+    @Test
+    void bulkheadRefusesCallsBeyondTheLimit() {
+        GatewayCircuitBreaker breaker = breaker(5, 2);
+
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.tryAcquire(), is(true));
+        assertThat(breaker.tryAcquire(), is(false));
+        assertThat("a refused call is not a failure", breaker.getState(), is(GatewayCircuitBreaker.State.CLOSED));
+
+        breaker.onSuccess();
+        assertThat(breaker.tryAcquire(), is(true));
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire(), is(true));
+    }
+
+    private static void fail(GatewayCircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire(), is(true));
+            breaker.onFailure();
+        }
+    }
+
+    private static void succeed(GatewayCircuitBreaker breaker) {
+        assertThat(breaker.tryAcquire(), is(true));
+        breaker.onSuccess();
+    }
+}
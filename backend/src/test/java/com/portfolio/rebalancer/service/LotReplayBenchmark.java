@@ -0,0 +1,68 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import com.portfolio.rebalancer.entity.Trade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay of one holding's trade history: the queued {@link LotCalculationService#replay} against
+ * the list replay it replaced, which re-sorted the lots for every SELL. Run {@link #main} from the
+ * test classpath, for example from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LotReplayBenchmark {
+
+    @Param({"1000", "10000"})
+    private int trades;
+
+    @Param({"FIFO", "HIFO"})
+    private CostBasisMethod method;
+
+    private List<Trade> history;
+    private final LotCalculationService lotCalculationService = new LotCalculationService();
+    private final SortingLotReplay sortingReplay = new SortingLotReplay();
+
+    @Setup
+    public void setUp() {
+        history = TradeHistories.random(42, trades);
+    }
+
+    /** Lots are rebuilt from the trades on every call, so replays never share state. */
+    @Benchmark
+    public LotCalculationService.Ledger queuedReplay() {
+        return lotCalculationService.replay(history, method);
+    }
+
+    @Benchmark
+    public LotCalculationService.Ledger sortingReplay() {
+        return sortingReplay.replay(history, method);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LotReplayBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import com.portfolio.rebalancer.entity.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * The queued replay of {@link LotCalculationService} yields the same open lots and dispositions as
+ * the list replay it replaced, under every cost-basis method it orders.
+ */
+class LotReplayEquivalenceTest {
+
+    private static final List<CostBasisMethod> METHODS =
+            List.of(CostBasisMethod.FIFO, CostBasisMethod.LIFO, CostBasisMethod.HIFO);
+
+    private final LotCalculationService lotCalculationService = new LotCalculationService();
+    private final SortingLotReplay reference = new SortingLotReplay();
+
+    @Test
+    void replayMatchesSortingReplay() {
+        for (long seed = 1; seed <= 50; seed++) {
+            List<Trade> trades = TradeHistories.random(seed, 300);
+            for (CostBasisMethod method : METHODS) {
+                assertSameLedger(seed + " " + method,
+                        reference.replay(trades, method), lotCalculationService.replay(trades, method));
+            }
+        }
+    }
+
+    @Test
+    void replayMatchesSortingReplayOnLongHistory() {
+        List<Trade> trades = TradeHistories.random(42, 10_000);
+        for (CostBasisMethod method : METHODS) {
+            assertSameLedger(method.name(),
+                    reference.replay(trades, method), lotCalculationService.replay(trades, method));
+        }
+    }
+
+    private static void assertSameLedger(String reason, LotCalculationService.Ledger expected,
+                                         LotCalculationService.Ledger actual) {
+        assertThat(reason, actual.openLots(), hasSize(expected.openLots().size()));
+        for (int i = 0; i < expected.openLots().size(); i++) {
+            LotCalculationService.Lot e = expected.openLots().get(i);
+            LotCalculationService.Lot a = actual.openLots().get(i);
+            assertThat(reason, a.getTradeId(), is(e.getTradeId()));
+            assertThat(reason, a.getRemainingQuantity(), comparesEqualTo(e.getRemainingQuantity()));
+            assertThat(reason, a.getCostBasisPerShare(), comparesEqualTo(e.getCostBasisPerShare()));
+        }
+
+        assertThat(reason, actual.dispositions(), hasSize(expected.dispositions().size()));
+        for (int i = 0; i < expected.dispositions().size(); i++) {
+            LotCalculationService.LotDisposition e = expected.dispositions().get(i);
+            LotCalculationService.LotDisposition a = actual.dispositions().get(i);
+            assertThat(reason, a.getBuyTradeId(), is(e.getBuyTradeId()));
+            assertThat(reason, a.getSellTradeId(), is(e.getSellTradeId()));
+            assertThat(reason, a.getQuantitySold(), comparesEqualTo(e.getQuantitySold()));
+            assertThat(reason, a.getRealizedGain(), comparesEqualTo(e.getRealizedGain()));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import com.portfolio.rebalancer.exception.MarketDataUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Single-flight loading and background refresh in {@link MarketDataClient}, against a stubbed
+ * gateway. A caller blocked in the stub owns the request; callers for the same symbols meanwhile
+ * must join it.
+ */
+@Timeout(10)
+class MarketDataClientTest {
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private MarketDataClient client;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    /** Client over the gateway stub, with a cache that never serves a quote twice. */
+    private MarketDataClient client(Function<List<String>, List<QuoteResponse>> gateway) {
+        return client(new QuoteCache(100, 0, 0), 1, gateway);
+    }
+
+    private MarketDataClient client(QuoteCache cache, int refreshThreads,
+                                    Function<List<String>, List<QuoteResponse>> gateway) {
+        client = new MarketDataClient(null, null, cache,
+                new GatewayCircuitBreaker(100, 1_000, 100), events::add, refreshThreads, 1, symbols -> {
+                    requests.incrementAndGet();
+                    return gateway.apply(symbols);
+                });
+        return client;
+    }
+
+    /** Gateway stub that holds the request until {@link #release} and then prices the symbols it knows. */
+    private Function<List<String>, List<QuoteResponse>> heldGateway(Set<String> known) {
+        return symbols -> {
+            awaitRelease();
+            return symbols.stream().filter(known::contains).map(s -> quote(s, "10.00")).toList();
+        };
+    }
+
+    @Test
+    void joinerSharesTheOwnersRequest() throws InterruptedException {
+        MarketDataClient client = client(heldGateway(Set.of("AAA")));
+
+        CompletableFuture<QuoteResponse> owner = startBlocked(() -> client.fetchQuote("AAA"));
+        CompletableFuture<QuoteResponse> joiner = startBlocked(() -> client.fetchQuote("aaa"));
+        release.countDown();
+
+        assertThat(joiner.join(), sameInstance(owner.join()));
+        assertThat(owner.join().getRegularMarketPrice(), comparesEqualTo(new BigDecimal("10.00")));
+        assertThat(requests.get(), is(1));
+        assertThat("only the owner publishes", events, hasSize(1));
+        assertThat(((QuotesRefreshedEvent) events.get(0)).getQuotes(), contains(owner.join()));
+    }
+
+    @Test
+    void joinerGetsNoQuoteWhenTheGatewayOmitsTheSymbol() throws InterruptedException {
+        MarketDataClient client = client(heldGateway(Set.of("AAA")));
+
+        CompletableFuture<List<QuoteResponse>> owner = startBlocked(() -> client.fetchQuotes(List.of("AAA", "BBB")));
+        CompletableFuture<QuoteResponse> joiner = startBlocked(() -> client.requireQuote("BBB"));
+        release.countDown();
+
+        assertThat(owner.join(), hasSize(1));
+        // Unknown to the gateway, not unavailable: a placeholder rather than an exception
+        assertThat(joiner.join().getSymbol(), is("BBB"));
+        assertThat(joiner.join().getRegularMarketPrice(), comparesEqualTo(BigDecimal.ZERO));
+        assertThat(requests.get(), is(1));
+    }
+
+    @Test
+    void joinerFailsWhenTheOwnersRequestFails() throws InterruptedException {
+        MarketDataClient client = client(symbols -> {
+            awaitRelease();
+            throw new IllegalStateException("gateway down");
+        });
+
+        CompletableFuture<QuoteResponse> owner = startBlocked(() -> client.requireQuote("AAA"));
+        CompletableFuture<QuoteResponse> joiner = startBlocked(() -> client.requireQuote("AAA"));
+        release.countDown();
+
+        CompletionException ownerFailure = assertThrows(CompletionException.class, owner::join);
+        CompletionException joinerFailure = assertThrows(CompletionException.class, joiner::join);
+        assertThat(ownerFailure.getCause().getClass(), equalTo(MarketDataUnavailableException.class));
+        assertThat(joinerFailure.getCause().getClass(), equalTo(MarketDataUnavailableException.class));
+        assertThat(requests.get(), is(1));
+        assertThat(events, hasSize(0));
+    }
+
+    @Test
+    void overlappingLookupsNeverRequestASymbolTwiceAtOnce() throws InterruptedException {
+        List<String> universe = List.of("A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L");
+        Set<String> requesting = ConcurrentHashMap.newKeySet();
+        AtomicInteger overlaps = new AtomicInteger();
+        MarketDataClient client = client(symbols -> {
+            for (String symbol : symbols) {
+                if (!requesting.add(symbol)) {
+                    overlaps.incrementAndGet();
+                }
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                requesting.removeAll(symbols);
+            }
+            return symbols.stream().map(s -> quote(s, "10.00")).toList();
+        });
+
+        List<Thread> callers = new ArrayList<>();
+        List<String> failures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Random random = new Random(t);
+            callers.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    List<String> symbols = new ArrayList<>(universe);
+                    Collections.shuffle(symbols, random);
+                    symbols = symbols.subList(0, 1 + random.nextInt(symbols.size()));
+                    List<QuoteResponse> quotes = client.fetchQuotes(symbols);
+                    List<String> returned = quotes.stream().map(QuoteResponse::getSymbol).toList();
+                    if (!returned.equals(symbols)) {
+                        failures.add(symbols + " -> " + returned);
+                    }
+                }
+            }));
+        }
+        callers.forEach(Thread::start);
+        for (Thread caller : callers) {
+            caller.join();
+        }
+
+        assertThat(failures, hasSize(0));
+        assertThat(overlaps.get(), is(0));
+    }
+
+    @Test
+    void staleQuoteIsRefreshedOnceWhileARefreshIsRunning() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        QuoteCache cache = new QuoteCache(100, 1_000, 60_000, now::get);
+        // Enough refresh threads that a duplicate refresh would reach the gateway at once
+        MarketDataClient client = client(cache, 4, heldGateway(Set.of("AAA")));
+        QuoteResponse cached = quote("AAA", "9.00");
+        cache.put(cached);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(client.fetchQuote("AAA"), sameInstance(cached));
+        }
+        while (requests.get() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(100);
+        assertThat(requests.get(), is(1));
+
+        release.countDown();
+        while (cache.get("AAA").stale()) {
+            Thread.sleep(1);
+        }
+        assertThat(cache.get("AAA").quote().getRegularMarketPrice(), comparesEqualTo(new BigDecimal("10.00")));
+
+        // Once the refresh has finished the symbol can be refreshed again
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        while (requests.get() == 1) {
+            client.fetchQuote("AAA");
+            Thread.sleep(1);
+        }
+        assertThat(requests.get(), is(2));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Run the call on a new thread and return once it is parked, in the gateway stub or on a shared request. */
+    private static <T> CompletableFuture<T> startBlocked(Supplier<T> call) throws InterruptedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING && !result.isDone()) {
+            Thread.sleep(1);
+        }
+        return result;
+    }
+
+    private static QuoteResponse quote(String symbol, String price) {
+        return QuoteResponse.builder()
+                .symbol(symbol)
+                .regularMarketPrice(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.PortfolioResponse;
+import com.portfolio.rebalancer.entity.AssetClass;
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.entity.Portfolio;
+import com.portfolio.rebalancer.entity.TargetAllocation;
+import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * {@link PortfolioService#getAllPortfolios()} must load portfolios, allocations, holdings, trades
+ * and lots in a number of statements that does not grow with the portfolios or holdings.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PortfolioService.class, LotLedgerService.class, LotCalculationService.class})
+class PortfolioServiceQueryCountTest {
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAllPortfoliosRunsConstantNumberOfStatements() {
+        createPortfolios(1L, 1, 1);
+        createPortfolios(2L, 4, 5);
+        entityManager.flush();
+
+        long small = statementsToLoadPortfoliosOf(1L, 1, 1);
+        long large = statementsToLoadPortfoliosOf(2L, 4, 5);
+
+        assertThat(large, is(small));
+    }
+
+    private long statementsToLoadPortfoliosOf(Long ownerId, int portfolios, int holdingsPerPortfolio) {
+        entityManager.clear();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user" + ownerId, ownerId, List.of()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PortfolioResponse> responses = portfolioService.getAllPortfolios();
+
+        assertThat(responses, hasSize(portfolios));
+        for (PortfolioResponse response : responses) {
+            assertThat(response.getHoldings(), hasSize(holdingsPerPortfolio));
+            assertThat(response.getTargetAllocations(), hasSize(2));
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createPortfolios(Long ownerId, int portfolios, int holdingsPerPortfolio) {
+        for (int p = 0; p < portfolios; p++) {
+            Portfolio portfolio = entityManager.persist(Portfolio.builder()
+                    .name("Portfolio " + ownerId + "-" + p)
+                    .ownerId(ownerId)
+                    .costBasisMethod(CostBasisMethod.FIFO)
+                    .build());
+            for (AssetClass assetClass : List.of(AssetClass.EQUITY, AssetClass.BOND)) {
+                entityManager.persist(TargetAllocation.builder()
+                        .portfolio(portfolio)
+                        .assetClass(assetClass)
+                        .targetPercentage(new BigDecimal("50.00"))
+                        .build());
+            }
+            for (int h = 0; h < holdingsPerPortfolio; h++) {
+                Holding holding = entityManager.persist(Holding.builder()
+                        .portfolio(portfolio)
+                        .tickerSymbol("T" + h)
+                        .name("Ticker " + h)
+                        .assetClass(h % 2 == 0 ? AssetClass.EQUITY : AssetClass.BOND)
+                        .currency("USD")
+                        .build());
+                entityManager.persist(trade(holding, TradeType.BUY, "10", "100.00", LocalDate.of(2024, 1, 2)));
+                entityManager.persist(trade(holding, TradeType.BUY, "5", "120.00", LocalDate.of(2024, 3, 1)));
+                entityManager.persist(trade(holding, TradeType.SELL, "3", "130.00", LocalDate.of(2024, 6, 3)));
+            }
+        }
+    }
+
+    private static Trade trade(Holding holding, TradeType type, String quantity, String price, LocalDate date) {
+        return Trade.builder()
+                .holding(holding)
+                .type(type)
+                .quantity(new BigDecimal(quantity))
+                .price(new BigDecimal(price))
+                .fee(BigDecimal.ZERO)
+                .date(date)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
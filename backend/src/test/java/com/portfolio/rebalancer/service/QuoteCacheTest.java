@@ -0,0 +1,99 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class QuoteCacheTest {
+
+    private static final long FRESH_MS = 1_000;
+    private static final long STALE_MS = 10_000;
+
+    private long now;
+
+    private QuoteCache cache(int maxEntries) {
+        return new QuoteCache(maxEntries, FRESH_MS, STALE_MS, () -> now);
+    }
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void servesFreshThenStaleThenMisses() {
+        QuoteCache cache = cache(10);
+        QuoteResponse quote = quote("AAA", "10.00");
+        cache.put(quote);
+
+        advanceMillis(FRESH_MS - 1);
+        assertThat(cache.get("aaa").quote(), sameInstance(quote));
+        assertThat(cache.get("AAA").stale(), is(false));
+
+        advanceMillis(1);
+        assertThat(cache.get("AAA").quote(), sameInstance(quote));
+        assertThat(cache.get("AAA").stale(), is(true));
+
+        advanceMillis(STALE_MS - FRESH_MS - 1);
+        assertThat(cache.get("AAA").stale(), is(true));
+
+        advanceMillis(1);
+        assertThat(cache.get("AAA"), nullValue());
+        assertThat("kept for outages", cache.lastKnown("AAA"), sameInstance(quote));
+
+        assertThat(cache.getStats().getHits(), is(5L));
+        assertThat(cache.getStats().getMisses(), is(1L));
+    }
+
+    @Test
+    void putRestartsTheTtl() {
+        QuoteCache cache = cache(10);
+        cache.put(quote("AAA", "10.00"));
+        advanceMillis(STALE_MS);
+
+        QuoteResponse refreshed = quote("AAA", "11.00");
+        cache.put(refreshed);
+        assertThat(cache.get("AAA").quote(), sameInstance(refreshed));
+        assertThat(cache.get("AAA").stale(), is(false));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedQuote() {
+        QuoteCache cache = cache(2);
+        cache.put(quote("AAA", "10.00"));
+        cache.put(quote("BBB", "10.00"));
+        assertThat(cache.get("AAA"), notNullValue());
+
+        cache.put(quote("CCC", "10.00"));
+        assertThat(cache.get("BBB"), nullValue());
+        assertThat(cache.get("AAA"), notNullValue());
+        assertThat(cache.get("CCC"), notNullValue());
+        assertThat(cache.getStats().getEvictions(), is(1L));
+        assertThat(cache.getStats().getSize(), is(2));
+    }
+
+    @Test
+    void ignoresQuotesWithoutAPriceAndLastKnownQuotes() {
+        QuoteCache cache = cache(10);
+        cache.put(quote("AAA", "0"));
+        cache.put(QuoteResponse.builder().symbol("BBB").regularMarketPrice(BigDecimal.TEN).stale(true).build());
+
+        assertThat(cache.get("AAA"), nullValue());
+        assertThat(cache.get("BBB"), nullValue());
+        assertThat(cache.getStats().getSize(), is(0));
+    }
+
+    private static QuoteResponse quote(String symbol, String price) {
+        return QuoteResponse.builder()
+                .symbol(symbol)
+                .regularMarketPrice(new BigDecimal(price))
+                .build();
+    }
+}
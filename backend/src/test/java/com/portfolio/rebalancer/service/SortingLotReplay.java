@@ -0,0 +1,53 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The lot replay as it was before {@link LotCalculationService} queued lots: open lots kept in a
+ * list that every SELL re-sorts in the method's consumption order. Exhausted lots stay in the list.
+ * Reference for the replay-equivalence test and the benchmark.
+ */
+class SortingLotReplay {
+
+    private final LotCalculationService lotCalculationService = new LotCalculationService();
+
+    LotCalculationService.Ledger replay(List<Trade> trades, CostBasisMethod method) {
+        Comparator<LotCalculationService.Lot> order = LotCalculationService.consumptionOrder(method);
+        List<LotCalculationService.Lot> lots = new ArrayList<>();
+        List<LotCalculationService.LotDisposition> dispositions = new ArrayList<>();
+        for (Trade trade : trades.stream().sorted(LotCalculationService.REPLAY_ORDER).toList()) {
+            if (trade.getType() == TradeType.BUY) {
+                lots.add(lotCalculationService.toLot(trade));
+                continue;
+            }
+
+            BigDecimal remaining = trade.getQuantity();
+            BigDecimal sellNetPrice = lotCalculationService.sellNetPrice(trade);
+            lots.sort(order);
+            for (LotCalculationService.Lot lot : lots) {
+                if (remaining.compareTo(BigDecimal.ZERO) <= 0) break;
+                if (lot.getRemainingQuantity().compareTo(BigDecimal.ZERO) <= 0) continue;
+
+                BigDecimal consumed = lot.getRemainingQuantity().min(remaining);
+                lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(consumed));
+                remaining = remaining.subtract(consumed);
+                dispositions.add(new LotCalculationService.LotDisposition(
+                        lot.getTradeId(), trade.getId(), consumed, lot.getCostBasisPerShare(), trade.getPrice(),
+                        sellNetPrice.subtract(lot.getCostBasisPerShare()).multiply(consumed)));
+            }
+        }
+
+        List<LotCalculationService.Lot> open = new ArrayList<>(lots.stream()
+                .filter(lot -> lot.getRemainingQuantity().compareTo(BigDecimal.ZERO) > 0)
+                .toList());
+        open.sort(LotCalculationService.consumptionOrder(CostBasisMethod.FIFO));
+        return new LotCalculationService.Ledger(open, dispositions);
+    }
+}
@@ -0,0 +1,96 @@
+package com.portfolio.rebalancer.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full rebalance of one large synthetic portfolio with each trade generation strategy, against the
+ * proportional one the others are offered as an alternative to. Branch-and-bound runs with the
+ * default {@code app.rebalance.strategy-time-budget-ms}. Run {@link #main} from the test classpath,
+ * for example from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradeGeneratorBenchmark {
+
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Param({"100", "1000"})
+    private int holdings;
+
+    private ValuationKernel kernel;
+
+    @Setup
+    public void setUp() {
+        kernel = randomKernel(new Random(42), holdings);
+    }
+
+    /** Generators keep per-run state, so each call takes a new one as {@link RebalanceService} does. */
+    @Benchmark
+    public ValuationKernel.Result proportional() {
+        return kernel.rebalance(new ProportionalTradeGenerator());
+    }
+
+    @Benchmark
+    public ValuationKernel.Result greedy() {
+        return kernel.rebalance(new GreedyTradeGenerator());
+    }
+
+    @Benchmark
+    public ValuationKernel.Result branchAndBound() {
+        return kernel.rebalance(new BranchAndBoundTradeGenerator(BUDGET_NANOS));
+    }
+
+    /**
+     * Holdings spread over every asset class with up to 2,000 whole shares priced between 1 and
+     * 500, targets of 20% per class and some cash, so that every class is off target.
+     */
+    static ValuationKernel randomKernel(Random random, int size) {
+        int[] assetClass = new int[size];
+        long[] quantity = new long[size];
+        int[] quantityScale = new int[size];
+        long[] price = new long[size];
+        int[] priceScale = new int[size];
+        for (int i = 0; i < size; i++) {
+            assetClass[i] = random.nextInt(ValuationKernel.CLASS_COUNT);
+            quantity[i] = (1 + random.nextInt(2_000)) * FixedPoint.pow10(ValuationKernel.QUANTITY_SCALE);
+            price[i] = 10_000 + random.nextInt(5_000_000);
+            priceScale[i] = ValuationKernel.PRICE_SCALE;
+        }
+        long[] targetPercent = new long[ValuationKernel.CLASS_COUNT];
+        boolean[] targeted = new boolean[ValuationKernel.CLASS_COUNT];
+        for (int c = 0; c < ValuationKernel.CLASS_COUNT; c++) {
+            targetPercent[c] = 100 * FixedPoint.pow10(ValuationKernel.PERCENT_SCALE) / ValuationKernel.CLASS_COUNT;
+            targeted[c] = true;
+        }
+        long cash = 50_000 * ValuationKernel.ONE_VALUE;
+        return new ValuationKernel(assetClass, quantity, quantityScale, price, price.clone(), priceScale,
+                targetPercent, targeted, cash, 2);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TradeGeneratorBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,60 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.entity.Trade;
+import com.portfolio.rebalancer.entity.TradeType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random trade histories of one holding. Prices come from a small set and several trades share a
+ * date, so cost-basis and date ties are common; sells never exceed the shares held.
+ */
+final class TradeHistories {
+
+    private TradeHistories() {
+    }
+
+    static List<Trade> random(long seed, int size) {
+        Random random = new Random(seed);
+        List<Trade> trades = new ArrayList<>(size);
+        LocalDate date = LocalDate.of(2015, 1, 2);
+        BigDecimal held = BigDecimal.ZERO;
+        for (long id = 1; id <= size; id++) {
+            if (random.nextInt(3) == 0) {
+                date = date.plusDays(1 + random.nextInt(5));
+            }
+            BigDecimal price = BigDecimal.valueOf(50 + 5 * random.nextInt(8), 0).setScale(4);
+            BigDecimal fee = random.nextBoolean() ? BigDecimal.ZERO : new BigDecimal("1.00");
+            boolean sell = held.signum() > 0 && random.nextInt(5) < 2;
+            BigDecimal quantity;
+            if (sell) {
+                quantity = held.multiply(BigDecimal.valueOf(1 + random.nextInt(100), 2))
+                        .setScale(6, RoundingMode.DOWN);
+                if (quantity.signum() == 0) {
+                    quantity = held;
+                }
+                held = held.subtract(quantity);
+            } else {
+                quantity = BigDecimal.valueOf(1 + random.nextInt(50_000), 3).setScale(6);
+                held = held.add(quantity);
+            }
+            trades.add(Trade.builder()
+                    .id(id)
+                    .date(date)
+                    .type(sell ? TradeType.SELL : TradeType.BUY)
+                    .quantity(quantity)
+                    .price(price)
+                    .fee(fee)
+                    .build());
+        }
+        // Replay must not depend on the order trades are read in
+        Collections.shuffle(trades, random);
+        return trades;
+    }
+}
@@ -0,0 +1,257 @@
+package com.portfolio.rebalancer.service;
+
+import com.portfolio.rebalancer.dto.response.QuoteResponse;
+import com.portfolio.rebalancer.dto.response.RebalanceResponse;
+import com.portfolio.rebalancer.dto.response.RebalanceResponse.AllocationComparison;
+import com.portfolio.rebalancer.dto.response.RebalanceResponse.TradeRecommendation;
+import com.portfolio.rebalancer.entity.AssetClass;
+import com.portfolio.rebalancer.entity.CostBasisMethod;
+import com.portfolio.rebalancer.entity.Holding;
+import com.portfolio.rebalancer.entity.Portfolio;
+import com.portfolio.rebalancer.entity.TargetAllocation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * The fixed-point {@link ValuationKernel} produces the same rebalance as the BigDecimal
+ * implementation it replaced, scale included, for every input it accepts. Near the long range it
+ * must either decline the input or overflow, never return a different answer.
+ */
+class ValuationKernelEquivalenceTest {
+
+    private static final AssetClass[] CLASSES = AssetClass.values();
+
+    /** Largest value the kernel holds, in whole currency units. */
+    private static final long VALUE_LIMIT = Long.MAX_VALUE / ValuationKernel.ONE_VALUE;
+
+    private final RebalanceService rebalanceService = new RebalanceService(null, null, null, null,
+            new LotCalculationService(), null, ForkJoinPool.commonPool(), new RebalanceCache(1), 1000);
+
+    @Test
+    void rebalanceMatchesBigDecimal() {
+        for (long seed = 1; seed <= 500; seed++) {
+            Inputs in = Inputs.random(new Random(seed), 10_000);
+            ValuationKernel kernel = in.kernel();
+            assertThat("seed " + seed, kernel != null, is(true));
+            assertSameRebalance("seed " + seed, in, kernel.rebalance(new ProportionalTradeGenerator()), kernel);
+        }
+    }
+
+    @Test
+    void cashRebalanceMatchesBigDecimal() {
+        for (long seed = 1; seed <= 500; seed++) {
+            Random random = new Random(seed);
+            Inputs in = Inputs.random(random, 10_000);
+            BigDecimal newCash = decimal(random, 1_000_000, 2);
+            ValuationKernel kernel = in.kernel();
+            assertThat("seed " + seed, kernel != null, is(true));
+            assertSameCashRebalance("seed " + seed, in, newCash, kernel.cashRebalance(
+                    FixedPoint.toScaled(newCash, ValuationKernel.VALUE_SCALE), newCash.scale()));
+        }
+    }
+
+    @Test
+    void gatewayPricesWithManyDecimalsAreRoundedLikeBigDecimal() {
+        for (long seed = 1; seed <= 500; seed++) {
+            Random random = new Random(seed);
+            Inputs in = Inputs.random(random, 10_000).withGatewayPrices(random);
+            BigDecimal newCash = decimal(random, 1_000_000, 2);
+            ValuationKernel kernel = in.kernel();
+            assertThat("seed " + seed, kernel != null, is(true));
+            assertSameRebalance("seed " + seed, in, kernel.rebalance(new ProportionalTradeGenerator()), kernel);
+            assertSameCashRebalance("seed " + seed, in, newCash, kernel.cashRebalance(
+                    FixedPoint.toScaled(newCash, ValuationKernel.VALUE_SCALE), newCash.scale()));
+        }
+    }
+
+    @Test
+    void roundsPricesHalfUpToThePriceScale() {
+        assertThat(ValuationKernel.roundPrice(new BigDecimal("187.4499969482422")), equalTo(new BigDecimal("187.4500")));
+        assertThat(ValuationKernel.roundPrice(new BigDecimal("0.00005")), equalTo(new BigDecimal("0.0001")));
+        assertThat("shorter prices keep their scale", ValuationKernel.roundPrice(new BigDecimal("187.45")),
+                equalTo(new BigDecimal("187.45")));
+    }
+
+    @Test
+    void nearTheLongLimitKernelMatchesOrOverflows() {
+        int matched = 0;
+        int overflowed = 0;
+        for (long seed = 1; seed <= 2_000; seed++) {
+            Random random = new Random(seed);
+            // Portfolios worth up to about twice what the kernel can hold
+            Inputs in = Inputs.random(random, 2 * VALUE_LIMIT);
+            BigDecimal newCash = decimal(random, VALUE_LIMIT / 4, 2);
+            ValuationKernel kernel = in.kernel();
+            if (kernel == null) {
+                overflowed++;
+                continue;
+            }
+            String reason = "seed " + seed;
+            try {
+                assertSameRebalance(reason, in, kernel.rebalance(new ProportionalTradeGenerator()), kernel);
+                matched++;
+            } catch (ArithmeticException e) {
+                overflowed++;
+            }
+            try {
+                assertSameCashRebalance(reason, in, newCash, kernel.cashRebalance(
+                        FixedPoint.toScaled(newCash, ValuationKernel.VALUE_SCALE), newCash.scale()));
+                matched++;
+            } catch (ArithmeticException e) {
+                overflowed++;
+            }
+        }
+        // Both sides of the limit were exercised
+        assertThat(matched, greaterThan(100));
+        assertThat(overflowed, greaterThan(100));
+    }
+
+    private void assertSameRebalance(String reason, Inputs in, ValuationKernel.Result result,
+                                     ValuationKernel kernel) {
+        RebalanceResponse expected = rebalanceService.rebalanceWithBigDecimal(in.portfolio.getId(), in.portfolio,
+                in.holdings, in.targets, in.priceMap, in.openLots());
+        RebalanceResponse actual = rebalanceService.toRebalanceResponse(in.portfolio.getId(), in.holdings,
+                in.priceMap, in.targets, kernel, result, in.openLots());
+        assertSameResponse(reason, expected, actual);
+    }
+
+    private void assertSameCashRebalance(String reason, Inputs in, BigDecimal newCash, ValuationKernel.Result result) {
+        RebalanceResponse expected = rebalanceService.cashRebalanceWithBigDecimal(in.portfolio.getId(), in.portfolio,
+                in.holdings, in.targets, in.priceMap, newCash);
+        RebalanceResponse actual = rebalanceService.toCashRebalanceResponse(in.portfolio.getId(), in.holdings,
+                in.priceMap, in.targets, result);
+        assertSameResponse(reason, expected, actual);
+    }
+
+    private static void assertSameResponse(String reason, RebalanceResponse expected, RebalanceResponse actual) {
+        assertThat(reason, actual.getTotalPortfolioValue(), equalTo(expected.getTotalPortfolioValue()));
+        assertThat(reason, actual.getUnallocatedCash(), equalTo(expected.getUnallocatedCash()));
+
+        assertThat(reason, actual.getAllocations(), hasSize(expected.getAllocations().size()));
+        for (int i = 0; i < expected.getAllocations().size(); i++) {
+            AllocationComparison e = expected.getAllocations().get(i);
+            AllocationComparison a = actual.getAllocations().get(i);
+            String where = reason + " " + e.getAssetClass();
+            assertThat(where, a.getAssetClass(), is(e.getAssetClass()));
+            assertThat(where, a.getCurrentPercentage(), equalTo(e.getCurrentPercentage()));
+            assertThat(where, a.getTargetPercentage(), equalTo(e.getTargetPercentage()));
+            assertThat(where, a.getDriftPercentage(), equalTo(e.getDriftPercentage()));
+            assertThat(where, a.getCurrentValue(), equalTo(e.getCurrentValue()));
+            assertThat(where, a.getTargetValue(), equalTo(e.getTargetValue()));
+        }
+
+        assertThat(reason, actual.getTrades(), hasSize(expected.getTrades().size()));
+        for (int i = 0; i < expected.getTrades().size(); i++) {
+            TradeRecommendation e = expected.getTrades().get(i);
+            TradeRecommendation a = actual.getTrades().get(i);
+            String where = reason + " " + e.getTickerSymbol();
+            assertThat(where, a.getHoldingId(), is(e.getHoldingId()));
+            assertThat(where, a.getAction(), is(e.getAction()));
+            assertThat(where, a.getShares(), is(e.getShares()));
+            assertThat(where, a.getCurrentPrice(), equalTo(e.getCurrentPrice()));
+            assertThat(where, a.getEstimatedCost(), equalTo(e.getEstimatedCost()));
+            assertThat(where, a.getCurrentWeight(), equalTo(e.getCurrentWeight()));
+            assertThat(where, a.getTargetWeight(), equalTo(e.getTargetWeight()));
+        }
+    }
+
+    /** A random positive decimal below {@code bound} with up to {@code maxScale} decimal places. */
+    private static BigDecimal decimal(Random random, long bound, int maxScale) {
+        int scale = random.nextInt(maxScale + 1);
+        long units = 1 + (long) (random.nextDouble() * random.nextDouble() * (bound - 1));
+        long fraction = random.nextInt((int) FixedPoint.pow10(scale));
+        return BigDecimal.valueOf(units).add(BigDecimal.valueOf(fraction, scale)).setScale(scale);
+    }
+
+    /** One portfolio with its holdings, quotes and targets. */
+    private record Inputs(Portfolio portfolio, List<Holding> holdings, Map<String, QuoteResponse> priceMap,
+                          List<TargetAllocation> targets) {
+
+        /**
+         * Up to eight holdings with quantities at up to six and prices at up to four decimal places,
+         * some without a quote; targets on a random subset of classes adding up to 100%.
+         */
+        static Inputs random(Random random, long maxValue) {
+            Portfolio portfolio = Portfolio.builder()
+                    .id(1L)
+                    .cashBalance(random.nextInt(4) == 0 ? BigDecimal.ZERO : decimal(random, maxValue / 10 + 2, 2))
+                    .costBasisMethod(CostBasisMethod.FIFO)
+                    .build();
+
+            int size = 1 + random.nextInt(8);
+            List<Holding> holdings = new ArrayList<>(size);
+            Map<String, QuoteResponse> priceMap = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                String ticker = "T" + i;
+                Holding h = Holding.builder()
+                        .id((long) i + 1)
+                        .portfolio(portfolio)
+                        .tickerSymbol(ticker)
+                        .assetClass(CLASSES[random.nextInt(CLASSES.length)])
+                        .currency("USD")
+                        .build();
+                BigDecimal price = decimal(random, 5_000, ValuationKernel.PRICE_SCALE);
+                long maxQuantity = Math.max(2, maxValue / size / price.longValue() + 1);
+                h.setQuantity(decimal(random, maxQuantity, ValuationKernel.QUANTITY_SCALE));
+                holdings.add(h);
+                if (random.nextInt(10) != 0) {
+                    priceMap.put(ticker, QuoteResponse.builder().symbol(ticker).regularMarketPrice(price).build());
+                }
+            }
+
+            List<AssetClass> targeted = new ArrayList<>(List.of(CLASSES));
+            Collections.shuffle(targeted, random);
+            targeted = targeted.subList(0, 1 + random.nextInt(CLASSES.length));
+            List<TargetAllocation> targets = new ArrayList<>();
+            long remainingBasisPoints = 10_000;
+            for (int c = 0; c < targeted.size(); c++) {
+                long basisPoints = c == targeted.size() - 1
+                        ? remainingBasisPoints
+                        : (long) (random.nextDouble() * remainingBasisPoints);
+                remainingBasisPoints -= basisPoints;
+                targets.add(new TargetAllocation(null, portfolio, targeted.get(c), BigDecimal.valueOf(basisPoints, 2)));
+            }
+            return new Inputs(portfolio, holdings, priceMap, targets);
+        }
+
+        /** The same inputs quoted as the gateway quotes them: doubles printed with all their decimals. */
+        Inputs withGatewayPrices(Random random) {
+            Map<String, QuoteResponse> gatewayPrices = new HashMap<>();
+            priceMap.forEach((ticker, quote) -> {
+                double price = quote.getRegularMarketPrice().doubleValue() * (1 + random.nextGaussian() * 1e-6);
+                gatewayPrices.put(ticker, QuoteResponse.builder()
+                        .symbol(ticker)
+                        .regularMarketPrice(new BigDecimal(Double.toString(price)))
+                        .build());
+            });
+            return new Inputs(portfolio, holdings, gatewayPrices, targets);
+        }
+
+        ValuationKernel kernel() {
+            return ValuationKernel.of(holdings, priceMap, targets, portfolio.getCashBalance());
+        }
+
+        /** No open lots, so SELL breakdowns never reach the lot ledger. */
+        Map<Long, List<LotCalculationService.Lot>> openLots() {
+            Map<Long, List<LotCalculationService.Lot>> openLots = new HashMap<>();
+            for (Holding h : holdings) {
+                openLots.put(h.getId(), List.of());
+            }
+            return openLots;
+        }
+    }
+}
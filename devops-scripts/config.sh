@@ -32,6 +32,13 @@ FRONTEND_PORT=3000
 # Spring profiles
 SPRING_PROFILE="${SPRING_PROFILE:-dev}"
 
+# The JDK HttpClient reads its pool settings once, when the first client is created, so they are
+# passed at launch; defaults match app.http-client in the backend's application.yml
+BACKEND_JVM_OPTS=(
+  "-Djdk.httpclient.connectionPoolSize=${HTTP_CLIENT_POOL_SIZE:-32}"
+  "-Djdk.httpclient.keepalive.timeout=${HTTP_CLIENT_KEEP_ALIVE_SECONDS:-60}"
+)
+
 # Colors
 RED='\033[0;31m'
 GREEN='\033[0;32m'
@@ -17,7 +17,7 @@ fi
 
 log_info "Starting backend (profile: $SPRING_PROFILE)..."
 cd "$BACKEND_DIR"
-"$JAVA" -jar "$BACKEND_JAR" --spring.profiles.active="$SPRING_PROFILE" > /dev/null 2>&1 &
+"$JAVA" "${BACKEND_JVM_OPTS[@]}" -jar "$BACKEND_JAR" --spring.profiles.active="$SPRING_PROFILE" > /dev/null 2>&1 &
 BACKEND_PID=$!
 sleep 2
 
@@ -1,9 +1,13 @@
 import axiosClient from './axiosClient';
-import { Trade, CreateTradeRequest } from '../types/holding';
+import { Trade, TradePage, CreateTradeRequest } from '../types/holding';
 
 export const tradeApi = {
   getAll: (portfolioId: number, holdingId: number) =>
     axiosClient.get<Trade[]>(`/portfolios/${portfolioId}/holdings/${holdingId}/trades`),
+  getPage: (portfolioId: number, holdingId: number, cursor?: string | null) =>
+    axiosClient.get<TradePage>(`/portfolios/${portfolioId}/holdings/${holdingId}/trades/page`, {
+      params: cursor ? { cursor } : undefined,
+    }),
   add: (portfolioId: number, holdingId: number, data: CreateTradeRequest) =>
     axiosClient.post<Trade>(`/portfolios/${portfolioId}/holdings/${holdingId}/trades`, data),
   update: (portfolioId: number, holdingId: number, tradeId: number, data: CreateTradeRequest) =>
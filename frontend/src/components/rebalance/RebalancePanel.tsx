@@ -85,6 +85,11 @@ export default function RebalancePanel({ portfolioId }: Props) {
 
       {result && (
         <>
+          {result.stalePrices && (
+            <div className="bg-yellow-50 border border-yellow-200 text-yellow-700 px-4 py-3 rounded text-center">
+              Market data is unavailable; some prices are the last known quotes and may be out of date.
+            </div>
+          )}
           <div className="bg-white rounded-lg shadow-sm border p-6">
             <div className="text-center">
               <p className="text-sm text-gray-500">Total Portfolio Value</p>
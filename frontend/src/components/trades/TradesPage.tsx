@@ -6,6 +6,7 @@ import { RootState } from '../../store';
 import { fetchHoldingsRequest } from '../../store/slices/holdingSlice';
 import {
   fetchTradesRequest,
+  fetchMoreTradesRequest,
   addTradeRequest,
   updateTradeRequest,
   deleteTradeRequest,
@@ -96,7 +97,7 @@ export default function TradesPage() {
   const navigate = useNavigate();
 
   const { holdings } = useSelector((state: RootState) => state.holding);
-  const { trades, loading } = useSelector((state: RootState) => state.trade);
+  const { trades, nextCursor, loading } = useSelector((state: RootState) => state.trade);
   const holding = holdings.find((h) => h.id === holdingId);
 
   const [editingId, setEditingId] = useState<number | null>(null);
@@ -239,6 +240,18 @@ export default function TradesPage() {
               })}
             </tbody>
           </table>
+          {nextCursor && (
+            <div className="border-t px-4 py-3 text-center">
+              <button
+                type="button"
+                onClick={() => dispatch(fetchMoreTradesRequest({ portfolioId, holdingId, cursor: nextCursor }))}
+                disabled={loading}
+                className="text-blue-600 hover:text-blue-800 text-sm disabled:opacity-50"
+              >
+                Load more
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
@@ -5,6 +5,7 @@ import { extractErrorMessage } from '../../utils/extractErrorMessage';
 import { CreateTradeRequest } from '../../types/holding';
 import {
   fetchTradesRequest, fetchTradesSuccess, fetchTradesFailure,
+  fetchMoreTradesRequest, fetchMoreTradesSuccess,
   addTradeRequest, addTradeSuccess, addTradeFailure,
   updateTradeRequest, updateTradeSuccess, updateTradeFailure,
   deleteTradeRequest, deleteTradeSuccess, deleteTradeFailure,
@@ -12,8 +13,8 @@ import {
 
 function* handleFetchTrades(action: PayloadAction<{ portfolioId: number; holdingId: number }>) {
   try {
-    const response: Awaited<ReturnType<typeof tradeApi.getAll>> = yield call(
-      tradeApi.getAll, action.payload.portfolioId, action.payload.holdingId
+    const response: Awaited<ReturnType<typeof tradeApi.getPage>> = yield call(
+      tradeApi.getPage, action.payload.portfolioId, action.payload.holdingId
     );
     yield put(fetchTradesSuccess(response.data));
   } catch (error: unknown) {
@@ -22,6 +23,18 @@ function* handleFetchTrades(action: PayloadAction<{ portfolioId: number; holding
   }
 }
 
+function* handleFetchMoreTrades(action: PayloadAction<{ portfolioId: number; holdingId: number; cursor: string }>) {
+  try {
+    const response: Awaited<ReturnType<typeof tradeApi.getPage>> = yield call(
+      tradeApi.getPage, action.payload.portfolioId, action.payload.holdingId, action.payload.cursor
+    );
+    yield put(fetchMoreTradesSuccess(response.data));
+  } catch (error: unknown) {
+    const msg = extractErrorMessage(error, 'Failed to fetch trades');
+    yield put(fetchTradesFailure(msg));
+  }
+}
+
 function* handleAddTrade(action: PayloadAction<{ portfolioId: number; holdingId: number; data: CreateTradeRequest }>) {
   try {
     const response: Awaited<ReturnType<typeof tradeApi.add>> = yield call(
@@ -58,6 +71,7 @@ function* handleDeleteTrade(action: PayloadAction<{ portfolioId: number; holding
 
 export default function* tradeSaga() {
   yield takeLatest(fetchTradesRequest.type, handleFetchTrades);
+  yield takeLatest(fetchMoreTradesRequest.type, handleFetchMoreTrades);
   yield takeLatest(addTradeRequest.type, handleAddTrade);
   yield takeLatest(updateTradeRequest.type, handleUpdateTrade);
   yield takeLatest(deleteTradeRequest.type, handleDeleteTrade);
@@ -1,14 +1,16 @@
 import { createSlice, PayloadAction } from '@reduxjs/toolkit';
-import { Trade, CreateTradeRequest } from '../../types/holding';
+import { Trade, TradePage, CreateTradeRequest } from '../../types/holding';
 
 interface TradeState {
   trades: Trade[];
+  nextCursor: string | null;
   loading: boolean;
   error: string | null;
 }
 
 const initialState: TradeState = {
   trades: [],
+  nextCursor: null,
   loading: false,
   error: null,
 };
@@ -21,14 +23,24 @@ const tradeSlice = createSlice({
       state.loading = true;
       state.error = null;
     },
-    fetchTradesSuccess: (state, action: PayloadAction<Trade[]>) => {
+    fetchTradesSuccess: (state, action: PayloadAction<TradePage>) => {
       state.loading = false;
-      state.trades = action.payload;
+      state.trades = action.payload.trades;
+      state.nextCursor = action.payload.nextCursor;
     },
     fetchTradesFailure: (state, action: PayloadAction<string>) => {
       state.loading = false;
       state.error = action.payload;
     },
+    fetchMoreTradesRequest: (state, _action: PayloadAction<{ portfolioId: number; holdingId: number; cursor: string }>) => {
+      state.loading = true;
+      state.error = null;
+    },
+    fetchMoreTradesSuccess: (state, action: PayloadAction<TradePage>) => {
+      state.loading = false;
+      state.trades.push(...action.payload.trades);
+      state.nextCursor = action.payload.nextCursor;
+    },
     addTradeRequest: (state, _action: PayloadAction<{ portfolioId: number; holdingId: number; data: CreateTradeRequest }>) => {
       state.loading = true;
       state.error = null;
@@ -68,12 +80,14 @@ const tradeSlice = createSlice({
     },
     clearTrades: (state) => {
       state.trades = [];
+      state.nextCursor = null;
     },
   },
 });
 
 export const {
   fetchTradesRequest, fetchTradesSuccess, fetchTradesFailure,
+  fetchMoreTradesRequest, fetchMoreTradesSuccess,
   addTradeRequest, addTradeSuccess, addTradeFailure,
   updateTradeRequest, updateTradeSuccess, updateTradeFailure,
   deleteTradeRequest, deleteTradeSuccess, deleteTradeFailure,
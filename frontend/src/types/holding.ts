@@ -29,9 +29,15 @@ export interface Trade {
   quantity: number;
   price: number;
   fee: number | null;
+  lotTradeId: number | null;
   createdAt: string;
 }
 
+export interface TradePage {
+  trades: Trade[];
+  nextCursor: string | null;
+}
+
 export interface CreateHoldingRequest {
   tickerSymbol: string;
   name: string;
@@ -45,4 +51,5 @@ export interface CreateTradeRequest {
   quantity: number;
   price: number;
   fee?: number;
+  lotTradeId?: number;
 }
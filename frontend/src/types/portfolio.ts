@@ -1,6 +1,8 @@
 import { Holding } from './holding';
 import { TargetAllocation } from './allocation';
 
+export type CostBasisMethod = 'FIFO' | 'LIFO' | 'HIFO' | 'SPECIFIC_ID';
+
 export interface Portfolio {
   id: number;
   name: string;
@@ -10,6 +12,7 @@ export interface Portfolio {
   driftThreshold: number;
   cashBalance: number;
   baseCurrency: string;
+  costBasisMethod: CostBasisMethod;
   createdAt: string;
   updatedAt: string;
 }
@@ -20,4 +23,5 @@ export interface CreatePortfolioRequest {
   driftThreshold?: number;
   cashBalance?: number;
   baseCurrency?: string;
+  costBasisMethod?: CostBasisMethod;
 }
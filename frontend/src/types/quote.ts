@@ -6,6 +6,7 @@ export interface QuoteData {
   regularMarketChangePercent: number;
   currency: string;
   exchangeName: string;
+  stale?: boolean;
 }
 
 export interface StockPriceMessage {
@@ -25,6 +25,7 @@ export interface TradeRecommendation {
   action: 'BUY' | 'SELL';
   shares: number;
   currentPrice: number;
+  stalePrice?: boolean;
   estimatedCost: number;
   currentWeight: number;
   targetWeight: number;
@@ -38,5 +39,6 @@ export interface RebalanceResponse {
   allocations: AllocationComparison[];
   trades: TradeRecommendation[];
   unallocatedCash?: number;
+  stalePrices?: boolean;
   calculatedAt: string;
 }
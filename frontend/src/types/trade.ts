@@ -1,2 +1,2 @@
-export type { Trade, CreateTradeRequest } from './holding';
+export type { Trade, TradePage, CreateTradeRequest } from './holding';
 export type TradeType = 'BUY' | 'SELL';
@@ -0,0 +1,76 @@
+package com.portfolio.it.steps;
+
+import com.portfolio.it.context.ScenarioContext;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.When;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ExportSteps {
+
+    private final ScenarioContext context;
+    private String format;
+
+    public ExportSteps(ScenarioContext context) {
+        this.context = context;
+    }
+
+    @When("I export the portfolio's {string} as {string}")
+    public void iExportThePortfolio(String records, String format) {
+        this.format = format;
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .queryParam("format", format)
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId() + "/export/" + records);
+
+        context.setLastResponse(response);
+    }
+
+    @And("the export has {int} rows")
+    public void theExportHasRows(int count) {
+        assertThat(rows().size(), is(count));
+    }
+
+    @And("the export header starts with {string}")
+    public void theExportHeaderStartsWith(String prefix) {
+        assertThat(lines().get(0), startsWith(prefix));
+    }
+
+    @And("the exported lot has {int} remaining shares")
+    public void theExportedLotHasRemainingShares(int shares) {
+        JsonPath lot = new JsonPath(rows().get(0));
+        assertThat(lot.getDouble("remainingQuantity"), is(closeTo(shares, 0.000001)));
+    }
+
+    @And("the exported holding is valued at its current quote")
+    public void theExportedHoldingIsValuedAtItsCurrentQuote() {
+        JsonPath holding = new JsonPath(rows().get(0));
+        assertThat(holding.getString("tickerSymbol"), is("AAPL"));
+        assertThat(holding.getDouble("currentPrice"), is(greaterThan(0.0)));
+        assertThat(holding.getDouble("marketValue"),
+                is(closeTo(10 * holding.getDouble("currentPrice"), 0.01)));
+        assertThat(holding.getDouble("unrealizedPnL"),
+                is(closeTo(holding.getDouble("marketValue") - holding.getDouble("totalCost"), 0.01)));
+    }
+
+    private List<String> lines() {
+        return Arrays.stream(context.getLastResponse().asString().split("\n"))
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+
+    /** Data rows, without the CSV header. */
+    private List<String> rows() {
+        List<String> lines = lines();
+        return "csv".equals(format) ? lines.subList(1, lines.size()) : lines;
+    }
+}
@@ -167,4 +167,16 @@ public class HoldingSteps {
         Number actual = (Number) holding.get("quantity");
         assertThat(actual.intValue(), is(quantity));
     }
+
+    @And("the holding realized gain is {double}")
+    public void theHoldingRealizedGainIs(double realizedPnL) {
+        List<Map<String, Object>> holdings = context.getLastResponse().jsonPath().getList("$");
+        Map<String, Object> holding = holdings.stream()
+                .filter(h -> ((Number) h.get("id")).longValue() == context.getHoldingId())
+                .findFirst()
+                .orElseThrow();
+
+        Number actual = (Number) holding.get("realizedPnL");
+        assertThat(actual.doubleValue(), is(closeTo(realizedPnL, 0.01)));
+    }
 }
@@ -204,6 +204,17 @@ public class PortfolioSteps {
         context.setLastResponse(response);
     }
 
+    @When("I list portfolio summaries")
+    public void iListPortfolioSummaries() {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/summary");
+
+        context.setLastResponse(response);
+    }
+
     // Assertion steps
 
     @And("the portfolio name is {string}")
@@ -238,4 +249,26 @@ public class PortfolioSteps {
         List<?> list = context.getLastResponse().jsonPath().getList("$");
         assertThat(list, is(not(empty())));
     }
+
+    @And("the holding summary has quantity {int} from {int} trades")
+    public void theHoldingSummaryHasQuantityFromTrades(int quantity, int trades) {
+        Map<String, Object> summary = holdingSummary();
+        assertThat(((Number) summary.get("quantity")).intValue(), is(quantity));
+        assertThat(((Number) summary.get("tradeCount")).intValue(), is(trades));
+    }
+
+    @And("the holding summary has total cost {double} and realized gain {double}")
+    public void theHoldingSummaryHasTotalCostAndRealizedPnL(double totalCost, double realizedPnL) {
+        Map<String, Object> summary = holdingSummary();
+        assertThat(((Number) summary.get("totalCost")).doubleValue(), is(closeTo(totalCost, 0.01)));
+        assertThat(((Number) summary.get("realizedPnL")).doubleValue(), is(closeTo(realizedPnL, 0.01)));
+    }
+
+    private Map<String, Object> holdingSummary() {
+        Map<String, Object> summary = context.getLastResponse().jsonPath()
+                .getMap("holdings.flatten().find { it.id == " + context.getHoldingId() + " }");
+        assertThat(summary, is(notNullValue()));
+        assertThat(summary, not(hasKey("trades")));
+        return summary;
+    }
 }
@@ -1,9 +1,11 @@
 package com.portfolio.it.steps;
 
 import com.portfolio.it.context.ScenarioContext;
+import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.When;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
 import java.util.List;
@@ -16,6 +18,7 @@ import static org.hamcrest.Matchers.*;
 public class RebalanceSteps {
 
     private final ScenarioContext context;
+    private Number notedTotalValue;
 
     public RebalanceSteps(ScenarioContext context) {
         this.context = context;
@@ -32,6 +35,51 @@ public class RebalanceSteps {
         context.setLastResponse(response);
     }
 
+    @When("I request a full rebalance using the {string} strategy")
+    public void iRequestAFullRebalanceUsingTheStrategy(String strategy) {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .queryParam("strategy", strategy)
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId() + "/rebalance");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I request a rebalance of all portfolios")
+    public void iRequestARebalanceOfAllPortfolios() {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/rebalance");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I request the drift status of all portfolios")
+    public void iRequestTheDriftStatusOfAllPortfolios() {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/drift");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I request the rebalance cache statistics")
+    public void iRequestTheRebalanceCacheStatistics() {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/rebalance/cache-stats");
+
+        context.setLastResponse(response);
+    }
+
     @When("I request a cash rebalance with amount {double}")
     public void iRequestACashRebalanceWithAmount(double amount) {
         Response response = given()
@@ -45,6 +93,51 @@ public class RebalanceSteps {
         context.setLastResponse(response);
     }
 
+    @When("I simulate the following price shocks:")
+    public void iSimulateTheFollowingPriceShocks(DataTable dataTable) {
+        List<Map<String, Object>> scenarios = dataTable.asMaps().stream()
+                .map(row -> Map.<String, Object>of(
+                        "name", row.get("name"),
+                        "assetClassShocks", Map.of(row.get("assetClass"), Double.parseDouble(row.get("shockPercentage")))))
+                .toList();
+
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .contentType(ContentType.JSON)
+                .body(Map.of("scenarios", scenarios))
+                .when()
+                .post("/api/portfolios/" + context.getPortfolioId() + "/rebalance/what-if");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I request a backtest over range {string} with thresholds {string}")
+    public void iRequestABacktestOverRangeWithThresholds(String range, String thresholds) {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .queryParam("range", range)
+                .queryParam("thresholds", thresholds)
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId() + "/backtest");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I request a drift simulation with {int} paths over {int} days")
+    public void iRequestADriftSimulationWithPathsOverDays(int paths, int horizonDays) {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .queryParam("paths", paths)
+                .queryParam("horizonDays", horizonDays)
+                .when()
+                .get("/api/portfolios/drift/simulation");
+
+        context.setLastResponse(response);
+    }
+
     // Assertion steps
 
     @And("the rebalance response contains portfolioId")
@@ -65,4 +158,50 @@ public class RebalanceSteps {
         String calculatedAt = context.getLastResponse().path("calculatedAt");
         assertThat(calculatedAt, is(notNullValue()));
     }
+
+    @And("the rebalance only sells {string}")
+    public void theRebalanceOnlySells(String ticker) {
+        List<String> sold = context.getLastResponse().jsonPath()
+                .getList("trades.findAll { it.action == 'SELL' }.tickerSymbol");
+        assertThat(sold, contains(ticker));
+    }
+
+    @And("the response list contains the portfolio")
+    public void theResponseListContainsThePortfolio() {
+        List<Long> portfolioIds = context.getLastResponse().jsonPath().getList("portfolioId", Long.class);
+        assertThat(portfolioIds, hasItem(context.getPortfolioId()));
+    }
+
+    @And("I note the rebalance total portfolio value")
+    public void iNoteTheRebalanceTotalPortfolioValue() {
+        assertThat(context.getLastResponse().statusCode(), is(200));
+        notedTotalValue = context.getLastResponse().path("totalPortfolioValue");
+    }
+
+    @And("the rebalance total portfolio value has changed")
+    public void theRebalanceTotalPortfolioValueHasChanged() {
+        Number totalValue = context.getLastResponse().path("totalPortfolioValue");
+        assertThat(totalValue.doubleValue(), is(not(closeTo(notedTotalValue.doubleValue(), 0.001))));
+    }
+
+    @And("the what-if response contains {int} scenarios")
+    public void theWhatIfResponseContainsScenarios(int count) {
+        List<?> scenarios = context.getLastResponse().jsonPath().getList("scenarios");
+        assertThat(scenarios, hasSize(count));
+    }
+
+    @And("the backtest response contains {int} threshold results")
+    public void theBacktestResponseContainsThresholdResults(int count) {
+        List<?> results = context.getLastResponse().jsonPath().getList("results");
+        assertThat(results, hasSize(count));
+    }
+
+    @And("the drift simulation stream contains the portfolio")
+    public void theDriftSimulationStreamContainsThePortfolio() {
+        List<Long> portfolioIds = context.getLastResponse().asString().lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> JsonPath.from(line).getLong("portfolioId"))
+                .toList();
+        assertThat(portfolioIds, hasItem(context.getPortfolioId()));
+    }
 }
@@ -0,0 +1,78 @@
+package com.portfolio.it.steps;
+
+import com.portfolio.it.context.ScenarioContext;
+import io.cucumber.java.en.And;
+import io.cucumber.java.en.When;
+import io.restassured.response.Response;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ReportSteps {
+
+    private final ScenarioContext context;
+
+    public ReportSteps(ScenarioContext context) {
+        this.context = context;
+    }
+
+    @When("I request the realized gains report for this year as {string}")
+    public void iRequestTheRealizedGainsReport(String format) {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .queryParam("year", LocalDate.now().getYear())
+                .queryParam("format", format)
+                .when()
+                .get("/api/reports/realized-gains");
+
+        context.setLastResponse(response);
+    }
+
+    @And("the report has {int} rows for the holding")
+    public void theReportHasRowsForTheHolding(int count) {
+        assertThat(rowsForHolding().size(), is(count));
+    }
+
+    @And("the report rows for the holding realize a gain of {double}")
+    public void theReportRowsRealizeAGainOf(double gain) {
+        double total = 0;
+        for (String row : rowsForHolding()) {
+            String[] columns = row.split(",");
+            total += Double.parseDouble(columns[11]);
+        }
+        assertThat(total, is(closeTo(gain, 0.01)));
+    }
+
+    @And("the report rows for the holding are flagged as wash sales")
+    public void theReportRowsAreFlaggedAsWashSales() {
+        List<String> rows = rowsForHolding();
+        assertThat(rows, is(not(empty())));
+        for (String row : rows) {
+            assertThat(row.split(",")[13], is("true"));
+        }
+    }
+
+    @And("the report rows for the holding are not flagged as wash sales")
+    public void theReportRowsAreNotFlaggedAsWashSales() {
+        List<String> rows = rowsForHolding();
+        assertThat(rows, is(not(empty())));
+        for (String row : rows) {
+            assertThat(row.split(",")[13], is("false"));
+        }
+    }
+
+    /** CSV rows of the report for the current holding, without the header. */
+    private List<String> rowsForHolding() {
+        String holdingId = String.valueOf(context.getHoldingId());
+        return Arrays.stream(context.getLastResponse().asString().split("\n"))
+                .skip(1)
+                .filter(row -> row.split(",")[2].equals(holdingId))
+                .toList();
+    }
+}
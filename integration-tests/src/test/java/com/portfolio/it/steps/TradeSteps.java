@@ -5,6 +5,7 @@ import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.When;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
 import java.time.LocalDate;
@@ -19,6 +20,7 @@ import static org.hamcrest.Matchers.*;
 public class TradeSteps {
 
     private final ScenarioContext context;
+    private Integer pageSize;
 
     public TradeSteps(ScenarioContext context) {
         this.context = context;
@@ -59,6 +61,33 @@ public class TradeSteps {
         context.setHoldingId(holdingResp.jsonPath().getLong("id"));
     }
 
+    @And("the portfolio uses the {string} cost basis method")
+    public void thePortfolioUsesTheCostBasisMethod(String method) {
+        // The update replaces name and description, so send back the current ones
+        Response current = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId());
+        assertThat(current.statusCode(), is(200));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", current.path("name"));
+        body.put("description", current.path("description"));
+        body.put("costBasisMethod", method);
+
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .put("/api/portfolios/" + context.getPortfolioId());
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.path("costBasisMethod"), is(equalTo(method)));
+    }
+
     @When("I create a BUY trade for {int} shares at price {double}")
     public void iCreateABuyTrade(int quantity, double price) {
         createTrade("BUY", quantity, price, null);
@@ -69,14 +98,23 @@ public class TradeSteps {
         createTrade("BUY", quantity, price, fee);
     }
 
+    @When("I create a BUY trade for {int} shares at price {double} dated {int} days ago")
+    public void iCreateABackDatedBuyTrade(int quantity, double price, int daysAgo) {
+        createTrade("BUY", quantity, price, null, LocalDate.now().minusDays(daysAgo));
+    }
+
     @When("I create a SELL trade for {int} shares at price {double}")
     public void iCreateASellTrade(int quantity, double price) {
         createTrade("SELL", quantity, price, null);
     }
 
     private void createTrade(String type, int quantity, double price, Double fee) {
+        createTrade(type, quantity, price, fee, LocalDate.now());
+    }
+
+    private void createTrade(String type, int quantity, double price, Double fee, LocalDate date) {
         Map<String, Object> body = new HashMap<>();
-        body.put("date", LocalDate.now().toString());
+        body.put("date", date.toString());
         body.put("type", type);
         body.put("quantity", quantity);
         body.put("price", price);
@@ -110,6 +148,50 @@ public class TradeSteps {
         context.setLastResponse(response);
     }
 
+    @When("I list trades for the holding with page size {int}")
+    public void iListTradesForTheHoldingWithPageSize(int size) {
+        pageSize = size;
+        getTradePage(null);
+    }
+
+    @When("I request the next page of trades")
+    public void iRequestTheNextPageOfTrades() {
+        String cursor = context.getLastResponse().path("nextCursor");
+        assertThat(cursor, is(notNullValue()));
+        getTradePage(cursor);
+    }
+
+    private void getTradePage(String cursor) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("size", pageSize);
+        if (cursor != null) {
+            params.put("cursor", cursor);
+        }
+
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .queryParams(params)
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId() + "/holdings/" + context.getHoldingId() + "/trades/page");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I import trades as {string}:")
+    public void iImportTrades(String format, String body) {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .contentType(ContentType.TEXT)
+                .queryParam("format", format)
+                .body(body)
+                .when()
+                .post("/api/portfolios/" + context.getPortfolioId() + "/trades/import");
+
+        context.setLastResponse(response);
+    }
+
     @When("I update the trade to {int} shares at price {double}")
     public void iUpdateTheTrade(int quantity, double price) {
         Map<String, Object> body = new HashMap<>();
@@ -140,6 +222,28 @@ public class TradeSteps {
         context.setLastResponse(response);
     }
 
+    @When("I compare cost basis methods for the holding")
+    public void iCompareCostBasisMethodsForTheHolding() {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId() + "/holdings/" + context.getHoldingId() + "/cost-basis");
+
+        context.setLastResponse(response);
+    }
+
+    @When("I compare cost basis methods for the portfolio")
+    public void iCompareCostBasisMethodsForThePortfolio() {
+        Response response = given()
+                .baseUri(context.getBackendBaseUrl())
+                .header("Authorization", "Bearer " + context.getAuthToken())
+                .when()
+                .get("/api/portfolios/" + context.getPortfolioId() + "/holdings/cost-basis");
+
+        context.setLastResponse(response);
+    }
+
     // Assertion steps
 
     @And("the trade type is {string}")
@@ -170,4 +274,47 @@ public class TradeSteps {
         List<?> list = context.getLastResponse().jsonPath().getList("$");
         assertThat(list.size(), is(greaterThanOrEqualTo(count)));
     }
+
+    @And("the cost basis comparison has {int} methods")
+    public void theCostBasisComparisonHasMethods(int count) {
+        List<?> list = context.getLastResponse().jsonPath().getList("$");
+        assertThat(list.size(), is(count));
+    }
+
+    @And("the {string} cost basis method leaves {int} lots")
+    public void theCostBasisMethodLeavesLots(String method, int count) {
+        List<?> lots = context.getLastResponse().jsonPath().getList("find { it.method == '" + method + "' }.lots");
+        assertThat(lots.size(), is(count));
+    }
+
+    @And("the {string} cost basis method realizes {double} across the portfolio")
+    public void theCostBasisMethodRealizesAcrossThePortfolio(String method, double gain) {
+        Number actual = context.getLastResponse().jsonPath().get("find { it.method == '" + method + "' }.realizedPnL");
+        assertThat(actual.doubleValue(), is(closeTo(gain, 0.01)));
+    }
+
+    @And("the trade page has {int} trades")
+    public void theTradePageHasTrades(int count) {
+        List<?> trades = context.getLastResponse().jsonPath().getList("trades");
+        assertThat(trades.size(), is(count));
+    }
+
+    @And("the trade page has a next page")
+    public void theTradePageHasANextPage() {
+        assertThat(context.getLastResponse().path("nextCursor"), is(notNullValue()));
+    }
+
+    @And("the trade page is the last page")
+    public void theTradePageIsTheLastPage() {
+        assertThat(context.getLastResponse().path("nextCursor"), is(nullValue()));
+    }
+
+    @And("the import completes with {int} trades imported and {int} rejected")
+    public void theImportCompletes(int imported, int rejected) {
+        String[] lines = context.getLastResponse().asString().trim().split("\n");
+        JsonPath last = new JsonPath(lines[lines.length - 1]);
+        assertThat(last.getString("type"), is("complete"));
+        assertThat(last.getInt("imported"), is(imported));
+        assertThat(last.getInt("rejected"), is(rejected));
+    }
 }
@@ -0,0 +1,37 @@
+Feature: Portfolio Export
+  As an authenticated user I want to export a portfolio's records
+
+  @authenticated
+  Scenario: Export trades as CSV in import format
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a SELL trade for 4 shares at price 120.00
+    When I export the portfolio's "trades" as "csv"
+    Then the response status is 200
+    And the export has 2 rows
+    And the export header starts with "ticker_symbol,date,type,quantity,price"
+
+  @authenticated
+  Scenario: Export open lots as NDJSON
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a SELL trade for 4 shares at price 120.00
+    When I export the portfolio's "lots" as "ndjson"
+    Then the response status is 200
+    And the export has 1 rows
+    And the exported lot has 6 remaining shares
+
+  @authenticated
+  Scenario: Export holdings valued at current quotes
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    When I export the portfolio's "holdings" as "ndjson"
+    Then the response status is 200
+    And the export has 1 rows
+    And the exported holding is valued at its current quote
+
+  @authenticated
+  Scenario: Export of unknown records is rejected
+    Given I have a portfolio with a holding
+    When I export the portfolio's "valuations" as "csv"
+    Then the response status is 400
@@ -75,3 +75,14 @@ Feature: Portfolio Management
   Scenario: Get non-existent portfolio returns 404
     When I get portfolio with ID 999999
     Then the response status is 404
+
+  @authenticated
+  Scenario: Portfolio summaries aggregate holdings without trades
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a BUY trade for 5 shares at price 110.00
+    And I create a SELL trade for 8 shares at price 120.00
+    When I list portfolio summaries
+    Then the response status is 200
+    And the holding summary has quantity 7 from 3 trades
+    And the holding summary has total cost 700.00 and realized gain 110.00
@@ -17,6 +17,48 @@ Feature: Portfolio Rebalancing
     And the rebalance response contains allocations
     And the rebalance response contains calculatedAt
 
+  @authenticated
+  Scenario Outline: Full rebalance with a trade generation strategy
+    Given I have a portfolio named "Strategy Test" with cashBalance 10000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 60               |
+      | CASH        | 40               |
+    When I request a full rebalance using the "<strategy>" strategy
+    Then the response status is 200
+    And the rebalance response contains portfolioId
+    And the rebalance response contains allocations
+
+    Examples:
+      | strategy         |
+      | proportional     |
+      | greedy           |
+      | branch-and-bound |
+      | tax-aware        |
+
+  @authenticated
+  Scenario: Tax-aware rebalance sells the holding with an embedded loss first
+    Given I have a portfolio named "Tax-Aware Test" with cashBalance 5000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 40 shares at price 10000.00
+    And I create a holding with ticker "MSFT" name "Microsoft" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 30 shares at price 1.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 60               |
+      | CASH        | 40               |
+    When I request a full rebalance using the "tax-aware" strategy
+    Then the response status is 200
+    And the rebalance only sells "AAPL"
+
+  @authenticated
+  Scenario: Full rebalance with an unknown strategy
+    Given I have a portfolio named "Unknown Strategy Test" with cashBalance 1000.00
+    When I request a full rebalance using the "random" strategy
+    Then the response status is 400
+
   @authenticated
   Scenario: Cash rebalance with additional amount
     Given I have a portfolio named "Cash Rebalance Test" with cashBalance 5000.00
@@ -30,3 +72,139 @@ Feature: Portfolio Rebalancing
     Then the response status is 200
     And the rebalance response contains portfolioId
     And the rebalance response contains allocations
+
+  @authenticated
+  Scenario: Rebalance reflects trades imported after it was cached
+    Given I have a portfolio named "Import Rebalance Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 80               |
+      | CASH        | 20               |
+    And I request a full rebalance
+    And I note the rebalance total portfolio value
+    When I import trades as "csv":
+      """
+      ticker_symbol,date,type,quantity,price,fee
+      AAPL,2024-01-02,BUY,10,100.00,
+      """
+    Then the import completes with 1 trades imported and 0 rejected
+    When I request a full rebalance
+    Then the response status is 200
+    And the rebalance total portfolio value has changed
+
+  @authenticated
+  Scenario: Bulk rebalance of all portfolios
+    Given I have a portfolio named "Bulk Rebalance Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 80               |
+      | CASH        | 20               |
+    When I request a rebalance of all portfolios
+    Then the response status is 200
+    And the response list contains the portfolio
+
+  @authenticated
+  Scenario: Drift status of all portfolios
+    Given I have a portfolio named "Drift Monitor Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 80               |
+      | CASH        | 20               |
+    When I request the drift status of all portfolios
+    Then the response status is 200
+    And the response list contains the portfolio
+
+  @authenticated
+  Scenario: Rebalance cache statistics require the admin role
+    When I request the rebalance cache statistics
+    Then the response status is 403
+
+  @authenticated
+  Scenario: What-if price shock scenarios
+    Given I have a portfolio named "What-If Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 60               |
+      | CASH        | 40               |
+    When I simulate the following price shocks:
+      | name         | assetClass | shockPercentage |
+      | equity crash | EQUITY     | -20             |
+      | equity rally | EQUITY     | 10              |
+    Then the response status is 200
+    And the rebalance response contains portfolioId
+    And the what-if response contains 2 scenarios
+
+  @authenticated
+  Scenario: What-if price shocks on a quote with many decimals
+    # Currency pairs are quoted with the full precision of a double, such as 1.0845999717712402
+    Given I have a portfolio named "What-If Precision Test" with cashBalance 1000.00
+    And I create a holding with ticker "EURUSD=X" name "Euro" assetClass "CASH" and currency "USD"
+    And I create a BUY trade for 1000 shares at price 1.08
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 50               |
+      | CASH        | 50               |
+    When I simulate the following price shocks:
+      | name         | assetClass | shockPercentage |
+      | euro slide   | CASH       | -5              |
+    Then the response status is 200
+    And the rebalance response contains portfolioId
+    And the what-if response contains 1 scenarios
+
+  @authenticated
+  Scenario: What-if price shock below -100%
+    Given I have a portfolio named "What-If Invalid Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 100              |
+    When I simulate the following price shocks:
+      | name         | assetClass | shockPercentage |
+      | impossible   | EQUITY     | -150            |
+    Then the response status is 400
+
+  @authenticated
+  Scenario: Backtest a sweep of drift thresholds
+    Given I have a portfolio named "Backtest Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 80               |
+      | CASH        | 20               |
+    When I request a backtest over range "3m" with thresholds "2,5"
+    Then the response status is 200
+    And the rebalance response contains portfolioId
+    And the backtest response contains 2 threshold results
+
+  @authenticated
+  Scenario: Backtest with an unsupported range
+    Given I have a portfolio named "Backtest Range Test" with cashBalance 1000.00
+    When I request a backtest over range "10y" with thresholds "5"
+    Then the response status is 400
+
+  @authenticated
+  Scenario: Monte Carlo drift simulation of all portfolios
+    Given I have a portfolio named "Drift Simulation Test" with cashBalance 1000.00
+    And I create a holding with ticker "AAPL" name "Apple Inc" assetClass "EQUITY" and currency "USD"
+    And I create a BUY trade for 10 shares at price 150.00
+    And I set the following target allocations:
+      | assetClass  | targetPercentage |
+      | EQUITY      | 80               |
+      | CASH        | 20               |
+    When I request a drift simulation with 1000 paths over 90 days
+    Then the response status is 200
+    And the drift simulation stream contains the portfolio
+
+  @authenticated
+  Scenario: Monte Carlo drift simulation with too many paths
+    When I request a drift simulation with 5000000 paths over 90 days
+    Then the response status is 400
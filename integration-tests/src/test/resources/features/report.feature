@@ -0,0 +1,42 @@
+Feature: Reports
+  As an authenticated user I want to export account-wide reports
+
+  @authenticated
+  Scenario: Realized gains report lists one row per lot sold
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a BUY trade for 5 shares at price 110.00
+    And I create a SELL trade for 8 shares at price 120.00
+    When I request the realized gains report for this year as "csv"
+    Then the response status is 200
+    And the report has 2 rows for the holding
+    And the report rows for the holding realize a gain of 110.00
+
+  @authenticated
+  Scenario: Loss sale with a repurchase within 30 days is a wash sale
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00 dated 40 days ago
+    And I create a SELL trade for 5 shares at price 80.00
+    And I create a BUY trade for 5 shares at price 85.00
+    When I request the realized gains report for this year as "csv"
+    Then the response status is 200
+    And the report has 1 rows for the holding
+    And the report rows for the holding realize a gain of -100.00
+    And the report rows for the holding are flagged as wash sales
+
+  @authenticated
+  Scenario: Lots sold together at a loss do not replace each other
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00 dated 9 days ago
+    And I create a BUY trade for 10 shares at price 100.00 dated 5 days ago
+    And I create a SELL trade for 20 shares at price 80.00
+    When I request the realized gains report for this year as "csv"
+    Then the response status is 200
+    And the report has 2 rows for the holding
+    And the report rows for the holding realize a gain of -400.00
+    And the report rows for the holding are not flagged as wash sales
+
+  @authenticated
+  Scenario: Realized gains report rejects an unknown format
+    When I request the realized gains report for this year as "xlsx"
+    Then the response status is 400
@@ -58,3 +58,163 @@ Feature: Trade Management
     When I create a SELL trade for 8 shares at price 120.00
     And I get the holding details
     Then the holding quantity is 7
+
+  @authenticated
+  Scenario: Back-dated BUY is consumed by a later SELL
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a SELL trade for 5 shares at price 120.00
+    When I create a BUY trade for 5 shares at price 150.00 dated 3 days ago
+    And I get the holding details
+    Then the holding has 1 lots
+    And the holding quantity is 10
+
+  @authenticated
+  Scenario: Updating a SELL trade to a BUY restores the lots
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a BUY trade for 5 shares at price 110.00
+    And I create a SELL trade for 8 shares at price 120.00
+    When I update the trade to 8 shares at price 120.00
+    And I get the holding details
+    Then the holding has 3 lots
+    And the holding quantity is 23
+
+  @authenticated
+  Scenario: Deleting a SELL trade restores the lots
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a SELL trade for 4 shares at price 120.00
+    When I delete the trade
+    And I get the holding details
+    Then the holding has 1 lots
+    And the holding quantity is 10
+
+  @authenticated
+  Scenario: FIFO portfolio sells the oldest lot first
+    Given I have a portfolio with a holding
+    And the portfolio uses the "FIFO" cost basis method
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a BUY trade for 5 shares at price 110.00
+    When I create a SELL trade for 8 shares at price 120.00
+    And I get the holding details
+    Then the holding has 2 lots
+    And the holding quantity is 7
+
+  @authenticated
+  Scenario: Compare cost basis methods side by side
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a BUY trade for 5 shares at price 110.00
+    And I create a SELL trade for 8 shares at price 120.00
+    When I compare cost basis methods for the holding
+    Then the response status is 200
+    And the cost basis comparison has 4 methods
+    And the "FIFO" cost basis method leaves 2 lots
+    And the "HIFO" cost basis method leaves 1 lots
+
+  @authenticated
+  Scenario: Compare cost basis methods across the portfolio
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a BUY trade for 5 shares at price 110.00
+    And I create a SELL trade for 8 shares at price 120.00
+    When I compare cost basis methods for the portfolio
+    Then the response status is 200
+    And the cost basis comparison has 4 methods
+    And the "FIFO" cost basis method realizes 160.00 across the portfolio
+    And the "HIFO" cost basis method realizes 110.00 across the portfolio
+
+  @authenticated
+  Scenario: Cost basis of a holding from another portfolio is not found
+    Given I have a portfolio with a holding
+    And I have a portfolio named "Other Portfolio"
+    When I compare cost basis methods for the holding
+    Then the response status is 404
+
+  @authenticated
+  Scenario: Page through trades newest first
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00 dated 2 days ago
+    And I create a BUY trade for 5 shares at price 110.00 dated 1 days ago
+    And I create a SELL trade for 3 shares at price 120.00
+    When I list trades for the holding with page size 2
+    Then the response status is 200
+    And the trade page has 2 trades
+    And the trade page has a next page
+    When I request the next page of trades
+    Then the response status is 200
+    And the trade page has 1 trades
+    And the trade page is the last page
+
+  @authenticated
+  Scenario: Trades of a holding from another portfolio are not found
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I have a portfolio named "Other Portfolio"
+    When I list trades for the holding with page size 2
+    Then the response status is 404
+
+  @authenticated
+  Scenario: Trade page size out of range is rejected
+    Given I have a portfolio with a holding
+    When I list trades for the holding with page size 0
+    Then the response status is 400
+
+  @authenticated
+  Scenario: SELL trades keep the running realized gain
+    Given I have a portfolio with a holding
+    And I create a BUY trade for 10 shares at price 100.00
+    And I create a SELL trade for 4 shares at price 120.00
+    When I get the holding details
+    Then the holding quantity is 6
+    And the holding realized gain is 80.00
+    When I delete the trade
+    And I get the holding details
+    Then the holding quantity is 10
+    And the holding realized gain is 0.00
+
+  @authenticated
+  Scenario: Import trades from CSV
+    Given I have a portfolio with a holding
+    When I import trades as "csv":
+      """
+      ticker_symbol,date,type,quantity,price,fee
+      AAPL,2024-01-02,BUY,10,100.00,
+      MSFT,2024-01-03,BUY,5,100.00,
+      aapl,2024-02-01,SELL,4,120.00,
+      """
+    Then the response status is 200
+    And the import completes with 2 trades imported and 1 rejected
+    When I get the holding details
+    Then the holding quantity is 6
+    And the holding realized gain is 80.00
+
+  @authenticated
+  Scenario: Import trades from NDJSON
+    Given I have a portfolio with a holding
+    When I import trades as "ndjson":
+      """
+      {"tickerSymbol": "AAPL", "date": "2024-01-02", "type": "BUY", "quantity": 10, "price": 100.00}
+      {"tickerSymbol": "AAPL", "date": "2024-01-03", "type": "BUY", "quantity": -1, "price": 100.00}
+      """
+    Then the response status is 200
+    And the import completes with 1 trades imported and 1 rejected
+
+  @authenticated
+  Scenario: Import exported specific-ID sales into another portfolio
+    Given I have a portfolio with a holding
+    And the portfolio uses the "SPECIFIC_ID" cost basis method
+    When I import trades as "csv":
+      """
+      ticker_symbol,date,type,quantity,price,fee,lot_trade_id,trade_id
+      AAPL,2024-01-02,BUY,10,100.00,,,901
+      AAPL,2024-01-03,BUY,10,150.00,,,902
+      AAPL,2024-02-01,SELL,4,120.00,,902,903
+      AAPL,2024-02-02,SELL,1,120.00,,904,905
+      """
+    Then the response status is 200
+    And the import completes with 3 trades imported and 1 rejected
+    When I get the holding details
+    Then the holding quantity is 16
+    And the holding realized gain is -120.00